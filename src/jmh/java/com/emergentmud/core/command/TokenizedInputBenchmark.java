@@ -0,0 +1,87 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.command;
+
+import com.emergentmud.core.service.InputService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenizedInputBenchmark {
+    @Param({ "look", "say I love EmergentMUD!", "emoteedit set wink 4 %self% winks at you suggestively." })
+    private String input;
+
+    private InputService inputService = new InputService();
+
+    @Benchmark
+    public void splitTokens(Blackhole blackhole) {
+        String[] tokens = input.split(" ");
+        String cmd = tokens[0];
+        String[] args = new String[tokens.length - 1];
+        System.arraycopy(tokens, 1, args, 0, tokens.length - 1);
+        String raw = input.indexOf(' ') == -1 ? "" : input.substring(input.indexOf(' ') + 1);
+
+        blackhole.consume(cmd);
+        blackhole.consume(args);
+        blackhole.consume(raw);
+    }
+
+    @Benchmark
+    public void tokenizedInput(Blackhole blackhole) {
+        TokenizedInput tokenizedInput = new TokenizedInput(input);
+
+        blackhole.consume(tokenizedInput.getCommand());
+        blackhole.consume(tokenizedInput.getTokens());
+        blackhole.consume(tokenizedInput.getRaw());
+    }
+
+    @Benchmark
+    public String regexChopWords() {
+        String chopped = input;
+
+        for (int i = 0; i < 3; i++) {
+            chopped = chopped.replaceAll("^.*?\\s+", "");
+        }
+
+        return chopped;
+    }
+
+    @Benchmark
+    public String chopWords() {
+        return inputService.chopWords(input, 3);
+    }
+}
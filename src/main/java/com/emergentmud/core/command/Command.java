@@ -27,6 +27,11 @@ import java.util.List;
 
 public interface Command {
     GameOutput execute(GameOutput output, Entity entity, String command, String[] tokens, String raw);
+
+    default GameOutput execute(GameOutput output, Entity entity, TokenizedInput input) {
+        return execute(output, entity, input.getCommand(), input.getTokens(), input.getRaw());
+    }
+
     GameOutput usage(GameOutput output, String command);
     String getDescription();
     List<Parameter> getParameters();
@@ -0,0 +1,41 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.command;
+
+import com.emergentmud.core.model.CommandMetadata;
+
+public class CommandHandle {
+    private CommandMetadata metadata;
+    private Command command;
+
+    public CommandHandle(CommandMetadata metadata, Command command) {
+        this.metadata = metadata;
+        this.command = command;
+    }
+
+    public CommandMetadata getMetadata() {
+        return metadata;
+    }
+
+    public Command getCommand() {
+        return command;
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.command;
+
+import com.emergentmud.core.model.CommandMetadata;
+import org.springframework.beans.BeansException;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class CommandRegistry {
+    private ApplicationContext applicationContext;
+    private Map<String, Command> commands = new ConcurrentHashMap<>();
+
+    @Inject
+    public CommandRegistry(ApplicationContext applicationContext) {
+        this.applicationContext = applicationContext;
+    }
+
+    public Command getCommand(String beanName) {
+        Command command = commands.get(beanName);
+
+        if (command == null) {
+            command = (Command)applicationContext.getBean(beanName);
+            commands.put(beanName, command);
+        }
+
+        return command;
+    }
+
+    public Optional<CommandHandle> resolve(CommandMetadata metadata) {
+        try {
+            return Optional.of(new CommandHandle(metadata, getCommand(metadata.getBeanName())));
+        } catch (BeansException | ClassCastException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.emergentmud.core.command;
+
+import com.emergentmud.core.model.Entity;
+import com.emergentmud.core.model.stomp.GameOutput;
+
+public class Continuation {
+    private Command command;
+    private String name;
+    private String[] tokens;
+
+    public Continuation(Command command, String name, String... tokens) {
+        this.command = command;
+        this.name = name;
+        this.tokens = tokens;
+    }
+
+    public Command getCommand() {
+        return command;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String[] getTokens() {
+        return tokens;
+    }
+
+    public GameOutput execute(GameOutput output, Entity entity) {
+        return command.execute(output, entity, name, tokens, String.join(" ", tokens));
+    }
+}
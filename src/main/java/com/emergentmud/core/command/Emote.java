@@ -23,29 +23,33 @@ package com.emergentmud.core.command;
 import com.emergentmud.core.model.EmoteMetadata;
 import com.emergentmud.core.model.Entity;
 import com.emergentmud.core.model.stomp.GameOutput;
-import com.emergentmud.core.repository.EntityRepository;
+import com.emergentmud.core.service.EmoteService;
 import com.emergentmud.core.service.EntityService;
+import com.emergentmud.core.service.PresenceService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
-import org.springframework.util.StringUtils;
 
 import javax.inject.Inject;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Component
 public class Emote {
     private static final Logger LOGGER = LoggerFactory.getLogger(Emote.class);
 
-    private EntityRepository entityRepository;
+    private PresenceService presenceService;
     private EntityService entityService;
+    private EmoteService emoteService;
 
     @Inject
-    public Emote(EntityRepository entityRepository,
-                 EntityService entityService) {
-        this.entityRepository = entityRepository;
+    public Emote(PresenceService presenceService,
+                 EntityService entityService,
+                 EmoteService emoteService) {
+        this.presenceService = presenceService;
         this.entityService = entityService;
+        this.emoteService = emoteService;
     }
 
     public void execute(GameOutput output, EmoteMetadata metadata, Entity entity, String[] args) {
@@ -60,8 +64,10 @@ public class Emote {
             LOGGER.info("Emote '{}' is missing some fields and cannot be used.", metadata.getName());
             output.append("Huh?");
         } else {
+            List<Entity> occupants = presenceService.getOccupants(entity.getRoom());
+
             if (args.length > 0) {
-                Optional<Entity> optionalTarget = entityRepository.findByRoom(entity.getRoom())
+                Optional<Entity> optionalTarget = occupants
                         .stream()
                         .filter(e -> ("self".equals(args[0]) && e.getName().equals(entity.getName()))
                                 || ("me".equals(args[0]) && e.getName().equals(entity.getName()))
@@ -81,10 +87,7 @@ public class Emote {
                 output.append(replaceVariables(metadata.getToSelfUntargeted(), entity, null));
             } else if (entity.equals(target)) {
                 if (metadata.getToSelfAsTarget() != null && metadata.getToRoomTargetingSelf() != null) {
-                    List<Entity> others = entityRepository.findByRoom(entity.getRoom());
-
-                    others.remove(entity);
-                    others.remove(target);
+                    List<Entity> others = findOthers(occupants, entity, target);
 
                     entityService.sendMessageToListeners(others, new GameOutput(replaceVariables(metadata.getToRoomTargetingSelf(), entity, target)));
                     output.append(replaceVariables(metadata.getToSelfAsTarget(), entity, target));
@@ -92,10 +95,7 @@ public class Emote {
                     output.append("Sorry, this emote doesn't support targeting yourself.");
                 }
             } else {
-                List<Entity> others = entityRepository.findByRoom(entity.getRoom());
-
-                others.remove(entity);
-                others.remove(target);
+                List<Entity> others = findOthers(occupants, entity, target);
 
                 entityService.sendMessageToEntity(target, new GameOutput(replaceVariables(metadata.getToTarget(), entity, target)));
                 entityService.sendMessageToListeners(others, new GameOutput(replaceVariables(metadata.getToRoomWithTarget(), entity, target)));
@@ -104,27 +104,18 @@ public class Emote {
         }
     }
 
+    private List<Entity> findOthers(List<Entity> occupants, Entity entity, Entity target) {
+        return occupants
+                .stream()
+                .filter(e -> !e.equals(entity) && !e.equals(target))
+                .collect(Collectors.toList());
+    }
+
     public String replaceVariables(String message, Entity self, Entity target) {
         if (message == null) {
             return null;
         }
 
-        if (self.equals(target)) {
-            message = message.replace("%self%", self.getName());
-            message = message.replace("%target%", target.getName());
-        } else {
-            message = message.replace("%self%", self.getName());
-            message = message.replace("%target%", (target == null ? "NULL" : target.getName()));
-        }
-
-        message = message.replace("%him%", "him");
-        message = message.replace("%selfpos%", self.getName() + "'s");
-        message = message.replace("%targetpos%", (target == null ? "NULL" : target.getName()) + "'s");
-        message = message.replace("%his%", "his");
-        message = message.replace("%he%", "he");
-        message = message.replace("%himself%", "himself");
-        message = message.replace("%hispos%", "his");
-
-        return StringUtils.capitalize(message);
+        return emoteService.getTemplate(message).render(self, target);
     }
 }
@@ -0,0 +1,126 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.command;
+
+import com.emergentmud.core.model.Entity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class EmoteTemplate {
+    private static final int NAME_ESTIMATE = 16;
+
+    private final Object[] segments;
+    private final int estimatedLength;
+
+    private EmoteTemplate(Object[] segments, int estimatedLength) {
+        this.segments = segments;
+        this.estimatedLength = estimatedLength;
+    }
+
+    public static EmoteTemplate compile(String message) {
+        List<Object> segments = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int literalLength = 0;
+        int i = 0;
+
+        while (i < message.length()) {
+            Variable variable = message.charAt(i) == '%' ? Variable.match(message, i) : null;
+
+            if (variable == null) {
+                literal.append(message.charAt(i));
+                i++;
+                continue;
+            }
+
+            if (literal.length() > 0) {
+                segments.add(literal.toString());
+                literalLength += literal.length();
+                literal.setLength(0);
+            }
+
+            segments.add(variable);
+            i += variable.token.length();
+        }
+
+        if (literal.length() > 0) {
+            segments.add(literal.toString());
+            literalLength += literal.length();
+        }
+
+        return new EmoteTemplate(segments.toArray(), literalLength + (segments.size() * NAME_ESTIMATE));
+    }
+
+    public String render(Entity self, Entity target) {
+        StringBuilder buffer = new StringBuilder(estimatedLength);
+        String targetName = target == null ? "NULL" : target.getName();
+
+        for (Object segment : segments) {
+            if (segment instanceof Variable) {
+                switch ((Variable)segment) {
+                    case SELF: buffer.append(self.getName()); break;
+                    case TARGET: buffer.append(targetName); break;
+                    case SELF_POS: buffer.append(self.getName()).append("'s"); break;
+                    case TARGET_POS: buffer.append(targetName).append("'s"); break;
+                    default: buffer.append(((Variable)segment).text);
+                }
+            } else {
+                buffer.append((String)segment);
+            }
+        }
+
+        if (buffer.length() > 0) {
+            buffer.setCharAt(0, Character.toUpperCase(buffer.charAt(0)));
+        }
+
+        return buffer.toString();
+    }
+
+    private enum Variable {
+        SELF("%self%", null),
+        TARGET("%target%", null),
+        SELF_POS("%selfpos%", null),
+        TARGET_POS("%targetpos%", null),
+        HIM("%him%", "him"),
+        HIS("%his%", "his"),
+        HE("%he%", "he"),
+        HIMSELF("%himself%", "himself"),
+        HIS_POS("%hispos%", "his");
+
+        private final String token;
+        private final String text;
+
+        Variable(String token, String text) {
+            this.token = token;
+            this.text = text;
+        }
+
+        static Variable match(String message, int offset) {
+            for (Variable variable : values()) {
+                if (message.startsWith(variable.token, offset)) {
+                    return variable;
+                }
+            }
+
+            return null;
+        }
+    }
+}
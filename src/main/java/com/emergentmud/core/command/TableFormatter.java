@@ -21,34 +21,145 @@
 package com.emergentmud.core.command;
 
 import com.emergentmud.core.model.stomp.GameOutput;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 public class TableFormatter {
+    public static final int PAGE_SIZE = 50;
+
     private String label;
     private List<String> headers;
     private List<Row> rows = new ArrayList<>();
     private String object;
     private String objectPlural;
+    private int[] widths;
 
     public TableFormatter(String label, List<String> headers, String object, String objectPlural) {
         this.label = label;
         this.headers = headers;
         this.object = object;
         this.objectPlural = objectPlural;
+        this.widths = new int[headers.size()];
+
+        widen(headers);
+    }
+
+    public static Optional<Integer> parsePage(String[] tokens, int start) {
+        if (tokens.length == start) {
+            return Optional.of(0);
+        }
+
+        if (tokens.length != start + 2 || !"page".equalsIgnoreCase(tokens[start])) {
+            return Optional.empty();
+        }
+
+        try {
+            int page = Integer.parseInt(tokens[start + 1]);
+
+            return page < 1 ? Optional.empty() : Optional.of(page - 1);
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    public static <T> Page<T> paginate(List<T> values, int page) {
+        int from = (int)Math.min((long)page * PAGE_SIZE, values.size());
+        int to = Math.min(from + PAGE_SIZE, values.size());
+
+        return new PageImpl<>(values.subList(from, to), new PageRequest(page, PAGE_SIZE), values.size());
+    }
+
+    static int visibleLength(String value) {
+        int length = 0;
+
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            int end = c == '[' ? value.indexOf(']', i) : c == '<' ? value.indexOf('>', i) : c == '&' ? value.indexOf(';', i) : -1;
+
+            // markup and tags take no space on screen, entities take one character
+            if (c == '&' || end < 0) {
+                length++;
+            }
+
+            if (end > i) {
+                i = end;
+            }
+        }
+
+        return length;
     }
 
     public void addRow(List<String> values) {
         rows.add(new Row(values));
+        widen(values);
+    }
+
+    public int getWidth(int column) {
+        return widths[column];
     }
 
     public void toTable(GameOutput output, String color) {
+        render(output, color);
+
+        output.append(String.format("[d%s]%d %s listed.",
+                color,
+                rows.size(),
+                rows.size() == 1 ? object : objectPlural));
+    }
+
+    public void toPage(GameOutput output, String color, Page<?> page) {
+        if (!page.hasContent() && page.getNumber() > 0) {
+            output.append(String.format("[%s]There %s only %d %s.",
+                    color,
+                    page.getTotalPages() == 1 ? "is" : "are",
+                    page.getTotalPages(),
+                    page.getTotalPages() == 1 ? "page" : "pages"));
+
+            return;
+        }
+
+        render(output, color);
+
+        output.append(String.format("[d%s]Page %d of %d, %d %s in total.",
+                color,
+                page.getNumber() + 1,
+                Math.max(1, page.getTotalPages()),
+                page.getTotalElements(),
+                page.getTotalElements() == 1 ? object : objectPlural));
+
+        if (page.hasNext()) {
+            output.append(String.format("[%s]Type MORE to see the next page.", color));
+        }
+    }
+
+    private void widen(List<String> values) {
+        for (int i = 0; i < values.size() && i < widths.length; i++) {
+            String value = values.get(i);
+
+            if (value != null) {
+                widths[i] = Math.max(widths[i], visibleLength(value));
+            }
+        }
+    }
+
+    private void render(GameOutput output, String color) {
         StringBuilder buf = new StringBuilder();
 
         output.append(String.format("[d%s][ [%s]%s [d%s]]", color, color, label, color));
 
         buf.append("<table class=\"table\">");
+        buf.append("<colgroup>");
+
+        for (int width : widths) {
+            buf.append(String.format("<col style=\"min-width: %dch\">", width));
+        }
+
+        buf.append("</colgroup>");
         buf.append("<tr>");
 
         for (String header : headers) {
@@ -68,10 +179,6 @@ public class TableFormatter {
         }
 
         output.append(buf.toString());
-        output.append(String.format("[d%s]%d %s listed.",
-                color,
-                rows.size(),
-                rows.size() == 1 ? object : objectPlural));
     }
 
     private static class Row {
@@ -0,0 +1,128 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.command;
+
+import java.util.Arrays;
+
+public class TokenizedInput {
+    private static final String[] NO_TOKENS = new String[0];
+
+    private String input;
+    private int[] spans = new int[16];
+    private int count;
+    private String command;
+    private String[] tokens;
+
+    public TokenizedInput(String input) {
+        int length = input.length();
+        int i = 0;
+
+        this.input = input;
+
+        while (i < length) {
+            while (i < length && isWhitespace(input.charAt(i))) {
+                i++;
+            }
+
+            if (i == length) {
+                break;
+            }
+
+            int start = i;
+
+            while (i < length && !isWhitespace(input.charAt(i))) {
+                i++;
+            }
+
+            if (count * 2 == spans.length) {
+                spans = Arrays.copyOf(spans, spans.length * 2);
+            }
+
+            spans[count * 2] = start;
+            spans[count * 2 + 1] = i;
+            count++;
+        }
+    }
+
+    public static boolean isWhitespace(char c) {
+        return c <= ' ' && (c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r');
+    }
+
+    public String getInput() {
+        return input;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public String getCommand() {
+        if (command == null) {
+            command = count == 0 ? "" : input.substring(spans[0], spans[1]);
+        }
+
+        return command;
+    }
+
+    public int getTokenCount() {
+        return count == 0 ? 0 : count - 1;
+    }
+
+    public String getToken(int index) {
+        if (index < 0 || index >= getTokenCount()) {
+            throw new IndexOutOfBoundsException("No token at index " + index);
+        }
+
+        int span = (index + 1) * 2;
+
+        return input.substring(spans[span], spans[span + 1]);
+    }
+
+    public String[] getTokens() {
+        if (tokens == null) {
+            int tokenCount = getTokenCount();
+
+            if (tokenCount == 0) {
+                tokens = NO_TOKENS;
+            } else {
+                tokens = new String[tokenCount];
+
+                for (int i = 0, span = 2; i < tokenCount; i++, span += 2) {
+                    tokens[i] = input.substring(spans[span], spans[span + 1]);
+                }
+            }
+        }
+
+        return tokens;
+    }
+
+    public String getRaw() {
+        return getRemainder(1);
+    }
+
+    public String getRemainder(int words) {
+        if (words >= count) {
+            return "";
+        }
+
+        return input.substring(spans[Math.max(words, 0) * 2]);
+    }
+}
@@ -21,6 +21,7 @@
 package com.emergentmud.core.command.impl;
 
 import com.emergentmud.core.command.BaseCommand;
+import com.emergentmud.core.command.Continuation;
 import com.emergentmud.core.command.Parameter;
 import com.emergentmud.core.command.TableFormatter;
 import com.emergentmud.core.model.Capability;
@@ -30,7 +31,11 @@ import com.emergentmud.core.model.stomp.GameOutput;
 import com.emergentmud.core.repository.AccountRepository;
 import com.emergentmud.core.repository.CapabilityRepository;
 import com.emergentmud.core.repository.EntityRepository;
+import com.emergentmud.core.service.CapabilityService;
 import com.emergentmud.core.service.EntityService;
+import com.emergentmud.core.service.PlayerSessionService;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Component;
 
@@ -45,20 +50,27 @@ public class CapabilityEditCommand extends BaseCommand {
     private CapabilityRepository capabilityRepository;
     private AccountRepository accountRepository;
     private EntityRepository entityRepository;
+    private CapabilityService capabilityService;
     private EntityService entityService;
+    private PlayerSessionService playerSessionService;
 
     @Inject
     public CapabilityEditCommand(CapabilityRepository capabilityRepository,
                                  AccountRepository accountRepository,
                                  EntityRepository entityRepository,
-                                 EntityService entityService) {
+                                 CapabilityService capabilityService,
+                                 EntityService entityService,
+                                 PlayerSessionService playerSessionService) {
         this.capabilityRepository = capabilityRepository;
         this.accountRepository = accountRepository;
         this.entityRepository = entityRepository;
+        this.capabilityService = capabilityService;
         this.entityService = entityService;
+        this.playerSessionService = playerSessionService;
 
         setDescription("Alter capabilities on entities and accounts.");
-        addSubcommand("list", "List all capabilities.");
+        addSubcommand("list", "List all capabilities.",
+                new Parameter("page", false));
         addSubcommand("show", "Show the capabilities on something.",
                 new Parameter("entity name", true));
         addSubcommand("add", "Add a role to something.",
@@ -73,6 +85,14 @@ public class CapabilityEditCommand extends BaseCommand {
     public GameOutput execute(GameOutput output, Entity entity, String command, String[] tokens, String raw) {
         if (tokens.length > 0) {
             if ("list".equals(tokens[0])) {
+                Optional<Integer> pageNumber = TableFormatter.parsePage(tokens, 1);
+
+                if (!pageNumber.isPresent()) {
+                    usage(output, command);
+
+                    return output;
+                }
+
                 TableFormatter tableFormatter = new TableFormatter(
                         "All Capabilities",
                         Arrays.asList("Description", "Name", "Object", "Scope"),
@@ -80,15 +100,19 @@ public class CapabilityEditCommand extends BaseCommand {
                         "Capabilities"
                 );
 
-                capabilityRepository.findAll(SORT)
-                        .forEach(capability -> tableFormatter.addRow(Arrays.asList(
-                                capability.getDescription(),
-                                capability.getName(),
-                                capability.getObject().toString(),
-                                capability.getScope().toString()
-                        )));
+                Page<Capability> capabilities = capabilityRepository.findAll(new PageRequest(pageNumber.get(), TableFormatter.PAGE_SIZE, SORT));
+
+                capabilities.forEach(capability -> tableFormatter.addRow(Arrays.asList(
+                        capability.getDescription(),
+                        capability.getName(),
+                        capability.getObject().toString(),
+                        capability.getScope().toString()
+                )));
 
-                tableFormatter.toTable(output, "yellow");
+                tableFormatter.toPage(output, "yellow", capabilities);
+                playerSessionService.setContinuation(entity, capabilities.hasNext()
+                        ? new Continuation(this, command, "list", "page", String.valueOf(capabilities.getNumber() + 2))
+                        : null);
 
                 return output;
             }
@@ -136,10 +160,10 @@ public class CapabilityEditCommand extends BaseCommand {
                     }
 
                     if (CapabilityObject.ENTITY == capability.getObject()) {
-                        target.addCapabilities(capability);
+                        capabilityService.addCapabilities(target, capability);
                         entityRepository.save(target);
                     } else {
-                        target.getAccount().addCapabilities(capability);
+                        capabilityService.addCapabilities(target.getAccount(), capability);
                         accountRepository.save(target.getAccount());
                     }
 
@@ -162,10 +186,10 @@ public class CapabilityEditCommand extends BaseCommand {
                     }
 
                     if (CapabilityObject.ENTITY == capability.getObject()) {
-                        target.removeCapabilities(capability);
+                        capabilityService.removeCapabilities(target, capability);
                         entityRepository.save(target);
                     } else {
-                        target.getAccount().removeCapabilities(capability);
+                        capabilityService.removeCapabilities(target.getAccount(), capability);
                         accountRepository.save(target.getAccount());
                     }
 
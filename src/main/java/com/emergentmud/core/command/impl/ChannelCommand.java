@@ -0,0 +1,103 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.command.impl;
+
+import com.emergentmud.core.command.BaseCommand;
+import com.emergentmud.core.command.Parameter;
+import com.emergentmud.core.command.TableFormatter;
+import com.emergentmud.core.model.Channel;
+import com.emergentmud.core.model.Entity;
+import com.emergentmud.core.model.stomp.GameOutput;
+import com.emergentmud.core.service.ChannelService;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.util.Arrays;
+import java.util.Optional;
+
+@Component
+public class ChannelCommand extends BaseCommand {
+    private ChannelService channelService;
+
+    @Inject
+    public ChannelCommand(ChannelService channelService) {
+        this.channelService = channelService;
+
+        setDescription("List, join and leave communication channels.");
+        addSubcommand("list", "Show all channels and whether you are listening to them.");
+        addSubcommand("join", "Start listening to a channel.", new Parameter("channel", true));
+        addSubcommand("leave", "Stop listening to a channel.", new Parameter("channel", true));
+    }
+
+    @Override
+    public GameOutput execute(GameOutput output, Entity entity, String command, String[] tokens, String raw) {
+        if (tokens.length == 1 && "list".equals(tokens[0])) {
+            TableFormatter tableFormatter = new TableFormatter(
+                    "Channels",
+                    Arrays.asList("Name", "Status"),
+                    "Channel",
+                    "Channels"
+            );
+
+            channelService.getChannels().forEach(channel -> tableFormatter.addRow(Arrays.asList(
+                    channel.getName(),
+                    channel.isMember(entity) ? "[green]Joined" : "[dwhite]Left"
+            )));
+
+            tableFormatter.toTable(output, "yellow");
+        } else if (tokens.length == 2 && ("join".equals(tokens[0]) || "leave".equals(tokens[0]))) {
+            Optional<Channel> channelOptional = channelService.getChannel(tokens[1].toLowerCase());
+
+            if (!channelOptional.isPresent()) {
+                output.append(String.format("[red]There is no channel named '%s'.", tokens[1]));
+
+                return output;
+            }
+
+            Channel channel = channelOptional.get();
+
+            if ("join".equals(tokens[0])) {
+                if (channel.isMember(entity)) {
+                    output.append(String.format("[yellow]You are already listening to %s.", channel.getName()));
+
+                    return output;
+                }
+
+                channel.join(entity);
+                output.append(String.format("[yellow]You are now listening to %s.", channel.getName()));
+                channelService.getHistory(channel.getName()).getOutput().forEach(output::append);
+            } else {
+                if (!channel.isMember(entity)) {
+                    output.append(String.format("[yellow]You are not listening to %s.", channel.getName()));
+
+                    return output;
+                }
+
+                channel.leave(entity);
+                output.append(String.format("[yellow]You are no longer listening to %s.", channel.getName()));
+            }
+        } else {
+            usage(output, command);
+        }
+
+        return output;
+    }
+}
@@ -29,6 +29,7 @@ import com.emergentmud.core.model.Entity;
 import com.emergentmud.core.model.stomp.GameOutput;
 import com.emergentmud.core.repository.CapabilityRepository;
 import com.emergentmud.core.repository.CommandMetadataRepository;
+import com.emergentmud.core.service.CommandService;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Component;
 
@@ -41,12 +42,15 @@ public class CommandEditCommand extends BaseCommand {
 
     private CommandMetadataRepository commandMetadataRepository;
     private CapabilityRepository capabilityRepository;
+    private CommandService commandService;
 
     @Inject
     public CommandEditCommand(CommandMetadataRepository commandMetadataRepository,
-                              CapabilityRepository capabilityRepository) {
+                              CapabilityRepository capabilityRepository,
+                              CommandService commandService) {
         this.commandMetadataRepository = commandMetadataRepository;
         this.capabilityRepository = capabilityRepository;
+        this.commandService = commandService;
 
         setDescription("Edit and prioritize commands.");
         addSubcommand("list", "List all commands.");
@@ -113,6 +117,7 @@ public class CommandEditCommand extends BaseCommand {
                 metadata.setCapability(capability);
 
                 commandMetadataRepository.save(metadata);
+                commandService.reload();
 
                 output.append("[yellow]Added new command.");
             } else if ("priority".equals(tokens[0])) {
@@ -133,6 +138,7 @@ public class CommandEditCommand extends BaseCommand {
                 }
 
                 commandMetadataRepository.save(metadata);
+                commandService.reload();
 
                 output.append("[yellow]Updated priority.");
             } else if ("capability".equals(tokens[0])) {
@@ -152,6 +158,7 @@ public class CommandEditCommand extends BaseCommand {
                 } else {
                     metadata.setCapability(capability);
                     commandMetadataRepository.save(metadata);
+                    commandService.reload();
 
                     output.append("[yellow]Updated capability.");
                 }
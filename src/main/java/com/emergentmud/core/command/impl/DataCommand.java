@@ -21,11 +21,21 @@
 package com.emergentmud.core.command.impl;
 
 import com.emergentmud.core.command.BaseCommand;
+import com.emergentmud.core.command.Continuation;
+import com.emergentmud.core.command.Parameter;
 import com.emergentmud.core.command.TableFormatter;
 import com.emergentmud.core.model.Account;
 import com.emergentmud.core.model.Entity;
+import com.emergentmud.core.model.PlayerSession;
+import com.emergentmud.core.model.SessionLag;
 import com.emergentmud.core.model.stomp.GameOutput;
 import com.emergentmud.core.repository.EntityRepository;
+import com.emergentmud.core.service.LagService;
+import com.emergentmud.core.service.OutputService;
+import com.emergentmud.core.service.PlayerSessionService;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Component;
 
 import javax.inject.Inject;
@@ -33,27 +43,49 @@ import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 
 @Component
 public class DataCommand extends BaseCommand {
+    static final Sort SORT = new Sort("name");
+
     private EntityRepository entityRepository;
+    private LagService lagService;
+    private OutputService outputService;
+    private PlayerSessionService playerSessionService;
 
     @Inject
-    public DataCommand(EntityRepository entityRepository) {
+    public DataCommand(EntityRepository entityRepository,
+                       LagService lagService,
+                       OutputService outputService,
+                       PlayerSessionService playerSessionService) {
         this.entityRepository = entityRepository;
+        this.lagService = lagService;
+        this.outputService = outputService;
+        this.playerSessionService = playerSessionService;
 
         setDescription("Show the contents of database entries.");
-        addSubcommand("entity", "Show all Entity objects that are associated with an Account.");
+        addSubcommand("entity", "Show all Entity objects that are associated with an Account.",
+                new Parameter("page", false));
+        addSubcommand("lag", "Show outbound queue and socket lag for each connected session.");
     }
 
     @Override
     public GameOutput execute(GameOutput output, Entity entity, String command, String[] tokens, String raw) {
-        if (tokens.length != 1) {
+        if (tokens.length == 0) {
             usage(output, command);
 
             return output;
         } else if ("entity".equals(tokens[0])) {
-            List<Entity> entities = entityRepository.findByAccountIsNotNull();
+            Optional<Integer> pageNumber = TableFormatter.parsePage(tokens, 1);
+
+            if (!pageNumber.isPresent()) {
+                usage(output, command);
+
+                return output;
+            }
+
+            Page<Entity> entities = entityRepository.findByAccountIsNotNull(new PageRequest(pageNumber.get(), TableFormatter.PAGE_SIZE, SORT));
             TableFormatter tableFormatter = new TableFormatter(
                     "Player Characters in Database",
                     Arrays.asList("Name", "Social Network", "Social ID", "Created", "Last Login"),
@@ -61,7 +93,6 @@ public class DataCommand extends BaseCommand {
                     "Entities"
             );
 
-            entities.sort(Comparator.comparing(Entity::getName));
             entities.forEach(e -> {
                 Account account = e.getAccount();
 
@@ -74,6 +105,39 @@ public class DataCommand extends BaseCommand {
                 ));
             });
 
+            tableFormatter.toPage(output, "yellow", entities);
+            playerSessionService.setContinuation(entity, entities.hasNext()
+                    ? new Continuation(this, command, "entity", "page", String.valueOf(entities.getNumber() + 2))
+                    : null);
+        } else if ("lag".equals(tokens[0]) && tokens.length == 1) {
+            long now = System.currentTimeMillis();
+            List<SessionLag> lags = lagService.getLags();
+            TableFormatter tableFormatter = new TableFormatter(
+                    "Outbound Session Lag",
+                    Arrays.asList("Name", "Queued", "Writing (ms)", "Max Write (ms)", "Frames", "Held", "Dropped"),
+                    "Session",
+                    "Sessions"
+            );
+
+            lags.sort(Comparator.comparing((SessionLag lag) -> lag.getCurrentWriteMillis(now))
+                    .thenComparing(SessionLag::getMaxWriteMillis)
+                    .reversed());
+            lags.forEach(lag -> {
+                Entity target = playerSessionService.getSession(lag.getSimpSessionId())
+                        .map(PlayerSession::getEntity)
+                        .orElse(null);
+
+                tableFormatter.addRow(Arrays.asList(
+                        target == null ? "[dwhite]" + lag.getSimpSessionId() : target.getName(),
+                        target == null ? "0" : String.valueOf(outputService.getBufferedLines(target)),
+                        String.valueOf(lag.getCurrentWriteMillis(now)),
+                        String.valueOf(lag.getMaxWriteMillis()),
+                        String.valueOf(lag.getWrites()),
+                        String.valueOf(lag.getHeld()),
+                        String.valueOf(lag.getDropped())
+                ));
+            });
+
             tableFormatter.toTable(output, "yellow");
         } else {
             usage(output, command);
@@ -27,6 +27,7 @@ import com.emergentmud.core.model.EmoteMetadata;
 import com.emergentmud.core.model.Entity;
 import com.emergentmud.core.model.stomp.GameOutput;
 import com.emergentmud.core.repository.EmoteMetadataRepository;
+import com.emergentmud.core.service.EmoteService;
 import com.emergentmud.core.service.InputService;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Component;
@@ -39,11 +40,15 @@ public class EmoteEditCommand extends BaseCommand {
     static final Sort SORT = new Sort("priority", "name");
 
     private EmoteMetadataRepository emoteMetadataRepository;
+    private EmoteService emoteService;
     private InputService inputService;
 
     @Inject
-    public EmoteEditCommand(EmoteMetadataRepository emoteMetadataRepository, InputService inputService) {
+    public EmoteEditCommand(EmoteMetadataRepository emoteMetadataRepository,
+                            EmoteService emoteService,
+                            InputService inputService) {
         this.emoteMetadataRepository = emoteMetadataRepository;
+        this.emoteService = emoteService;
         this.inputService = inputService;
 
         setDescription("Edit and prioritize emotes.");
@@ -116,6 +121,7 @@ public class EmoteEditCommand extends BaseCommand {
                 metadata.setPriority(100);
 
                 emoteMetadataRepository.save(metadata);
+                emoteService.reload();
 
                 output.append("[yellow]Added new emote.");
             } else if ("set".equals(tokens[0])) {
@@ -160,6 +166,7 @@ public class EmoteEditCommand extends BaseCommand {
                 }
 
                 emoteMetadataRepository.save(metadata);
+                emoteService.reload();
 
                 output.append("[yellow]Updated emote.");
             } else if ("priority".equals(tokens[0])) {
@@ -180,6 +187,7 @@ public class EmoteEditCommand extends BaseCommand {
                 }
 
                 emoteMetadataRepository.save(metadata);
+                emoteService.reload();
 
                 output.append("[yellow]Updated priority.");
             } else if ("delete".equals(tokens[0])) {
@@ -198,6 +206,7 @@ public class EmoteEditCommand extends BaseCommand {
                 }
 
                 emoteMetadataRepository.delete(metadata);
+                emoteService.reload();
 
                 output.append("[yellow]Deleted emote.");
             }
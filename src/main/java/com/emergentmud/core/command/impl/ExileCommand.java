@@ -27,9 +27,10 @@ import com.emergentmud.core.model.CommandRole;
 import com.emergentmud.core.model.Entity;
 import com.emergentmud.core.model.stomp.GameOutput;
 import com.emergentmud.core.repository.AccountRepository;
-import com.emergentmud.core.repository.CapabilityRepository;
 import com.emergentmud.core.repository.WorldManager;
+import com.emergentmud.core.service.CapabilityService;
 import com.emergentmud.core.service.EntityService;
+import com.emergentmud.core.service.MailboxService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -44,19 +45,22 @@ public class ExileCommand extends BaseCommand {
 
     private EntityService entityService;
     private AccountRepository accountRepository;
-    private CapabilityRepository capabilityRepository;
+    private CapabilityService capabilityService;
     private WorldManager worldManager;
+    private MailboxService mailboxService;
 
     @Inject
     public ExileCommand(EntityService entityService,
                         AccountRepository accountRepository,
-                        CapabilityRepository capabilityRepository,
-                        WorldManager worldManager) {
+                        CapabilityService capabilityService,
+                        WorldManager worldManager,
+                        MailboxService mailboxService) {
 
         this.entityService = entityService;
         this.accountRepository = accountRepository;
-        this.capabilityRepository = capabilityRepository;
+        this.capabilityService = capabilityService;
         this.worldManager = worldManager;
+        this.mailboxService = mailboxService;
 
         setDescription("Kick somebody out of the game.");
         addParameter("add|remove", true);
@@ -70,8 +74,8 @@ public class ExileCommand extends BaseCommand {
             return output;
         }
 
-        Capability playCapability = capabilityRepository.findByName(CommandRole.CHAR_PLAY.name());
-        Capability createCapability = capabilityRepository.findByName(CommandRole.CHAR_NEW.name());
+        Capability playCapability = capabilityService.getCapability(CommandRole.CHAR_PLAY);
+        Capability createCapability = capabilityService.getCapability(CommandRole.CHAR_NEW);
 
         Optional<Entity> targetOptional = entityService.entitySearchGlobal(entity, tokens[1]);
 
@@ -89,12 +93,12 @@ public class ExileCommand extends BaseCommand {
         }
 
         if ("add".equalsIgnoreCase(tokens[0])) {
-            if (!account.isCapable(playCapability) && !account.isCapable(createCapability)) {
+            if (!capabilityService.hasCapability(account, playCapability) && !capabilityService.hasCapability(account, createCapability)) {
                 output.append("[yellow]They are already exiled.");
                 return output;
             }
 
-            account.removeCapabilities(playCapability, createCapability);
+            capabilityService.removeCapabilities(account, playCapability, createCapability);
 
             accountRepository.save(account);
 
@@ -106,24 +110,27 @@ public class ExileCommand extends BaseCommand {
 
             entityService.sendMessageToEntity(target, targetOutput);
 
-            GameOutput roomOutput = new GameOutput()
-                    .append(String.format("[yellow]%s EXILES %s!", entity.getName(), target.getName()))
-                    .append(String.format("%s disappears in a puff of smoke.", target.getName()));
+            // the removal runs in the target's mailbox so it can't interleave with their own commands
+            mailboxService.execute(target, () -> {
+                GameOutput roomOutput = new GameOutput()
+                        .append(String.format("[yellow]%s EXILES %s!", entity.getName(), target.getName()))
+                        .append(String.format("%s disappears in a puff of smoke.", target.getName()));
 
-            entityService.sendMessageToRoom(target.getRoom(), Arrays.asList(entity, target), roomOutput);
+                entityService.sendMessageToRoom(target.getRoom(), Arrays.asList(entity, target), roomOutput);
 
-            worldManager.remove(target);
+                worldManager.remove(target);
+            });
 
             output
                     .append(String.format("[yellow]You exile %s.", target))
                     .append(String.format("%s disappears in a puff of smoke.", target.getName()));
         } else if ("remove".equalsIgnoreCase(tokens[0])) {
-            if (account.isCapable(playCapability) && account.isCapable(createCapability)) {
+            if (capabilityService.hasCapability(account, playCapability) && capabilityService.hasCapability(account, createCapability)) {
                 output.append("[yellow]They are not exiled.");
                 return output;
             }
 
-            account.addCapabilities(playCapability, createCapability);
+            capabilityService.addCapabilities(account, playCapability, createCapability);
 
             accountRepository.save(account);
 
@@ -24,22 +24,20 @@ import com.emergentmud.core.command.BaseCommunicationCommand;
 import com.emergentmud.core.command.Command;
 import com.emergentmud.core.model.Entity;
 import com.emergentmud.core.model.stomp.GameOutput;
-import com.emergentmud.core.repository.EntityRepository;
-import com.emergentmud.core.service.EntityService;
+import com.emergentmud.core.service.ChannelService;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.util.HtmlUtils;
 
 import javax.inject.Inject;
-import java.util.List;
 
 @Component
 public class GossipCommand extends BaseCommunicationCommand implements Command {
+    private ChannelService channelService;
+
     @Inject
-    public GossipCommand(EntityRepository entityRepository,
-                         EntityService entityService) {
-        this.entityRepository = entityRepository;
-        this.entityService = entityService;
+    public GossipCommand(ChannelService channelService) {
+        this.channelService = channelService;
 
         setDescription("Send a message to all other players.");
         addParameter("message", true);
@@ -53,13 +51,17 @@ public class GossipCommand extends BaseCommunicationCommand implements Command {
             return output;
         }
 
+        if (!channelService.isMember(ChannelService.GOSSIP, entity)) {
+            output.append("You are not listening to gossip. Type 'channel join gossip' to join it.");
+
+            return output;
+        }
+
         output.append(String.format("[green]You gossip '%s[green]'", HtmlUtils.htmlEscape(raw)));
 
         GameOutput toRoom = new GameOutput(String.format("[green]%s gossips '%s[green]'", entity.getName(), HtmlUtils.htmlEscape(raw)));
 
-        List<Entity> contents = entityRepository.findByRoomIsNotNull();
-
-        entityService.sendMessageToListeners(contents, entity, toRoom);
+        channelService.publish(ChannelService.GOSSIP, entity, toRoom);
 
         return output;
     }
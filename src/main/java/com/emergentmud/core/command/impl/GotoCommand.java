@@ -22,14 +22,15 @@ package com.emergentmud.core.command.impl;
 
 import com.emergentmud.core.command.BaseCommand;
 import com.emergentmud.core.command.Command;
+import com.emergentmud.core.command.CommandRegistry;
 import com.emergentmud.core.model.Entity;
 import com.emergentmud.core.model.room.Room;
 import com.emergentmud.core.model.stomp.GameOutput;
 import com.emergentmud.core.repository.WorldManager;
+import com.emergentmud.core.service.CrowdService;
 import com.emergentmud.core.service.EntityService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Component;
 
 import javax.inject.Inject;
@@ -39,18 +40,21 @@ import java.util.Optional;
 public class GotoCommand extends BaseCommand {
     private static final Logger LOGGER = LoggerFactory.getLogger(GotoCommand.class);
 
-    private ApplicationContext applicationContext;
+    private CommandRegistry commandRegistry;
     private WorldManager worldManager;
     private EntityService entityService;
+    private CrowdService crowdService;
 
     @Inject
-    public GotoCommand(ApplicationContext applicationContext,
+    public GotoCommand(CommandRegistry commandRegistry,
                        WorldManager worldManager,
-                       EntityService entityService) {
+                       EntityService entityService,
+                       CrowdService crowdService) {
 
-        this.applicationContext = applicationContext;
+        this.commandRegistry = commandRegistry;
         this.worldManager = worldManager;
         this.entityService = entityService;
+        this.crowdService = crowdService;
 
         setDescription("Instantly transport to another person, or a room by its coordinate.");
         addParameter("x|person", true);
@@ -107,9 +111,7 @@ public class GotoCommand extends BaseCommand {
             if (room != null) {
                 LOGGER.trace("Location before: ({}, {}, {})", room.getX(), room.getY(), room.getZ());
 
-                GameOutput exitMessage = new GameOutput(String.format("%s disappears in a puff of smoke!", entity.getName()));
-
-                entityService.sendMessageToRoom(room, entity, exitMessage);
+                crowdService.announceVanish(room, entity);
             } else {
                 LOGGER.warn("GOTO from NULL room!");
             }
@@ -117,11 +119,9 @@ public class GotoCommand extends BaseCommand {
             room = worldManager.put(entity, location[0], location[1], location[2]);
             LOGGER.trace("Location after: ({}, {}, {})", location[0], location[1], location[2]);
 
-            GameOutput enterMessage = new GameOutput(String.format("%s appears in a puff of smoke!", entity.getName()));
-
-            entityService.sendMessageToRoom(room, entity, enterMessage);
+            crowdService.announceAppear(room, entity);
 
-            Command look = (Command) applicationContext.getBean("lookCommand");
+            Command look = commandRegistry.getCommand("lookCommand");
             look.execute(output, entity, "look", new String[0], "");
         } else {
             output.append("[yellow]No such room exists.");
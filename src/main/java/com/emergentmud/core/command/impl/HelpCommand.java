@@ -22,36 +22,45 @@ package com.emergentmud.core.command.impl;
 
 import com.emergentmud.core.command.BaseCommand;
 import com.emergentmud.core.command.Command;
+import com.emergentmud.core.command.CommandRegistry;
+import com.emergentmud.core.command.Continuation;
 import com.emergentmud.core.command.TableFormatter;
 import com.emergentmud.core.model.CommandMetadata;
 import com.emergentmud.core.model.CommandRole;
 import com.emergentmud.core.model.Entity;
 import com.emergentmud.core.model.stomp.GameOutput;
-import com.emergentmud.core.repository.CapabilityRepository;
 import com.emergentmud.core.repository.CommandMetadataRepository;
-import org.springframework.context.ApplicationContext;
+import com.emergentmud.core.service.CapabilityService;
+import com.emergentmud.core.service.PlayerSessionService;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Component;
 
 import javax.inject.Inject;
 import java.util.Arrays;
+import java.util.Optional;
 
 @Component
 public class HelpCommand extends BaseCommand {
     private static final Sort SORT = new Sort("name");
 
-    private ApplicationContext applicationContext;
+    private CommandRegistry commandRegistry;
     private CommandMetadataRepository commandMetadataRepository;
-    private CapabilityRepository capabilityRepository;
+    private CapabilityService capabilityService;
+    private PlayerSessionService playerSessionService;
 
     @Inject
-    public HelpCommand(ApplicationContext applicationContext,
+    public HelpCommand(CommandRegistry commandRegistry,
                        CommandMetadataRepository commandMetadataRepository,
-                       CapabilityRepository capabilityRepository) {
+                       CapabilityService capabilityService,
+                       PlayerSessionService playerSessionService) {
 
-        this.applicationContext = applicationContext;
+        this.commandRegistry = commandRegistry;
         this.commandMetadataRepository = commandMetadataRepository;
-        this.capabilityRepository = capabilityRepository;
+        this.capabilityService = capabilityService;
+        this.playerSessionService = playerSessionService;
 
         setDescription("Shows the documentation for a command.");
         addParameter("command", true);
@@ -59,7 +68,9 @@ public class HelpCommand extends BaseCommand {
 
     @Override
     public GameOutput execute(GameOutput output, Entity entity, String command, String[] tokens, String raw) {
-        if (tokens.length == 0) {
+        Optional<Integer> pageNumber = TableFormatter.parsePage(tokens, 0);
+
+        if (pageNumber.isPresent()) {
             TableFormatter tableFormatter = new TableFormatter(
                     "Command Listing",
                     Arrays.asList("Name", "Description"),
@@ -67,25 +78,30 @@ public class HelpCommand extends BaseCommand {
                     "Commands"
             );
 
-            commandMetadataRepository.findAll(SORT)
-                    .stream()
-                    .filter(cm -> entity.isCapable(cm.getCapability()) || entity.isCapable(capabilityRepository.findByName(CommandRole.SUPER.name())))
-                    .forEach(cm -> {
-                        Command bean = (Command)applicationContext.getBean(cm.getBeanName());
+            Pageable pageable = new PageRequest(pageNumber.get(), TableFormatter.PAGE_SIZE, SORT);
+            Page<CommandMetadata> page = capabilityService.hasCapability(entity, capabilityService.getCapability(CommandRole.SUPER))
+                    ? commandMetadataRepository.findAll(pageable)
+                    : commandMetadataRepository.findByCapabilityIn(entity.getCapabilities(), pageable);
+
+            page.forEach(cm -> {
+                Command bean = commandRegistry.getCommand(cm.getBeanName());
 
-                        tableFormatter.addRow(Arrays.asList(
-                                cm.getName().toUpperCase(),
-                                bean.getDescription()
-                        ));
-                    });
+                tableFormatter.addRow(Arrays.asList(
+                        cm.getName().toUpperCase(),
+                        bean.getDescription()
+                ));
+            });
 
-            tableFormatter.toTable(output, "white");
+            tableFormatter.toPage(output, "white", page);
+            playerSessionService.setContinuation(entity, page.hasNext()
+                    ? new Continuation(this, command, "page", String.valueOf(page.getNumber() + 2))
+                    : null);
             output.append("[white]Type HELP [dwhite]&lt;[white]command[dwhite]&gt; [white]to get more detailed help for any of these commands.");
         } else {
             CommandMetadata commandMetadata = commandMetadataRepository.findByName(tokens[0]);
 
-            if (commandMetadata != null && (entity.isCapable(commandMetadata.getCapability()) || entity.isCapable(capabilityRepository.findByName(CommandRole.SUPER.name())))) {
-                Command cmd = (Command)applicationContext.getBean(commandMetadata.getBeanName());
+            if (commandMetadata != null && capabilityService.isCapable(entity, commandMetadata.getCapability())) {
+                Command cmd = commandRegistry.getCommand(commandMetadata.getBeanName());
 
                 cmd.usage(output, commandMetadata.getName());
             } else {
@@ -25,8 +25,8 @@ import com.emergentmud.core.model.Direction;
 import com.emergentmud.core.model.Entity;
 import com.emergentmud.core.model.room.Room;
 import com.emergentmud.core.model.stomp.GameOutput;
-import com.emergentmud.core.repository.EntityRepository;
 import com.emergentmud.core.repository.RoomRepository;
+import com.emergentmud.core.service.PresenceService;
 import org.springframework.stereotype.Component;
 
 import javax.inject.Inject;
@@ -34,13 +34,13 @@ import java.util.List;
 
 @Component
 public class LookCommand extends BaseCommand {
-    private EntityRepository entityRepository;
     private RoomRepository roomRepository;
+    private PresenceService presenceService;
 
     @Inject
-    public LookCommand(EntityRepository entityRepository, RoomRepository roomRepository) {
-        this.entityRepository = entityRepository;
+    public LookCommand(RoomRepository roomRepository, PresenceService presenceService) {
         this.roomRepository = roomRepository;
+        this.presenceService = presenceService;
 
         setDescription("Describes the things in the world around you.");
         addParameter("target", false);
@@ -91,7 +91,7 @@ public class LookCommand extends BaseCommand {
 
             output.append(exits.toString());
 
-            List<Entity> contents = entityRepository.findByRoom(room);
+            List<Entity> contents = presenceService.getOccupants(room);
 
             contents.stream()
                     .filter(content -> !content.getId().equals(entity.getId()))
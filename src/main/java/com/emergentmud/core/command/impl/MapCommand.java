@@ -24,21 +24,21 @@ import com.emergentmud.core.command.BaseCommand;
 import com.emergentmud.core.model.Entity;
 import com.emergentmud.core.model.room.Room;
 import com.emergentmud.core.model.stomp.GameOutput;
-import com.emergentmud.core.repository.RoomRepository;
+import com.emergentmud.core.service.MapService;
 import org.springframework.stereotype.Component;
 
 import javax.inject.Inject;
 
 @Component
 public class MapCommand extends BaseCommand {
-    private static final int MAP_EXTENT_X = 40;
-    private static final int MAP_EXTENT_Y = 20;
+    private static final int MAP_EXTENT_X = MapService.EXTENT_X;
+    private static final int MAP_EXTENT_Y = MapService.EXTENT_Y;
 
-    private RoomRepository roomRepository;
+    private MapService mapService;
 
     @Inject
-    public MapCommand(RoomRepository roomRepository) {
-        this.roomRepository = roomRepository;
+    public MapCommand(MapService mapService) {
+        this.mapService = mapService;
 
         setDescription("Shows a bird's eye view of the rooms around you.");
     }
@@ -47,15 +47,29 @@ public class MapCommand extends BaseCommand {
     public GameOutput execute(GameOutput output, Entity entity, String command, String[] tokens, String raw) {
         Room center = entity.getRoom();
 
+        if (mapService.isSubscribed(entity)) {
+            mapService.send(entity, mapService.render(center));
+            output.append("[dwhite]Your map has been redrawn.");
+
+            return output;
+        }
+
+        Room[] rooms = mapService.findRooms(
+                center.getX() - MAP_EXTENT_X,
+                center.getY() + MAP_EXTENT_Y,
+                MapService.WIDTH,
+                MapService.HEIGHT,
+                center.getZ());
+        int index = 0;
+
         for (long y = center.getY() + MAP_EXTENT_Y, i = 0; y >= center.getY() - MAP_EXTENT_Y; y--, i++) {
             StringBuilder line = new StringBuilder();
 
-            for (long x = center.getX() - MAP_EXTENT_X; x <= center.getX() + MAP_EXTENT_X; x++) {
+            for (long x = center.getX() - MAP_EXTENT_X; x <= center.getX() + MAP_EXTENT_X; x++, index++) {
                 if (x == center.getX() && y == center.getY()) {
                     line.append("[cyan][]</span>");
                 } else {
-                    // TODO do this in a batch
-                    Room room = roomRepository.findByXAndYAndZ(x, y, center.getZ());
+                    Room room = rooms[index];
 
                     if (room != null) {
                         line.append(String.format("<span style='color: #%02x'>[]</span>",
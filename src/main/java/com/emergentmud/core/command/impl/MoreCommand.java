@@ -0,0 +1,55 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.emergentmud.core.command.impl;
+
+import com.emergentmud.core.command.BaseCommand;
+import com.emergentmud.core.command.Continuation;
+import com.emergentmud.core.model.Entity;
+import com.emergentmud.core.model.stomp.GameOutput;
+import com.emergentmud.core.service.PlayerSessionService;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.util.Optional;
+
+@Component
+public class MoreCommand extends BaseCommand {
+    private PlayerSessionService playerSessionService;
+
+    @Inject
+    public MoreCommand(PlayerSessionService playerSessionService) {
+        this.playerSessionService = playerSessionService;
+
+        setDescription("Show the next page of the last listing.");
+    }
+
+    @Override
+    public GameOutput execute(GameOutput output, Entity entity, String command, String[] tokens, String raw) {
+        Optional<Continuation> continuation = playerSessionService.takeContinuation(entity);
+
+        if (!continuation.isPresent()) {
+            output.append("[yellow]There is nothing more to show.");
+
+            return output;
+        }
+
+        return continuation.get().execute(output, entity);
+    }
+}
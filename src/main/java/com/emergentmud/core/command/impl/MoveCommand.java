@@ -22,38 +22,38 @@ package com.emergentmud.core.command.impl;
 
 import com.emergentmud.core.command.BaseCommand;
 import com.emergentmud.core.command.Command;
+import com.emergentmud.core.command.CommandRegistry;
 import com.emergentmud.core.model.Direction;
 import com.emergentmud.core.model.Entity;
 import com.emergentmud.core.model.room.Room;
 import com.emergentmud.core.model.stomp.GameOutput;
 import com.emergentmud.core.repository.RoomBuilder;
 import com.emergentmud.core.repository.WorldManager;
-import com.emergentmud.core.service.EntityService;
+import com.emergentmud.core.service.CrowdService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.ApplicationContext;
 
 public class MoveCommand extends BaseCommand {
     private static final Logger LOGGER = LoggerFactory.getLogger(MoveCommand.class);
 
     private Direction direction;
-    private ApplicationContext applicationContext;
+    private CommandRegistry commandRegistry;
     private WorldManager worldManager;
     private RoomBuilder roomBuilder;
-    private EntityService entityService;
+    private CrowdService crowdService;
 
     public MoveCommand(
             Direction direction,
-            ApplicationContext applicationContext,
+            CommandRegistry commandRegistry,
             WorldManager worldManager,
             RoomBuilder roomBuilder,
-            EntityService entityService) {
+            CrowdService crowdService) {
 
         this.direction = direction;
-        this.applicationContext = applicationContext;
+        this.commandRegistry = commandRegistry;
         this.worldManager = worldManager;
         this.roomBuilder = roomBuilder;
-        this.entityService = entityService;
+        this.crowdService = crowdService;
 
         setDescription("Walk to an adjacent room.");
     }
@@ -89,20 +89,14 @@ public class MoveCommand extends BaseCommand {
                 }
             }
 
-            GameOutput exitMessage = new GameOutput(String.format("%s walks %s.", entity.getName(), direction.getName()));
-
-            entityService.sendMessageToRoom(room, entity, exitMessage);
-
-            worldManager.remove(entity);
+            crowdService.announceDeparture(room, entity, direction.getName());
 
             room = worldManager.put(entity, location[0], location[1], location[2]);
             LOGGER.trace("Location after: ({}, {}, {})", location[0], location[1], location[2]);
 
-            GameOutput enterMessage = new GameOutput(String.format("%s walks in from the %s.", entity.getName(), direction.getOpposite()));
-
-            entityService.sendMessageToRoom(room, entity, enterMessage);
+            crowdService.announceArrival(room, entity, direction.getOpposite());
 
-            Command look = (Command)applicationContext.getBean("lookCommand");
+            Command look = commandRegistry.getCommand("lookCommand");
             look.execute(output, entity, "look", new String[0], "");
         }
 
@@ -24,7 +24,7 @@ import com.emergentmud.core.command.BaseCommand;
 import com.emergentmud.core.model.Entity;
 import com.emergentmud.core.model.stomp.GameOutput;
 import com.emergentmud.core.repository.WorldManager;
-import com.emergentmud.core.service.EntityService;
+import com.emergentmud.core.service.CrowdService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -35,13 +35,13 @@ import javax.inject.Inject;
 public class QuitCommand extends BaseCommand {
     private static final Logger LOGGER = LoggerFactory.getLogger(QuitCommand.class);
 
-    private EntityService entityService;
+    private CrowdService crowdService;
     private WorldManager worldManager;
 
     @Inject
-    public QuitCommand(EntityService entityService,
+    public QuitCommand(CrowdService crowdService,
                        WorldManager worldManager) {
-        this.entityService = entityService;
+        this.crowdService = crowdService;
         this.worldManager = worldManager;
 
         setDescription("Leave the game.");
@@ -57,9 +57,7 @@ public class QuitCommand extends BaseCommand {
             return output;
         }
 
-        GameOutput enterMessage = new GameOutput(String.format("[yellow]%s has left the game.", entity.getName()));
-
-        entityService.sendMessageToRoom(entity.getRoom(), entity, enterMessage);
+        crowdService.announceLogout(entity.getRoom(), entity);
 
         LOGGER.info("{} has left the game", entity.getName());
 
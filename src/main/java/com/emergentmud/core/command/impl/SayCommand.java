@@ -23,6 +23,7 @@ package com.emergentmud.core.command.impl;
 import com.emergentmud.core.command.BaseCommunicationCommand;
 import com.emergentmud.core.command.Command;
 import com.emergentmud.core.model.Entity;
+import com.emergentmud.core.model.OutputPriority;
 import com.emergentmud.core.model.stomp.GameOutput;
 import com.emergentmud.core.service.EntityService;
 import org.springframework.stereotype.Component;
@@ -53,7 +54,7 @@ public class SayCommand extends BaseCommunicationCommand implements Command {
 
         GameOutput toRoom = new GameOutput(String.format("[cyan]%s says '%s[cyan]'", entity.getName(), HtmlUtils.htmlEscape(raw)));
 
-        entityService.sendMessageToRoom(entity.getRoom(), entity, toRoom);
+        entityService.sendMessageToRoom(entity.getRoom(), entity, toRoom, OutputPriority.CHAT);
 
         return output;
     }
@@ -23,11 +23,10 @@ package com.emergentmud.core.command.impl;
 import com.emergentmud.core.command.BaseCommunicationCommand;
 import com.emergentmud.core.command.Command;
 import com.emergentmud.core.model.Entity;
-import com.emergentmud.core.model.room.Room;
+import com.emergentmud.core.model.OutputPriority;
 import com.emergentmud.core.model.stomp.GameOutput;
-import com.emergentmud.core.repository.EntityRepository;
-import com.emergentmud.core.repository.RoomRepository;
 import com.emergentmud.core.service.EntityService;
+import com.emergentmud.core.service.PresenceService;
 import com.emergentmud.core.service.RoomService;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -41,17 +40,15 @@ import java.util.stream.Collectors;
 public class ShoutCommand extends BaseCommunicationCommand implements Command {
     static final long SHOUT_DISTANCE = 7;
 
-    private RoomRepository roomRepository;
+    private PresenceService presenceService;
     private RoomService roomService;
 
     @Inject
-    public ShoutCommand(RoomRepository roomRepository,
-                        EntityRepository entityRepository,
+    public ShoutCommand(PresenceService presenceService,
                         RoomService roomService,
                         EntityService entityService) {
-        this.roomRepository = roomRepository;
+        this.presenceService = presenceService;
         this.roomService = roomService;
-        this.entityRepository = entityRepository;
         this.entityService = entityService;
 
         setDescription("Send a message to those within a few rooms of you.");
@@ -70,22 +67,12 @@ public class ShoutCommand extends BaseCommunicationCommand implements Command {
 
         GameOutput toZone = new GameOutput(String.format("[dyellow]%s shouts '%s[dyellow]'", entity.getName(), HtmlUtils.htmlEscape(raw)));
 
-        Room entityRoom = entity.getRoom();
-        List<Room> rooms = roomRepository.findByXBetweenAndYBetweenAndZBetween(
-                entityRoom.getX() - SHOUT_DISTANCE,
-                entityRoom.getX() + SHOUT_DISTANCE,
-                entityRoom.getY() - SHOUT_DISTANCE,
-                entityRoom.getY() + SHOUT_DISTANCE,
-                entityRoom.getZ() - SHOUT_DISTANCE,
-                entityRoom.getZ() + SHOUT_DISTANCE);
-
-        rooms = rooms.stream()
-                .filter(r -> roomService.isWithinDistance(entityRoom, r, SHOUT_DISTANCE))
+        List<Entity> contents = roomService.findOccupiedWithinDistance(entity.getRoom(), SHOUT_DISTANCE)
+                .stream()
+                .flatMap(room -> presenceService.getOccupants(room).stream())
                 .collect(Collectors.toList());
 
-        List<Entity> contents = entityRepository.findByRoomIn(rooms);
-
-        entityService.sendMessageToListeners(contents, entity, toZone);
+        entityService.sendMessageToListeners(contents, entity, toZone, OutputPriority.CHAT);
 
         return output;
     }
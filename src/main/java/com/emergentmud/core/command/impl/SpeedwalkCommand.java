@@ -0,0 +1,188 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.command.impl;
+
+import com.emergentmud.core.command.BaseCommand;
+import com.emergentmud.core.command.Command;
+import com.emergentmud.core.command.CommandRegistry;
+import com.emergentmud.core.model.Direction;
+import com.emergentmud.core.model.Entity;
+import com.emergentmud.core.model.room.Room;
+import com.emergentmud.core.model.stomp.GameOutput;
+import com.emergentmud.core.repository.RoomBuilder;
+import com.emergentmud.core.repository.WorldManager;
+import com.emergentmud.core.service.CrowdService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+public class SpeedwalkCommand extends BaseCommand {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpeedwalkCommand.class);
+    static final int MAX_STEPS = 50;
+
+    private CommandRegistry commandRegistry;
+    private WorldManager worldManager;
+    private RoomBuilder roomBuilder;
+    private CrowdService crowdService;
+
+    @Inject
+    public SpeedwalkCommand(CommandRegistry commandRegistry,
+                            WorldManager worldManager,
+                            RoomBuilder roomBuilder,
+                            CrowdService crowdService) {
+
+        this.commandRegistry = commandRegistry;
+        this.worldManager = worldManager;
+        this.roomBuilder = roomBuilder;
+        this.crowdService = crowdService;
+
+        setDescription("Walk a path of several rooms at once, such as 3n2e.");
+        addParameter("path", true);
+    }
+
+    @Override
+    public GameOutput execute(GameOutput output, Entity entity, String command, String[] tokens, String raw) {
+        Room origin = entity.getRoom();
+
+        if (tokens.length == 0) {
+            usage(output, command);
+            return output;
+        }
+
+        if (origin == null) {
+            output.append("[black]You are floating in a formless void. It is impossible to tell whether or not you are moving.");
+            return output;
+        }
+
+        List<Direction> path = parsePath(String.join("", tokens));
+
+        if (path == null) {
+            output.append("[yellow]That is not a valid path. Try something like 3n2e.");
+            return output;
+        }
+
+        if (path.size() > MAX_STEPS) {
+            output.append(String.format("[yellow]That path is too long. You can walk at most %d rooms at once.", MAX_STEPS));
+            return output;
+        }
+
+        List<long[]> locations = new ArrayList<>();
+        long[] location = new long[] { origin.getX(), origin.getY(), origin.getZ() };
+
+        for (Direction direction : path) {
+            location = new long[] {
+                    location[0] + direction.getX(),
+                    location[1] + direction.getY(),
+                    location[2] + direction.getZ()
+            };
+
+            locations.add(location);
+        }
+
+        List<Room> rooms = roomBuilder.generateRooms(locations);
+
+        if (rooms.isEmpty()) {
+            output.append("Alas, you cannot go that way.");
+            return output;
+        }
+
+        Room from = origin;
+
+        for (int i = 0; i < rooms.size(); i++) {
+            Room to = rooms.get(i);
+            Direction direction = path.get(i);
+
+            crowdService.announceDeparture(from, entity, direction.getName());
+            crowdService.announceArrival(to, entity, direction.getOpposite());
+
+            from = to;
+        }
+
+        Room destination = worldManager.put(entity, from);
+
+        LOGGER.trace("Speedwalked {} rooms to ({}, {}, {})", rooms.size(), destination.getX(), destination.getY(), destination.getZ());
+
+        if (rooms.size() < path.size()) {
+            output.append("Alas, you cannot go any further that way.");
+        }
+
+        Command look = commandRegistry.getCommand("lookCommand");
+        look.execute(output, entity, "look", new String[0], "");
+
+        return output;
+    }
+
+    static List<Direction> parsePath(String path) {
+        List<Direction> directions = new ArrayList<>();
+        int count = 0;
+
+        for (int i = 0; i < path.length(); i++) {
+            char c = Character.toLowerCase(path.charAt(i));
+
+            if (c >= '0' && c <= '9') {
+                count = count * 10 + (c - '0');
+
+                if (count > MAX_STEPS) {
+                    count = MAX_STEPS + 1;
+                }
+
+                continue;
+            }
+
+            Direction direction = forAbbreviation(c);
+
+            if (direction == null) {
+                return null;
+            }
+
+            for (int j = 0; j < Math.max(count, 1); j++) {
+                directions.add(direction);
+            }
+
+            if (directions.size() > MAX_STEPS) {
+                return directions;
+            }
+
+            count = 0;
+        }
+
+        if (count > 0 || directions.isEmpty()) {
+            return null;
+        }
+
+        return directions;
+    }
+
+    private static Direction forAbbreviation(char c) {
+        for (Direction direction : Direction.DIRECTIONS) {
+            if (direction.getName().charAt(0) == c) {
+                return direction;
+            }
+        }
+
+        return null;
+    }
+}
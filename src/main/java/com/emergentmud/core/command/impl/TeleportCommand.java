@@ -22,36 +22,43 @@ package com.emergentmud.core.command.impl;
 
 import com.emergentmud.core.command.BaseCommand;
 import com.emergentmud.core.command.Command;
+import com.emergentmud.core.command.CommandRegistry;
 import com.emergentmud.core.model.Entity;
 import com.emergentmud.core.model.room.Room;
 import com.emergentmud.core.model.stomp.GameOutput;
 import com.emergentmud.core.repository.WorldManager;
+import com.emergentmud.core.service.CrowdService;
 import com.emergentmud.core.service.EntityService;
+import com.emergentmud.core.service.MailboxService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Component;
 
 import javax.inject.Inject;
-import java.util.Arrays;
 import java.util.Optional;
 
 @Component
 public class TeleportCommand extends BaseCommand {
     private static final Logger LOGGER = LoggerFactory.getLogger(TeleportCommand.class);
 
-    private ApplicationContext applicationContext;
+    private CommandRegistry commandRegistry;
     private WorldManager worldManager;
     private EntityService entityService;
+    private CrowdService crowdService;
+    private MailboxService mailboxService;
 
     @Inject
-    public TeleportCommand(ApplicationContext applicationContext,
+    public TeleportCommand(CommandRegistry commandRegistry,
                            WorldManager worldManager,
-                           EntityService entityService) {
+                           EntityService entityService,
+                           CrowdService crowdService,
+                           MailboxService mailboxService) {
 
-        this.applicationContext = applicationContext;
+        this.commandRegistry = commandRegistry;
         this.worldManager = worldManager;
         this.entityService = entityService;
+        this.crowdService = crowdService;
+        this.mailboxService = mailboxService;
 
         setDescription("Instantly transport someone from here to a room by its coordinate.");
         addParameter("person", true);
@@ -124,37 +131,40 @@ public class TeleportCommand extends BaseCommand {
 
         if (worldManager.test(location[0], location[1], location[2])) {
             if (room != null) {
-                LOGGER.trace("Location before: ({}, {}, {})", room.getX(), room.getY(), room.getZ());
-
-                String exitMessage = String.format("%s disappears in a puff of smoke!", target.getName());
-
-                entityService.sendMessageToRoom(room, Arrays.asList(entity, target), new GameOutput(exitMessage));
-
-                output
-                        .append(String.format("[yellow]You teleport %s.", target.getName()))
-                        .append(exitMessage);
+                output.append(String.format("[yellow]You teleport %s.", target.getName()));
             } else {
                 LOGGER.warn("TELEPORT from NULL room!");
             }
 
-            room = worldManager.put(target, location[0], location[1], location[2]);
-            LOGGER.trace("Location after: ({}, {}, {})", location[0], location[1], location[2]);
-
-            GameOutput enterMessage = new GameOutput(String.format("%s appears in a puff of smoke!", target.getName()));
+            // the move runs in the target's mailbox so it can't interleave with their own commands
+            mailboxService.execute(target, () -> teleport(entity, target, location));
+        } else {
+            output.append("[yellow]No such room exists.");
+        }
 
-            entityService.sendMessageToRoom(room, target, enterMessage);
+        return output;
+    }
 
-            Command look = (Command) applicationContext.getBean("lookCommand");
-            GameOutput lookOutput = new GameOutput();
+    private void teleport(Entity entity, Entity target, long[] location) {
+        Room origin = target.getRoom();
 
-            lookOutput.append(String.format("[yellow]%s TELEPORTS you!", entity.getName()));
+        if (origin != null) {
+            LOGGER.trace("Location before: ({}, {}, {})", origin.getX(), origin.getY(), origin.getZ());
 
-            look.execute(lookOutput, target, "look", new String[0], "");
-            entityService.sendMessageToEntity(target, lookOutput);
-        } else {
-            output.append("[yellow]No such room exists.");
+            crowdService.announceVanish(origin, target);
         }
 
-        return output;
+        Room room = worldManager.put(target, location[0], location[1], location[2]);
+        LOGGER.trace("Location after: ({}, {}, {})", location[0], location[1], location[2]);
+
+        crowdService.announceAppear(room, target);
+
+        Command look = commandRegistry.getCommand("lookCommand");
+        GameOutput lookOutput = new GameOutput();
+
+        lookOutput.append(String.format("[yellow]%s TELEPORTS you!", entity.getName()));
+
+        look.execute(lookOutput, target, "look", new String[0], "");
+        entityService.sendMessageToEntity(target, lookOutput);
     }
 }
@@ -23,6 +23,7 @@ package com.emergentmud.core.command.impl;
 import com.emergentmud.core.command.BaseCommunicationCommand;
 import com.emergentmud.core.command.Command;
 import com.emergentmud.core.model.Entity;
+import com.emergentmud.core.model.OutputPriority;
 import com.emergentmud.core.model.stomp.GameOutput;
 import com.emergentmud.core.repository.EntityRepository;
 import com.emergentmud.core.service.EntityService;
@@ -73,7 +74,7 @@ public class TellCommand extends BaseCommunicationCommand implements Command {
 
         GameOutput toTarget = new GameOutput(String.format("[red]%s tells you '%s[red]'", entity.getName(), HtmlUtils.htmlEscape(message)));
 
-        entityService.sendMessageToEntity(target, toTarget);
+        entityService.sendMessageToEntity(target, toTarget, OutputPriority.CHAT);
 
         return output;
     }
@@ -22,36 +22,43 @@ package com.emergentmud.core.command.impl;
 
 import com.emergentmud.core.command.BaseCommand;
 import com.emergentmud.core.command.Command;
+import com.emergentmud.core.command.CommandRegistry;
 import com.emergentmud.core.model.Entity;
 import com.emergentmud.core.model.room.Room;
 import com.emergentmud.core.model.stomp.GameOutput;
 import com.emergentmud.core.repository.WorldManager;
+import com.emergentmud.core.service.CrowdService;
 import com.emergentmud.core.service.EntityService;
+import com.emergentmud.core.service.MailboxService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Component;
 
 import javax.inject.Inject;
-import java.util.Arrays;
 import java.util.Optional;
 
 @Component
 public class TransferCommand extends BaseCommand {
     private static final Logger LOGGER = LoggerFactory.getLogger(TransferCommand.class);
 
-    private ApplicationContext applicationContext;
+    private CommandRegistry commandRegistry;
     private WorldManager worldManager;
     private EntityService entityService;
+    private CrowdService crowdService;
+    private MailboxService mailboxService;
 
     @Inject
-    public TransferCommand(ApplicationContext applicationContext,
+    public TransferCommand(CommandRegistry commandRegistry,
                            WorldManager worldManager,
-                           EntityService entityService) {
+                           EntityService entityService,
+                           CrowdService crowdService,
+                           MailboxService mailboxService) {
 
-        this.applicationContext = applicationContext;
+        this.commandRegistry = commandRegistry;
         this.worldManager = worldManager;
         this.entityService = entityService;
+        this.crowdService = crowdService;
+        this.mailboxService = mailboxService;
 
         setDescription("Instantly transport someone from wherever they are to here.");
         addParameter("person", true);
@@ -90,32 +97,32 @@ public class TransferCommand extends BaseCommand {
                 room.getZ()
         };
 
+        // the move runs in the target's mailbox so it can't interleave with their own commands
+        mailboxService.execute(target, () -> transfer(entity, target, location));
+        output.append(String.format("[yellow]You transfer %s.", target.getName()));
+
+        return output;
+    }
+
+    private void transfer(Entity entity, Entity target, long[] location) {
         LOGGER.trace("Location before: ({}, {}, {})",
                 target.getRoom().getX(),
                 target.getRoom().getY(),
                 target.getRoom().getZ());
 
-        String exitMessage = String.format("%s disappears in a puff of smoke!", target.getName());
-        entityService.sendMessageToRoom(target.getRoom(), target, new GameOutput(exitMessage));
+        crowdService.announceVanish(target.getRoom(), target);
 
-        room = worldManager.put(target, location[0], location[1], location[2]);
+        Room room = worldManager.put(target, location[0], location[1], location[2]);
         LOGGER.trace("Location after: ({}, {}, {})", location[0], location[1], location[2]);
 
-        String enterMessage = String.format("%s appears in a puff of smoke!", target.getName());
+        crowdService.announceAppear(room, target);
 
-        entityService.sendMessageToRoom(room, Arrays.asList(entity, target), new GameOutput(enterMessage));
-        output
-                .append(String.format("[yellow]You transfer %s.", target.getName()))
-                .append(enterMessage);
-
-        Command look = (Command) applicationContext.getBean("lookCommand");
+        Command look = commandRegistry.getCommand("lookCommand");
         GameOutput lookOutput = new GameOutput();
 
         lookOutput.append(String.format("[yellow]%s TRANSFERS you!", entity.getName()));
 
         look.execute(lookOutput, target, "look", new String[0], "");
         entityService.sendMessageToEntity(target, lookOutput);
-
-        return output;
     }
 }
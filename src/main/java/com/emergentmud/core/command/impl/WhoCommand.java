@@ -23,7 +23,7 @@ package com.emergentmud.core.command.impl;
 import com.emergentmud.core.command.BaseCommand;
 import com.emergentmud.core.model.Entity;
 import com.emergentmud.core.model.stomp.GameOutput;
-import com.emergentmud.core.repository.EntityRepository;
+import com.emergentmud.core.service.PresenceService;
 import org.springframework.stereotype.Component;
 
 import javax.inject.Inject;
@@ -31,18 +31,18 @@ import java.util.List;
 
 @Component
 public class WhoCommand extends BaseCommand {
-    private EntityRepository entityRepository;
+    private PresenceService presenceService;
 
     @Inject
-    public WhoCommand(EntityRepository entityRepository) {
-        this.entityRepository = entityRepository;
+    public WhoCommand(PresenceService presenceService) {
+        this.presenceService = presenceService;
 
         setDescription("See who else is in the game.");
     }
 
     @Override
     public GameOutput execute(GameOutput output, Entity entity, String command, String[] tokens, String raw) {
-        List<Entity> online = entityRepository.findByRoomIsNotNull();
+        List<Entity> online = presenceService.getOnline();
 
         output.append("[dwhite]Who is online:");
         online.forEach(e -> output.append("[dwhite]" + e.getName()));
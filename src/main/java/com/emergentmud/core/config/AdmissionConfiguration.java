@@ -0,0 +1,84 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class AdmissionConfiguration {
+    @Value("${admission.rate:10}")
+    private double rate;
+
+    @Value("${admission.burst:20}")
+    private int burst;
+
+    @Value("${admission.elevated.pending:256}")
+    private int elevatedPending;
+
+    @Value("${admission.elevated.wait:250}")
+    private long elevatedWait;
+
+    @Value("${admission.critical.pending:1024}")
+    private int criticalPending;
+
+    @Value("${admission.critical.wait:1000}")
+    private long criticalWait;
+
+    @Value("${admission.expensive:map,who,data}")
+    private String expensive;
+
+    @Bean(name = "admissionRate")
+    public Double admissionRate() {
+        return rate;
+    }
+
+    @Bean(name = "admissionBurst")
+    public Integer admissionBurst() {
+        return burst;
+    }
+
+    @Bean(name = "elevatedPending")
+    public Integer elevatedPending() {
+        return elevatedPending;
+    }
+
+    @Bean(name = "elevatedWait")
+    public Long elevatedWait() {
+        return elevatedWait;
+    }
+
+    @Bean(name = "criticalPending")
+    public Integer criticalPending() {
+        return criticalPending;
+    }
+
+    @Bean(name = "criticalWait")
+    public Long criticalWait() {
+        return criticalWait;
+    }
+
+    @Bean(name = "expensiveCommands")
+    public String expensiveCommands() {
+        return expensive;
+    }
+}
@@ -20,12 +20,12 @@
 
 package com.emergentmud.core.config;
 
+import com.emergentmud.core.command.CommandRegistry;
 import com.emergentmud.core.command.impl.MoveCommand;
 import com.emergentmud.core.model.Direction;
 import com.emergentmud.core.repository.RoomBuilder;
 import com.emergentmud.core.repository.WorldManager;
-import com.emergentmud.core.service.EntityService;
-import org.springframework.context.ApplicationContext;
+import com.emergentmud.core.service.CrowdService;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -34,7 +34,7 @@ import javax.inject.Inject;
 @Configuration
 public class CommandConfiguration {
     @Inject
-    private ApplicationContext applicationContext;
+    private CommandRegistry commandRegistry;
 
     @Inject
     private RoomBuilder roomBuilder;
@@ -43,25 +43,25 @@ public class CommandConfiguration {
     private WorldManager worldManager;
 
     @Inject
-    private EntityService entityService;
+    private CrowdService crowdService;
 
     @Bean(name = "northCommand")
     public MoveCommand northCommand() {
-        return new MoveCommand(Direction.NORTH, applicationContext, worldManager, roomBuilder, entityService);
+        return new MoveCommand(Direction.NORTH, commandRegistry, worldManager, roomBuilder, crowdService);
     }
 
     @Bean(name = "eastCommand")
     public MoveCommand eastCommand() {
-        return new MoveCommand(Direction.EAST, applicationContext, worldManager, roomBuilder, entityService);
+        return new MoveCommand(Direction.EAST, commandRegistry, worldManager, roomBuilder, crowdService);
     }
 
     @Bean(name = "southCommand")
     public MoveCommand southCommand() {
-        return new MoveCommand(Direction.SOUTH, applicationContext, worldManager, roomBuilder, entityService);
+        return new MoveCommand(Direction.SOUTH, commandRegistry, worldManager, roomBuilder, crowdService);
     }
 
     @Bean(name = "westCommand")
     public MoveCommand westCommand() {
-        return new MoveCommand(Direction.WEST, applicationContext, worldManager, roomBuilder, entityService);
+        return new MoveCommand(Direction.WEST, commandRegistry, worldManager, roomBuilder, crowdService);
     }
 }
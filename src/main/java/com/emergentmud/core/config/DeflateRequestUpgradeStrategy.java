@@ -0,0 +1,91 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.config;
+
+import org.eclipse.jetty.websocket.server.WebSocketServerFactory;
+import org.springframework.context.Lifecycle;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.context.ServletContextAware;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeFailureException;
+import org.springframework.web.socket.server.RequestUpgradeStrategy;
+import org.springframework.web.socket.server.jetty.JettyRequestUpgradeStrategy;
+
+import javax.servlet.ServletContext;
+import java.security.Principal;
+import java.util.List;
+import java.util.Map;
+
+public class DeflateRequestUpgradeStrategy implements RequestUpgradeStrategy, ServletContextAware, Lifecycle {
+    static final String PERMESSAGE_DEFLATE = "permessage-deflate";
+
+    private JettyRequestUpgradeStrategy delegate = new JettyRequestUpgradeStrategy();
+
+    // Jetty only lets us swap the extension before the factory starts, and the factory can't be built without the servlet context
+    @Override
+    public void setServletContext(ServletContext servletContext) {
+        WebSocketServerFactory factory = new WebSocketServerFactory(servletContext);
+
+        factory.getExtensionFactory().register(PERMESSAGE_DEFLATE, ThresholdDeflateExtension.class);
+
+        delegate = new JettyRequestUpgradeStrategy(factory);
+        delegate.setServletContext(servletContext);
+    }
+
+    @Override
+    public String[] getSupportedVersions() {
+        return delegate.getSupportedVersions();
+    }
+
+    @Override
+    public List<WebSocketExtension> getSupportedExtensions(ServerHttpRequest request) {
+        return delegate.getSupportedExtensions(request);
+    }
+
+    @Override
+    public void upgrade(ServerHttpRequest request,
+                        ServerHttpResponse response,
+                        String selectedProtocol,
+                        List<WebSocketExtension> selectedExtensions,
+                        Principal user,
+                        WebSocketHandler wsHandler,
+                        Map<String, Object> attributes) throws HandshakeFailureException {
+
+        delegate.upgrade(request, response, selectedProtocol, selectedExtensions, user, wsHandler, attributes);
+    }
+
+    @Override
+    public void start() {
+        delegate.start();
+    }
+
+    @Override
+    public void stop() {
+        delegate.stop();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return delegate.isRunning();
+    }
+}
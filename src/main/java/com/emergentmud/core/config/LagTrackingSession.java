@@ -0,0 +1,49 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.emergentmud.core.config;
+
+import com.emergentmud.core.service.LagService;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+
+// Spring wraps this in its own concurrent decorator, so only the thread actually writing to the socket gets here
+public class LagTrackingSession extends WebSocketSessionDecorator {
+    private LagService lagService;
+
+    public LagTrackingSession(WebSocketSession delegate, LagService lagService) {
+        super(delegate);
+
+        this.lagService = lagService;
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+        lagService.writeStarted(getId());
+
+        try {
+            super.sendMessage(message);
+        } finally {
+            lagService.writeFinished(getId(), message.getPayloadLength());
+        }
+    }
+}
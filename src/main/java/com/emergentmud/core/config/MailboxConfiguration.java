@@ -0,0 +1,48 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class MailboxConfiguration {
+    @Value("${mailbox.workers:8}")
+    private int workers;
+
+    @Value("${mailbox.depth:32}")
+    private int depth;
+
+    @Bean(name = "mailboxExecutor", destroyMethod = "shutdown")
+    public ExecutorService mailboxExecutor() {
+        return Executors.newFixedThreadPool(workers, new CustomizableThreadFactory("mailbox-"));
+    }
+
+    @Bean(name = "mailboxDepth")
+    public Integer mailboxDepth() {
+        return depth;
+    }
+}
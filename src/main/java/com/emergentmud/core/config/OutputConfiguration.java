@@ -0,0 +1,52 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.emergentmud.core.config;
+
+import com.emergentmud.core.model.OverflowPolicy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class OutputConfiguration {
+    @Value("${output.queue.limit:200}")
+    private int queueLimit;
+
+    @Value("${output.overflow:drop-chat}")
+    private String overflow;
+
+    @Value("${output.lag.threshold:500}")
+    private int lagThreshold;
+
+    @Bean(name = "outputQueueLimit")
+    public Integer outputQueueLimit() {
+        return Math.max(1, queueLimit);
+    }
+
+    @Bean(name = "outputOverflowPolicy")
+    public OverflowPolicy outputOverflowPolicy() {
+        return OverflowPolicy.fromProperty(overflow);
+    }
+
+    @Bean(name = "outputLagThreshold")
+    public Integer outputLagThreshold() {
+        return Math.max(0, lagThreshold);
+    }
+}
@@ -33,8 +33,16 @@ public class SessionConfiguration {
     @Value("${redis.port}")
     private int redisPort;
 
+    @Value("${session.validate:false}")
+    private boolean sessionValidate;
+
     @Bean
     public JedisConnectionFactory connectionFactory() {
         return new JedisConnectionFactory(new JedisShardInfo(redisHost, redisPort));
     }
+
+    @Bean(name = "sessionValidate")
+    public Boolean sessionValidate() {
+        return sessionValidate;
+    }
 }
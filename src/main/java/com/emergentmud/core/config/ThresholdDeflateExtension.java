@@ -0,0 +1,156 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.config;
+
+import com.emergentmud.core.service.CompressionService;
+import com.emergentmud.core.util.SpringContextSingleton;
+import org.eclipse.jetty.websocket.api.BatchMode;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+import org.eclipse.jetty.websocket.api.extensions.Frame;
+import org.eclipse.jetty.websocket.common.OpCode;
+import org.eclipse.jetty.websocket.common.extensions.compress.PerMessageDeflateExtension;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ThresholdDeflateExtension extends PerMessageDeflateExtension {
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    private CompressionService compressionService;
+    private AtomicInteger pending = new AtomicInteger();
+    private Queue<Measurement> measurements = new ConcurrentLinkedQueue<>();
+    private Measurement current;
+
+    // Jetty creates a new instance reflectively for every connection that negotiates permessage-deflate
+    public ThresholdDeflateExtension() {
+        SpringContextSingleton context = SpringContextSingleton.getInstance();
+
+        if (context != null && context.getApplicationContext() != null) {
+            compressionService = context.getApplicationContext().getBean(CompressionService.class);
+        }
+    }
+
+    ThresholdDeflateExtension(CompressionService compressionService) {
+        this.compressionService = compressionService;
+    }
+
+    @Override
+    public void outgoingFrame(Frame frame, WriteCallback callback, BatchMode batchMode) {
+        if (compressionService == null || OpCode.isControlFrame(frame.getOpCode())) {
+            super.outgoingFrame(frame, callback, batchMode);
+            return;
+        }
+
+        boolean first = frame.getOpCode() != OpCode.CONTINUATION;
+
+        // a message sent without RSV1 is legal under permessage-deflate, as long as nothing compressed is still queued ahead of it
+        if (first && frame.isFin() && pending.get() == 0 && !compressionService.isWorthCompressing(frame.getPayloadLength())) {
+            compressionService.recordSkipped(compressionService.classify(frame.getPayload()));
+            super.nextOutgoingFrame(frame, callback, batchMode);
+            return;
+        }
+
+        if (first) {
+            current = new Measurement(compressionService.classify(frame.getPayload()));
+            measurements.add(current);
+        }
+
+        Measurement measurement = current;
+        long start = cpuTime();
+
+        measurement.original += frame.getPayloadLength();
+        pending.incrementAndGet();
+
+        super.outgoingFrame(frame, new WriteCallback() {
+            @Override
+            public void writeFailed(Throwable x) {
+                pending.decrementAndGet();
+
+                if (callback != null) {
+                    callback.writeFailed(x);
+                }
+            }
+
+            @Override
+            public void writeSuccess() {
+                pending.decrementAndGet();
+
+                if (callback != null) {
+                    callback.writeSuccess();
+                }
+            }
+        }, batchMode);
+
+        measurement.cpuNanos += cpuTime() - start;
+
+        if (frame.isFin()) {
+            complete(measurement);
+        }
+    }
+
+    @Override
+    protected void nextOutgoingFrame(Frame frame, WriteCallback callback, BatchMode batchMode) {
+        if (OpCode.isDataFrame(frame.getOpCode())) {
+            Measurement measurement = measurements.peek();
+
+            if (measurement != null) {
+                measurement.compressed += frame.getPayloadLength();
+
+                if (frame.isFin()) {
+                    measurements.poll();
+                    complete(measurement);
+                }
+            }
+        }
+
+        super.nextOutgoingFrame(frame, callback, batchMode);
+    }
+
+    private void complete(Measurement measurement) {
+        if (measurement.parts.decrementAndGet() == 0) {
+            compressionService.recordCompressed(
+                    measurement.type,
+                    measurement.original,
+                    measurement.compressed,
+                    measurement.cpuNanos);
+        }
+    }
+
+    private static long cpuTime() {
+        return THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported() ? THREAD_MX_BEAN.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    // finished once the caller has handed over the last frame and the deflater has emitted the last chunk, in either order
+    private static class Measurement {
+        private String type;
+        private int original;
+        private int compressed;
+        private long cpuNanos;
+        private AtomicInteger parts = new AtomicInteger(2);
+
+        Measurement(String type) {
+            this.type = type;
+        }
+    }
+}
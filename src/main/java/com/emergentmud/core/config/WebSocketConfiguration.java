@@ -20,19 +20,54 @@
 
 package com.emergentmud.core.config;
 
+import com.emergentmud.core.service.LagService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.support.ChannelInterceptorAdapter;
 import org.springframework.session.ExpiringSession;
 import org.springframework.session.web.socket.config.annotation.AbstractSessionWebSocketMessageBrokerConfigurer;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+import org.springframework.web.socket.server.support.DefaultHandshakeHandler;
+
+import javax.inject.Inject;
 
 @EnableWebSocketMessageBroker
 @Configuration
 public class WebSocketConfiguration extends AbstractSessionWebSocketMessageBrokerConfigurer<ExpiringSession> {
+    @Inject
+    private LagService lagService;
+
+    @Value("${websocket.deflate.threshold:256}")
+    private int deflateThreshold;
+
+    @Bean(name = "deflateThreshold")
+    public Integer deflateThreshold() {
+        return Math.max(0, deflateThreshold);
+    }
+
     @Override
     public void configureStompEndpoints(StompEndpointRegistry stompEndpointRegistry) {
-        stompEndpointRegistry.addEndpoint("/mud").withSockJS();
+        stompEndpointRegistry
+                .addEndpoint("/mud")
+                .setHandshakeHandler(new DefaultHandshakeHandler(new DeflateRequestUpgradeStrategy()))
+                .withSockJS();
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        super.configureWebSocketTransport(registration);
+
+        registration.addDecoratorFactory(handler -> new LagTrackingHandlerDecorator(handler, lagService));
     }
 
     @Override
@@ -41,4 +76,24 @@ public class WebSocketConfiguration extends AbstractSessionWebSocketMessageBroke
         registry.setUserDestinationPrefix("/user");
         registry.enableSimpleBroker("/queue", "/topic");
     }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        super.configureClientInboundChannel(registration);
+
+        registration.setInterceptors(new ChannelInterceptorAdapter() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+
+                if (SimpMessageType.MESSAGE.equals(SimpMessageHeaderAccessor.getMessageType(message.getHeaders()))
+                        && destination != null
+                        && (destination.startsWith("/topic") || destination.startsWith("/queue"))) {
+                    throw new MessageDeliveryException(message, "Clients may not send directly to " + destination);
+                }
+
+                return message;
+            }
+        });
+    }
 }
@@ -22,8 +22,9 @@ package com.emergentmud.core.event;
 
 import com.emergentmud.core.model.Entity;
 import com.emergentmud.core.model.stomp.GameOutput;
-import com.emergentmud.core.repository.EntityRepository;
 import com.emergentmud.core.service.EntityService;
+import com.emergentmud.core.service.OutputService;
+import com.emergentmud.core.service.PresenceService;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.event.ApplicationContextEvent;
 import org.springframework.context.event.ContextClosedEvent;
@@ -35,22 +36,25 @@ import java.util.List;
 
 @Component
 public class GameShutdownListener implements ApplicationListener<ApplicationContextEvent> {
-    private EntityRepository entityRepository;
+    private PresenceService presenceService;
     private EntityService entityService;
+    private OutputService outputService;
 
     @Inject
-    public GameShutdownListener(EntityRepository entityRepository, EntityService entityService) {
-        this.entityRepository = entityRepository;
+    public GameShutdownListener(PresenceService presenceService, EntityService entityService, OutputService outputService) {
+        this.presenceService = presenceService;
         this.entityService = entityService;
+        this.outputService = outputService;
     }
 
     @Override
     public void onApplicationEvent(ApplicationContextEvent event) {
         if (event instanceof ContextClosedEvent || event instanceof ContextStoppedEvent) {
-            List<Entity> everyone = entityRepository.findByRoomIsNotNull();
+            List<Entity> everyone = presenceService.getOnline();
             GameOutput output = new GameOutput("[red]EmergentMUD is shutting down. Please check back later!");
 
             entityService.sendMessageToListeners(everyone, output);
+            outputService.flushAll();
         }
     }
 }
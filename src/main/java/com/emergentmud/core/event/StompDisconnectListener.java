@@ -21,10 +21,14 @@
 package com.emergentmud.core.event;
 
 import com.emergentmud.core.model.Entity;
-import com.emergentmud.core.model.stomp.GameOutput;
+import com.emergentmud.core.model.PlayerSession;
 import com.emergentmud.core.repository.EntityRepository;
 import com.emergentmud.core.repository.WorldManager;
-import com.emergentmud.core.service.EntityService;
+import com.emergentmud.core.service.ChannelService;
+import com.emergentmud.core.service.CrowdService;
+import com.emergentmud.core.service.MailboxService;
+import com.emergentmud.core.service.OutputService;
+import com.emergentmud.core.service.PlayerSessionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.ApplicationListener;
@@ -39,31 +43,50 @@ public class StompDisconnectListener implements ApplicationListener<SessionDisco
 
     private EntityRepository entityRepository;
     private WorldManager worldManager;
-    private EntityService entityService;
+    private CrowdService crowdService;
+    private PlayerSessionService playerSessionService;
+    private MailboxService mailboxService;
+    private OutputService outputService;
+    private ChannelService channelService;
 
     @Inject
     public StompDisconnectListener(EntityRepository entityRepository,
                                    WorldManager worldManager,
-                                   EntityService entityService) {
+                                   CrowdService crowdService,
+                                   PlayerSessionService playerSessionService,
+                                   MailboxService mailboxService,
+                                   OutputService outputService,
+                                   ChannelService channelService) {
         this.entityRepository = entityRepository;
         this.worldManager = worldManager;
-        this.entityService = entityService;
+        this.crowdService = crowdService;
+        this.playerSessionService = playerSessionService;
+        this.mailboxService = mailboxService;
+        this.outputService = outputService;
+        this.channelService = channelService;
     }
 
     @Override
     public void onApplicationEvent(SessionDisconnectEvent event) {
-        Entity entity = entityRepository.findByStompSessionIdAndStompUsername(event.getSessionId(), event.getUser().getName());
+        outputService.discard(event.getSessionId());
 
-        if (entity != null) {
-            if (entity.getRoom() != null) {
-                GameOutput enterMessage = new GameOutput(String.format("[yellow]%s has left the game.", entity.getName()));
+        Entity entity = playerSessionService.unbind(event.getSessionId())
+                .map(PlayerSession::getEntity)
+                .orElseGet(() -> entityRepository.findByStompSessionIdAndStompUsername(event.getSessionId(), event.getUser().getName()));
 
-                entityService.sendMessageToRoom(entity.getRoom(), entity, enterMessage);
+        if (entity != null) {
+            mailboxService.execute(entity, () -> disconnect(entity));
+        }
+    }
 
-                LOGGER.info("{} has disconnected from the game", entity.getName());
-            }
+    private void disconnect(Entity entity) {
+        if (entity.getRoom() != null) {
+            crowdService.announceLogout(entity.getRoom(), entity);
 
-            worldManager.remove(entity);
+            LOGGER.info("{} has disconnected from the game", entity.getName());
         }
+
+        worldManager.remove(entity);
+        channelService.forget(entity);
     }
 }
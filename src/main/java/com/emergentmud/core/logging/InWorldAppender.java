@@ -21,12 +21,14 @@
 package com.emergentmud.core.logging;
 
 import ch.qos.logback.core.AppenderBase;
+import com.emergentmud.core.model.Capability;
 import com.emergentmud.core.model.CommandRole;
 import com.emergentmud.core.model.Entity;
+import com.emergentmud.core.model.OutputPriority;
 import com.emergentmud.core.model.stomp.GameOutput;
-import com.emergentmud.core.repository.CapabilityRepository;
-import com.emergentmud.core.repository.EntityRepository;
+import com.emergentmud.core.service.CapabilityService;
 import com.emergentmud.core.service.EntityService;
+import com.emergentmud.core.service.PresenceService;
 import com.emergentmud.core.util.SpringContextSingleton;
 import org.springframework.context.ApplicationContext;
 
@@ -43,22 +45,23 @@ public class InWorldAppender<T> extends AppenderBase<T> {
         }
 
         EntityService entityService = (EntityService)applicationContext.getBean("entityService");
-        EntityRepository entityRepository = (EntityRepository)applicationContext.getBean("entityRepository");
-        CapabilityRepository capabilityRepository = (CapabilityRepository)applicationContext.getBean("capabilityRepository");
+        PresenceService presenceService = (PresenceService)applicationContext.getBean("presenceService");
+        CapabilityService capabilityService = (CapabilityService)applicationContext.getBean("capabilityService");
 
-        if (entityService == null || entityRepository == null) {
+        if (entityService == null || presenceService == null) {
             return;
         }
 
         GameOutput logMessage = new GameOutput(String.format("[dmagenta]%s[dmagenta]", eventObject));
+        Capability logCapability = capabilityService.getCapability(CommandRole.LOG);
 
-        List<Entity> contents = entityRepository.findByRoomIsNotNull()
+        List<Entity> contents = presenceService.getOnline()
                 .stream()
-                .filter(e -> e.isCapable(capabilityRepository.findByName(CommandRole.LOG.name())))
+                .filter(e -> capabilityService.hasCapability(e, logCapability))
                 .collect(Collectors.toList());
 
         if (!contents.isEmpty()) {
-            entityService.sendMessageToListeners(contents, logMessage);
+            entityService.sendMessageToListeners(contents, logMessage, OutputPriority.CHAT);
         }
     }
 }
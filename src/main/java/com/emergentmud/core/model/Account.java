@@ -21,6 +21,7 @@
 package com.emergentmud.core.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
 import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.DBRef;
@@ -44,6 +45,9 @@ public class Account implements Capable {
     @DBRef
     private List<Capability> capabilities = new ArrayList<>();
 
+    @Transient
+    private Long capabilityMask;
+
     public String getId() {
         return id;
     }
@@ -70,21 +74,25 @@ public class Account implements Capable {
 
     @Override
     public void addCapabilities(Capability ... capability) {
+        capabilityMask = null;
         capabilities.addAll(Arrays.asList(capability));
     }
 
     @Override
     public void addCapabilities(Collection<Capability> capabilities) {
+        capabilityMask = null;
         this.capabilities.addAll(capabilities);
     }
 
     @Override
     public void removeCapabilities(Capability ... capability) {
+        capabilityMask = null;
         capabilities.removeAll(Arrays.asList(capability));
     }
 
     @Override
     public void removeCapabilities(Collection<Capability> capabilities) {
+        capabilityMask = null;
         this.capabilities.removeAll(capabilities);
     }
 
@@ -98,6 +106,16 @@ public class Account implements Capable {
         return capabilities.contains(capability);
     }
 
+    @Override
+    public Long getCapabilityMask() {
+        return capabilityMask;
+    }
+
+    @Override
+    public void setCapabilityMask(Long capabilityMask) {
+        this.capabilityMask = capabilityMask;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -30,4 +30,6 @@ public interface Capable {
     void removeCapabilities(Collection<Capability> capabilities);
     List<Capability> getCapabilities();
     boolean isCapable(Capability capability);
+    Long getCapabilityMask();
+    void setCapabilityMask(Long capabilityMask);
 }
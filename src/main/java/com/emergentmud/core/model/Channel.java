@@ -0,0 +1,78 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.model;
+
+import com.emergentmud.core.model.stomp.GameOutput;
+import com.emergentmud.core.util.RingBuffer;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class Channel {
+    private String name;
+    private boolean autoJoin;
+    private RingBuffer<GameOutput> history;
+    private Set<String> members = ConcurrentHashMap.newKeySet();
+    private Set<String> departed = ConcurrentHashMap.newKeySet();
+
+    public Channel(String name, boolean autoJoin, int historySize) {
+        this.name = name;
+        this.autoJoin = autoJoin;
+        this.history = new RingBuffer<>(historySize);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isAutoJoin() {
+        return autoJoin;
+    }
+
+    public RingBuffer<GameOutput> getHistory() {
+        return history;
+    }
+
+    public boolean isMember(Entity entity) {
+        return members.contains(entity.getId()) || (autoJoin && !departed.contains(entity.getId()));
+    }
+
+    public void join(Entity entity) {
+        departed.remove(entity.getId());
+
+        if (!autoJoin) {
+            members.add(entity.getId());
+        }
+    }
+
+    public void leave(Entity entity) {
+        members.remove(entity.getId());
+
+        if (autoJoin) {
+            departed.add(entity.getId());
+        }
+    }
+
+    public void forget(Entity entity) {
+        members.remove(entity.getId());
+        departed.remove(entity.getId());
+    }
+}
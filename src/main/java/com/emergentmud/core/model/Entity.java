@@ -22,6 +22,7 @@ package com.emergentmud.core.model;
 
 import com.emergentmud.core.model.room.Room;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -54,6 +55,9 @@ public class Entity implements Capable {
     @DBRef
     private Room room;
 
+    @Transient
+    private Long capabilityMask;
+
     public String getId() {
         return id;
     }
@@ -136,21 +140,25 @@ public class Entity implements Capable {
 
     @Override
     public void addCapabilities(Capability ... capability) {
+        capabilityMask = null;
         capabilities.addAll(Arrays.asList(capability));
     }
 
     @Override
     public void addCapabilities(Collection<Capability> capabilities) {
+        capabilityMask = null;
         this.capabilities.addAll(capabilities);
     }
 
     @Override
     public void removeCapabilities(Capability ... capability) {
+        capabilityMask = null;
         capabilities.removeAll(Arrays.asList(capability));
     }
 
     @Override
     public void removeCapabilities(Collection<Capability> capabilities) {
+        capabilityMask = null;
         this.capabilities.removeAll(capabilities);
     }
 
@@ -164,6 +172,16 @@ public class Entity implements Capable {
         return capabilities.contains(capability);
     }
 
+    @Override
+    public Long getCapabilityMask() {
+        return capabilityMask;
+    }
+
+    @Override
+    public void setCapabilityMask(Long capabilityMask) {
+        this.capabilityMask = capabilityMask;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,114 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.model;
+
+import com.emergentmud.core.command.Continuation;
+import com.emergentmud.core.util.TokenBucket;
+
+public class PlayerSession {
+    private String simpSessionId;
+    private String username;
+    private String breadcrumb;
+    private String accountId;
+    private Entity entity;
+    private String subscriptionId;
+    private TokenBucket tokenBucket;
+    private OutputFormat outputFormat = OutputFormat.JSON;
+    private boolean mapSubscribed;
+    private String mapSubscriptionId;
+    private Continuation continuation;
+
+    public PlayerSession(String simpSessionId, String username, String breadcrumb, String accountId, Entity entity) {
+        this.simpSessionId = simpSessionId;
+        this.username = username;
+        this.breadcrumb = breadcrumb;
+        this.accountId = accountId;
+        this.entity = entity;
+    }
+
+    public String getSimpSessionId() {
+        return simpSessionId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getBreadcrumb() {
+        return breadcrumb;
+    }
+
+    public String getAccountId() {
+        return accountId;
+    }
+
+    public Entity getEntity() {
+        return entity;
+    }
+
+    public String getSubscriptionId() {
+        return subscriptionId;
+    }
+
+    public void setSubscriptionId(String subscriptionId) {
+        this.subscriptionId = subscriptionId;
+    }
+
+    public TokenBucket getTokenBucket() {
+        return tokenBucket;
+    }
+
+    public void setTokenBucket(TokenBucket tokenBucket) {
+        this.tokenBucket = tokenBucket;
+    }
+
+    public OutputFormat getOutputFormat() {
+        return outputFormat;
+    }
+
+    public void setOutputFormat(OutputFormat outputFormat) {
+        this.outputFormat = outputFormat;
+    }
+
+    public boolean isMapSubscribed() {
+        return mapSubscribed;
+    }
+
+    public void setMapSubscribed(boolean mapSubscribed) {
+        this.mapSubscribed = mapSubscribed;
+    }
+
+    public String getMapSubscriptionId() {
+        return mapSubscriptionId;
+    }
+
+    public void setMapSubscriptionId(String mapSubscriptionId) {
+        this.mapSubscriptionId = mapSubscriptionId;
+    }
+
+    public Continuation getContinuation() {
+        return continuation;
+    }
+
+    public void setContinuation(Continuation continuation) {
+        this.continuation = continuation;
+    }
+}
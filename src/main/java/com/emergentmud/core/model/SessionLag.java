@@ -0,0 +1,96 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.emergentmud.core.model;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class SessionLag {
+    private String simpSessionId;
+    private volatile long writeStartedAt;
+    private volatile long maxWriteMillis;
+    private AtomicLong writes = new AtomicLong();
+    private AtomicLong bytes = new AtomicLong();
+    private AtomicLong held = new AtomicLong();
+    private AtomicLong dropped = new AtomicLong();
+
+    public SessionLag(String simpSessionId) {
+        this.simpSessionId = simpSessionId;
+    }
+
+    public String getSimpSessionId() {
+        return simpSessionId;
+    }
+
+    public void start(long now) {
+        writeStartedAt = now;
+    }
+
+    public long finish(long now, int length) {
+        long elapsed = writeStartedAt == 0 ? 0 : now - writeStartedAt;
+
+        writeStartedAt = 0;
+        writes.incrementAndGet();
+        bytes.addAndGet(length);
+
+        if (elapsed > maxWriteMillis) {
+            maxWriteMillis = elapsed;
+        }
+
+        return elapsed;
+    }
+
+    public boolean isWriting() {
+        return writeStartedAt != 0;
+    }
+
+    public long getCurrentWriteMillis(long now) {
+        long started = writeStartedAt;
+
+        return started == 0 ? 0 : now - started;
+    }
+
+    public long getMaxWriteMillis() {
+        return maxWriteMillis;
+    }
+
+    public long getWrites() {
+        return writes.get();
+    }
+
+    public long getBytes() {
+        return bytes.get();
+    }
+
+    public long getHeld() {
+        return held.get();
+    }
+
+    public void addHeld() {
+        held.incrementAndGet();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public void addDropped(int lines) {
+        dropped.addAndGet(lines);
+    }
+}
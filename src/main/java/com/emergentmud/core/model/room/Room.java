@@ -42,6 +42,7 @@ public class Room {
     private Long x;
     private Long y;
     private Long z;
+    private Integer crowdThreshold;
 
     public String getId() {
         return id;
@@ -112,4 +113,12 @@ public class Room {
     public void setZ(Long z) {
         this.z = z;
     }
+
+    public Integer getCrowdThreshold() {
+        return crowdThreshold;
+    }
+
+    public void setCrowdThreshold(Integer crowdThreshold) {
+        this.crowdThreshold = crowdThreshold;
+    }
 }
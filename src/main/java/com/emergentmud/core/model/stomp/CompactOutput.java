@@ -0,0 +1,166 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.model.stomp;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@JsonPropertyOrder({"v", "p", "o"})
+public class CompactOutput {
+    public static final int VERSION = 1;
+    public static final List<String> COLORS = Collections.unmodifiableList(Arrays.asList(
+            null, "default", "dblack", "black", "dwhite", "white", "dred", "red", "dyellow", "yellow",
+            "dgreen", "green", "dcyan", "cyan", "dblue", "blue", "dmagenta", "magenta"));
+
+    static final int CLOSE = 0;
+    static final int PALETTE_OFFSET = 32;
+
+    private static final int LITERAL = -1;
+    private static final String CLOSE_TAG = "</span>";
+    private static final Pattern TOKEN = Pattern.compile(
+            "\\[([a-z]+)]|<span style='color: #([0-9a-fA-F]{6})'>|</span>|<span[ >]");
+
+    private List<String> palette = new ArrayList<>();
+    private Map<Integer, Integer> paletteIndex = new HashMap<>();
+    private List<Object> output = new ArrayList<>();
+
+    public CompactOutput(GameOutput gameOutput) {
+        gameOutput.getOutput().forEach(line -> output.add(encode(line)));
+    }
+
+    @JsonProperty("v")
+    public int getVersion() {
+        return VERSION;
+    }
+
+    @JsonProperty("p")
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    public List<String> getPalette() {
+        return palette;
+    }
+
+    @JsonProperty("o")
+    public List<Object> getOutput() {
+        return output;
+    }
+
+    private Object encode(String line) {
+        if (line.indexOf('[') == -1 && line.indexOf('<') == -1) {
+            return line;
+        }
+
+        Matcher matcher = TOKEN.matcher(line);
+        List<Object> tokens = new ArrayList<>();
+        Deque<Integer> open = new ArrayDeque<>();
+        int lastClosed = LITERAL;
+        int position = 0;
+        boolean coded = false;
+
+        while (matcher.find()) {
+            appendText(tokens, line.substring(position, matcher.start()));
+            position = matcher.end();
+
+            int code;
+
+            if (matcher.group(1) != null) {
+                code = COLORS.indexOf(matcher.group(1));
+
+                if (code == -1) {
+                    appendText(tokens, matcher.group());
+                    continue;
+                }
+            } else if (matcher.group(2) != null) {
+                code = paletteCode(Integer.parseInt(matcher.group(2), 16));
+            } else if (CLOSE_TAG.equals(matcher.group())) {
+                Integer closed = open.poll();
+
+                if (closed == null || closed == LITERAL) {
+                    appendText(tokens, CLOSE_TAG);
+                    lastClosed = LITERAL;
+                } else {
+                    tokens.add(CLOSE);
+                    lastClosed = closed;
+                    coded = true;
+                }
+
+                continue;
+            } else {
+                // some other kind of span; it passes through untouched and so must its closing tag
+                open.push(LITERAL);
+                appendText(tokens, matcher.group());
+                lastClosed = LITERAL;
+                continue;
+            }
+
+            // "</span>" immediately followed by a span of the same color is a no-op on the client
+            if (code == lastClosed && !tokens.isEmpty() && tokens.get(tokens.size() - 1).equals(CLOSE)) {
+                tokens.remove(tokens.size() - 1);
+            } else {
+                tokens.add(code);
+            }
+
+            open.push(code);
+            lastClosed = LITERAL;
+            coded = true;
+        }
+
+        if (!coded) {
+            return line;
+        }
+
+        appendText(tokens, line.substring(position));
+
+        return tokens;
+    }
+
+    private int paletteCode(int rgb) {
+        return PALETTE_OFFSET + paletteIndex.computeIfAbsent(rgb, key -> {
+            palette.add(String.format("%06x", key));
+            return palette.size() - 1;
+        });
+    }
+
+    private static void appendText(List<Object> tokens, String text) {
+        if (text.isEmpty()) {
+            return;
+        }
+
+        int last = tokens.size() - 1;
+
+        if (last >= 0 && tokens.get(last) instanceof String) {
+            tokens.set(last, tokens.get(last) + text);
+        } else {
+            tokens.add(text);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.model.stomp;
+
+import com.emergentmud.core.model.room.Room;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class MapFrame {
+    public static final String FULL = "full";
+    public static final String DELTA = "delta";
+    public static final int UNEXPLORED = 0x000000;
+    public static final int UNKNOWN_BIOME = 0xFF00FF;
+
+    private String type;
+    private long x;
+    private long y;
+    private int width;
+    private int height;
+    private int dx;
+    private int dy;
+    private List<String> palette = new ArrayList<>();
+    private String tiles;
+
+    public MapFrame(String type, long x, long y, int width, int height, int dx, int dy, Room[] rooms) {
+        this.type = type;
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        this.dx = dx;
+        this.dy = dy;
+
+        Map<Integer, Integer> paletteIndex = new HashMap<>();
+        byte[] bytes = new byte[rooms.length];
+
+        for (int i = 0; i < rooms.length; i++) {
+            int color = colorOf(rooms[i]);
+
+            bytes[i] = (byte)(int)paletteIndex.computeIfAbsent(color, key -> {
+                palette.add(String.format("%06x", key));
+                return palette.size() - 1;
+            });
+        }
+
+        this.tiles = Base64.getEncoder().encodeToString(bytes);
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public long getX() {
+        return x;
+    }
+
+    public long getY() {
+        return y;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getDx() {
+        return dx;
+    }
+
+    public int getDy() {
+        return dy;
+    }
+
+    public List<String> getPalette() {
+        return palette;
+    }
+
+    public String getTiles() {
+        return tiles;
+    }
+
+    private static int colorOf(Room room) {
+        if (room == null) {
+            return UNEXPLORED;
+        }
+
+        return room.getBiome() != null ? room.getBiome().getColor() : UNKNOWN_BIOME;
+    }
+}
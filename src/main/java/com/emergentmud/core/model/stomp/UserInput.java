@@ -20,8 +20,11 @@
 
 package com.emergentmud.core.model.stomp;
 
+import java.util.List;
+
 public class UserInput {
     private String input;
+    private List<String> commands;
 
     public String getInput() {
         return input;
@@ -30,4 +33,12 @@ public class UserInput {
     public void setInput(String input) {
         this.input = input;
     }
+
+    public List<String> getCommands() {
+        return commands;
+    }
+
+    public void setCommands(List<String> commands) {
+        this.commands = commands;
+    }
 }
@@ -20,11 +20,17 @@
 
 package com.emergentmud.core.repository;
 
+import com.emergentmud.core.model.Capability;
 import com.emergentmud.core.model.CommandMetadata;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+
 @Repository
 public interface CommandMetadataRepository extends MongoRepository<CommandMetadata, String> {
     CommandMetadata findByName(String name);
+    Page<CommandMetadata> findByCapabilityIn(Collection<Capability> capabilities, Pageable pageable);
 }
@@ -23,6 +23,8 @@ package com.emergentmud.core.repository;
 import com.emergentmud.core.model.Account;
 import com.emergentmud.core.model.Entity;
 import com.emergentmud.core.model.room.Room;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
@@ -38,5 +40,5 @@ public interface EntityRepository extends MongoRepository<Entity, String> {
     List<Entity> findByRoomIn(List<Room> rooms);
     List<Entity> findByRoomIsNotNull();
     List<Entity> findByAccount(Account account);
-    List<Entity> findByAccountIsNotNull();
+    Page<Entity> findByAccountIsNotNull(Pageable pageable);
 }
@@ -29,10 +29,14 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import javax.inject.Inject;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.stream.Collectors;
 
 @Component
 public class RoomBuilder {
@@ -63,7 +67,15 @@ public class RoomBuilder {
             return room;
         }
 
-        room = generateRandomRoom(x, y, z);
+        List<WhittakerGridLocation> gridLocations = whittakerGridLocationRepository.findAll();
+        List<Room> neighbors = roomRepository.findByXBetweenAndYBetweenAndZ(
+                x - NEIGHBOR_DISTANCE,
+                x + NEIGHBOR_DISTANCE,
+                y - NEIGHBOR_DISTANCE,
+                y + NEIGHBOR_DISTANCE,
+                z);
+
+        room = generateRandomRoom(x, y, z, gridLocations, neighbors);
 
         if (room == null) {
             LOGGER.debug("No valid biomes for room at ({}, {}, {})", x, y, z);
@@ -73,15 +85,81 @@ public class RoomBuilder {
         return roomRepository.save(room);
     }
 
-    private Room generateRandomRoom(long x, long y, long z) {
-        List<WhittakerGridLocation> gridLocations = whittakerGridLocationRepository.findAll();
-        List<Room> neighbors = roomRepository.findByXBetweenAndYBetweenAndZ(
-                x - NEIGHBOR_DISTANCE,
-                x + NEIGHBOR_DISTANCE,
-                y - NEIGHBOR_DISTANCE,
-                y + NEIGHBOR_DISTANCE,
-                z);
+    public List<Room> generateRooms(List<long[]> locations) {
+        List<Room> rooms = new ArrayList<>();
+
+        if (locations.isEmpty()) {
+            return rooms;
+        }
+
+        long[] min = locations.get(0).clone();
+        long[] max = locations.get(0).clone();
+
+        locations.forEach(location -> {
+            for (int i = 0; i < 3; i++) {
+                min[i] = Math.min(min[i], location[i]);
+                max[i] = Math.max(max[i], location[i]);
+            }
+        });
+
+        // "between" queries exclude their bounds, so this finds everything within NEIGHBOR_DISTANCE - 1
+        // of the path, which is the same window generateRoom() sees around a single room
+        List<Room> known = new ArrayList<>(roomRepository.findByXBetweenAndYBetweenAndZBetween(
+                min[0] - NEIGHBOR_DISTANCE,
+                max[0] + NEIGHBOR_DISTANCE,
+                min[1] - NEIGHBOR_DISTANCE,
+                max[1] + NEIGHBOR_DISTANCE,
+                min[2] - 1,
+                max[2] + 1));
+        Map<String, Room> roomMap = new HashMap<>();
+        List<Room> generated = new ArrayList<>();
+        List<WhittakerGridLocation> gridLocations = null;
+
+        known.forEach(room -> roomMap.put(key(room.getX(), room.getY(), room.getZ()), room));
+
+        for (long[] location : locations) {
+            Room room = roomMap.get(key(location[0], location[1], location[2]));
+
+            if (room == null) {
+                if (gridLocations == null) {
+                    gridLocations = whittakerGridLocationRepository.findAll();
+                }
+
+                List<Room> neighbors = known
+                        .stream()
+                        .filter(neighbor -> Math.abs(neighbor.getX() - location[0]) < NEIGHBOR_DISTANCE
+                                && Math.abs(neighbor.getY() - location[1]) < NEIGHBOR_DISTANCE
+                                && neighbor.getZ() == location[2])
+                        .collect(Collectors.toList());
+
+                room = generateRandomRoom(location[0], location[1], location[2], new ArrayList<>(gridLocations), neighbors);
+
+                if (room == null) {
+                    LOGGER.debug("No valid biomes for room at ({}, {}, {})", location[0], location[1], location[2]);
+                    break;
+                }
+
+                known.add(room);
+                roomMap.put(key(location[0], location[1], location[2]), room);
+                generated.add(room);
+            }
+
+            rooms.add(room);
+        }
+
+        if (!generated.isEmpty()) {
+            LOGGER.debug("Generated {} rooms in one batch", generated.size());
+            roomRepository.save(generated);
+        }
+
+        return rooms;
+    }
+
+    private static String key(long x, long y, long z) {
+        return x + "," + y + "," + z;
+    }
 
+    private Room generateRandomRoom(long x, long y, long z, List<WhittakerGridLocation> gridLocations, List<Room> neighbors) {
         neighbors.forEach(neighbor -> {
             for (Iterator<WhittakerGridLocation> iterator = gridLocations.iterator(); iterator.hasNext();) {
                 WhittakerGridLocation gridLocation = iterator.next();
@@ -22,6 +22,8 @@ package com.emergentmud.core.repository;
 
 import com.emergentmud.core.model.Entity;
 import com.emergentmud.core.model.room.Room;
+import com.emergentmud.core.service.MapService;
+import com.emergentmud.core.service.PresenceService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -34,12 +36,18 @@ public class WorldManager {
 
     private EntityRepository entityRepository;
     private RoomRepository roomRepository;
+    private PresenceService presenceService;
+    private MapService mapService;
 
     @Inject
     public WorldManager(EntityRepository entityRepository,
-                        RoomRepository roomRepository) {
+                        RoomRepository roomRepository,
+                        PresenceService presenceService,
+                        MapService mapService) {
         this.entityRepository = entityRepository;
         this.roomRepository = roomRepository;
+        this.presenceService = presenceService;
+        this.mapService = mapService;
     }
 
     public boolean test(long x, long y, long z) {
@@ -53,15 +61,25 @@ public class WorldManager {
             throw new IllegalArgumentException("No such room exists.");
         }
 
-        LOGGER.trace("Put {} into room ({}, {}, {})", entity.getName(), x, y, z);
+        return put(entity, room);
+    }
+
+    public Room put(Entity entity, Room room) {
+        Room origin = entity.getRoom();
+
+        LOGGER.trace("Put {} into room ({}, {}, {})", entity.getName(), room.getX(), room.getY(), room.getZ());
 
         entity.setRoom(room);
         entityRepository.save(entity);
+        presenceService.enter(entity, room);
+        mapService.update(entity, origin, room);
 
         return room;
     }
 
     public void remove(Entity entity) {
+        presenceService.leave(entity);
+
         if (entity.getRoom() == null) {
             return;
         }
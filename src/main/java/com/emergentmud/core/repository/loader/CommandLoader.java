@@ -27,6 +27,8 @@ import com.emergentmud.core.model.CommandRole;
 import com.emergentmud.core.model.CommandMetadata;
 import com.emergentmud.core.repository.CapabilityRepository;
 import com.emergentmud.core.repository.CommandMetadataRepository;
+import com.emergentmud.core.service.CapabilityService;
+import com.emergentmud.core.service.CommandService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -42,12 +44,18 @@ public class CommandLoader {
 
     private CommandMetadataRepository commandMetadataRepository;
     private CapabilityRepository capabilityRepository;
+    private CapabilityService capabilityService;
+    private CommandService commandService;
 
     @Inject
     public CommandLoader(CommandMetadataRepository commandMetadataRepository,
-                         CapabilityRepository capabilityRepository) {
+                         CapabilityRepository capabilityRepository,
+                         CapabilityService capabilityService,
+                         CommandService commandService) {
         this.commandMetadataRepository = commandMetadataRepository;
         this.capabilityRepository = capabilityRepository;
+        this.capabilityService = capabilityService;
+        this.commandService = commandService;
     }
 
     @PostConstruct
@@ -77,6 +85,8 @@ public class CommandLoader {
             capabilityRepository.save(capabilityList);
         }
 
+        capabilityService.reload();
+
         if (commandMetadataRepository.count() == 0) {
             LOGGER.warn("No commands found! Loading default commands...");
 
@@ -86,6 +96,7 @@ public class CommandLoader {
             metadataList.add(new CommandMetadata("east", "eastCommand", 10, capabilityRepository.findByName(CommandRole.MOVE.name())));
             metadataList.add(new CommandMetadata("south", "southCommand", 10, capabilityRepository.findByName(CommandRole.MOVE.name())));
             metadataList.add(new CommandMetadata("west", "westCommand", 10, capabilityRepository.findByName(CommandRole.MOVE.name())));
+            metadataList.add(new CommandMetadata("speedwalk", "speedwalkCommand", 12, capabilityRepository.findByName(CommandRole.MOVE.name())));
             metadataList.add(new CommandMetadata("goto", "gotoCommand", 15, capabilityRepository.findByName(CommandRole.TELEPORT.name())));
             metadataList.add(new CommandMetadata("teleport", "teleportCommand", 15, capabilityRepository.findByName(CommandRole.TELEPORT.name())));
             metadataList.add(new CommandMetadata("transfer", "transferCommand", 15, capabilityRepository.findByName(CommandRole.TELEPORT.name())));
@@ -93,12 +104,14 @@ public class CommandLoader {
             metadataList.add(new CommandMetadata("say", "sayCommand", 200, capabilityRepository.findByName(CommandRole.TALK.name())));
             metadataList.add(new CommandMetadata("shout", "shoutCommand", 205, capabilityRepository.findByName(CommandRole.TALK.name())));
             metadataList.add(new CommandMetadata("gossip", "gossipCommand", 210, capabilityRepository.findByName(CommandRole.TALK.name())));
+            metadataList.add(new CommandMetadata("channel", "channelCommand", 212, capabilityRepository.findByName(CommandRole.TALK.name())));
             metadataList.add(new CommandMetadata("tell", "tellCommand", 215, capabilityRepository.findByName(CommandRole.TALK.name())));
             metadataList.add(new CommandMetadata("who", "whoCommand", 220, capabilityRepository.findByName(CommandRole.SEE.name())));
             metadataList.add(new CommandMetadata("emote", "emoteCommand", 250, capabilityRepository.findByName(CommandRole.TALK.name())));
             metadataList.add(new CommandMetadata("info", "infoCommand", 300, capabilityRepository.findByName(CommandRole.DATA.name())));
             metadataList.add(new CommandMetadata("map", "mapCommand", 400, capabilityRepository.findByName(CommandRole.SEE.name())));
             metadataList.add(new CommandMetadata("help", "helpCommand", 500, capabilityRepository.findByName(CommandRole.BASIC.name())));
+            metadataList.add(new CommandMetadata("more", "moreCommand", 510, capabilityRepository.findByName(CommandRole.BASIC.name())));
             metadataList.add(new CommandMetadata("cmdedit", "commandEditCommand", 1000, capabilityRepository.findByName(CommandRole.CMDEDIT.name())));
             metadataList.add(new CommandMetadata("emoteedit", "emoteEditCommand", 1000, capabilityRepository.findByName(CommandRole.EMOTEEDIT.name())));
             metadataList.add(new CommandMetadata("capedit", "capabilityEditCommand", 1000, capabilityRepository.findByName(CommandRole.CAPEDIT.name())));
@@ -108,5 +121,7 @@ public class CommandLoader {
 
             commandMetadataRepository.save(metadataList);
         }
+
+        commandService.reload();
     }
 }
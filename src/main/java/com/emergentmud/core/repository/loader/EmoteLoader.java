@@ -22,6 +22,7 @@ package com.emergentmud.core.repository.loader;
 
 import com.emergentmud.core.model.EmoteMetadata;
 import com.emergentmud.core.repository.EmoteMetadataRepository;
+import com.emergentmud.core.service.EmoteService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -36,10 +37,13 @@ public class EmoteLoader {
     private static final Logger LOGGER = LoggerFactory.getLogger(EmoteLoader.class);
 
     private EmoteMetadataRepository emoteMetadataRepository;
+    private EmoteService emoteService;
 
     @Inject
-    public EmoteLoader(EmoteMetadataRepository emoteMetadataRepository) {
+    public EmoteLoader(EmoteMetadataRepository emoteMetadataRepository,
+                       EmoteService emoteService) {
         this.emoteMetadataRepository = emoteMetadataRepository;
+        this.emoteService = emoteService;
     }
 
     @PostConstruct
@@ -158,6 +162,8 @@ public class EmoteLoader {
 
             emoteMetadataRepository.save(emotes);
         }
+
+        emoteService.reload();
     }
 
     private EmoteMetadata setEmoteFields(EmoteMetadata emote, String[] messages) {
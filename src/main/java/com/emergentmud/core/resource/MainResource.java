@@ -20,6 +20,7 @@
 package com.emergentmud.core.resource;
 
 import com.emergentmud.core.command.Command;
+import com.emergentmud.core.command.CommandRegistry;
 import com.emergentmud.core.command.Emote;
 import com.emergentmud.core.exception.NoAccountException;
 import com.emergentmud.core.model.Account;
@@ -41,10 +42,11 @@ import com.emergentmud.core.repository.EntityRepository;
 import com.emergentmud.core.repository.RoomBuilder;
 import com.emergentmud.core.repository.WorldManager;
 import com.emergentmud.core.resource.model.PlayRequest;
+import com.emergentmud.core.service.CrowdService;
 import com.emergentmud.core.service.EntityService;
+import com.emergentmud.core.service.PlayerSessionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.ApplicationContext;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.logout.SecurityContextLogoutHandler;
@@ -74,7 +76,7 @@ import java.util.stream.Collectors;
 public class MainResource {
     private static final Logger LOGGER = LoggerFactory.getLogger(MainResource.class);
 
-    private ApplicationContext applicationContext;
+    private CommandRegistry commandRegistry;
     private List<SocialNetwork> networks;
     private SecurityContextLogoutHandler securityContextLogoutHandler;
     private AccountRepository accountRepository;
@@ -85,10 +87,13 @@ public class MainResource {
     private RoomBuilder roomBuilder;
     private WorldManager worldManager;
     private EntityService entityService;
+    private PlayerSessionService playerSessionService;
+    private CrowdService crowdService;
+    private Integer admissionBurst;
     private Emote emote;
 
     @Inject
-    public MainResource(ApplicationContext applicationContext,
+    public MainResource(CommandRegistry commandRegistry,
                         List<SocialNetwork> networks,
                         SecurityContextLogoutHandler securityContextLogoutHandler,
                         AccountRepository accountRepository,
@@ -99,9 +104,12 @@ public class MainResource {
                         RoomBuilder roomBuilder,
                         WorldManager worldManager,
                         EntityService entityService,
+                        PlayerSessionService playerSessionService,
+                        CrowdService crowdService,
+                        Integer admissionBurst,
                         Emote emote) {
 
-        this.applicationContext = applicationContext;
+        this.commandRegistry = commandRegistry;
         this.networks = networks;
         this.securityContextLogoutHandler = securityContextLogoutHandler;
         this.accountRepository = accountRepository;
@@ -112,6 +120,9 @@ public class MainResource {
         this.roomBuilder = roomBuilder;
         this.worldManager = worldManager;
         this.entityService = entityService;
+        this.playerSessionService = playerSessionService;
+        this.crowdService = crowdService;
+        this.admissionBurst = admissionBurst;
         this.emote = emote;
     }
 
@@ -298,6 +309,7 @@ public class MainResource {
 
             GameOutput out = new GameOutput("[red]This session has been reconnected in another browser.");
             entityService.sendMessageToEntity(entity, out);
+            playerSessionService.unbindEntity(entity.getId());
         }
 
         if (!worldManager.test(0L, 0L, 0L)) {
@@ -305,9 +317,8 @@ public class MainResource {
         }
 
         Room room = worldManager.put(entity, 0L, 0L, 0L);
-        GameOutput enterMessage = new GameOutput(String.format("[yellow]%s has entered the game.", entity.getName()));
 
-        entityService.sendMessageToRoom(room, entity, enterMessage);
+        crowdService.announceLogin(room, entity);
 
         LOGGER.info("{} has entered the game from {}", entity.getName(), entity.getRemoteAddr());
 
@@ -322,6 +333,7 @@ public class MainResource {
         model.addAttribute("breadcrumb", breadcrumb);
         model.addAttribute("account", account);
         model.addAttribute("entity", entity);
+        model.addAttribute("commandBurst", admissionBurst);
 
         return "play";
     }
@@ -357,7 +369,7 @@ public class MainResource {
                 .collect(Collectors.toList());
 
         metadata.forEach(m -> {
-                Command command = (Command) applicationContext.getBean(m.getBeanName());
+                Command command = commandRegistry.getCommand(m.getBeanName());
                 commandMap.put(m.getName(), command);
         });
 
@@ -0,0 +1,66 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.resource;
+
+import com.emergentmud.core.model.Entity;
+import com.emergentmud.core.model.PlayerSession;
+import com.emergentmud.core.model.stomp.MapFrame;
+import com.emergentmud.core.service.MapService;
+import com.emergentmud.core.service.PlayerSessionService;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
+import org.springframework.stereotype.Controller;
+
+import javax.inject.Inject;
+import java.util.Optional;
+
+@Controller
+public class MapResource {
+    private PlayerSessionService playerSessionService;
+    private MapService mapService;
+
+    @Inject
+    public MapResource(PlayerSessionService playerSessionService, MapService mapService) {
+        this.playerSessionService = playerSessionService;
+        this.mapService = mapService;
+    }
+
+    @SubscribeMapping("/map")
+    public MapFrame onSubscribe(@Header("simpSessionId") String simpSessionId,
+                                @Header(value = "mapSubscription", required = false) String mapSubscriptionId) {
+        Optional<PlayerSession> session = playerSessionService.getSession(simpSessionId);
+
+        if (!session.isPresent()) {
+            return null;
+        }
+
+        Entity entity = session.get().getEntity();
+
+        session.get().setMapSubscribed(true);
+        session.get().setMapSubscriptionId(mapSubscriptionId);
+
+        if (entity.getRoom() == null) {
+            return null;
+        }
+
+        return mapService.render(entity.getRoom());
+    }
+}
@@ -21,23 +21,32 @@
 package com.emergentmud.core.resource;
 
 import com.emergentmud.core.command.Command;
+import com.emergentmud.core.command.CommandHandle;
+import com.emergentmud.core.command.CommandRegistry;
 import com.emergentmud.core.command.Emote;
 import com.emergentmud.core.command.PromptBuilder;
-import com.emergentmud.core.model.CommandMetadata;
+import com.emergentmud.core.command.TokenizedInput;
 import com.emergentmud.core.model.CommandRole;
 import com.emergentmud.core.model.EmoteMetadata;
 import com.emergentmud.core.model.Entity;
+import com.emergentmud.core.model.OutputFormat;
+import com.emergentmud.core.model.PlayerSession;
 import com.emergentmud.core.model.stomp.GameOutput;
 import com.emergentmud.core.model.stomp.UserInput;
-import com.emergentmud.core.repository.CapabilityRepository;
-import com.emergentmud.core.repository.CommandMetadataRepository;
-import com.emergentmud.core.repository.EmoteMetadataRepository;
 import com.emergentmud.core.repository.EntityRepository;
+import com.emergentmud.core.service.AdmissionService;
+import com.emergentmud.core.service.CapabilityService;
+import com.emergentmud.core.service.ChannelService;
+import com.emergentmud.core.service.CommandService;
+import com.emergentmud.core.service.EmoteService;
+import com.emergentmud.core.service.EntityService;
+import com.emergentmud.core.service.MailboxService;
+import com.emergentmud.core.service.OutputService;
+import com.emergentmud.core.service.PlayerSessionService;
+import com.emergentmud.core.service.PresenceService;
 import org.joda.time.DateTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.ApplicationContext;
-import org.springframework.data.domain.Sort;
 import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.simp.annotation.SendToUser;
@@ -50,6 +59,7 @@ import org.springframework.stereotype.Controller;
 
 import javax.inject.Inject;
 import java.security.Principal;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -57,38 +67,58 @@ import java.util.Optional;
 @Controller
 public class WebSocketResource {
     private static final Logger LOGGER = LoggerFactory.getLogger(WebSocketResource.class);
-    private static final Sort SORT = new Sort("priority", "name");
 
     private String applicationVersion;
     private Long applicationBootDate;
-    private ApplicationContext applicationContext;
     private SessionRepository sessionRepository;
     private EntityRepository entityRepository;
-    private CommandMetadataRepository commandMetadataRepository;
-    private EmoteMetadataRepository emoteMetadataRepository;
-    private CapabilityRepository capabilityRepository;
+    private CommandService commandService;
+    private CommandRegistry commandRegistry;
+    private EmoteService emoteService;
+    private CapabilityService capabilityService;
+    private PlayerSessionService playerSessionService;
+    private EntityService entityService;
+    private MailboxService mailboxService;
+    private AdmissionService admissionService;
+    private OutputService outputService;
+    private PresenceService presenceService;
+    private ChannelService channelService;
     private PromptBuilder promptBuilder;
     private Emote emote;
 
     @Inject
     public WebSocketResource(String applicationVersion,
                              Long applicationBootDate,
-                             ApplicationContext applicationContext,
                              SessionRepository sessionRepository,
                              EntityRepository entityRepository,
-                             CommandMetadataRepository commandMetadataRepository,
-                             EmoteMetadataRepository emoteMetadataRepository,
-                             CapabilityRepository capabilityRepository,
+                             CommandService commandService,
+                             CommandRegistry commandRegistry,
+                             EmoteService emoteService,
+                             CapabilityService capabilityService,
+                             PlayerSessionService playerSessionService,
+                             EntityService entityService,
+                             MailboxService mailboxService,
+                             AdmissionService admissionService,
+                             OutputService outputService,
+                             PresenceService presenceService,
+                             ChannelService channelService,
                              PromptBuilder promptBuilder,
                              Emote emote) {
         this.applicationVersion = applicationVersion;
         this.applicationBootDate = applicationBootDate;
-        this.applicationContext = applicationContext;
         this.sessionRepository = sessionRepository;
         this.entityRepository = entityRepository;
-        this.commandMetadataRepository = commandMetadataRepository;
-        this.emoteMetadataRepository = emoteMetadataRepository;
-        this.capabilityRepository = capabilityRepository;
+        this.commandService = commandService;
+        this.commandRegistry = commandRegistry;
+        this.emoteService = emoteService;
+        this.capabilityService = capabilityService;
+        this.playerSessionService = playerSessionService;
+        this.entityService = entityService;
+        this.mailboxService = mailboxService;
+        this.admissionService = admissionService;
+        this.outputService = outputService;
+        this.presenceService = presenceService;
+        this.channelService = channelService;
         this.promptBuilder = promptBuilder;
         this.emote = emote;
     }
@@ -96,7 +126,9 @@ public class WebSocketResource {
     @SubscribeMapping("/queue/output")
     public GameOutput onSubscribe(Principal principal,
                                   @Header("breadcrumb") String breadcrumb,
-                                  @Header("simpSessionId") String simpSessionId) {
+                                  @Header("simpSessionId") String simpSessionId,
+                                  @Header("simpSubscriptionId") String simpSubscriptionId,
+                                  @Header(value = "format", required = false) String format) {
         Session session = getSessionFromPrincipal(principal);
         Map<String, String> sessionMap = session.getAttribute(breadcrumb);
         Entity entity = entityRepository.findOne(sessionMap.get("entity"));
@@ -105,6 +137,14 @@ public class WebSocketResource {
         entity.setStompSessionId(simpSessionId);
         entity = entityRepository.save(entity);
 
+        PlayerSession playerSession = playerSessionService
+                .bind(simpSessionId, principal.getName(), breadcrumb, sessionMap.get("account"), entity);
+
+        playerSession.setSubscriptionId(simpSubscriptionId);
+        playerSession.setOutputFormat(OutputFormat.fromHeader(format));
+
+        presenceService.refresh(entity);
+
         GameOutput output = new GameOutput();
 
         output.append("[black]  ___                            _   __  __ _   _ ___  ".replace(" ", "&nbsp;"));
@@ -126,8 +166,9 @@ public class WebSocketResource {
         output.append(String.format("[yellow]Welcome to the world, %s!", entity.getName()));
         output.append("");
 
-        Command command = (Command)applicationContext.getBean("lookCommand");
+        Command command = commandRegistry.getCommand("lookCommand");
         command.execute(output, entity, "look", new String[0], "");
+        channelService.appendHistory(output, entity);
 
         promptBuilder.appendPrompt(output);
 
@@ -140,54 +181,87 @@ public class WebSocketResource {
                               Principal principal,
                               @Header("breadcrumb") String breadcrumb,
                               @Header("simpSessionId") String simpSessionId) {
-        Session session = getSessionFromPrincipal(principal);
-        Map<String, String> sessionMap = session.getAttribute(breadcrumb);
-        Entity entity = entityRepository.findOne(sessionMap.get("entity"));
-
+        Optional<PlayerSession> optionalSession = playerSessionService.getSession(simpSessionId);
         GameOutput output = new GameOutput();
 
-        if (entity == null) {
-            LOGGER.error("Entity was null for user {}", principal.getName());
-            output.append("[red]There was an internal error. The administrators have been notified.");
+        if (!optionalSession.isPresent() || !playerSessionService.isValid(optionalSession.get(), principal.getName(), breadcrumb)) {
+            output.append("[red]This session is no longer valid.");
             return output;
         }
 
-        if (!principal.getName().equals(entity.getStompUsername()) || !simpSessionId.equals(entity.getStompSessionId())) {
-            output.append("[red]This session is no longer valid.");
+        List<String> commands = getCommands(input);
+
+        if (admissionService.isOversized(commands.size())) {
+            output.append(String.format("[red]You sent %d commands at once. Please send no more than %d at a time.",
+                    commands.size(),
+                    admissionService.getMaxCommands()));
+            promptBuilder.appendPrompt(output);
+
+            return output;
+        }
+
+        if (!admissionService.admit(optionalSession.get(), commands.size())) {
+            output.append("[red]You are being throttled for sending commands too quickly. Please slow down.");
+            promptBuilder.appendPrompt(output);
+
             return output;
         }
 
-        if (!"".equals(input.getInput().trim())) {
-            String[] tokens = input.getInput().split(" ");
-            String cmd = tokens[0];
-            String[] args = new String[tokens.length - 1];
-            System.arraycopy(tokens, 1, args, 0, tokens.length - 1);
-            String raw = input.getInput().indexOf(' ') == -1 ? "" : input.getInput().substring(input.getInput().indexOf(' ') + 1);
-            List<CommandMetadata> commandMetadataList = commandMetadataRepository.findAll(SORT);
-
-            Optional<CommandMetadata> optionalCommandMetadata = commandMetadataList
-                    .stream()
-                    .filter(cm -> cm.getName().startsWith(cmd.toLowerCase().trim()))
-                    .filter(cm -> entity.isCapable(cm.getCapability()) || entity.isCapable(capabilityRepository.findByName(CommandRole.SUPER.name())))
-                    .findFirst();
-
-            if (optionalCommandMetadata.isPresent()) {
-                CommandMetadata metadata = optionalCommandMetadata.get();
-                Command command = (Command) applicationContext.getBean(metadata.getBeanName());
-
-                command.execute(output, entity, cmd, args, raw);
-            } else if (entity.isCapable(capabilityRepository.findByName(CommandRole.EMOTE.name()))) {
-                List<EmoteMetadata> emoteMetadataList = emoteMetadataRepository.findAll(SORT);
-
-                Optional<EmoteMetadata> optionalEmoteMetadata = emoteMetadataList
-                        .stream()
-                        .filter(emote -> emote.getName().startsWith(cmd.toLowerCase().trim()))
-                        .findFirst();
+        Entity entity = optionalSession.get().getEntity();
+
+        if (!mailboxService.offer(entity, () -> dispatch(entity, commands))) {
+            output.append("[red]You are sending commands faster than they can be carried out. Please slow down.");
+            promptBuilder.appendPrompt(output);
+
+            return output;
+        }
+
+        return null;
+    }
+
+    private List<String> getCommands(UserInput input) {
+        if (input.getCommands() == null || input.getCommands().isEmpty()) {
+            return Collections.singletonList(input.getInput());
+        }
+
+        return input.getCommands();
+    }
+
+    private void dispatch(Entity entity, List<String> commands) {
+        GameOutput output = new GameOutput();
+
+        commands.forEach(command -> dispatch(output, entity, command));
+
+        entityService.sendMessageToEntity(entity, output);
+        outputService.flush(entity);
+    }
+
+    private void dispatch(GameOutput output, Entity entity, String input) {
+        TokenizedInput tokenizedInput = new TokenizedInput(input);
+
+        if (!tokenizedInput.isEmpty()) {
+            String cmd = tokenizedInput.getCommand().toLowerCase();
+            Optional<CommandHandle> optionalCommandHandle = commandService.findCommand(
+                    cmd,
+                    cm -> capabilityService.isCapable(entity, cm.getCapability()));
+
+            if (optionalCommandHandle.isPresent()) {
+                if (admissionService.isAllowed(optionalCommandHandle.get())) {
+                    optionalCommandHandle.get().getCommand().execute(output, entity, tokenizedInput);
+                } else {
+                    output.append("[yellow]The world is very busy right now. Please try that again in a moment.");
+                }
+            } else if (capabilityService.hasCapability(entity, capabilityService.getCapability(CommandRole.EMOTE))) {
+                Optional<EmoteMetadata> optionalEmoteMetadata = emoteService.findEmote(cmd);
 
                 if (optionalEmoteMetadata.isPresent()) {
-                    EmoteMetadata metadata = optionalEmoteMetadata.get();
+                    if (admissionService.isEmoteAllowed()) {
+                        EmoteMetadata metadata = optionalEmoteMetadata.get();
 
-                    emote.execute(output, metadata, entity, args);
+                        emote.execute(output, metadata, entity, tokenizedInput.getTokens());
+                    } else {
+                        output.append("[yellow]The world is very busy right now. Please try that again in a moment.");
+                    }
                 } else {
                     output.append("Huh?");
                 }
@@ -195,10 +269,6 @@ public class WebSocketResource {
                 output.append("Huh?");
             }
         }
-
-        promptBuilder.appendPrompt(output);
-
-        return output;
     }
 
     private Session getSessionFromPrincipal(Principal principal) {
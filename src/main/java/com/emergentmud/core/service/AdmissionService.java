@@ -0,0 +1,178 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.service;
+
+import com.emergentmud.core.command.BaseCommunicationCommand;
+import com.emergentmud.core.command.CommandHandle;
+import com.emergentmud.core.model.LoadLevel;
+import com.emergentmud.core.model.PlayerSession;
+import com.emergentmud.core.util.TokenBucket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.metrics.CounterService;
+import org.springframework.boot.actuate.metrics.GaugeService;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Component
+public class AdmissionService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AdmissionService.class);
+
+    private MailboxService mailboxService;
+    private CounterService counterService;
+    private GaugeService gaugeService;
+    private double admissionRate;
+    private int admissionBurst;
+    private int elevatedPending;
+    private long elevatedWait;
+    private int criticalPending;
+    private long criticalWait;
+    private Set<String> expensiveCommands;
+    private volatile LoadLevel loadLevel = LoadLevel.NORMAL;
+
+    @Inject
+    public AdmissionService(MailboxService mailboxService,
+                            CounterService counterService,
+                            GaugeService gaugeService,
+                            Double admissionRate,
+                            Integer admissionBurst,
+                            Integer elevatedPending,
+                            Long elevatedWait,
+                            Integer criticalPending,
+                            Long criticalWait,
+                            String expensiveCommands) {
+        this.mailboxService = mailboxService;
+        this.counterService = counterService;
+        this.gaugeService = gaugeService;
+        this.admissionRate = admissionRate;
+        this.admissionBurst = admissionBurst;
+        this.elevatedPending = elevatedPending;
+        this.elevatedWait = elevatedWait;
+        this.criticalPending = criticalPending;
+        this.criticalWait = criticalWait;
+        this.expensiveCommands = Arrays.stream(expensiveCommands.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .collect(Collectors.toSet());
+
+        gaugeService.submit("admission.limit.rate", admissionRate);
+        gaugeService.submit("admission.limit.burst", admissionBurst);
+        gaugeService.submit("admission.limit.elevated.pending", elevatedPending);
+        gaugeService.submit("admission.limit.elevated.wait", elevatedWait);
+        gaugeService.submit("admission.limit.critical.pending", criticalPending);
+        gaugeService.submit("admission.limit.critical.wait", criticalWait);
+        gaugeService.submit("admission.level", LoadLevel.NORMAL.ordinal());
+    }
+
+    public boolean admit(PlayerSession session, int commands) {
+        TokenBucket tokenBucket;
+
+        synchronized (session) {
+            tokenBucket = session.getTokenBucket();
+
+            if (tokenBucket == null) {
+                tokenBucket = new TokenBucket(admissionRate, admissionBurst);
+                session.setTokenBucket(tokenBucket);
+            }
+        }
+
+        if (tokenBucket.tryConsume(commands)) {
+            counterService.increment("admission.admitted");
+            gaugeService.submit("admission.frame", commands);
+            return true;
+        }
+
+        counterService.increment("admission.throttled");
+        LOGGER.debug("Throttled input from {}", session.getUsername());
+
+        return false;
+    }
+
+    public int getMaxCommands() {
+        return admissionBurst;
+    }
+
+    public boolean isOversized(int commands) {
+        if (commands > admissionBurst) {
+            counterService.increment("admission.oversized");
+            return true;
+        }
+
+        return false;
+    }
+
+    public boolean isAllowed(CommandHandle commandHandle) {
+        LoadLevel level = getLoadLevel();
+
+        if (level == LoadLevel.NORMAL) {
+            return true;
+        }
+
+        if (expensiveCommands.contains(commandHandle.getMetadata().getName())) {
+            counterService.increment("admission.deferred");
+            return false;
+        }
+
+        if (level == LoadLevel.CRITICAL && commandHandle.getCommand() instanceof BaseCommunicationCommand) {
+            counterService.increment("admission.shed");
+            return false;
+        }
+
+        return true;
+    }
+
+    public boolean isEmoteAllowed() {
+        if (getLoadLevel() == LoadLevel.CRITICAL) {
+            counterService.increment("admission.shed");
+            return false;
+        }
+
+        return true;
+    }
+
+    public LoadLevel getLoadLevel() {
+        int pending = mailboxService.getPending();
+        long wait = mailboxService.getWaitAverage();
+        LoadLevel level;
+
+        if (pending == 0) {
+            level = LoadLevel.NORMAL;
+        } else if (pending >= criticalPending || wait >= criticalWait) {
+            level = LoadLevel.CRITICAL;
+        } else if (pending >= elevatedPending || wait >= elevatedWait) {
+            level = LoadLevel.ELEVATED;
+        } else {
+            level = LoadLevel.NORMAL;
+        }
+
+        if (level != loadLevel) {
+            LOGGER.info("Load level changed from {} to {} (pending: {}, wait: {}ms)", loadLevel, level, pending, wait);
+            gaugeService.submit("admission.level", level.ordinal());
+            loadLevel = level;
+        }
+
+        return level;
+    }
+}
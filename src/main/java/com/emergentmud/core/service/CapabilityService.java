@@ -0,0 +1,138 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.service;
+
+import com.emergentmud.core.model.Capability;
+import com.emergentmud.core.model.Capable;
+import com.emergentmud.core.model.CommandRole;
+import com.emergentmud.core.repository.CapabilityRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+public class CapabilityService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CapabilityService.class);
+    static final Sort SORT = new Sort("name");
+
+    private CapabilityRepository capabilityRepository;
+    private final Map<String, Long> capabilityBits = new ConcurrentHashMap<>();
+    private final Map<String, Capability> capabilitiesByName = new ConcurrentHashMap<>();
+    private final AtomicInteger nextBit = new AtomicInteger();
+    private volatile long superMask = 0L;
+
+    @Inject
+    public CapabilityService(CapabilityRepository capabilityRepository) {
+        this.capabilityRepository = capabilityRepository;
+    }
+
+    public void reload() {
+        List<Capability> capabilities = capabilityRepository.findAll(SORT);
+
+        capabilities.forEach(capability -> {
+            getBit(capability);
+            capabilitiesByName.put(capability.getName(), capability);
+        });
+
+        Capability superCapability = capabilitiesByName.get(CommandRole.SUPER.name());
+
+        superMask = superCapability == null ? 0L : getBit(superCapability);
+
+        LOGGER.debug("Registered {} capabilities", capabilities.size());
+    }
+
+    public Capability getCapability(CommandRole role) {
+        return capabilitiesByName.get(role.name());
+    }
+
+    public long getBit(Capability capability) {
+        return capabilityBits.computeIfAbsent(capability.getId(), id -> {
+            int index = nextBit.getAndIncrement();
+
+            if (index >= Long.SIZE) {
+                throw new IllegalStateException("Too many capabilities to fit in a mask: " + capability.getName());
+            }
+
+            return 1L << index;
+        });
+    }
+
+    public long getMask(Capable capable) {
+        Long mask = capable.getCapabilityMask();
+
+        if (mask == null) {
+            mask = 0L;
+
+            for (Capability capability : capable.getCapabilities()) {
+                mask |= getBit(capability);
+            }
+
+            capable.setCapabilityMask(mask);
+        }
+
+        return mask;
+    }
+
+    public boolean isCapable(Capable capable, Capability capability) {
+        long required = superMask;
+
+        if (capability != null) {
+            required |= getBit(capability);
+        }
+
+        return (getMask(capable) & required) != 0;
+    }
+
+    public boolean hasCapability(Capable capable, Capability capability) {
+        return capability != null && (getMask(capable) & getBit(capability)) != 0;
+    }
+
+    public void addCapabilities(Capable capable, Capability ... capabilities) {
+        long mask = getMask(capable);
+
+        capable.addCapabilities(capabilities);
+
+        for (Capability capability : capabilities) {
+            mask |= getBit(capability);
+        }
+
+        capable.setCapabilityMask(mask);
+    }
+
+    public void removeCapabilities(Capable capable, Capability ... capabilities) {
+        long mask = getMask(capable);
+
+        capable.removeCapabilities(capabilities);
+
+        for (Capability capability : capabilities) {
+            mask &= ~getBit(capability);
+        }
+
+        capable.setCapabilityMask(mask);
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.service;
+
+import com.emergentmud.core.model.Channel;
+import com.emergentmud.core.model.Entity;
+import com.emergentmud.core.model.OutputPriority;
+import com.emergentmud.core.model.stomp.GameOutput;
+import org.springframework.boot.actuate.metrics.CounterService;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@Component
+public class ChannelService {
+    public static final String GOSSIP = "gossip";
+    static final List<String> CHANNELS = Collections.unmodifiableList(Arrays.asList(GOSSIP));
+
+    private OutputService outputService;
+    private PlayerSessionService playerSessionService;
+    private CounterService counterService;
+    private Map<String, Channel> channels = new LinkedHashMap<>();
+
+    @Inject
+    public ChannelService(OutputService outputService,
+                          PlayerSessionService playerSessionService,
+                          CounterService counterService,
+                          Integer channelHistory) {
+        this.outputService = outputService;
+        this.playerSessionService = playerSessionService;
+        this.counterService = counterService;
+
+        CHANNELS.forEach(name -> channels.put(name, new Channel(name, true, channelHistory)));
+    }
+
+    public Collection<Channel> getChannels() {
+        return Collections.unmodifiableCollection(channels.values());
+    }
+
+    public Optional<Channel> getChannel(String name) {
+        return Optional.ofNullable(channels.get(name));
+    }
+
+    public boolean isMember(String name, Entity entity) {
+        return getChannel(name).map(channel -> channel.isMember(entity)).orElse(false);
+    }
+
+    // memberships only last as long as the session, so the sets never outgrow the players online
+    public void forget(Entity entity) {
+        channels.values().forEach(channel -> channel.forget(entity));
+    }
+
+    public void publish(String name, Entity source, GameOutput message) {
+        Channel channel = getChannel(name).orElseThrow(() -> new IllegalArgumentException("No such channel: " + name));
+        List<Entity> recipients = playerSessionService.getLiveEntities()
+                .stream()
+                .filter(entity -> !entity.getId().equals(source.getId()))
+                .filter(channel::isMember)
+                .collect(Collectors.toList());
+
+        channel.getHistory().add(message);
+        outputService.broadcast(recipients, message, OutputPriority.CHAT);
+
+        counterService.increment("channel." + name + ".published");
+    }
+
+    public GameOutput getHistory(String name) {
+        GameOutput output = new GameOutput();
+
+        getChannel(name).ifPresent(channel -> channel.getHistory()
+                .snapshot()
+                .forEach(message -> message.getOutput().forEach(output::append)));
+
+        return output;
+    }
+
+    public void appendHistory(GameOutput output, Entity entity) {
+        channels.values()
+                .stream()
+                .filter(channel -> channel.isMember(entity))
+                .forEach(channel -> getHistory(channel.getName()).getOutput().forEach(output::append));
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.service;
+
+import com.emergentmud.core.command.CommandHandle;
+import com.emergentmud.core.command.CommandRegistry;
+import com.emergentmud.core.model.CommandMetadata;
+import com.emergentmud.core.repository.CommandMetadataRepository;
+import com.emergentmud.core.util.PrefixIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+@Component
+public class CommandService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CommandService.class);
+    static final Sort SORT = new Sort("priority", "name");
+
+    private CommandMetadataRepository commandMetadataRepository;
+    private CommandRegistry commandRegistry;
+    private volatile PrefixIndex<CommandHandle> commandIndex = new PrefixIndex<>(Collections.emptyList(), ch -> ch.getMetadata().getName());
+
+    @Inject
+    public CommandService(CommandMetadataRepository commandMetadataRepository,
+                          CommandRegistry commandRegistry) {
+        this.commandMetadataRepository = commandMetadataRepository;
+        this.commandRegistry = commandRegistry;
+    }
+
+    public void reload() {
+        List<CommandHandle> commands = new ArrayList<>();
+
+        commandMetadataRepository.findAll(SORT).forEach(metadata -> {
+            Optional<CommandHandle> handle = commandRegistry.resolve(metadata);
+
+            if (handle.isPresent()) {
+                commands.add(handle.get());
+            } else {
+                LOGGER.error("Unable to resolve bean {} for command {}", metadata.getBeanName(), metadata.getName());
+            }
+        });
+
+        commandIndex = new PrefixIndex<>(commands, ch -> ch.getMetadata().getName());
+
+        LOGGER.debug("Indexed {} commands", commands.size());
+    }
+
+    public List<CommandHandle> getCommands() {
+        return commandIndex.getValues();
+    }
+
+    public Optional<CommandHandle> findCommand(String prefix, Predicate<CommandMetadata> filter) {
+        return commandIndex.find(prefix, ch -> filter.test(ch.getMetadata()));
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.service;
+
+import org.springframework.boot.actuate.metrics.CounterService;
+import org.springframework.boot.actuate.metrics.GaugeService;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class CompressionService {
+    public static final String OUTPUT = "output";
+    public static final String OTHER = "other";
+    static final int SCAN_LIMIT = 256;
+
+    private static final byte[] DESTINATION_HEADER = "destination:".getBytes(StandardCharsets.US_ASCII);
+
+    private int deflateThreshold;
+    private CounterService counterService;
+    private GaugeService gaugeService;
+    private Map<String, Totals> totals = new ConcurrentHashMap<>();
+
+    @Inject
+    public CompressionService(Integer deflateThreshold,
+                              CounterService counterService,
+                              GaugeService gaugeService) {
+        this.deflateThreshold = deflateThreshold;
+        this.counterService = counterService;
+        this.gaugeService = gaugeService;
+    }
+
+    public int getThreshold() {
+        return deflateThreshold;
+    }
+
+    public boolean isWorthCompressing(int length) {
+        return length >= deflateThreshold;
+    }
+
+    public String classify(ByteBuffer payload) {
+        String destination = findDestination(payload);
+
+        if (destination == null) {
+            return OTHER;
+        } else if (destination.startsWith(OutputService.CLIENT_DESTINATION)) {
+            return OUTPUT;
+        }
+
+        return OTHER;
+    }
+
+    public void recordSkipped(String type) {
+        counterService.increment("websocket.deflate." + type + ".skipped");
+    }
+
+    public void recordCompressed(String type, int originalLength, int compressedLength, long cpuNanos) {
+        Totals total = totals.computeIfAbsent(type, key -> new Totals());
+        long original = total.original.addAndGet(originalLength);
+        long compressed = total.compressed.addAndGet(compressedLength);
+
+        counterService.increment("websocket.deflate." + type + ".compressed");
+        gaugeService.submit("websocket.deflate." + type + ".ratio", (double)compressed / Math.max(1, original));
+        gaugeService.submit("websocket.deflate." + type + ".cpu", cpuNanos / 1000.0);
+    }
+
+    public double getRatio(String type) {
+        Totals total = totals.get(type);
+
+        if (total == null) {
+            return 1.0;
+        }
+
+        return (double)total.compressed.get() / Math.max(1, total.original.get());
+    }
+
+    // STOMP headers are plain ASCII near the front of the frame, so there's no need to decode the whole payload
+    private String findDestination(ByteBuffer payload) {
+        if (payload == null) {
+            return null;
+        }
+
+        int limit = Math.min(payload.limit(), payload.position() + SCAN_LIMIT);
+
+        for (int i = payload.position(); i <= limit - DESTINATION_HEADER.length; i++) {
+            if (matches(payload, i)) {
+                StringBuilder destination = new StringBuilder();
+
+                for (int j = i + DESTINATION_HEADER.length; j < limit; j++) {
+                    char c = (char)payload.get(j);
+
+                    if (c == '\n' || c == '\\' || c == '"') {
+                        break;
+                    }
+
+                    destination.append(c);
+                }
+
+                return destination.toString();
+            }
+        }
+
+        return null;
+    }
+
+    private boolean matches(ByteBuffer payload, int offset) {
+        for (int i = 0; i < DESTINATION_HEADER.length; i++) {
+            if (payload.get(offset + i) != DESTINATION_HEADER[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static class Totals {
+        private AtomicLong original = new AtomicLong();
+        private AtomicLong compressed = new AtomicLong();
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.service;
+
+import com.emergentmud.core.model.Entity;
+import com.emergentmud.core.model.TickPhase;
+import com.emergentmud.core.model.room.Room;
+import com.emergentmud.core.model.stomp.GameOutput;
+import org.springframework.boot.actuate.metrics.CounterService;
+import org.springframework.boot.actuate.metrics.GaugeService;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Component
+public class CrowdService {
+    static final int NAMES_SHOWN = 2;
+
+    private PresenceService presenceService;
+    private EntityService entityService;
+    private CounterService counterService;
+    private GaugeService gaugeService;
+    private int crowdThreshold;
+    private int crowdWindow;
+    private final Map<String, Crowd> pending = new LinkedHashMap<>();
+    private long tick;
+
+    @Inject
+    public CrowdService(PresenceService presenceService,
+                        EntityService entityService,
+                        TickService tickService,
+                        CounterService counterService,
+                        GaugeService gaugeService,
+                        Integer crowdThreshold,
+                        Integer crowdWindow) {
+        this.presenceService = presenceService;
+        this.entityService = entityService;
+        this.counterService = counterService;
+        this.gaugeService = gaugeService;
+        this.crowdThreshold = crowdThreshold;
+        this.crowdWindow = crowdWindow;
+
+        tickService.register(TickPhase.SIMULATION, this::flush);
+    }
+
+    public void announceArrival(Room room, Entity entity, String from) {
+        announce(room, entity, Movement.ARRIVAL, from);
+    }
+
+    public void announceDeparture(Room room, Entity entity, String direction) {
+        announce(room, entity, Movement.DEPARTURE, direction);
+    }
+
+    public void announceVanish(Room room, Entity entity) {
+        announce(room, entity, Movement.VANISH, "");
+    }
+
+    public void announceAppear(Room room, Entity entity) {
+        announce(room, entity, Movement.APPEAR, "");
+    }
+
+    public void announceLogin(Room room, Entity entity) {
+        announce(room, entity, Movement.LOGIN, "");
+    }
+
+    public void announceLogout(Room room, Entity entity) {
+        announce(room, entity, Movement.LOGOUT, "");
+    }
+
+    public int getPending() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    public void flush() {
+        List<Crowd> due = new ArrayList<>();
+
+        synchronized (pending) {
+            tick++;
+
+            Iterator<Crowd> iterator = pending.values().iterator();
+
+            while (iterator.hasNext()) {
+                Crowd crowd = iterator.next();
+
+                if (crowd.deadline <= tick) {
+                    due.add(crowd);
+                    iterator.remove();
+                }
+            }
+        }
+
+        due.forEach(this::send);
+    }
+
+    private void announce(Room room, Entity entity, Movement movement, String detail) {
+        if (room == null) {
+            return;
+        }
+
+        if (presenceService.getOccupantCount(room) < getThreshold(room)) {
+            entityService.sendMessageToRoom(room, entity, movement.format(entity.getName(), detail));
+            counterService.increment("crowd.announcements.immediate");
+
+            return;
+        }
+
+        synchronized (pending) {
+            pending.computeIfAbsent(
+                    room.getId() + "/" + movement + "/" + detail,
+                    key -> new Crowd(room, movement, detail, tick + crowdWindow)).entities.add(entity);
+        }
+
+        counterService.increment("crowd.announcements.aggregated");
+    }
+
+    // rooms may override the configured threshold, e.g. a market square that is always busy
+    private int getThreshold(Room room) {
+        return room.getCrowdThreshold() == null ? crowdThreshold : room.getCrowdThreshold();
+    }
+
+    private void send(Crowd crowd) {
+        if (crowd.entities.size() == 1) {
+            entityService.sendMessageToRoom(crowd.room, crowd.entities, crowd.movement.format(crowd.entities.get(0).getName(), crowd.detail));
+            counterService.increment("crowd.messages");
+
+            return;
+        }
+
+        List<String> names = crowd.entities
+                .stream()
+                .map(Entity::getName)
+                .distinct()
+                .collect(Collectors.toList());
+
+        int recipients = Math.max(0, presenceService.getOccupantCount(crowd.room) - crowd.entities.size());
+
+        entityService.sendMessageToRoom(crowd.room, crowd.entities, crowd.movement.format(names, crowd.detail));
+        counterService.increment("crowd.messages");
+        gaugeService.submit("crowd.fanout.saved", (crowd.entities.size() - 1) * recipients);
+    }
+
+    public static String joinNames(List<String> names) {
+        if (names.size() == 1) {
+            return names.get(0);
+        }
+
+        if (names.size() <= NAMES_SHOWN + 1) {
+            return String.join(", ", names.subList(0, names.size() - 1)) + " and " + names.get(names.size() - 1);
+        }
+
+        return String.join(", ", names.subList(0, NAMES_SHOWN)) + " and " + (names.size() - NAMES_SHOWN) + " others";
+    }
+
+    private enum Movement {
+        ARRIVAL("%s walks in from the %s.", "%s walk in from the %s."),
+        DEPARTURE("%s walks %s.", "%s walk %s."),
+        VANISH("%s disappears in a puff of smoke!", "%s disappear in a puff of smoke!"),
+        APPEAR("%s appears in a puff of smoke!", "%s appear in a puff of smoke!"),
+        LOGIN("[yellow]%s has entered the game.", "[yellow]%s have entered the game."),
+        LOGOUT("[yellow]%s has left the game.", "[yellow]%s have left the game.");
+
+        private String singular;
+        private String plural;
+
+        Movement(String singular, String plural) {
+            this.singular = singular;
+            this.plural = plural;
+        }
+
+        GameOutput format(String name, String detail) {
+            return new GameOutput(String.format(singular, name, detail));
+        }
+
+        GameOutput format(List<String> names, String detail) {
+            return new GameOutput(String.format(names.size() == 1 ? singular : plural, joinNames(names), detail));
+        }
+    }
+
+    private static class Crowd {
+        private Room room;
+        private Movement movement;
+        private String detail;
+        private long deadline;
+        private List<Entity> entities = new ArrayList<>();
+
+        Crowd(Room room, Movement movement, String detail, long deadline) {
+            this.room = room;
+            this.movement = movement;
+            this.detail = detail;
+            this.deadline = deadline;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.service;
+
+import com.emergentmud.core.command.EmoteTemplate;
+import com.emergentmud.core.model.EmoteMetadata;
+import com.emergentmud.core.repository.EmoteMetadataRepository;
+import com.emergentmud.core.util.PrefixIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+@Component
+public class EmoteService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(EmoteService.class);
+    static final Sort SORT = new Sort("priority", "name");
+
+    private EmoteMetadataRepository emoteMetadataRepository;
+    private volatile PrefixIndex<EmoteMetadata> emoteIndex = new PrefixIndex<>(Collections.emptyList(), EmoteMetadata::getName);
+    private volatile Map<String, EmoteTemplate> templates = new ConcurrentHashMap<>();
+
+    @Inject
+    public EmoteService(EmoteMetadataRepository emoteMetadataRepository) {
+        this.emoteMetadataRepository = emoteMetadataRepository;
+    }
+
+    public void reload() {
+        List<EmoteMetadata> emotes = emoteMetadataRepository.findAll(SORT);
+
+        Map<String, EmoteTemplate> compiled = new ConcurrentHashMap<>();
+
+        emotes.stream()
+                .flatMap(metadata -> Stream.of(
+                        metadata.getToSelfUntargeted(),
+                        metadata.getToRoomUntargeted(),
+                        metadata.getToSelfWithTarget(),
+                        metadata.getToTarget(),
+                        metadata.getToRoomWithTarget(),
+                        metadata.getToSelfAsTarget(),
+                        metadata.getToRoomTargetingSelf()))
+                .filter(message -> message != null)
+                .forEach(message -> compiled.computeIfAbsent(message, EmoteTemplate::compile));
+
+        emoteIndex = new PrefixIndex<>(emotes, EmoteMetadata::getName);
+        templates = compiled;
+
+        LOGGER.debug("Indexed {} emotes with {} templates", emotes.size(), compiled.size());
+    }
+
+    public List<EmoteMetadata> getEmotes() {
+        return emoteIndex.getValues();
+    }
+
+    public Optional<EmoteMetadata> findEmote(String prefix) {
+        return emoteIndex.find(prefix);
+    }
+
+    public EmoteTemplate getTemplate(String message) {
+        return templates.computeIfAbsent(message, EmoteTemplate::compile);
+    }
+}
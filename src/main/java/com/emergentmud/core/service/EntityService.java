@@ -20,104 +20,84 @@
 
 package com.emergentmud.core.service;
 
-import com.emergentmud.core.command.PromptBuilder;
 import com.emergentmud.core.model.Entity;
+import com.emergentmud.core.model.OutputPriority;
 import com.emergentmud.core.model.room.Room;
 import com.emergentmud.core.model.stomp.GameOutput;
 import com.emergentmud.core.repository.EntityRepository;
-import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Component;
 
 import javax.inject.Inject;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Component
 public class EntityService {
     private EntityRepository entityRepository;
-    private SimpMessagingTemplate simpMessagingTemplate;
-    private PromptBuilder promptBuilder;
+    private OutputService outputService;
+    private PlayerSessionService playerSessionService;
+    private PresenceService presenceService;
 
     @Inject
     public EntityService(EntityRepository entityRepository,
-                         SimpMessagingTemplate simpMessagingTemplate,
-                         PromptBuilder promptBuilder) {
+                         OutputService outputService,
+                         PlayerSessionService playerSessionService,
+                         PresenceService presenceService) {
         this.entityRepository = entityRepository;
-        this.simpMessagingTemplate = simpMessagingTemplate;
-        this.promptBuilder = promptBuilder;
+        this.outputService = outputService;
+        this.playerSessionService = playerSessionService;
+        this.presenceService = presenceService;
     }
 
     public void sendMessageToEntity(Entity entity, GameOutput message) {
-        promptBuilder.appendPrompt(message);
-
-        SimpMessageHeaderAccessor headerAccessor = SimpMessageHeaderAccessor.create();
-        headerAccessor.setSessionId(entity.getStompSessionId());
-        headerAccessor.setLeaveMutable(true);
+        sendMessageToEntity(entity, message, OutputPriority.REPLY);
+    }
 
-        simpMessagingTemplate.convertAndSendToUser(entity.getStompUsername(), "/queue/output", message, headerAccessor.getMessageHeaders());
+    public void sendMessageToEntity(Entity entity, GameOutput message, OutputPriority priority) {
+        outputService.enqueue(entity, message, priority);
     }
 
     public void sendMessageToRoom(Room room, Entity entity, GameOutput message) {
-        promptBuilder.appendPrompt(message);
+        sendMessageToRoom(room, entity, message, OutputPriority.ROOM);
+    }
 
-        entityRepository.findByRoom(room)
+    public void sendMessageToRoom(Room room, Entity entity, GameOutput message, OutputPriority priority) {
+        outputService.broadcast(presenceService.getOccupants(room)
                 .stream()
                 .filter(e -> !e.equals(entity))
-                .forEach(e -> {
-                    SimpMessageHeaderAccessor headerAccessor = SimpMessageHeaderAccessor.create();
-                    headerAccessor.setSessionId(e.getStompSessionId());
-                    headerAccessor.setLeaveMutable(true);
-
-                    simpMessagingTemplate.convertAndSendToUser(e.getStompUsername(), "/queue/output", message, headerAccessor.getMessageHeaders());
-                });
+                .collect(Collectors.toList()), message, priority);
     }
 
     public void sendMessageToRoom(Room room, Collection<Entity> exclude, GameOutput message) {
-        promptBuilder.appendPrompt(message);
-
-        entityRepository.findByRoom(room)
+        outputService.broadcast(presenceService.getOccupants(room)
                 .stream()
                 .filter(e -> !exclude.contains(e))
-                .forEach(e -> {
-                    SimpMessageHeaderAccessor headerAccessor = SimpMessageHeaderAccessor.create();
-                    headerAccessor.setSessionId(e.getStompSessionId());
-                    headerAccessor.setLeaveMutable(true);
-
-                    simpMessagingTemplate.convertAndSendToUser(e.getStompUsername(), "/queue/output", message, headerAccessor.getMessageHeaders());
-                });
+                .collect(Collectors.toList()), message, OutputPriority.ROOM);
     }
 
-
     public void sendMessageToListeners(List<Entity> targets, GameOutput message) {
-        promptBuilder.appendPrompt(message);
-
-        targets.forEach(e -> {
-                    SimpMessageHeaderAccessor headerAccessor = SimpMessageHeaderAccessor.create();
-                    headerAccessor.setSessionId(e.getStompSessionId());
-                    headerAccessor.setLeaveMutable(true);
+        outputService.broadcast(targets, message, OutputPriority.ROOM);
+    }
 
-                    simpMessagingTemplate.convertAndSendToUser(e.getStompUsername(), "/queue/output", message, headerAccessor.getMessageHeaders());
-                });
+    public void sendMessageToListeners(List<Entity> targets, GameOutput message, OutputPriority priority) {
+        outputService.broadcast(targets, message, priority);
     }
 
     public void sendMessageToListeners(List<Entity> targets, Entity source, GameOutput message) {
-        promptBuilder.appendPrompt(message);
+        sendMessageToListeners(targets, source, message, OutputPriority.ROOM);
+    }
 
-        targets.stream()
+    public void sendMessageToListeners(List<Entity> targets, Entity source, GameOutput message, OutputPriority priority) {
+        outputService.broadcast(targets
+                .stream()
                 .filter(e -> !source.getId().equals(e.getId()))
-                .forEach(e -> {
-                    SimpMessageHeaderAccessor headerAccessor = SimpMessageHeaderAccessor.create();
-                    headerAccessor.setSessionId(e.getStompSessionId());
-                    headerAccessor.setLeaveMutable(true);
-
-                    simpMessagingTemplate.convertAndSendToUser(e.getStompUsername(), "/queue/output", message, headerAccessor.getMessageHeaders());
-                });
+                .collect(Collectors.toList()), message, priority);
     }
 
     public Optional<Entity> entitySearchRoom(Entity entity, String name) {
-        return entityRepository.findByRoom(entity.getRoom())
+        return presenceService.getOccupants(entity.getRoom())
                 .stream()
                 .filter(t -> t.getName().toLowerCase().startsWith(name))
                 .findFirst();
@@ -130,7 +110,8 @@ public class EntityService {
             return entityOptional;
         }
 
-        return Optional.ofNullable(entityRepository.findByNameStartingWithIgnoreCaseAndRoomIsNotNull(name));
+        return Optional.ofNullable(entityRepository.findByNameStartingWithIgnoreCaseAndRoomIsNotNull(name))
+                .map(playerSessionService::getLiveEntity);
     }
 
     public Optional<Entity> entitySearchGlobal(Entity entity, String name) {
@@ -140,6 +121,7 @@ public class EntityService {
             return entityOptional;
         }
 
-        return Optional.ofNullable(entityRepository.findByNameStartingWithIgnoreCase(name));
+        return Optional.ofNullable(entityRepository.findByNameStartingWithIgnoreCase(name))
+                .map(playerSessionService::getLiveEntity);
     }
 }
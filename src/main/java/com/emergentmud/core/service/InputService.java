@@ -20,6 +20,7 @@
 
 package com.emergentmud.core.service;
 
+import com.emergentmud.core.command.TokenizedInput;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -29,10 +30,27 @@ public class InputService {
     }
 
     public String chopWords(String input, int words) {
+        int length = input.length();
+        int start = 0;
+
         for (int i = 0; i < words; i++) {
-            input = input.replaceAll("^.*?\\s+", "");
+            int end = start;
+
+            while (end < length && !TokenizedInput.isWhitespace(input.charAt(end))) {
+                end++;
+            }
+
+            if (end == length) {
+                break;
+            }
+
+            while (end < length && TokenizedInput.isWhitespace(input.charAt(end))) {
+                end++;
+            }
+
+            start = end;
         }
 
-        return input;
+        return input.substring(start);
     }
 }
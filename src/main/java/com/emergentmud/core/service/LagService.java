@@ -0,0 +1,126 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.emergentmud.core.service;
+
+import com.emergentmud.core.model.SessionLag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.metrics.CounterService;
+import org.springframework.boot.actuate.metrics.GaugeService;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class LagService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LagService.class);
+
+    private CounterService counterService;
+    private GaugeService gaugeService;
+    private int outputLagThreshold;
+    private Map<String, WebSocketSession> sockets = new ConcurrentHashMap<>();
+    private Map<String, SessionLag> lags = new ConcurrentHashMap<>();
+
+    @Inject
+    public LagService(CounterService counterService,
+                      GaugeService gaugeService,
+                      Integer outputLagThreshold) {
+        this.counterService = counterService;
+        this.gaugeService = gaugeService;
+        this.outputLagThreshold = outputLagThreshold;
+    }
+
+    public void register(WebSocketSession session) {
+        sockets.put(session.getId(), session);
+        lags.put(session.getId(), new SessionLag(session.getId()));
+    }
+
+    public void unregister(String simpSessionId) {
+        sockets.remove(simpSessionId);
+        lags.remove(simpSessionId);
+    }
+
+    public void writeStarted(String simpSessionId) {
+        SessionLag lag = lags.get(simpSessionId);
+
+        if (lag != null) {
+            lag.start(System.currentTimeMillis());
+        }
+    }
+
+    public void writeFinished(String simpSessionId, int length) {
+        SessionLag lag = lags.get(simpSessionId);
+
+        if (lag != null) {
+            gaugeService.submit("output.write.millis", lag.finish(System.currentTimeMillis(), length));
+        }
+    }
+
+    public boolean isLagging(String simpSessionId) {
+        SessionLag lag = lags.get(simpSessionId);
+
+        return lag != null
+                && lag.isWriting()
+                && lag.getCurrentWriteMillis(System.currentTimeMillis()) >= outputLagThreshold;
+    }
+
+    public void recordHeld(String simpSessionId) {
+        getLag(simpSessionId).ifPresent(SessionLag::addHeld);
+        counterService.increment("output.held");
+    }
+
+    public void recordDropped(String simpSessionId, int lines) {
+        getLag(simpSessionId).ifPresent(lag -> lag.addDropped(lines));
+        counterService.increment("output.overflow.dropped");
+    }
+
+    public Optional<SessionLag> getLag(String simpSessionId) {
+        return Optional.ofNullable(lags.get(simpSessionId));
+    }
+
+    public List<SessionLag> getLags() {
+        return new ArrayList<>(lags.values());
+    }
+
+    public void disconnect(String simpSessionId) {
+        WebSocketSession session = sockets.get(simpSessionId);
+
+        if (session == null) {
+            return;
+        }
+
+        LOGGER.warn("Disconnecting slow session {}", simpSessionId);
+        counterService.increment("output.overflow.disconnected");
+
+        try {
+            session.close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (IOException e) {
+            LOGGER.error("Unable to close session {}", simpSessionId, e);
+        }
+    }
+}
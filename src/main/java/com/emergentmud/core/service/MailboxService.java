@@ -0,0 +1,205 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.service;
+
+import com.emergentmud.core.model.Entity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.metrics.CounterService;
+import org.springframework.boot.actuate.metrics.GaugeService;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class MailboxService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MailboxService.class);
+    static final int BATCH_SIZE = 8;
+    static final int WAIT_SMOOTHING = 8;
+
+    private ExecutorService mailboxExecutor;
+    private int mailboxDepth;
+    private CounterService counterService;
+    private GaugeService gaugeService;
+    private Map<String, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    private AtomicInteger pending = new AtomicInteger();
+    private AtomicLong waitAverage = new AtomicLong();
+
+    @Inject
+    public MailboxService(ExecutorService mailboxExecutor,
+                          Integer mailboxDepth,
+                          CounterService counterService,
+                          GaugeService gaugeService) {
+        this.mailboxExecutor = mailboxExecutor;
+        this.mailboxDepth = mailboxDepth;
+        this.counterService = counterService;
+        this.gaugeService = gaugeService;
+    }
+
+    public boolean offer(Entity entity, Runnable task) {
+        return enqueue(entity, task, true);
+    }
+
+    public void execute(Entity entity, Runnable task) {
+        enqueue(entity, task, false);
+    }
+
+    public int getDepth(Entity entity) {
+        Mailbox mailbox = mailboxes.get(entity.getId());
+
+        if (mailbox == null) {
+            return 0;
+        }
+
+        synchronized (mailbox) {
+            return mailbox.queue.size();
+        }
+    }
+
+    public int getPending() {
+        return pending.get();
+    }
+
+    public long getWaitAverage() {
+        return waitAverage.get();
+    }
+
+    private boolean enqueue(Entity entity, Runnable task, boolean bounded) {
+        while (true) {
+            Mailbox mailbox = mailboxes.computeIfAbsent(entity.getId(), Mailbox::new);
+            boolean schedule;
+
+            synchronized (mailbox) {
+                if (mailbox.retired) {
+                    continue;
+                }
+
+                if (bounded && mailbox.queue.size() >= mailboxDepth) {
+                    counterService.increment("mailbox.rejected");
+                    LOGGER.debug("Mailbox full for {}", entity.getName());
+
+                    return false;
+                }
+
+                mailbox.queue.add(new Task(task));
+                schedule = !mailbox.scheduled;
+                mailbox.scheduled = true;
+            }
+
+            counterService.increment("mailbox.submitted");
+            gaugeService.submit("mailbox.pending", pending.incrementAndGet());
+
+            if (schedule) {
+                schedule(mailbox);
+            }
+
+            return true;
+        }
+    }
+
+    private void schedule(Mailbox mailbox) {
+        try {
+            mailboxExecutor.execute(mailbox);
+        } catch (RejectedExecutionException e) {
+            LOGGER.warn("Mailbox executor rejected work for {}", mailbox.id);
+
+            synchronized (mailbox) {
+                pending.addAndGet(-mailbox.queue.size());
+                mailbox.queue.clear();
+                mailbox.retire();
+            }
+        }
+    }
+
+    private static class Task {
+        private Runnable runnable;
+        private long enqueued = System.currentTimeMillis();
+
+        Task(Runnable runnable) {
+            this.runnable = runnable;
+        }
+    }
+
+    private class Mailbox implements Runnable {
+        private String id;
+        private Deque<Task> queue = new ArrayDeque<>();
+        private boolean scheduled;
+        private boolean retired;
+
+        Mailbox(String id) {
+            this.id = id;
+        }
+
+        @Override
+        public void run() {
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                Task task;
+
+                synchronized (this) {
+                    task = queue.poll();
+
+                    if (task == null) {
+                        retire();
+                        return;
+                    }
+                }
+
+                long wait = System.currentTimeMillis() - task.enqueued;
+
+                waitAverage.accumulateAndGet(wait, (average, sample) -> average + (sample - average) / WAIT_SMOOTHING);
+
+                gaugeService.submit("mailbox.pending", pending.decrementAndGet());
+                gaugeService.submit("mailbox.wait", wait);
+
+                try {
+                    task.runnable.run();
+                    counterService.increment("mailbox.executed");
+                } catch (RuntimeException e) {
+                    counterService.increment("mailbox.failed");
+                    LOGGER.error("Mailbox task failed for {}", id, e);
+                }
+            }
+
+            synchronized (this) {
+                if (queue.isEmpty()) {
+                    retire();
+                    return;
+                }
+            }
+
+            schedule(this);
+        }
+
+        private void retire() {
+            scheduled = false;
+            retired = true;
+            mailboxes.remove(id, this);
+        }
+    }
+}
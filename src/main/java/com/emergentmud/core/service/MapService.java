@@ -0,0 +1,136 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.service;
+
+import com.emergentmud.core.model.Entity;
+import com.emergentmud.core.model.PlayerSession;
+import com.emergentmud.core.model.room.Room;
+import com.emergentmud.core.model.stomp.MapFrame;
+import com.emergentmud.core.repository.RoomRepository;
+import org.springframework.boot.actuate.metrics.CounterService;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.util.Optional;
+
+@Component
+public class MapService {
+    public static final int EXTENT_X = 40;
+    public static final int EXTENT_Y = 20;
+    public static final int WIDTH = EXTENT_X * 2 + 1;
+    public static final int HEIGHT = EXTENT_Y * 2 + 1;
+
+    private RoomRepository roomRepository;
+    private PlayerSessionService playerSessionService;
+    private OutputService outputService;
+    private CounterService counterService;
+
+    @Inject
+    public MapService(RoomRepository roomRepository,
+                      PlayerSessionService playerSessionService,
+                      OutputService outputService,
+                      CounterService counterService) {
+        this.roomRepository = roomRepository;
+        this.playerSessionService = playerSessionService;
+        this.outputService = outputService;
+        this.counterService = counterService;
+    }
+
+    public Room[] findRooms(long minX, long maxY, int width, int height, long z) {
+        Room[] rooms = new Room[width * height];
+
+        // "between" queries exclude their bounds, so widen the box by one on every side
+        roomRepository.findByXBetweenAndYBetweenAndZ(minX - 1, minX + width, maxY - height, maxY + 1, z)
+                .forEach(room -> {
+                    long column = room.getX() - minX;
+                    long row = maxY - room.getY();
+
+                    if (column >= 0 && column < width && row >= 0 && row < height) {
+                        rooms[(int)(row * width + column)] = room;
+                    }
+                });
+
+        return rooms;
+    }
+
+    public MapFrame render(Room center) {
+        long minX = center.getX() - EXTENT_X;
+        long maxY = center.getY() + EXTENT_Y;
+
+        return new MapFrame(MapFrame.FULL, minX, maxY, WIDTH, HEIGHT, 0, 0,
+                findRooms(minX, maxY, WIDTH, HEIGHT, center.getZ()));
+    }
+
+    public Optional<MapFrame> renderDelta(Room from, Room to) {
+        long dx = to.getX() - from.getX();
+        long dy = to.getY() - from.getY();
+
+        if (!from.getZ().equals(to.getZ()) || Math.abs(dx) + Math.abs(dy) != 1) {
+            return Optional.empty();
+        }
+
+        long minX = to.getX() - EXTENT_X;
+        long maxY = to.getY() + EXTENT_Y;
+        Room[] strip;
+
+        if (dx != 0) {
+            strip = findRooms(dx > 0 ? minX + WIDTH - 1 : minX, maxY, 1, HEIGHT, to.getZ());
+        } else {
+            strip = findRooms(minX, dy > 0 ? maxY : maxY - HEIGHT + 1, WIDTH, 1, to.getZ());
+        }
+
+        return Optional.of(new MapFrame(MapFrame.DELTA, minX, maxY, WIDTH, HEIGHT, (int)dx, (int)dy, strip));
+    }
+
+    public boolean isSubscribed(Entity entity) {
+        if (entity.getStompSessionId() == null) {
+            return false;
+        }
+
+        return playerSessionService.getSession(entity.getStompSessionId())
+                .map(PlayerSession::isMapSubscribed)
+                .orElse(false);
+    }
+
+    public void update(Entity entity, Room from, Room to) {
+        if (to == null || !isSubscribed(entity)) {
+            return;
+        }
+
+        Optional<MapFrame> delta = from == null ? Optional.empty() : renderDelta(from, to);
+
+        if (!delta.isPresent() || !send(entity, delta.get())) {
+            send(entity, render(to));
+        }
+    }
+
+    public boolean send(Entity entity, MapFrame frame) {
+        if (!outputService.enqueueMap(entity, frame)) {
+            counterService.increment("map.frames.superseded");
+
+            return false;
+        }
+
+        counterService.increment("map.frames." + frame.getType());
+
+        return true;
+    }
+}
@@ -0,0 +1,445 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.service;
+
+import com.emergentmud.core.command.PromptBuilder;
+import com.emergentmud.core.model.Entity;
+import com.emergentmud.core.model.OutputFormat;
+import com.emergentmud.core.model.OutputPriority;
+import com.emergentmud.core.model.OverflowPolicy;
+import com.emergentmud.core.model.PlayerSession;
+import com.emergentmud.core.model.TickPhase;
+import com.emergentmud.core.model.stomp.CompactOutput;
+import com.emergentmud.core.model.stomp.GameOutput;
+import com.emergentmud.core.model.stomp.MapFrame;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.metrics.CounterService;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class OutputService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(OutputService.class);
+    static final String DESTINATION = "/queue/output";
+    static final String CLIENT_DESTINATION = "/user" + DESTINATION;
+    static final String MAP_DESTINATION = "/queue/map";
+    static final int MAP_QUEUE_LIMIT = 16;
+
+    private MessageChannel clientOutboundChannel;
+    private SimpMessagingTemplate simpMessagingTemplate;
+    private PlayerSessionService playerSessionService;
+    private ObjectMapper objectMapper;
+    private PromptBuilder promptBuilder;
+    private CounterService counterService;
+    private LagService lagService;
+    private int outputQueueLimit;
+    private OverflowPolicy outputOverflowPolicy;
+    private Map<String, OutputBuffer> buffers = new ConcurrentHashMap<>();
+
+    @Inject
+    public OutputService(MessageChannel clientOutboundChannel,
+                         SimpMessagingTemplate simpMessagingTemplate,
+                         PlayerSessionService playerSessionService,
+                         ObjectMapper objectMapper,
+                         PromptBuilder promptBuilder,
+                         TickService tickService,
+                         CounterService counterService,
+                         LagService lagService,
+                         Integer outputQueueLimit,
+                         OverflowPolicy outputOverflowPolicy) {
+        this.clientOutboundChannel = clientOutboundChannel;
+        this.simpMessagingTemplate = simpMessagingTemplate;
+        this.playerSessionService = playerSessionService;
+        this.objectMapper = objectMapper;
+        this.promptBuilder = promptBuilder;
+        this.counterService = counterService;
+        this.lagService = lagService;
+        this.outputQueueLimit = outputQueueLimit;
+        this.outputOverflowPolicy = outputOverflowPolicy;
+
+        tickService.register(TickPhase.OUTPUT, this::flushAll);
+    }
+
+    public void enqueue(Entity recipient, GameOutput message) {
+        enqueue(recipient, message, OutputPriority.REPLY);
+    }
+
+    public void enqueue(Entity recipient, GameOutput message, OutputPriority priority) {
+        enqueue(recipient, message, priority, null);
+    }
+
+    public void broadcast(Collection<Entity> recipients, GameOutput message) {
+        broadcast(recipients, message, OutputPriority.ROOM);
+    }
+
+    public void broadcast(Collection<Entity> recipients, GameOutput message, OutputPriority priority) {
+        SharedFrame frame = new SharedFrame(message);
+
+        recipients.forEach(recipient -> enqueue(recipient, message, priority, frame));
+        counterService.increment("output.broadcasts");
+    }
+
+    public boolean enqueueMap(Entity recipient, MapFrame frame) {
+        if (recipient.getStompSessionId() == null || recipient.getStompUsername() == null) {
+            return true;
+        }
+
+        while (true) {
+            OutputBuffer buffer = buffers.computeIfAbsent(
+                    recipient.getStompSessionId(),
+                    id -> new OutputBuffer(id, recipient.getStompUsername()));
+
+            synchronized (buffer) {
+                if (buffer.retired) {
+                    continue;
+                }
+
+                // a full frame replaces everything before it, but deltas only make sense applied in order
+                if (MapFrame.FULL.equals(frame.getType())) {
+                    buffer.maps.clear();
+                } else if (buffer.maps.size() >= MAP_QUEUE_LIMIT) {
+                    return false;
+                }
+
+                buffer.maps.add(frame);
+            }
+
+            counterService.increment("output.maps.enqueued");
+
+            return true;
+        }
+    }
+
+    public void flush(Entity recipient) {
+        if (recipient.getStompSessionId() == null) {
+            return;
+        }
+
+        OutputBuffer buffer = buffers.get(recipient.getStompSessionId());
+
+        if (buffer != null) {
+            flush(buffer);
+        }
+    }
+
+    public void flushAll() {
+        buffers.values().forEach(this::flush);
+    }
+
+    public void discard(String stompSessionId) {
+        OutputBuffer buffer = buffers.remove(stompSessionId);
+
+        if (buffer != null) {
+            synchronized (buffer) {
+                buffer.retired = true;
+            }
+        }
+    }
+
+    public int getBufferedLines(Entity recipient) {
+        if (recipient.getStompSessionId() == null) {
+            return 0;
+        }
+
+        OutputBuffer buffer = buffers.get(recipient.getStompSessionId());
+
+        if (buffer == null) {
+            return 0;
+        }
+
+        synchronized (buffer) {
+            return buffer.size;
+        }
+    }
+
+    private void enqueue(Entity recipient, GameOutput message, OutputPriority priority, SharedFrame frame) {
+        if (recipient.getStompSessionId() == null || recipient.getStompUsername() == null) {
+            return;
+        }
+
+        while (true) {
+            OutputBuffer buffer = buffers.computeIfAbsent(
+                    recipient.getStompSessionId(),
+                    id -> new OutputBuffer(id, recipient.getStompUsername()));
+            int dropped = 0;
+            boolean overflowed = false;
+
+            synchronized (buffer) {
+                if (buffer.retired) {
+                    continue;
+                }
+
+                buffer.shared = buffer.isEmpty() ? frame : null;
+
+                for (String line : message.getOutput()) {
+                    if (buffer.size >= outputQueueLimit) {
+                        if (outputOverflowPolicy == OverflowPolicy.DISCONNECT) {
+                            overflowed = true;
+                            break;
+                        }
+
+                        int evicted = makeRoom(buffer, priority);
+
+                        buffer.shared = null;
+                        dropped += evicted;
+
+                        if (buffer.size >= outputQueueLimit) {
+                            buffer.skipped++;
+                            dropped++;
+                            continue;
+                        }
+                    }
+
+                    buffer.lines.get(priority).add(line);
+                    buffer.size++;
+                }
+            }
+
+            counterService.increment("output.enqueued");
+
+            if (dropped > 0) {
+                lagService.recordDropped(buffer.stompSessionId, dropped);
+            }
+
+            if (overflowed) {
+                discard(buffer.stompSessionId);
+                lagService.disconnect(buffer.stompSessionId);
+            }
+
+            return;
+        }
+    }
+
+    private int makeRoom(OutputBuffer buffer, OutputPriority priority) {
+        int evicted = 0;
+
+        if (outputOverflowPolicy == OverflowPolicy.COLLAPSE) {
+            for (OutputPriority level : OutputPriority.values()) {
+                if (level != OutputPriority.REPLY) {
+                    evicted += buffer.lines.get(level).size();
+                    buffer.lines.get(level).clear();
+                }
+            }
+
+            buffer.size -= evicted;
+        }
+
+        if (buffer.size >= outputQueueLimit) {
+            OutputPriority[] levels = OutputPriority.values();
+
+            for (int i = levels.length - 1; i >= priority.ordinal(); i--) {
+                List<String> lines = buffer.lines.get(levels[i]);
+
+                if (!lines.isEmpty()) {
+                    lines.remove(0);
+                    buffer.size--;
+                    evicted++;
+                    break;
+                }
+            }
+        }
+
+        buffer.skipped += evicted;
+
+        return evicted;
+    }
+
+    private void flush(OutputBuffer buffer) {
+        synchronized (buffer) {
+            if (buffer.isEmpty()) {
+                buffer.retired = true;
+                buffers.remove(buffer.stompSessionId, buffer);
+
+                return;
+            }
+
+            if (lagService.isLagging(buffer.stompSessionId)) {
+                lagService.recordHeld(buffer.stompSessionId);
+
+                return;
+            }
+
+            Optional<PlayerSession> session = playerSessionService.getSession(buffer.stompSessionId);
+
+            if (buffer.hasLines()) {
+                GameOutput output = buffer.drain();
+                SharedFrame shared = buffer.shared;
+
+                buffer.shared = null;
+
+                OutputFormat format = session.map(PlayerSession::getOutputFormat).orElse(OutputFormat.JSON);
+                byte[] payload = shared != null ? shared.getPayload(format) : encode(output, format);
+
+                if (payload != null) {
+                    send(buffer, session.map(PlayerSession::getSubscriptionId).orElse(null), DESTINATION, payload);
+                }
+            }
+
+            for (MapFrame frame : buffer.maps) {
+                try {
+                    send(buffer,
+                            session.map(PlayerSession::getMapSubscriptionId).orElse(null),
+                            MAP_DESTINATION,
+                            objectMapper.writeValueAsBytes(frame));
+                } catch (JsonProcessingException e) {
+                    LOGGER.error("Unable to encode map frame", e);
+                }
+            }
+
+            buffer.maps.clear();
+        }
+    }
+
+    private byte[] encode(GameOutput output, OutputFormat format) {
+        promptBuilder.appendPrompt(output);
+
+        try {
+            byte[] payload;
+
+            if (format == OutputFormat.COMPACT) {
+                payload = objectMapper.writeValueAsBytes(new CompactOutput(output));
+                counterService.increment("output.encoded.compact");
+            } else {
+                payload = objectMapper.writeValueAsBytes(output);
+            }
+
+            counterService.increment("output.encoded");
+
+            return payload;
+        } catch (JsonProcessingException e) {
+            LOGGER.error("Unable to encode output", e);
+            return null;
+        }
+    }
+
+    private void send(OutputBuffer buffer, String subscriptionId, String destination, byte[] payload) {
+        if (subscriptionId != null) {
+            SimpMessageHeaderAccessor headerAccessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            headerAccessor.setSessionId(buffer.stompSessionId);
+            headerAccessor.setSubscriptionId(subscriptionId);
+            headerAccessor.setDestination("/user" + destination);
+            headerAccessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+
+            clientOutboundChannel.send(MessageBuilder.createMessage(payload, headerAccessor.getMessageHeaders()));
+            counterService.increment("output.frames");
+
+            return;
+        }
+
+        SimpMessageHeaderAccessor headerAccessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headerAccessor.setSessionId(buffer.stompSessionId);
+        headerAccessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        headerAccessor.setLeaveMutable(true);
+
+        String userDestination = simpMessagingTemplate.getUserDestinationPrefix()
+                + buffer.stompUsername.replace("/", "%2F")
+                + destination;
+
+        simpMessagingTemplate.send(userDestination, MessageBuilder.createMessage(payload, headerAccessor.getMessageHeaders()));
+        counterService.increment("output.frames");
+        counterService.increment("output.frames.routed");
+    }
+
+    private class SharedFrame {
+        private List<String> lines;
+        private Map<OutputFormat, byte[]> payloads = new EnumMap<>(OutputFormat.class);
+
+        SharedFrame(GameOutput message) {
+            this.lines = new ArrayList<>(message.getOutput());
+        }
+
+        synchronized byte[] getPayload(OutputFormat format) {
+            if (!payloads.containsKey(format)) {
+                GameOutput output = new GameOutput();
+
+                lines.forEach(output::append);
+                payloads.put(format, encode(output, format));
+            }
+
+            return payloads.get(format);
+        }
+    }
+
+    private static class OutputBuffer {
+        private String stompSessionId;
+        private String stompUsername;
+        private Map<OutputPriority, List<String>> lines = new EnumMap<>(OutputPriority.class);
+        private int size;
+        private int skipped;
+        private SharedFrame shared;
+        private List<MapFrame> maps = new ArrayList<>();
+        private boolean retired;
+
+        OutputBuffer(String stompSessionId, String stompUsername) {
+            this.stompSessionId = stompSessionId;
+            this.stompUsername = stompUsername;
+
+            for (OutputPriority priority : OutputPriority.values()) {
+                lines.put(priority, new ArrayList<>());
+            }
+        }
+
+        boolean hasLines() {
+            return size > 0 || skipped > 0;
+        }
+
+        boolean isEmpty() {
+            return !hasLines() && maps.isEmpty();
+        }
+
+        GameOutput drain() {
+            GameOutput output = new GameOutput();
+
+            lines.forEach((priority, queued) -> {
+                if (priority != OutputPriority.REPLY && skipped > 0) {
+                    output.append(String.format("[dwhite]... %d %s dropped while your connection caught up ...",
+                            skipped,
+                            skipped == 1 ? "message" : "messages"));
+                    skipped = 0;
+                }
+
+                queued.forEach(output::append);
+                queued.clear();
+            });
+
+            size = 0;
+
+            return output;
+        }
+    }
+}
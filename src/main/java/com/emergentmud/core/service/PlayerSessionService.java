@@ -0,0 +1,145 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.service;
+
+import com.emergentmud.core.command.Continuation;
+import com.emergentmud.core.model.Entity;
+import com.emergentmud.core.model.PlayerSession;
+import com.emergentmud.core.repository.EntityRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+@Component
+public class PlayerSessionService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PlayerSessionService.class);
+
+    private EntityRepository entityRepository;
+    private boolean sessionValidate;
+    private Map<String, PlayerSession> sessionsBySimpSessionId = new ConcurrentHashMap<>();
+    private Map<String, PlayerSession> sessionsByEntityId = new ConcurrentHashMap<>();
+
+    @Inject
+    public PlayerSessionService(EntityRepository entityRepository,
+                                Boolean sessionValidate) {
+        this.entityRepository = entityRepository;
+        this.sessionValidate = sessionValidate;
+    }
+
+    public PlayerSession bind(String simpSessionId, String username, String breadcrumb, String accountId, Entity entity) {
+        PlayerSession session = new PlayerSession(simpSessionId, username, breadcrumb, accountId, entity);
+        PlayerSession previous = sessionsByEntityId.put(entity.getId(), session);
+
+        if (previous != null && !previous.getSimpSessionId().equals(simpSessionId)) {
+            sessionsBySimpSessionId.remove(previous.getSimpSessionId(), previous);
+            LOGGER.debug("Evicted session {} for {}", previous.getSimpSessionId(), entity.getName());
+        }
+
+        sessionsBySimpSessionId.put(simpSessionId, session);
+
+        return session;
+    }
+
+    public Optional<PlayerSession> getSession(String simpSessionId) {
+        return Optional.ofNullable(sessionsBySimpSessionId.get(simpSessionId));
+    }
+
+    public Collection<Entity> getLiveEntities() {
+        return sessionsByEntityId.values()
+                .stream()
+                .map(PlayerSession::getEntity)
+                .collect(Collectors.toList());
+    }
+
+    public Optional<PlayerSession> unbind(String simpSessionId) {
+        PlayerSession session = sessionsBySimpSessionId.remove(simpSessionId);
+
+        if (session != null) {
+            sessionsByEntityId.remove(session.getEntity().getId(), session);
+        }
+
+        return Optional.ofNullable(session);
+    }
+
+    public void unbindEntity(String entityId) {
+        PlayerSession session = sessionsByEntityId.remove(entityId);
+
+        if (session != null) {
+            sessionsBySimpSessionId.remove(session.getSimpSessionId(), session);
+        }
+    }
+
+    public boolean isValid(PlayerSession session, String username, String breadcrumb) {
+        if (!session.getUsername().equals(username) || !session.getBreadcrumb().equals(breadcrumb)) {
+            return false;
+        }
+
+        if (sessionValidate) {
+            Entity stored = entityRepository.findOne(session.getEntity().getId());
+
+            if (stored == null
+                    || !session.getSimpSessionId().equals(stored.getStompSessionId())
+                    || !session.getUsername().equals(stored.getStompUsername())) {
+                LOGGER.warn("Stale session binding {} for {}", session.getSimpSessionId(), session.getEntity().getName());
+                unbind(session.getSimpSessionId());
+
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    public void setContinuation(Entity entity, Continuation continuation) {
+        PlayerSession session = sessionsByEntityId.get(entity.getId());
+
+        if (session != null) {
+            session.setContinuation(continuation);
+        }
+    }
+
+    public Optional<Continuation> takeContinuation(Entity entity) {
+        PlayerSession session = sessionsByEntityId.get(entity.getId());
+
+        if (session == null) {
+            return Optional.empty();
+        }
+
+        Continuation continuation = session.getContinuation();
+
+        session.setContinuation(null);
+
+        return Optional.ofNullable(continuation);
+    }
+
+    public Entity getLiveEntity(Entity entity) {
+        PlayerSession session = sessionsByEntityId.get(entity.getId());
+
+        return session == null ? entity : session.getEntity();
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.service;
+
+import com.emergentmud.core.model.Entity;
+import com.emergentmud.core.model.room.Room;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Component
+public class PresenceService {
+    private static final Entity[] EMPTY = new Entity[0];
+
+    private RoomService roomService;
+    private Map<String, Entity[]> occupantsByRoomId = new ConcurrentHashMap<>();
+    private Map<String, Room> roomsByEntityId = new ConcurrentHashMap<>();
+    private AtomicReference<Entity[]> online = new AtomicReference<>(EMPTY);
+
+    @Inject
+    public PresenceService(RoomService roomService) {
+        this.roomService = roomService;
+    }
+
+    public void enter(Entity entity, Room room) {
+        Room previous = roomsByEntityId.put(entity.getId(), room);
+
+        if (previous != null && !previous.getId().equals(room.getId())) {
+            remove(previous, entity);
+        }
+
+        occupantsByRoomId.compute(room.getId(), (id, occupants) -> {
+            if (occupants == null) {
+                roomService.occupy(room);
+            }
+
+            return with(occupants, entity, true);
+        });
+
+        // moving between rooms doesn't change who is online, so only the first entry touches the list
+        if (previous == null) {
+            online.updateAndGet(players -> with(players, entity, true));
+        }
+    }
+
+    public void leave(Entity entity) {
+        Room previous = roomsByEntityId.remove(entity.getId());
+
+        if (previous != null) {
+            remove(previous, entity);
+            online.updateAndGet(players -> orEmpty(without(players, entity)));
+        }
+    }
+
+    public void refresh(Entity entity) {
+        Room room = roomsByEntityId.get(entity.getId());
+
+        if (room != null) {
+            occupantsByRoomId.computeIfPresent(room.getId(), (id, occupants) -> with(occupants, entity, false));
+            online.updateAndGet(players -> with(players, entity, false));
+        }
+    }
+
+    public List<Entity> getOccupants(Room room) {
+        Entity[] occupants = room == null ? null : occupantsByRoomId.get(room.getId());
+
+        if (occupants == null) {
+            return Collections.emptyList();
+        }
+
+        return Collections.unmodifiableList(Arrays.asList(occupants));
+    }
+
+    public int getOccupantCount(Room room) {
+        Entity[] occupants = room == null ? null : occupantsByRoomId.get(room.getId());
+
+        return occupants == null ? 0 : occupants.length;
+    }
+
+    public int getOccupiedRoomCount() {
+        return occupantsByRoomId.size();
+    }
+
+    public List<Entity> getOnline() {
+        return Collections.unmodifiableList(Arrays.asList(online.get()));
+    }
+
+    public int getOnlineCount() {
+        return online.get().length;
+    }
+
+    private void remove(Room room, Entity entity) {
+        occupantsByRoomId.computeIfPresent(room.getId(), (id, occupants) -> {
+            Entity[] remaining = without(occupants, entity);
+
+            if (remaining == null) {
+                roomService.vacate(room);
+            }
+
+            return remaining;
+        });
+    }
+
+    private static Entity[] with(Entity[] occupants, Entity entity, boolean append) {
+        if (occupants == null) {
+            return append ? new Entity[] { entity } : null;
+        }
+
+        int index = indexOf(occupants, entity);
+
+        if (index < 0) {
+            if (!append) {
+                return occupants;
+            }
+
+            Entity[] updated = Arrays.copyOf(occupants, occupants.length + 1);
+
+            updated[occupants.length] = entity;
+
+            return updated;
+        }
+
+        if (occupants[index] == entity) {
+            return occupants;
+        }
+
+        Entity[] updated = occupants.clone();
+
+        updated[index] = entity;
+
+        return updated;
+    }
+
+    private static Entity[] without(Entity[] occupants, Entity entity) {
+        int index = indexOf(occupants, entity);
+
+        if (index < 0) {
+            return occupants;
+        }
+
+        if (occupants.length == 1) {
+            return null;
+        }
+
+        Entity[] updated = new Entity[occupants.length - 1];
+
+        System.arraycopy(occupants, 0, updated, 0, index);
+        System.arraycopy(occupants, index + 1, updated, index, occupants.length - index - 1);
+
+        return updated;
+    }
+
+    private static Entity[] orEmpty(Entity[] players) {
+        return players == null ? EMPTY : players;
+    }
+
+    private static int indexOf(Entity[] occupants, Entity entity) {
+        for (int i = 0; i < occupants.length; i++) {
+            if (occupants[i].getId().equals(entity.getId())) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+}
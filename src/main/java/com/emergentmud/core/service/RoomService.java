@@ -21,13 +21,32 @@
 package com.emergentmud.core.service;
 
 import com.emergentmud.core.model.room.Room;
+import com.emergentmud.core.util.SpatialIndex;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Component
 public class RoomService {
+    private SpatialIndex<Room> occupiedRooms = new SpatialIndex<>();
+
     public boolean isWithinDistance(Room origin, Room query, double distance) {
-        return Math.sqrt(Math.pow(origin.getX() - query.getX(), 2)
-                + Math.pow(origin.getY() - query.getY(), 2)
-                + Math.pow(origin.getZ() - query.getZ(), 2)) <= distance;
+        long dx = origin.getX() - query.getX();
+        long dy = origin.getY() - query.getY();
+        long dz = origin.getZ() - query.getZ();
+
+        return dx * dx + dy * dy + dz * dz <= distance * distance;
+    }
+
+    public void occupy(Room room) {
+        occupiedRooms.put(room.getX(), room.getY(), room.getZ(), room);
+    }
+
+    public void vacate(Room room) {
+        occupiedRooms.remove(room.getX(), room.getY(), room.getZ());
+    }
+
+    public List<Room> findOccupiedWithinDistance(Room origin, long distance) {
+        return occupiedRooms.findWithin(origin.getX(), origin.getY(), origin.getZ(), distance);
     }
 }
@@ -0,0 +1,176 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.service;
+
+import com.emergentmud.core.model.TickPhase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.metrics.CounterService;
+import org.springframework.boot.actuate.metrics.GaugeService;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+@Component
+public class TickService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TickService.class);
+
+    private ScheduledExecutorService tickExecutor;
+    private long tickInterval;
+    private CounterService counterService;
+    private GaugeService gaugeService;
+    private Map<TickPhase, Queue<Runnable>> enlisted = new EnumMap<>(TickPhase.class);
+    private Map<TickPhase, List<Runnable>> registered = new EnumMap<>(TickPhase.class);
+    private AtomicLongArray phaseDurations = new AtomicLongArray(TickPhase.values().length);
+    private volatile long tickCount;
+    private volatile long lastDuration;
+    private volatile long lag;
+    private long startTime;
+
+    @Inject
+    public TickService(ScheduledExecutorService tickExecutor,
+                       Long tickInterval,
+                       CounterService counterService,
+                       GaugeService gaugeService) {
+        this.tickExecutor = tickExecutor;
+        this.tickInterval = tickInterval;
+        this.counterService = counterService;
+        this.gaugeService = gaugeService;
+
+        for (TickPhase phase : TickPhase.values()) {
+            enlisted.put(phase, new ConcurrentLinkedQueue<>());
+            registered.put(phase, new CopyOnWriteArrayList<>());
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        startTime = System.currentTimeMillis();
+
+        LOGGER.info("Starting game tick every {}ms", tickInterval);
+
+        tickExecutor.scheduleAtFixedRate(this::tick, tickInterval, tickInterval, TimeUnit.MILLISECONDS);
+    }
+
+    public void enlist(TickPhase phase, Runnable task) {
+        enlisted.get(phase).add(task);
+    }
+
+    public void register(TickPhase phase, Runnable task) {
+        registered.get(phase).add(task);
+    }
+
+    public void unregister(TickPhase phase, Runnable task) {
+        registered.get(phase).remove(task);
+    }
+
+    public long getTickInterval() {
+        return tickInterval;
+    }
+
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    public long getLastDuration() {
+        return lastDuration;
+    }
+
+    public long getPhaseDuration(TickPhase phase) {
+        return phaseDurations.get(phase.ordinal());
+    }
+
+    public long getLag() {
+        return lag;
+    }
+
+    public void tick() {
+        long begin = System.nanoTime();
+
+        if (startTime > 0) {
+            lag = Math.max(0, System.currentTimeMillis() - (startTime + (tickCount + 1) * tickInterval));
+            gaugeService.submit("tick.lag", lag);
+        }
+
+        for (TickPhase phase : TickPhase.values()) {
+            long phaseBegin = System.nanoTime();
+
+            registered.get(phase).forEach(task -> run(phase, task));
+
+            Queue<Runnable> queue = enlisted.get(phase);
+
+            for (int i = queue.size(); i > 0; i--) {
+                Runnable task = queue.poll();
+
+                if (task == null) {
+                    break;
+                }
+
+                run(phase, task);
+            }
+
+            long phaseDuration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - phaseBegin);
+
+            phaseDurations.set(phase.ordinal(), phaseDuration);
+            gaugeService.submit("tick.phase." + phase.name().toLowerCase(), phaseDuration);
+        }
+
+        lastDuration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+        tickCount++;
+
+        gaugeService.submit("tick.duration", lastDuration);
+        counterService.increment("tick.count");
+
+        if (lastDuration > tickInterval) {
+            counterService.increment("tick.overrun");
+            LOGGER.warn("Tick {} overran by {}ms: {}", tickCount, lastDuration - tickInterval, describePhases());
+        }
+    }
+
+    private String describePhases() {
+        Map<TickPhase, Long> durations = new EnumMap<>(TickPhase.class);
+
+        for (TickPhase phase : TickPhase.values()) {
+            durations.put(phase, phaseDurations.get(phase.ordinal()));
+        }
+
+        return durations.toString();
+    }
+
+    private void run(TickPhase phase, Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            counterService.increment("tick.failed");
+            LOGGER.error("Tick task failed in {} phase", phase, e);
+        }
+    }
+}
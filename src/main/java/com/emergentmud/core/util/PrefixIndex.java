@@ -0,0 +1,121 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+public class PrefixIndex<T> {
+    private final List<T> values;
+    private final Node root;
+
+    public PrefixIndex(List<T> values, Function<T, String> keyFunction) {
+        Builder rootBuilder = new Builder();
+
+        for (T value : values) {
+            String key = keyFunction.apply(value);
+            Builder builder = rootBuilder;
+
+            builder.values.add(value);
+
+            for (int i = 0; i < key.length(); i++) {
+                builder = builder.children.computeIfAbsent(key.charAt(i), c -> new Builder());
+                builder.values.add(value);
+            }
+        }
+
+        this.values = Collections.unmodifiableList(new ArrayList<>(values));
+        this.root = rootBuilder.build();
+    }
+
+    public List<T> getValues() {
+        return values;
+    }
+
+    public Optional<T> find(String prefix) {
+        return find(prefix, value -> true);
+    }
+
+    @SuppressWarnings("unchecked")
+    public Optional<T> find(String prefix, Predicate<T> filter) {
+        Node node = root;
+
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(prefix.charAt(i));
+        }
+
+        if (node == null) {
+            return Optional.empty();
+        }
+
+        for (Object value : node.values) {
+            if (filter.test((T)value)) {
+                return Optional.of((T)value);
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    private static class Node {
+        private final char[] keys;
+        private final Node[] children;
+        private final Object[] values;
+
+        Node(char[] keys, Node[] children, Object[] values) {
+            this.keys = keys;
+            this.children = children;
+            this.values = values;
+        }
+
+        Node child(char c) {
+            int index = Arrays.binarySearch(keys, c);
+
+            return index < 0 ? null : children[index];
+        }
+    }
+
+    private static class Builder {
+        private final Map<Character, Builder> children = new TreeMap<>();
+        private final List<Object> values = new ArrayList<>();
+
+        Node build() {
+            char[] keys = new char[children.size()];
+            Node[] nodes = new Node[children.size()];
+            int i = 0;
+
+            for (Map.Entry<Character, Builder> entry : children.entrySet()) {
+                keys[i] = entry.getKey();
+                nodes[i] = entry.getValue().build();
+                i++;
+            }
+
+            return new Node(keys, nodes, values.toArray());
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class RingBuffer<T> {
+    private final Object[] elements;
+    private int next;
+    private int size;
+
+    public RingBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1.");
+        }
+
+        this.elements = new Object[capacity];
+    }
+
+    public synchronized void add(T element) {
+        elements[next] = element;
+        next = (next + 1) % elements.length;
+
+        if (size < elements.length) {
+            size++;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public synchronized List<T> snapshot() {
+        List<T> snapshot = new ArrayList<>(size);
+        int start = (next - size + elements.length) % elements.length;
+
+        for (int i = 0; i < size; i++) {
+            snapshot.add((T)elements[(start + i) % elements.length]);
+        }
+
+        return snapshot;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return elements.length;
+    }
+}
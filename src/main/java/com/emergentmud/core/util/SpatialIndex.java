@@ -0,0 +1,156 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class SpatialIndex<T> {
+    static final int CELL_BITS = 4;
+    private static final int KEY_BITS = 21;
+    private static final long KEY_MASK = (1L << KEY_BITS) - 1;
+
+    private Map<Long, Point[]> cells = new ConcurrentHashMap<>();
+
+    public void put(long x, long y, long z, T value) {
+        Point point = new Point(x, y, z, value);
+
+        cells.compute(cellKey(x >> CELL_BITS, y >> CELL_BITS, z >> CELL_BITS), (key, points) -> with(points, point));
+    }
+
+    public void remove(long x, long y, long z) {
+        cells.computeIfPresent(cellKey(x >> CELL_BITS, y >> CELL_BITS, z >> CELL_BITS), (key, points) -> without(points, x, y, z));
+    }
+
+    public List<T> findWithin(long x, long y, long z, long distance) {
+        List<T> results = new ArrayList<>();
+        long limit = distance * distance;
+        long minX = (x - distance) >> CELL_BITS;
+        long maxX = (x + distance) >> CELL_BITS;
+        long minY = (y - distance) >> CELL_BITS;
+        long maxY = (y + distance) >> CELL_BITS;
+        long minZ = (z - distance) >> CELL_BITS;
+        long maxZ = (z + distance) >> CELL_BITS;
+        long span = (maxX - minX + 1) * (maxY - minY + 1) * (maxZ - minZ + 1);
+
+        if (span > cells.size()) {
+            for (Point[] points : cells.values()) {
+                collect(points, x, y, z, limit, results);
+            }
+        } else {
+            for (long cx = minX; cx <= maxX; cx++) {
+                for (long cy = minY; cy <= maxY; cy++) {
+                    for (long cz = minZ; cz <= maxZ; cz++) {
+                        Point[] points = cells.get(cellKey(cx, cy, cz));
+
+                        if (points != null) {
+                            collect(points, x, y, z, limit, results);
+                        }
+                    }
+                }
+            }
+        }
+
+        return results;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void collect(Point[] points, long x, long y, long z, long limit, List<T> results) {
+        for (Point point : points) {
+            long dx = point.x - x;
+            long dy = point.y - y;
+            long dz = point.z - z;
+
+            if (dx * dx + dy * dy + dz * dz <= limit) {
+                results.add((T)point.value);
+            }
+        }
+    }
+
+    private static long cellKey(long cx, long cy, long cz) {
+        return (cx & KEY_MASK) << (KEY_BITS * 2) | (cy & KEY_MASK) << KEY_BITS | (cz & KEY_MASK);
+    }
+
+    private static Point[] with(Point[] points, Point point) {
+        if (points == null) {
+            return new Point[] { point };
+        }
+
+        int index = indexOf(points, point.x, point.y, point.z);
+        Point[] updated;
+
+        if (index < 0) {
+            updated = Arrays.copyOf(points, points.length + 1);
+            updated[points.length] = point;
+        } else {
+            updated = points.clone();
+            updated[index] = point;
+        }
+
+        return updated;
+    }
+
+    private static Point[] without(Point[] points, long x, long y, long z) {
+        int index = indexOf(points, x, y, z);
+
+        if (index < 0) {
+            return points;
+        }
+
+        if (points.length == 1) {
+            return null;
+        }
+
+        Point[] updated = new Point[points.length - 1];
+
+        System.arraycopy(points, 0, updated, 0, index);
+        System.arraycopy(points, index + 1, updated, index, points.length - index - 1);
+
+        return updated;
+    }
+
+    private static int indexOf(Point[] points, long x, long y, long z) {
+        for (int i = 0; i < points.length; i++) {
+            if (points[i].x == x && points[i].y == y && points[i].z == z) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private static class Point {
+        private final long x;
+        private final long y;
+        private final long z;
+        private final Object value;
+
+        Point(long x, long y, long z, Object value) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.value = value;
+        }
+    }
+}
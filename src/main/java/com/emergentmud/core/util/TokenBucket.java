@@ -0,0 +1,75 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+public class TokenBucket {
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private double rate;
+    private int burst;
+    private LongSupplier clock;
+    private double tokens;
+    private long lastRefill;
+
+    public TokenBucket(double rate, int burst) {
+        this(rate, burst, System::nanoTime);
+    }
+
+    TokenBucket(double rate, int burst, LongSupplier clock) {
+        this.rate = rate;
+        this.burst = burst;
+        this.clock = clock;
+        this.tokens = burst;
+        this.lastRefill = clock.getAsLong();
+    }
+
+    public boolean tryConsume() {
+        return tryConsume(1);
+    }
+
+    public synchronized boolean tryConsume(int count) {
+        refill();
+
+        if (tokens < count) {
+            return false;
+        }
+
+        tokens -= count;
+
+        return true;
+    }
+
+    public synchronized int getAvailable() {
+        refill();
+
+        return (int)tokens;
+    }
+
+    private void refill() {
+        long now = clock.getAsLong();
+
+        tokens = Math.min(burst, tokens + (now - lastRefill) / NANOS_PER_SECOND * rate);
+        lastRefill = now;
+    }
+}
@@ -24,6 +24,21 @@ var commandHistory = [];
 var commandHistoryIndex = -1;
 var commandHistoryLength = 500;
 var scrollBackLength = 5000;
+var pipelineInput = true;
+var pendingCommands = [];
+var verbatimCommands = ["say", "shout", "tell", "gossip", "emote"];
+var awaitingOutput = false;
+var awaitingOutputTimer = null;
+var awaitingOutputTimeout = 1000;
+var outputFormat = "compact-1";
+var colorNames = [null, "default", "dblack", "black", "dwhite", "white", "dred", "red", "dyellow", "yellow",
+    "dgreen", "green", "dcyan", "cyan", "dblue", "blue", "dmagenta", "magenta"];
+var paletteOffset = 32;
+var minimap = null;
+var minimapScale = 3;
+var mapSubscribed = false;
+var mapSubscription = null;
+var mapRequested = false;
 
 $(document).ready(function() {
     $("#user-input-form").submit(function(event) {
@@ -74,20 +89,133 @@ function connect() {
         showOutput(["[green]Connected to server."]);
 
         stompClient.subscribe('/user/queue/output', function(message) {
-            var msg = JSON.parse(message.body);
-            showOutput(msg.output);
+            showFrame(JSON.parse(message.body));
+            outputReceived();
+            subscribeMap();
         },
-        { "breadcrumb": breadcrumb });
+        { "breadcrumb": breadcrumb, "format": outputFormat });
 
         setConnected(true);
     },
     function() {
         setConnected(false);
+        mapSubscribed = false;
+        mapRequested = false;
         console.log('Disconnected.');
         showOutput(["[red]Disconnected from server."]);
     });
 }
 
+function subscribeMap() {
+    if (mapSubscribed) {
+        return;
+    }
+
+    mapSubscribed = true;
+
+    mapSubscription = stompClient.subscribe('/user/queue/map', function(message) {
+        showMap(JSON.parse(message.body));
+    });
+
+    requestMap();
+}
+
+function requestMap() {
+    if (mapRequested) {
+        return;
+    }
+
+    mapRequested = true;
+
+    var request = stompClient.subscribe('/app/map', function(message) {
+        request.unsubscribe();
+        mapRequested = false;
+        showMap(JSON.parse(message.body));
+    },
+    { "mapSubscription": mapSubscription.id });
+}
+
+function showMap(frame) {
+    var tiles = atob(frame.tiles);
+
+    if (frame.type === "full") {
+        minimap = {
+            x: frame.x,
+            y: frame.y,
+            width: frame.width,
+            height: frame.height,
+            colors: []
+        };
+
+        for (var i = 0; i < tiles.length; i++) {
+            minimap.colors.push(frame.palette[tiles.charCodeAt(i)]);
+        }
+    } else if (minimap !== null && minimap.x === frame.x - frame.dx && minimap.y === frame.y - frame.dy) {
+        shiftMap(frame, tiles);
+    } else {
+        requestMap(); // we missed something, so start over with a full frame
+        return;
+    }
+
+    drawMap();
+}
+
+function shiftMap(frame, tiles) {
+    var width = minimap.width;
+    var height = minimap.height;
+    var colors = new Array(width * height);
+
+    for (var row = 0; row < height; row++) {
+        var oldRow = row - frame.dy;
+
+        for (var column = 0; column < width; column++) {
+            var oldColumn = column + frame.dx;
+
+            if (oldRow >= 0 && oldRow < height && oldColumn >= 0 && oldColumn < width) {
+                colors[row * width + column] = minimap.colors[oldRow * width + oldColumn];
+            }
+        }
+    }
+
+    for (var i = 0; i < tiles.length; i++) {
+        var color = frame.palette[tiles.charCodeAt(i)];
+
+        if (frame.dx > 0) {
+            colors[i * width + width - 1] = color;
+        } else if (frame.dx < 0) {
+            colors[i * width] = color;
+        } else if (frame.dy > 0) {
+            colors[i] = color;
+        } else {
+            colors[(height - 1) * width + i] = color;
+        }
+    }
+
+    minimap.x = frame.x;
+    minimap.y = frame.y;
+    minimap.colors = colors;
+}
+
+function drawMap() {
+    var context = document.getElementById("minimap").getContext("2d");
+
+    for (var i = 0; i < minimap.colors.length; i++) {
+        context.fillStyle = "#" + minimap.colors[i];
+        context.fillRect(
+            (i % minimap.width) * minimapScale,
+            Math.floor(i / minimap.width) * minimapScale,
+            minimapScale,
+            minimapScale);
+    }
+
+    context.fillStyle = "#00ffff";
+    context.fillRect(
+        Math.floor(minimap.width / 2) * minimapScale,
+        Math.floor(minimap.height / 2) * minimapScale,
+        minimapScale,
+        minimapScale);
+}
+
 function sendInput() {
     var inputBox = $("#user-input");
 
@@ -100,19 +228,145 @@ function sendInput() {
 
     $("#output-list").find("li:last-child").append("<span class='yellow'> " + htmlEscape(inputBox.val()) + "</span>");
 
-    stompClient.send("/app/input", { "breadcrumb": breadcrumb }, JSON.stringify({ 'input': inputBox.val() }));
+    queueCommands(splitCommands(inputBox.val()));
     inputBox.val('');
 }
 
+function splitCommands(input) {
+    var commands = [];
+    var command = "";
+    var text = String(input);
+
+    for (var i = 0; i < text.length; i++) {
+        var c = text.charAt(i);
+
+        if (c !== ";" || isVerbatim(command)) {
+            command += c;
+        } else if (text.charAt(i + 1) === ";") { // ";;" is a literal semicolon
+            command += c;
+            i++;
+        } else {
+            pushCommand(commands, command);
+            command = "";
+        }
+    }
+
+    pushCommand(commands, command);
+
+    if (commands.length === 0) {
+        commands.push("");
+    }
+
+    return commands;
+}
+
+function pushCommand(commands, command) {
+    command = $.trim(command);
+
+    if ("" !== command) {
+        commands.push(command);
+    }
+}
+
+// communication commands take the rest of the line as text, semicolons and all
+function isVerbatim(command) {
+    var verb = $.trim(command).split(/\s+/)[0].toLowerCase();
+
+    return $.trim(command).indexOf(" ") !== -1 && verbatimCommands.indexOf(verb) !== -1;
+}
+
+function queueCommands(commands) {
+    var room = Math.max(maxPendingCommands - pendingCommands.length, 0);
+
+    if (commands.length > room) {
+        showOutput(["[yellow]You can only queue " + maxPendingCommands + " commands at a time. "
+            + (commands.length - room) + " of them were not sent."]);
+        commands = commands.slice(0, room);
+    }
+
+    pendingCommands = pendingCommands.concat(commands);
+
+    if (!pipelineInput || !awaitingOutput) {
+        flushCommands();
+    }
+}
+
+function flushCommands() {
+    if (pendingCommands.length === 0) {
+        return;
+    }
+
+    stompClient.send("/app/input", { "breadcrumb": breadcrumb }, JSON.stringify({ 'commands': pendingCommands }));
+    pendingCommands = [];
+    awaitingOutput = true;
+
+    clearTimeout(awaitingOutputTimer);
+    awaitingOutputTimer = setTimeout(outputReceived, awaitingOutputTimeout);
+}
+
+function outputReceived() {
+    awaitingOutput = false;
+    clearTimeout(awaitingOutputTimer);
+    flushCommands();
+}
+
+function showFrame(frame) {
+    if (frame.v === 1) {
+        var lines = [];
+
+        for (var i = 0; i < frame.o.length; i++) {
+            lines.push(decodeLine(frame.o[i], frame.p));
+        }
+
+        showLines(lines);
+    } else {
+        showOutput(frame.output);
+    }
+}
+
+function decodeLine(line, palette) {
+    if (typeof line === "string") {
+        return line;
+    }
+
+    var html = "";
+
+    for (var i = 0; i < line.length; i++) {
+        var token = line[i];
+
+        if (typeof token === "string") {
+            html += token;
+        } else if (token === 0) {
+            html += "</span>";
+        } else if (token >= paletteOffset) {
+            html += "<span style='color: #" + palette[token - paletteOffset] + "'>";
+        } else {
+            html += "<span class='" + colorNames[token] + "'>";
+        }
+    }
+
+    return html;
+}
+
 function showOutput(message) {
+    var lines = [];
+
+    for (var i = 0; i < message.length; i++) {
+        lines.push(replaceColors(message[i]));
+    }
+
+    showLines(lines);
+}
+
+function showLines(lines) {
     var outputBox = $("#output-box");
     var outputList = $("#output-list");
 
-    for (var i = 0; i < message.length; i++) {
-        if ("" === message[i]) {
+    for (var i = 0; i < lines.length; i++) {
+        if ("" === lines[i]) {
             outputList.append("<li>&nbsp;</li>");
         } else {
-            outputList.append("<li>" + replaceColors(message[i]) + "</li>");
+            outputList.append("<li>" + lines[i] + "</li>");
         }
     }
 
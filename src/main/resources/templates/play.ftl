@@ -35,6 +35,7 @@ along with this program.  If not, see <http://www.gnu.org/licenses/>.
             </noscript>
         </ul>
     </div>
+    <canvas id="minimap" width="243" height="123"></canvas>
     <div id="input-box">
         <form id="user-input-form">
             <input type="text" id="user-input" autocomplete="off" autofocus />
@@ -44,6 +45,7 @@ along with this program.  If not, see <http://www.gnu.org/licenses/>.
 
 <script type="text/javascript">
     var breadcrumb = "${breadcrumb}";
+    var maxPendingCommands = ${commandBurst?c};
 </script>
 
 <#include "scripts.inc.ftl">
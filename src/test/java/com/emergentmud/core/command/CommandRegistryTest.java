@@ -0,0 +1,96 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.command;
+
+import com.emergentmud.core.model.CommandMetadata;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.NoSuchBeanDefinitionException;
+import org.springframework.context.ApplicationContext;
+
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class CommandRegistryTest {
+    @Mock
+    private ApplicationContext applicationContext;
+
+    @Mock
+    private Command command;
+
+    @Mock
+    private CommandMetadata metadata;
+
+    private CommandRegistry commandRegistry;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+
+        when(applicationContext.getBean(eq("lookCommand"))).thenReturn(command);
+        when(applicationContext.getBean(eq("missingCommand"))).thenThrow(new NoSuchBeanDefinitionException("missingCommand"));
+        when(applicationContext.getBean(eq("notACommand"))).thenReturn(new Object());
+
+        commandRegistry = new CommandRegistry(applicationContext);
+    }
+
+    @Test
+    public void testGetCommand() throws Exception {
+        assertEquals(command, commandRegistry.getCommand("lookCommand"));
+    }
+
+    @Test
+    public void testGetCommandCached() throws Exception {
+        commandRegistry.getCommand("lookCommand");
+        commandRegistry.getCommand("lookCommand");
+
+        verify(applicationContext, times(1)).getBean(eq("lookCommand"));
+    }
+
+    @Test
+    public void testResolve() throws Exception {
+        when(metadata.getBeanName()).thenReturn("lookCommand");
+
+        Optional<CommandHandle> handle = commandRegistry.resolve(metadata);
+
+        assertTrue(handle.isPresent());
+        assertEquals(metadata, handle.get().getMetadata());
+        assertEquals(command, handle.get().getCommand());
+    }
+
+    @Test
+    public void testResolveMissingBean() throws Exception {
+        when(metadata.getBeanName()).thenReturn("missingCommand");
+
+        assertFalse(commandRegistry.resolve(metadata).isPresent());
+    }
+
+    @Test
+    public void testResolveWrongType() throws Exception {
+        when(metadata.getBeanName()).thenReturn("notACommand");
+
+        assertFalse(commandRegistry.resolve(metadata).isPresent());
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.command;
+
+import com.emergentmud.core.model.Entity;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class EmoteTemplateTest {
+    @Mock
+    private Entity self;
+
+    @Mock
+    private Entity target;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+
+        when(self.getName()).thenReturn("Scion");
+        when(target.getName()).thenReturn("Bnarg");
+    }
+
+    @Test
+    public void testLiteral() throws Exception {
+        assertEquals("You grin.", EmoteTemplate.compile("you grin.").render(self, target));
+    }
+
+    @Test
+    public void testEmpty() throws Exception {
+        assertEquals("", EmoteTemplate.compile("").render(self, target));
+    }
+
+    @Test
+    public void testNames() throws Exception {
+        assertEquals("Scion grins at Bnarg.", EmoteTemplate.compile("%self% grins at %target%.").render(self, target));
+        assertEquals("Bnarg's hat is on Scion's head.", EmoteTemplate.compile("%targetpos% hat is on %selfpos% head.").render(self, target));
+    }
+
+    @Test
+    public void testPronouns() throws Exception {
+        assertEquals("He pats him on his head and grins to himself, scratching his nose.",
+                EmoteTemplate.compile("%he% pats %him% on %his% head and grins to %himself%, scratching %hispos% nose.").render(self, target));
+    }
+
+    @Test
+    public void testNullTarget() throws Exception {
+        assertEquals("Scion grins at NULL and NULL's friend.",
+                EmoteTemplate.compile("%self% grins at %target% and %targetpos% friend.").render(self, null));
+    }
+
+    @Test
+    public void testSelfTarget() throws Exception {
+        assertEquals("Scion grins at Scion.", EmoteTemplate.compile("%self% grins at %target%.").render(self, self));
+    }
+
+    @Test
+    public void testAdjacentVariables() throws Exception {
+        assertEquals("ScionBnarg", EmoteTemplate.compile("%self%%target%").render(self, target));
+    }
+
+    @Test
+    public void testUnknownVariables() throws Exception {
+        assertEquals("100% %nobody% grins at Bnarg %", EmoteTemplate.compile("100% %nobody% grins at %target% %").render(self, target));
+    }
+
+    @Test
+    public void testCapitalizesName() throws Exception {
+        when(self.getName()).thenReturn("scion");
+
+        assertEquals("Scion grins.", EmoteTemplate.compile("%self% grins.").render(self, target));
+    }
+
+    @Test
+    public void testReusable() throws Exception {
+        EmoteTemplate template = EmoteTemplate.compile("%self% grins at %target%.");
+        Entity other = mock(Entity.class);
+
+        when(other.getName()).thenReturn("Ghan");
+
+        assertEquals("Scion grins at Bnarg.", template.render(self, target));
+        assertEquals("Scion grins at Ghan.", template.render(self, other));
+    }
+}
@@ -24,8 +24,10 @@ import com.emergentmud.core.model.EmoteMetadata;
 import com.emergentmud.core.model.Entity;
 import com.emergentmud.core.model.room.Room;
 import com.emergentmud.core.model.stomp.GameOutput;
-import com.emergentmud.core.repository.EntityRepository;
+import com.emergentmud.core.repository.EmoteMetadataRepository;
+import com.emergentmud.core.service.EmoteService;
 import com.emergentmud.core.service.EntityService;
+import com.emergentmud.core.service.PresenceService;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
@@ -41,11 +43,14 @@ import static org.mockito.Mockito.*;
 
 public class EmoteTest {
     @Mock
-    private EntityRepository entityRepository;
+    private PresenceService presenceService;
 
     @Mock
     private EntityService entityService;
 
+    @Mock
+    private EmoteMetadataRepository emoteMetadataRepository;
+
     @Mock
     private GameOutput output;
 
@@ -96,9 +101,9 @@ public class EmoteTest {
         entities.add(target);
         entities.add(observer);
 
-        when(entityRepository.findByRoom(eq(room))).thenReturn(entities);
+        when(presenceService.getOccupants(eq(room))).thenReturn(entities);
 
-        emote = new Emote(entityRepository, entityService);
+        emote = new Emote(presenceService, entityService, new EmoteService(emoteMetadataRepository));
     }
 
     @Test
@@ -111,7 +116,7 @@ public class EmoteTest {
         emote.execute(output, metadata, entity, new String[0]);
 
         verify(output).append(eq("Huh?"));
-        verifyZeroInteractions(entityRepository);
+        verifyZeroInteractions(presenceService);
         verifyZeroInteractions(entityService);
     }
 
@@ -0,0 +1,132 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.emergentmud.core.command;
+
+import com.emergentmud.core.model.stomp.GameOutput;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.domain.Page;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+
+public class TableFormatterTest {
+    private TableFormatter tableFormatter;
+    private GameOutput output;
+
+    @Before
+    public void setUp() throws Exception {
+        tableFormatter = new TableFormatter("Things", Arrays.asList("Name", "Description"), "Thing", "Things");
+        output = new GameOutput();
+    }
+
+    @Test
+    public void testToTable() throws Exception {
+        tableFormatter.addRow(Arrays.asList("Able", "First"));
+        tableFormatter.addRow(Arrays.asList("Baker", "Second"));
+        tableFormatter.toTable(output, "yellow");
+
+        assertEquals(3, output.getOutput().size());
+        assertTrue(output.getOutput().get(0).contains("Things"));
+        assertTrue(output.getOutput().get(1).contains("<td>[yellow]Baker</td>"));
+        assertEquals("[dyellow]2 Things listed.", output.getOutput().get(2));
+    }
+
+    @Test
+    public void testWidthsGrowWithRows() throws Exception {
+        assertEquals(4, tableFormatter.getWidth(0));
+        assertEquals(11, tableFormatter.getWidth(1));
+
+        tableFormatter.addRow(Arrays.asList("[red]Charlie[dred]", "Short"));
+
+        assertEquals(7, tableFormatter.getWidth(0));
+        assertEquals(11, tableFormatter.getWidth(1));
+
+        tableFormatter.toTable(output, "yellow");
+
+        assertTrue(output.getOutput().get(1).contains("<col style=\"min-width: 7ch\"><col style=\"min-width: 11ch\">"));
+    }
+
+    @Test
+    public void testVisibleLength() throws Exception {
+        assertEquals(5, TableFormatter.visibleLength("Hello"));
+        assertEquals(5, TableFormatter.visibleLength("[yellow]Hello[dyellow]"));
+        assertEquals(3, TableFormatter.visibleLength("&lt;a&gt;"));
+        assertEquals(2, TableFormatter.visibleLength("<b>hi</b>"));
+        assertEquals(2, TableFormatter.visibleLength("[a"));
+    }
+
+    @Test
+    public void testParsePage() throws Exception {
+        assertEquals(Optional.of(0), TableFormatter.parsePage(new String[] {"entity"}, 1));
+        assertEquals(Optional.of(2), TableFormatter.parsePage(new String[] {"entity", "page", "3"}, 1));
+        assertEquals(Optional.of(1), TableFormatter.parsePage(new String[] {"PAGE", "2"}, 0));
+        assertFalse(TableFormatter.parsePage(new String[] {"entity", "page"}, 1).isPresent());
+        assertFalse(TableFormatter.parsePage(new String[] {"entity", "page", "0"}, 1).isPresent());
+        assertFalse(TableFormatter.parsePage(new String[] {"entity", "page", "x"}, 1).isPresent());
+        assertFalse(TableFormatter.parsePage(new String[] {"entity", "row", "2"}, 1).isPresent());
+    }
+
+    @Test
+    public void testPaginate() throws Exception {
+        List<Integer> values = IntStream.range(0, TableFormatter.PAGE_SIZE * 2 + 5).boxed().collect(Collectors.toList());
+        Page<Integer> page = TableFormatter.paginate(values, 2);
+
+        assertEquals(Arrays.asList(100, 101, 102, 103, 104), page.getContent());
+        assertEquals(3, page.getTotalPages());
+        assertFalse(page.hasNext());
+        assertTrue(TableFormatter.paginate(values, 0).hasNext());
+        assertFalse(TableFormatter.paginate(values, 7).hasContent());
+    }
+
+    @Test
+    public void testToPage() throws Exception {
+        List<String> names = IntStream.range(0, TableFormatter.PAGE_SIZE + 1).mapToObj(i -> "Thing" + i).collect(Collectors.toList());
+        Page<String> page = TableFormatter.paginate(names, 0);
+
+        page.forEach(name -> tableFormatter.addRow(Arrays.asList(name, "")));
+        tableFormatter.toPage(output, "yellow", page);
+
+        assertEquals(4, output.getOutput().size());
+        assertEquals("[dyellow]Page 1 of 2, 51 Things in total.", output.getOutput().get(2));
+        assertEquals("[yellow]Type MORE to see the next page.", output.getOutput().get(3));
+    }
+
+    @Test
+    public void testToPageEmpty() throws Exception {
+        tableFormatter.toPage(output, "yellow", TableFormatter.paginate(new ArrayList<String>(), 0));
+
+        assertEquals("[dyellow]Page 1 of 1, 0 Things in total.", output.getOutput().get(2));
+    }
+
+    @Test
+    public void testToPagePastEnd() throws Exception {
+        tableFormatter.toPage(output, "yellow", TableFormatter.paginate(Collections.singletonList("Able"), 4));
+
+        assertEquals(Collections.singletonList("[yellow]There is only 1 page."), output.getOutput());
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.command;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TokenizedInputTest {
+    @Test
+    public void testEmpty() throws Exception {
+        TokenizedInput input = new TokenizedInput("   ");
+
+        assertTrue(input.isEmpty());
+        assertEquals("", input.getCommand());
+        assertEquals(0, input.getTokenCount());
+        assertArrayEquals(new String[0], input.getTokens());
+        assertEquals("", input.getRaw());
+    }
+
+    @Test
+    public void testCommandOnly() throws Exception {
+        TokenizedInput input = new TokenizedInput("look");
+
+        assertFalse(input.isEmpty());
+        assertEquals("look", input.getCommand());
+        assertEquals(0, input.getTokenCount());
+        assertArrayEquals(new String[0], input.getTokens());
+        assertEquals("", input.getRaw());
+    }
+
+    @Test
+    public void testTokens() throws Exception {
+        TokenizedInput input = new TokenizedInput("say I love EmergentMUD!");
+
+        assertEquals("say", input.getCommand());
+        assertEquals(3, input.getTokenCount());
+        assertEquals("love", input.getToken(1));
+        assertArrayEquals(new String[] { "I", "love", "EmergentMUD!" }, input.getTokens());
+        assertEquals("I love EmergentMUD!", input.getRaw());
+    }
+
+    @Test
+    public void testExtraWhitespace() throws Exception {
+        TokenizedInput input = new TokenizedInput("  tell\tbob   hi  there ");
+
+        assertEquals("tell", input.getCommand());
+        assertArrayEquals(new String[] { "bob", "hi", "there" }, input.getTokens());
+        assertEquals("bob   hi  there ", input.getRaw());
+        assertEquals("hi  there ", input.getRemainder(2));
+    }
+
+    @Test
+    public void testRemainder() throws Exception {
+        TokenizedInput input = new TokenizedInput("emoteedit set wink 1 You wink.");
+
+        assertEquals("emoteedit set wink 1 You wink.", input.getRemainder(0));
+        assertEquals("You wink.", input.getRemainder(4));
+        assertEquals("", input.getRemainder(6));
+    }
+
+    @Test
+    public void testManyTokens() throws Exception {
+        TokenizedInput input = new TokenizedInput("a b c d e f g h i j k l m n o p q r s t");
+
+        assertEquals("a", input.getCommand());
+        assertEquals(19, input.getTokenCount());
+        assertEquals("t", input.getToken(18));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testTokenOutOfRange() throws Exception {
+        new TokenizedInput("look north").getToken(1);
+    }
+}
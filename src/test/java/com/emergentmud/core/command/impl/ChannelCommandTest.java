@@ -0,0 +1,129 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.command.impl;
+
+import com.emergentmud.core.model.Channel;
+import com.emergentmud.core.model.Entity;
+import com.emergentmud.core.model.stomp.GameOutput;
+import com.emergentmud.core.service.ChannelService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class ChannelCommandTest {
+    @Mock
+    private ChannelService channelService;
+
+    @Mock
+    private Entity entity;
+
+    private Channel gossip;
+    private GameOutput output;
+    private String cmd = "channel";
+
+    private ChannelCommand command;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+
+        gossip = new Channel(ChannelService.GOSSIP, true, 5);
+        output = new GameOutput();
+
+        when(entity.getId()).thenReturn("entityId");
+        when(channelService.getChannels()).thenReturn(Collections.singletonList(gossip));
+        when(channelService.getChannel(eq(ChannelService.GOSSIP))).thenReturn(Optional.of(gossip));
+        when(channelService.getChannel(eq("nonexistent"))).thenReturn(Optional.empty());
+        when(channelService.getHistory(eq(ChannelService.GOSSIP))).thenReturn(new GameOutput("[green]Able gossips 'Hi.[green]'"));
+
+        command = new ChannelCommand(channelService);
+    }
+
+    @Test
+    public void testDescription() throws Exception {
+        assertNotEquals("No description.", command.getDescription());
+    }
+
+    @Test
+    public void testNoArgs() throws Exception {
+        GameOutput result = command.execute(output, entity, cmd, new String[] {}, "");
+
+        assertTrue(result.getOutput().stream().anyMatch(line -> line.contains("Usage")));
+    }
+
+    @Test
+    public void testList() throws Exception {
+        GameOutput result = command.execute(output, entity, cmd, new String[] { "list" }, "list");
+
+        assertTrue(result.getOutput().stream().anyMatch(line -> line.contains("gossip")));
+        assertTrue(result.getOutput().stream().anyMatch(line -> line.contains("Joined")));
+    }
+
+    @Test
+    public void testLeave() throws Exception {
+        GameOutput result = command.execute(output, entity, cmd, new String[] { "leave", "gossip" }, "leave gossip");
+
+        assertEquals("[yellow]You are no longer listening to gossip.", result.getOutput().get(0));
+        assertFalse(gossip.isMember(entity));
+    }
+
+    @Test
+    public void testLeaveNotMember() throws Exception {
+        gossip.leave(entity);
+
+        GameOutput result = command.execute(output, entity, cmd, new String[] { "leave", "gossip" }, "leave gossip");
+
+        assertEquals("[yellow]You are not listening to gossip.", result.getOutput().get(0));
+    }
+
+    @Test
+    public void testJoin() throws Exception {
+        gossip.leave(entity);
+
+        GameOutput result = command.execute(output, entity, cmd, new String[] { "join", "GOSSIP" }, "join GOSSIP");
+
+        assertEquals("[yellow]You are now listening to gossip.", result.getOutput().get(0));
+        assertEquals("[green]Able gossips 'Hi.[green]'", result.getOutput().get(1));
+        assertTrue(gossip.isMember(entity));
+    }
+
+    @Test
+    public void testJoinAlreadyMember() throws Exception {
+        GameOutput result = command.execute(output, entity, cmd, new String[] { "join", "gossip" }, "join gossip");
+
+        assertEquals("[yellow]You are already listening to gossip.", result.getOutput().get(0));
+        verify(channelService, never()).getHistory(anyString());
+    }
+
+    @Test
+    public void testJoinUnknownChannel() throws Exception {
+        GameOutput result = command.execute(output, entity, cmd, new String[] { "join", "nonexistent" }, "join nonexistent");
+
+        assertEquals("[red]There is no channel named 'nonexistent'.", result.getOutput().get(0));
+    }
+}
@@ -26,6 +26,7 @@ import com.emergentmud.core.model.Entity;
 import com.emergentmud.core.model.stomp.GameOutput;
 import com.emergentmud.core.repository.CapabilityRepository;
 import com.emergentmud.core.repository.CommandMetadataRepository;
+import com.emergentmud.core.service.CommandService;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
@@ -51,6 +52,9 @@ public class CommandEditCommandTest {
     @Mock
     private CapabilityRepository capabilityRepository;
 
+    @Mock
+    private CommandService commandService;
+
     @Mock
     private GameOutput output;
 
@@ -87,7 +91,7 @@ public class CommandEditCommandTest {
         when(commandMetadataRepository.findByName(eq("test"))).thenReturn(metadata);
         when(capabilityRepository.findByName(eq("CAP"))).thenReturn(capability);
 
-        command = new CommandEditCommand(commandMetadataRepository, capabilityRepository);
+        command = new CommandEditCommand(commandMetadataRepository, capabilityRepository, commandService);
     }
 
     @Test
@@ -157,6 +161,7 @@ public class CommandEditCommandTest {
 
         assertNotNull(result);
         verify(commandMetadataRepository).save(commandMetadataArgumentCaptor.capture());
+        verify(commandService).reload();
         verify(output).append(anyString());
 
         CommandMetadata commandMetadata = commandMetadataArgumentCaptor.getValue();
@@ -190,6 +195,7 @@ public class CommandEditCommandTest {
         verify(commandMetadataRepository).findByName(eq("test"));
         verify(metadata, never()).setPriority(anyInt());
         verify(commandMetadataRepository, never()).save(any(CommandMetadata.class));
+        verify(commandService, never()).reload();
     }
 
     @Test
@@ -203,6 +209,7 @@ public class CommandEditCommandTest {
         verify(commandMetadataRepository).findByName(eq("test"));
         verify(metadata).setPriority(eq(42));
         verify(commandMetadataRepository).save(any(CommandMetadata.class));
+        verify(commandService).reload();
     }
 
     @Test
@@ -227,6 +234,7 @@ public class CommandEditCommandTest {
         verify(commandMetadataRepository).findByName(eq("test"));
         verify(capabilityRepository).findByName(eq("BAZ"));
         verify(commandMetadataRepository, never()).save(any(CommandMetadata.class));
+        verify(commandService, never()).reload();
     }
 
     @Test
@@ -240,6 +248,7 @@ public class CommandEditCommandTest {
         verify(commandMetadataRepository).findByName(eq("test"));
         verify(capabilityRepository).findByName("CAP");
         verify(commandMetadataRepository).save(any(CommandMetadata.class));
+        verify(commandService).reload();
     }
 
     @Test
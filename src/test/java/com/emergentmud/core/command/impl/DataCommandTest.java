@@ -20,18 +20,30 @@
 
 package com.emergentmud.core.command.impl;
 
+import com.emergentmud.core.command.Continuation;
+import com.emergentmud.core.command.TableFormatter;
 import com.emergentmud.core.model.Account;
 import com.emergentmud.core.model.Entity;
+import com.emergentmud.core.model.PlayerSession;
+import com.emergentmud.core.model.SessionLag;
 import com.emergentmud.core.model.stomp.GameOutput;
 import com.emergentmud.core.repository.EntityRepository;
+import com.emergentmud.core.service.LagService;
+import com.emergentmud.core.service.OutputService;
+import com.emergentmud.core.service.PlayerSessionService;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.Spy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
@@ -40,6 +52,18 @@ public class DataCommandTest {
     @Mock
     private EntityRepository entityRepository;
 
+    @Mock
+    private LagService lagService;
+
+    @Mock
+    private OutputService outputService;
+
+    @Mock
+    private PlayerSessionService playerSessionService;
+
+    @Mock
+    private PlayerSession ableSession;
+
     @Mock
     private Entity entity;
 
@@ -73,11 +97,17 @@ public class DataCommandTest {
         entities.add(baker);
         entities.add(able);
 
-        when(entityRepository.findByAccountIsNotNull()).thenReturn(entities);
+        when(entityRepository.findByAccountIsNotNull(any(Pageable.class))).thenAnswer(invocation -> {
+            Pageable pageable = (Pageable)invocation.getArguments()[0];
+
+            entities.sort(Comparator.comparing(Entity::getName));
+
+            return TableFormatter.paginate(entities, pageable.getPageNumber());
+        });
         when(able.getAccount()).thenReturn(ableAccount);
         when(baker.getAccount()).thenReturn(bakerAccount);
 
-        command = new DataCommand(entityRepository);
+        command = new DataCommand(entityRepository, lagService, outputService, playerSessionService);
     }
 
     @Test
@@ -100,7 +130,10 @@ public class DataCommandTest {
         assertTrue(result.getOutput().get(1).contains("Name"));
         assertTrue(result.getOutput().get(1).contains("Able"));
         assertTrue(result.getOutput().get(1).contains("Baker"));
-        assertTrue(result.getOutput().get(2).contains("2 Entities listed."));
+        assertTrue(result.getOutput().get(1).indexOf("Able") < result.getOutput().get(1).indexOf("Baker"));
+        assertTrue(result.getOutput().get(2).contains("Page 1 of 1, 2 Entities in total."));
+        verify(entityRepository).findByAccountIsNotNull(eq(new PageRequest(0, TableFormatter.PAGE_SIZE, DataCommand.SORT)));
+        verify(playerSessionService).setContinuation(eq(entity), isNull(Continuation.class));
     }
 
     @Test
@@ -112,7 +145,72 @@ public class DataCommandTest {
         assertTrue(result.getOutput().get(0).contains("Player Characters in Database"));
         assertTrue(result.getOutput().get(1).contains("Name"));
         assertTrue(result.getOutput().get(1).contains("Able"));
-        assertTrue(result.getOutput().get(2).contains("1 Entity listed."));
+        assertTrue(result.getOutput().get(2).contains("1 Entity in total."));
+    }
+
+    @Test
+    public void testExecuteEssencePaged() throws Exception {
+        for (int i = 0; i < TableFormatter.PAGE_SIZE; i++) {
+            Entity extra = mock(Entity.class);
+
+            when(extra.getName()).thenReturn(String.format("Extra%03d", i));
+            when(extra.getAccount()).thenReturn(ableAccount);
+            entities.add(extra);
+        }
+
+        GameOutput result = command.execute(output, entity, "data", new String[] { "entity" }, "entity");
+
+        assertTrue(result.getOutput().get(2).contains("Page 1 of 2, 52 Entities in total."));
+        assertTrue(result.getOutput().get(3).contains("MORE"));
+        verify(playerSessionService).setContinuation(eq(entity), any(Continuation.class));
+
+        result = command.execute(new GameOutput(), entity, "data", new String[] { "entity", "page", "2" }, "entity page 2");
+
+        assertTrue(result.getOutput().get(1).contains("Extra049"));
+        assertFalse(result.getOutput().get(1).contains("Able"));
+        assertTrue(result.getOutput().get(2).contains("Page 2 of 2, 52 Entities in total."));
+        verify(entityRepository).findByAccountIsNotNull(eq(new PageRequest(1, TableFormatter.PAGE_SIZE, DataCommand.SORT)));
+    }
+
+    @Test
+    public void testExecuteEssencePastLastPage() throws Exception {
+        GameOutput result = command.execute(output, entity, "data", new String[] { "entity", "page", "3" }, "entity page 3");
+
+        assertEquals(1, result.getOutput().size());
+        assertTrue(result.getOutput().get(0).contains("only 1 page"));
+    }
+
+    @Test
+    public void testExecuteEssenceBadPage() throws Exception {
+        GameOutput result = command.execute(output, entity, "data", new String[] { "entity", "page", "zero" }, "entity page zero");
+
+        assertTrue(result.getOutput().stream().anyMatch(line -> line.contains("Usage")));
+        verify(entityRepository, never()).findByAccountIsNotNull(any(Pageable.class));
+    }
+
+    @Test
+    public void testExecuteLag() throws Exception {
+        SessionLag ableLag = new SessionLag("ableSession");
+        SessionLag strayLag = new SessionLag("straySession");
+
+        ableLag.start(1000L);
+        ableLag.finish(1250L, 512);
+        ableLag.addDropped(3);
+
+        when(lagService.getLags()).thenReturn(new ArrayList<>(Arrays.asList(strayLag, ableLag)));
+        when(playerSessionService.getSession(eq("ableSession"))).thenReturn(Optional.of(ableSession));
+        when(playerSessionService.getSession(eq("straySession"))).thenReturn(Optional.empty());
+        when(ableSession.getEntity()).thenReturn(able);
+        when(outputService.getBufferedLines(eq(able))).thenReturn(7);
+
+        GameOutput result = command.execute(output, entity, "data", new String[] { "lag" }, "lag");
+
+        assertTrue(result.getOutput().get(0).contains("Outbound Session Lag"));
+        assertTrue(result.getOutput().get(1).contains("Able"));
+        assertTrue(result.getOutput().get(1).contains("250"));
+        assertTrue(result.getOutput().get(1).contains("straySession"));
+        assertTrue(result.getOutput().get(1).indexOf("Able") < result.getOutput().get(1).indexOf("straySession"));
+        assertTrue(result.getOutput().get(2).contains("2 Sessions listed."));
     }
 
     @Test
@@ -24,6 +24,7 @@ import com.emergentmud.core.model.EmoteMetadata;
 import com.emergentmud.core.model.Entity;
 import com.emergentmud.core.model.stomp.GameOutput;
 import com.emergentmud.core.repository.EmoteMetadataRepository;
+import com.emergentmud.core.service.EmoteService;
 import com.emergentmud.core.service.InputService;
 import org.junit.Before;
 import org.junit.Test;
@@ -48,6 +49,9 @@ public class EmoteEditCommandTest {
     @Mock
     private EmoteMetadataRepository emoteMetadataRepository;
 
+    @Mock
+    private EmoteService emoteService;
+
     @Mock
     private GameOutput output;
 
@@ -76,7 +80,7 @@ public class EmoteEditCommandTest {
             emotes.add(mock(EmoteMetadata.class));
         }
 
-        command = new EmoteEditCommand(emoteMetadataRepository, inputService);
+        command = new EmoteEditCommand(emoteMetadataRepository, emoteService, inputService);
     }
 
     @Test
@@ -171,6 +175,7 @@ public class EmoteEditCommandTest {
 
         assertNotNull(result);
         verify(emoteMetadataRepository).save(emoteMetadataArgumentCaptor.capture());
+        verify(emoteService).reload();
         verify(output).append(anyString());
 
         EmoteMetadata commandMetadata = emoteMetadataArgumentCaptor.getValue();
@@ -190,6 +195,7 @@ public class EmoteEditCommandTest {
         assertNotNull(result);
         verify(emoteMetadataRepository, never()).findByName(anyString());
         verify(emoteMetadataRepository, never()).save(any(EmoteMetadata.class));
+        verify(emoteService, never()).reload();
         verify(output, times(USAGE_LENGTH)).append(anyString());
     }
 
@@ -203,6 +209,7 @@ public class EmoteEditCommandTest {
         assertNotNull(result);
         verify(emoteMetadataRepository).findByName(eq("waffle"));
         verify(emoteMetadataRepository, never()).save(any(EmoteMetadata.class));
+        verify(emoteService, never()).reload();
         verify(output).append(anyString());
     }
 
@@ -216,6 +223,7 @@ public class EmoteEditCommandTest {
         assertNotNull(result);
         verify(emoteMetadataRepository, never()).findByName(anyString());
         verify(emoteMetadataRepository, never()).save(any(EmoteMetadata.class));
+        verify(emoteService, never()).reload();
         verify(output, times(USAGE_LENGTH)).append(anyString());
     }
 
@@ -229,6 +237,7 @@ public class EmoteEditCommandTest {
         assertNotNull(result);
         verify(emoteMetadataRepository).findByName(eq("nod"));
         verify(emoteMetadataRepository, never()).save(any(EmoteMetadata.class));
+        verify(emoteService, never()).reload();
         verify(output, times(USAGE_LENGTH)).append(anyString());
     }
 
@@ -242,6 +251,7 @@ public class EmoteEditCommandTest {
         assertNotNull(result);
         verify(emoteMetadataRepository).findByName(eq("nod"));
         verify(emoteMetadataRepository).save(any(EmoteMetadata.class));
+        verify(emoteService).reload();
         verify(emote).setToSelfUntargeted(eq("You nod."));
         verifyNoMoreInteractions(emote);
         verify(output).append(anyString());
@@ -257,6 +267,7 @@ public class EmoteEditCommandTest {
         assertNotNull(result);
         verify(emoteMetadataRepository).findByName(eq("nod"));
         verify(emoteMetadataRepository).save(any(EmoteMetadata.class));
+        verify(emoteService).reload();
         verify(emote).setToTarget(eq("%self% nods to you."));
         verifyNoMoreInteractions(emote);
         verify(output).append(anyString());
@@ -272,6 +283,7 @@ public class EmoteEditCommandTest {
         assertNotNull(result);
         verify(emoteMetadataRepository).findByName(eq("nod"));
         verify(emoteMetadataRepository).save(any(EmoteMetadata.class));
+        verify(emoteService).reload();
         verify(emote).setToRoomUntargeted(eq("%self% nods."));
         verifyNoMoreInteractions(emote);
         verify(output).append(anyString());
@@ -287,6 +299,7 @@ public class EmoteEditCommandTest {
         assertNotNull(result);
         verify(emoteMetadataRepository).findByName(eq("nod"));
         verify(emoteMetadataRepository).delete(eq(emote));
+        verify(emoteService).reload();
         verify(output).append(anyString());
     }
 
@@ -300,6 +313,7 @@ public class EmoteEditCommandTest {
         assertNotNull(result);
         verify(emoteMetadataRepository, never()).findByName(anyString());
         verify(emoteMetadataRepository, never()).delete(any(EmoteMetadata.class));
+        verify(emoteService, never()).reload();
         verify(output, times(USAGE_LENGTH)).append(anyString());
     }
 
@@ -313,6 +327,7 @@ public class EmoteEditCommandTest {
         assertNotNull(result);
         verify(emoteMetadataRepository).findByName(eq("waffle"));
         verify(emoteMetadataRepository, never()).delete(any(EmoteMetadata.class));
+        verify(emoteService, never()).reload();
         verify(output).append(anyString());
     }
 
@@ -338,6 +353,7 @@ public class EmoteEditCommandTest {
         verify(emoteMetadataRepository).findByName(eq("nod"));
         verify(emote, never()).setPriority(anyInt());
         verify(emoteMetadataRepository, never()).save(any(EmoteMetadata.class));
+        verify(emoteService, never()).reload();
     }
 
     @Test
@@ -351,5 +367,6 @@ public class EmoteEditCommandTest {
         verify(emoteMetadataRepository).findByName(eq("nod"));
         verify(emote).setPriority(eq(42));
         verify(emoteMetadataRepository).save(any(EmoteMetadata.class));
+        verify(emoteService).reload();
     }
 }
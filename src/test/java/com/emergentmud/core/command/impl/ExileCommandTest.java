@@ -27,11 +27,13 @@ import com.emergentmud.core.model.Entity;
 import com.emergentmud.core.model.room.Room;
 import com.emergentmud.core.model.stomp.GameOutput;
 import com.emergentmud.core.repository.AccountRepository;
-import com.emergentmud.core.repository.CapabilityRepository;
 import com.emergentmud.core.repository.WorldManager;
+import com.emergentmud.core.service.CapabilityService;
 import com.emergentmud.core.service.EntityService;
+import com.emergentmud.core.service.MailboxService;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
@@ -51,11 +53,14 @@ public class ExileCommandTest {
     private AccountRepository accountRepository;
 
     @Mock
-    private CapabilityRepository capabilityRepository;
+    private CapabilityService capabilityService;
 
     @Mock
     private WorldManager worldManager;
 
+    @Mock
+    private MailboxService mailboxService;
+
     @Mock
     private GameOutput output;
 
@@ -88,11 +93,15 @@ public class ExileCommandTest {
         when(victim.getAccount()).thenReturn(account);
         when(victim.getRoom()).thenReturn(room);
         when(victim.getName()).thenReturn("Victim");
-        when(capabilityRepository.findByName(eq(CommandRole.CHAR_PLAY.name()))).thenReturn(playCapability);
-        when(capabilityRepository.findByName(eq(CommandRole.CHAR_NEW.name()))).thenReturn(newCharCapability);
+        when(capabilityService.getCapability(eq(CommandRole.CHAR_PLAY))).thenReturn(playCapability);
+        when(capabilityService.getCapability(eq(CommandRole.CHAR_NEW))).thenReturn(newCharCapability);
         when(entityService.entitySearchGlobal(eq(entity), eq("victim"))).thenReturn(Optional.of(victim));
+        doAnswer(invocation -> {
+            ((Runnable)invocation.getArguments()[1]).run();
+            return null;
+        }).when(mailboxService).execute(any(Entity.class), any(Runnable.class));
 
-        command = new ExileCommand(entityService, accountRepository, capabilityRepository, worldManager);
+        command = new ExileCommand(entityService, accountRepository, capabilityService, worldManager, mailboxService);
     }
 
     @Test
@@ -112,7 +121,7 @@ public class ExileCommandTest {
 
         assertNotNull(result);
 
-        verifyZeroInteractions(capabilityRepository, entityService, accountRepository, worldManager);
+        verifyZeroInteractions(capabilityService, entityService, accountRepository, worldManager);
     }
 
     @Test
@@ -121,7 +130,7 @@ public class ExileCommandTest {
 
         assertNotNull(result);
 
-        verifyZeroInteractions(capabilityRepository, entityService, accountRepository, worldManager);
+        verifyZeroInteractions(capabilityService, entityService, accountRepository, worldManager);
     }
 
     @Test
@@ -130,10 +139,10 @@ public class ExileCommandTest {
 
         assertNotNull(result);
 
-        verify(capabilityRepository).findByName(eq(CommandRole.CHAR_PLAY.name()));
-        verify(capabilityRepository).findByName(eq(CommandRole.CHAR_NEW.name()));
+        verify(capabilityService).getCapability(eq(CommandRole.CHAR_PLAY));
+        verify(capabilityService).getCapability(eq(CommandRole.CHAR_NEW));
         verify(entityService).entitySearchGlobal(eq(entity), eq("victim"));
-        verifyNoMoreInteractions(capabilityRepository, entityService);
+        verifyNoMoreInteractions(capabilityService, entityService);
         verifyZeroInteractions(accountRepository, worldManager);
     }
 
@@ -145,8 +154,8 @@ public class ExileCommandTest {
 
         assertNotNull(result);
 
-        verify(capabilityRepository).findByName(eq(CommandRole.CHAR_PLAY.name()));
-        verify(capabilityRepository).findByName(eq(CommandRole.CHAR_NEW.name()));
+        verify(capabilityService).getCapability(eq(CommandRole.CHAR_PLAY));
+        verify(capabilityService).getCapability(eq(CommandRole.CHAR_NEW));
         verify(entityService).entitySearchGlobal(eq(entity), eq("victim"));
         verify(accountRepository, never()).save(eq(account));
         verify(entityService, never()).sendMessageToEntity(eq(victim), any(GameOutput.class));
@@ -162,8 +171,8 @@ public class ExileCommandTest {
 
         assertNotNull(result);
 
-        verify(capabilityRepository).findByName(eq(CommandRole.CHAR_PLAY.name()));
-        verify(capabilityRepository).findByName(eq(CommandRole.CHAR_NEW.name()));
+        verify(capabilityService).getCapability(eq(CommandRole.CHAR_PLAY));
+        verify(capabilityService).getCapability(eq(CommandRole.CHAR_NEW));
         verify(entityService).entitySearchGlobal(eq(entity), eq("admin"));
         verify(accountRepository, never()).save(eq(account));
         verify(entityService, never()).sendMessageToEntity(eq(victim), any(GameOutput.class));
@@ -173,34 +182,53 @@ public class ExileCommandTest {
 
     @Test
     public void testAddExile() throws Exception {
-        when(account.isCapable(eq(playCapability))).thenReturn(true);
-        when(account.isCapable(eq(newCharCapability))).thenReturn(true);
+        when(capabilityService.hasCapability(eq(account), eq(playCapability))).thenReturn(true);
+        when(capabilityService.hasCapability(eq(account), eq(newCharCapability))).thenReturn(true);
 
         GameOutput result = command.execute(output, entity, "exile", new String[] { "add", "victim" }, "add victim");
 
         assertNotNull(result);
 
-        verify(capabilityRepository).findByName(eq(CommandRole.CHAR_PLAY.name()));
-        verify(capabilityRepository).findByName(eq(CommandRole.CHAR_NEW.name()));
+        verify(capabilityService).getCapability(eq(CommandRole.CHAR_PLAY));
+        verify(capabilityService).getCapability(eq(CommandRole.CHAR_NEW));
         verify(entityService).entitySearchGlobal(eq(entity), eq("victim"));
-        verify(account).removeCapabilities(playCapability, newCharCapability);
+        verify(capabilityService).removeCapabilities(account, playCapability, newCharCapability);
         verify(accountRepository).save(eq(account));
         verify(entityService).sendMessageToEntity(eq(victim), any(GameOutput.class));
         verify(entityService).sendMessageToRoom(eq(room), anyCollectionOf(Entity.class), any(GameOutput.class));
         verify(worldManager).remove(victim);
     }
 
+    @Test
+    public void testAddExileRemovesInTargetMailbox() throws Exception {
+        ArgumentCaptor<Runnable> taskCaptor = ArgumentCaptor.forClass(Runnable.class);
+
+        when(capabilityService.hasCapability(eq(account), eq(playCapability))).thenReturn(true);
+        when(capabilityService.hasCapability(eq(account), eq(newCharCapability))).thenReturn(true);
+        doNothing().when(mailboxService).execute(any(Entity.class), any(Runnable.class));
+
+        command.execute(output, entity, "exile", new String[] { "add", "victim" }, "add victim");
+
+        verify(mailboxService).execute(eq(victim), taskCaptor.capture());
+        verifyZeroInteractions(worldManager);
+
+        taskCaptor.getValue().run();
+
+        verify(entityService).sendMessageToRoom(eq(room), anyCollectionOf(Entity.class), any(GameOutput.class));
+        verify(worldManager).remove(victim);
+    }
+
     @Test
     public void testAddAlreadyExiled() throws Exception {
-        when(account.isCapable(eq(playCapability))).thenReturn(false);
-        when(account.isCapable(eq(newCharCapability))).thenReturn(false);
+        when(capabilityService.hasCapability(eq(account), eq(playCapability))).thenReturn(false);
+        when(capabilityService.hasCapability(eq(account), eq(newCharCapability))).thenReturn(false);
 
         GameOutput result = command.execute(output, entity, "exile", new String[] { "add", "victim" }, "add victim");
 
         assertNotNull(result);
 
-        verify(capabilityRepository).findByName(eq(CommandRole.CHAR_PLAY.name()));
-        verify(capabilityRepository).findByName(eq(CommandRole.CHAR_NEW.name()));
+        verify(capabilityService).getCapability(eq(CommandRole.CHAR_PLAY));
+        verify(capabilityService).getCapability(eq(CommandRole.CHAR_NEW));
         verify(entityService).entitySearchGlobal(eq(entity), eq("victim"));
         verify(accountRepository, never()).save(eq(account));
         verify(entityService, never()).sendMessageToEntity(eq(victim), any(GameOutput.class));
@@ -210,31 +238,31 @@ public class ExileCommandTest {
 
     @Test
     public void testRemoveExile() throws Exception {
-        when(account.isCapable(eq(playCapability))).thenReturn(false);
-        when(account.isCapable(eq(newCharCapability))).thenReturn(false);
+        when(capabilityService.hasCapability(eq(account), eq(playCapability))).thenReturn(false);
+        when(capabilityService.hasCapability(eq(account), eq(newCharCapability))).thenReturn(false);
 
         GameOutput result = command.execute(output, entity, "exile", new String[] { "remove", "victim" }, "remove victim");
 
         assertNotNull(result);
 
-        verify(capabilityRepository).findByName(eq(CommandRole.CHAR_PLAY.name()));
-        verify(capabilityRepository).findByName(eq(CommandRole.CHAR_NEW.name()));
+        verify(capabilityService).getCapability(eq(CommandRole.CHAR_PLAY));
+        verify(capabilityService).getCapability(eq(CommandRole.CHAR_NEW));
         verify(entityService).entitySearchGlobal(eq(entity), eq("victim"));
-        verify(account).addCapabilities(playCapability, newCharCapability);
+        verify(capabilityService).addCapabilities(account, playCapability, newCharCapability);
         verify(accountRepository).save(eq(account));
     }
 
     @Test
     public void testAlreadyRemovedExile() throws Exception {
-        when(account.isCapable(eq(playCapability))).thenReturn(true);
-        when(account.isCapable(eq(newCharCapability))).thenReturn(true);
+        when(capabilityService.hasCapability(eq(account), eq(playCapability))).thenReturn(true);
+        when(capabilityService.hasCapability(eq(account), eq(newCharCapability))).thenReturn(true);
 
         GameOutput result = command.execute(output, entity, "exile", new String[] { "remove", "victim" }, "remove victim");
 
         assertNotNull(result);
 
-        verify(capabilityRepository).findByName(eq(CommandRole.CHAR_PLAY.name()));
-        verify(capabilityRepository).findByName(eq(CommandRole.CHAR_NEW.name()));
+        verify(capabilityService).getCapability(eq(CommandRole.CHAR_PLAY));
+        verify(capabilityService).getCapability(eq(CommandRole.CHAR_NEW));
         verify(entityService).entitySearchGlobal(eq(entity), eq("victim"));
         verify(accountRepository, never()).save(eq(account));
     }
@@ -23,8 +23,7 @@ package com.emergentmud.core.command.impl;
 import com.emergentmud.core.command.BaseCommunicationCommandTest;
 import com.emergentmud.core.model.Entity;
 import com.emergentmud.core.model.stomp.GameOutput;
-import com.emergentmud.core.repository.EntityRepository;
-import com.emergentmud.core.service.EntityService;
+import com.emergentmud.core.service.ChannelService;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
@@ -32,14 +31,12 @@ import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
-import java.util.List;
-
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
 public class GossipCommandTest extends BaseCommunicationCommandTest {
     @Mock
-    private EntityRepository entityRepository;
+    private ChannelService channelService;
 
     @Mock
     private GameOutput output;
@@ -47,9 +44,6 @@ public class GossipCommandTest extends BaseCommunicationCommandTest {
     @Mock
     private Entity entity;
 
-    @Mock
-    private EntityService entityService;
-
     @Captor
     private ArgumentCaptor<GameOutput> outputCaptor;
 
@@ -61,13 +55,11 @@ public class GossipCommandTest extends BaseCommunicationCommandTest {
     public void setUp() throws Exception {
         MockitoAnnotations.initMocks(this);
 
-        List<Entity> worldContents = generateRoomContents();
-
         when(entity.getId()).thenReturn("id");
         when(entity.getName()).thenReturn("Testy");
-        when(entityRepository.findByRoomIsNotNull()).thenReturn(worldContents);
+        when(channelService.isMember(eq(ChannelService.GOSSIP), eq(entity))).thenReturn(true);
 
-        command = new GossipCommand(entityRepository, entityService);
+        command = new GossipCommand(channelService);
     }
 
     @Test
@@ -82,7 +74,7 @@ public class GossipCommandTest extends BaseCommunicationCommandTest {
                 "Feed me a stray cat.");
 
         verify(response).append(eq("[green]You gossip 'Feed me a stray cat.[green]'"));
-        verify(entityService).sendMessageToListeners(anyListOf(Entity.class), eq(entity), outputCaptor.capture());
+        verify(channelService).publish(eq(ChannelService.GOSSIP), eq(entity), outputCaptor.capture());
 
         GameOutput output = outputCaptor.getValue();
 
@@ -96,17 +88,28 @@ public class GossipCommandTest extends BaseCommunicationCommandTest {
                 "<script type=\"text/javascript\">var evil = \"stuff\";</script>");
 
         verify(response).append(eq("[green]You gossip '&lt;script type=&quot;text/javascript&quot;&gt;var evil = &quot;stuff&quot;;&lt;/script&gt;[green]'"));
-        verify(entityService).sendMessageToListeners(anyListOf(Entity.class), eq(entity), outputCaptor.capture());
+        verify(channelService).publish(eq(ChannelService.GOSSIP), eq(entity), outputCaptor.capture());
 
         GameOutput output = outputCaptor.getValue();
 
         assertTrue(output.getOutput().get(0).equals("[green]Testy gossips '&lt;script type=&quot;text/javascript&quot;&gt;var evil = &quot;stuff&quot;;&lt;/script&gt;[green]'"));
     }
 
+    @Test
+    public void testGossipNotMember() throws Exception {
+        when(channelService.isMember(eq(ChannelService.GOSSIP), eq(entity))).thenReturn(false);
+
+        GameOutput response = command.execute(output, entity, cmd, new String[] { "Hello." }, "Hello.");
+
+        verify(response).append(eq("You are not listening to gossip. Type 'channel join gossip' to join it."));
+        verify(channelService, never()).publish(anyString(), any(Entity.class), any(GameOutput.class));
+    }
+
     @Test
     public void testSayNothing() throws Exception {
         GameOutput response = command.execute(output, entity, cmd, new String[] {}, "");
 
         verify(response).append(eq("What would you like to gossip?"));
+        verifyZeroInteractions(channelService);
     }
 }
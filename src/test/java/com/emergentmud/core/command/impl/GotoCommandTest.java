@@ -20,17 +20,18 @@
 
 package com.emergentmud.core.command.impl;
 
+import com.emergentmud.core.command.CommandRegistry;
 import com.emergentmud.core.model.Entity;
 import com.emergentmud.core.model.room.Room;
 import com.emergentmud.core.model.stomp.GameOutput;
 import com.emergentmud.core.repository.WorldManager;
+import com.emergentmud.core.service.CrowdService;
 import com.emergentmud.core.service.EntityService;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.Spy;
-import org.springframework.context.ApplicationContext;
 
 import java.util.Optional;
 
@@ -39,7 +40,7 @@ import static org.mockito.Mockito.*;
 
 public class GotoCommandTest {
     @Mock
-    private ApplicationContext applicationContext;
+    private CommandRegistry commandRegistry;
 
     @Mock
     private WorldManager worldManager;
@@ -47,6 +48,9 @@ public class GotoCommandTest {
     @Mock
     private EntityService entityService;
 
+    @Mock
+    private CrowdService crowdService;
+
     @Spy
     private GameOutput output;
 
@@ -81,9 +85,9 @@ public class GotoCommandTest {
         when(entityService.entitySearchInWorld(eq(entity), eq("morgan"))).thenReturn(Optional.of(morgan));
         when(worldManager.put(eq(entity), eq(1000L), eq(1000L), eq(0L))).thenReturn(destination);
         when(worldManager.test( eq(1000L), eq(1000L), eq(0L))).thenReturn(true);
-        when(applicationContext.getBean(eq("lookCommand"))).thenReturn(lookCommand);
+        when(commandRegistry.getCommand(eq("lookCommand"))).thenReturn(lookCommand);
 
-        command = new GotoCommand(applicationContext, worldManager, entityService);
+        command = new GotoCommand(commandRegistry, worldManager, entityService, crowdService);
     }
 
     @Test
@@ -103,7 +107,7 @@ public class GotoCommandTest {
 
         assertTrue(result.getOutput().stream().anyMatch(line -> line.contains("Usage")));
 
-        verifyZeroInteractions(applicationContext);
+        verifyZeroInteractions(commandRegistry);
         verifyZeroInteractions(entityService);
         verifyZeroInteractions(worldManager);
     }
@@ -114,10 +118,10 @@ public class GotoCommandTest {
 
         assertFalse(result.getOutput().stream().anyMatch(line -> line.contains("Usage: ")));
 
-        verify(entityService).sendMessageToRoom(eq(room), eq(entity), any(GameOutput.class));
+        verify(crowdService).announceVanish(eq(room), eq(entity));
         verify(worldManager).put(eq(entity), eq(1000L), eq(1000L), eq(0L));
-        verify(entityService).sendMessageToRoom(eq(destination), eq(entity), any(GameOutput.class));
-        verify(applicationContext).getBean(eq("lookCommand"));
+        verify(crowdService).announceAppear(eq(destination), eq(entity));
+        verify(commandRegistry).getCommand(eq("lookCommand"));
         verify(lookCommand).execute(eq(output), eq(entity), eq("look"), any(), eq(""));
     }
 
@@ -129,10 +133,10 @@ public class GotoCommandTest {
 
         assertTrue(result.getOutput().stream().anyMatch(line -> line.contains("no one by that name")));
 
-        verify(entityService, never()).sendMessageToRoom(eq(room), eq(entity), any(GameOutput.class));
+        verify(crowdService, never()).announceVanish(eq(room), eq(entity));
         verify(worldManager, never()).put(eq(entity), eq(1000L), eq(1000L), eq(0L));
-        verify(entityService, never()).sendMessageToRoom(eq(destination), eq(entity), any(GameOutput.class));
-        verify(applicationContext, never()).getBean(eq("lookCommand"));
+        verify(crowdService, never()).announceAppear(eq(destination), eq(entity));
+        verify(commandRegistry, never()).getCommand(eq("lookCommand"));
         verify(lookCommand, never()).execute(eq(output), eq(entity), eq("look"), any(), eq(""));
     }
 
@@ -146,10 +150,10 @@ public class GotoCommandTest {
 
         assertTrue(result.getOutput().stream().anyMatch(line -> line.contains("already there")));
 
-        verify(entityService, never()).sendMessageToRoom(eq(room), eq(entity), any(GameOutput.class));
+        verify(crowdService, never()).announceVanish(eq(room), eq(entity));
         verify(worldManager, never()).put(eq(entity), eq(1000L), eq(1000L), eq(0L));
-        verify(entityService, never()).sendMessageToRoom(eq(destination), eq(entity), any(GameOutput.class));
-        verify(applicationContext, never()).getBean(eq("lookCommand"));
+        verify(crowdService, never()).announceAppear(eq(destination), eq(entity));
+        verify(commandRegistry, never()).getCommand(eq("lookCommand"));
         verify(lookCommand, never()).execute(eq(output), eq(entity), eq("look"), any(), eq(""));
     }
 
@@ -159,10 +163,10 @@ public class GotoCommandTest {
 
         assertFalse(result.getOutput().stream().anyMatch(line -> line.contains("Usage: ")));
 
-        verify(entityService).sendMessageToRoom(eq(room), eq(entity), any(GameOutput.class));
+        verify(crowdService).announceVanish(eq(room), eq(entity));
         verify(worldManager).put(eq(entity), eq(1000L), eq(1000L), eq(0L));
-        verify(entityService).sendMessageToRoom(eq(destination), eq(entity), any(GameOutput.class));
-        verify(applicationContext).getBean(eq("lookCommand"));
+        verify(crowdService).announceAppear(eq(destination), eq(entity));
+        verify(commandRegistry).getCommand(eq("lookCommand"));
         verify(lookCommand).execute(eq(output), eq(entity), eq("look"), any(), eq(""));
     }
 
@@ -172,10 +176,10 @@ public class GotoCommandTest {
 
         assertTrue(result.getOutput().stream().anyMatch(line -> line.contains("No such room")));
 
-        verify(entityService, never()).sendMessageToRoom(eq(room), eq(entity), any(GameOutput.class));
+        verify(crowdService, never()).announceVanish(eq(room), eq(entity));
         verify(worldManager, never()).put(eq(entity), eq(1000L), eq(1000L), eq(0L));
-        verify(entityService, never()).sendMessageToRoom(eq(destination), eq(entity), any(GameOutput.class));
-        verify(applicationContext, never()).getBean(eq("lookCommand"));
+        verify(crowdService, never()).announceAppear(eq(destination), eq(entity));
+        verify(commandRegistry, never()).getCommand(eq("lookCommand"));
         verify(lookCommand, never()).execute(eq(output), eq(entity), eq("look"), any(), eq(""));
     }
 
@@ -185,10 +189,10 @@ public class GotoCommandTest {
 
         assertFalse(result.getOutput().stream().anyMatch(line -> line.contains("Usage: ")));
 
-        verify(entityService).sendMessageToRoom(eq(room), eq(entity), any(GameOutput.class));
+        verify(crowdService).announceVanish(eq(room), eq(entity));
         verify(worldManager).put(eq(entity), eq(1000L), eq(1000L), eq(0L));
-        verify(entityService).sendMessageToRoom(eq(destination), eq(entity), any(GameOutput.class));
-        verify(applicationContext).getBean(eq("lookCommand"));
+        verify(crowdService).announceAppear(eq(destination), eq(entity));
+        verify(commandRegistry).getCommand(eq("lookCommand"));
         verify(lookCommand).execute(eq(output), eq(entity), eq("look"), any(), eq(""));
     }
 
@@ -198,7 +202,7 @@ public class GotoCommandTest {
 
         assertTrue(result.getOutput().stream().anyMatch(line -> line.contains("Usage")));
 
-        verifyZeroInteractions(applicationContext);
+        verifyZeroInteractions(commandRegistry);
         verifyZeroInteractions(entityService);
         verifyZeroInteractions(worldManager);
     }
@@ -211,10 +215,10 @@ public class GotoCommandTest {
 
         assertFalse(result.getOutput().stream().anyMatch(line -> line.contains("Usage: ")));
 
-        verify(entityService, never()).sendMessageToRoom(eq(room), eq(entity), any(GameOutput.class));
+        verify(crowdService, never()).announceVanish(eq(room), eq(entity));
         verify(worldManager).put(eq(entity), eq(1000L), eq(1000L), eq(0L));
-        verify(entityService).sendMessageToRoom(eq(destination), eq(entity), any(GameOutput.class));
-        verify(applicationContext).getBean(eq("lookCommand"));
+        verify(crowdService).announceAppear(eq(destination), eq(entity));
+        verify(commandRegistry).getCommand(eq("lookCommand"));
         verify(lookCommand).execute(eq(output), eq(entity), eq("look"), any(), eq(""));
     }
 }
@@ -21,35 +21,43 @@
 package com.emergentmud.core.command.impl;
 
 import com.emergentmud.core.command.Command;
+import com.emergentmud.core.command.CommandRegistry;
+import com.emergentmud.core.command.Continuation;
+import com.emergentmud.core.command.TableFormatter;
 import com.emergentmud.core.model.Capability;
 import com.emergentmud.core.model.CommandMetadata;
 import com.emergentmud.core.model.CommandRole;
 import com.emergentmud.core.model.Entity;
 import com.emergentmud.core.model.stomp.GameOutput;
-import com.emergentmud.core.repository.CapabilityRepository;
 import com.emergentmud.core.repository.CommandMetadataRepository;
+import com.emergentmud.core.service.CapabilityService;
+import com.emergentmud.core.service.PlayerSessionService;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.springframework.context.ApplicationContext;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Pageable;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
 public class HelpCommandTest {
     @Mock
-    private ApplicationContext applicationContext;
+    private CommandRegistry commandRegistry;
 
     @Mock
     private CommandMetadataRepository commandMetadataRepository;
 
     @Mock
-    private CapabilityRepository capabilityRepository;
+    private CapabilityService capabilityService;
+
+    @Mock
+    private PlayerSessionService playerSessionService;
 
     @Mock
     private Capability normalCapability;
@@ -72,13 +80,16 @@ public class HelpCommandTest {
     @Mock
     private Entity entity;
 
+    private List<CommandMetadata> metadata;
+    private List<Capability> capabilities;
+
     private HelpCommand command;
 
     @Before
     public void setUp() throws Exception {
         MockitoAnnotations.initMocks(this);
 
-        List<CommandMetadata> metadata = new ArrayList<>();
+        metadata = new ArrayList<>();
         CommandMetadata normal = mock(CommandMetadata.class);
         CommandMetadata admin = mock(CommandMetadata.class);
 
@@ -95,13 +106,32 @@ public class HelpCommandTest {
 
         when(normalCommand.getDescription()).thenReturn("A normal command.");
         when(adminCommand.getDescription()).thenReturn("An admin command.");
-        when(applicationContext.getBean(eq("normalCommand"))).thenReturn(normalCommand);
-        when(applicationContext.getBean(eq("adminCommand"))).thenReturn(adminCommand);
-        when(commandMetadataRepository.findAll(any(Sort.class))).thenReturn(metadata);
-        when(entity.isCapable(eq(normalCapability))).thenReturn(true);
-        when(capabilityRepository.findByName(CommandRole.SUPER.name())).thenReturn(superCapability);
-
-        command = new HelpCommand(applicationContext, commandMetadataRepository, capabilityRepository);
+        when(commandRegistry.getCommand(eq("normalCommand"))).thenReturn(normalCommand);
+        when(commandRegistry.getCommand(eq("adminCommand"))).thenReturn(adminCommand);
+        when(commandMetadataRepository.findAll(any(Pageable.class))).thenAnswer(invocation -> {
+            Pageable pageable = (Pageable)invocation.getArguments()[0];
+
+            return TableFormatter.paginate(metadata, pageable.getPageNumber());
+        });
+        when(commandMetadataRepository.findByCapabilityIn(anyCollectionOf(Capability.class), any(Pageable.class))).thenAnswer(invocation -> {
+            Collection<?> held = (Collection<?>)invocation.getArguments()[0];
+            Pageable pageable = (Pageable)invocation.getArguments()[1];
+            List<CommandMetadata> capable = metadata
+                    .stream()
+                    .filter(cm -> held.contains(cm.getCapability()))
+                    .collect(Collectors.toList());
+
+            return TableFormatter.paginate(capable, pageable.getPageNumber());
+        });
+
+        capabilities = new ArrayList<>();
+        capabilities.add(normalCapability);
+
+        when(entity.getCapabilities()).thenReturn(capabilities);
+        when(capabilityService.getCapability(eq(CommandRole.SUPER))).thenReturn(superCapability);
+        when(capabilityService.isCapable(eq(entity), eq(normalCapability))).thenReturn(true);
+
+        command = new HelpCommand(commandRegistry, commandMetadataRepository, capabilityService, playerSessionService);
     }
 
     @Test
@@ -115,47 +145,81 @@ public class HelpCommandTest {
 
         assertEquals(output, result);
         verify(output, atLeastOnce()).append(anyString());
-        verify(entity).isCapable(eq(normalCapability));
-        verify(entity).isCapable(eq(adminCapability));
+        verify(commandMetadataRepository).findByCapabilityIn(eq(capabilities), any(Pageable.class));
+        verify(commandMetadataRepository, never()).findAll(any(Pageable.class));
         verify(normalCommand).getDescription();
         verify(adminCommand, never()).getDescription();
     }
 
     @Test
     public void testExecuteNoArgsAsAdmin() throws Exception {
-        when(entity.isCapable(eq(adminCapability))).thenReturn(true);
+        capabilities.add(adminCapability);
 
         GameOutput result = command.execute(output, entity, "help", new String[0], "help");
 
         assertEquals(output, result);
         verify(output, atLeastOnce()).append(anyString());
-        verify(entity).isCapable(eq(normalCapability));
-        verify(entity).isCapable(eq(adminCapability));
+        verify(commandMetadataRepository).findByCapabilityIn(eq(capabilities), any(Pageable.class));
+        verify(commandMetadataRepository, never()).findAll(any(Pageable.class));
         verify(normalCommand).getDescription();
         verify(adminCommand).getDescription();
     }
 
     @Test
     public void testExecuteNoArgsAsSuper() throws Exception {
-        when(entity.isCapable(eq(superCapability))).thenReturn(true);
+        capabilities.clear();
+        capabilities.add(superCapability);
+
+        when(capabilityService.hasCapability(eq(entity), eq(superCapability))).thenReturn(true);
 
         GameOutput result = command.execute(output, entity, "help", new String[0], "help");
 
         assertEquals(output, result);
         verify(output, atLeastOnce()).append(anyString());
-        verify(entity).isCapable(eq(normalCapability));
-        verify(entity).isCapable(eq(adminCapability));
+        verify(commandMetadataRepository).findAll(any(Pageable.class));
+        verify(commandMetadataRepository, never()).findByCapabilityIn(anyCollectionOf(Capability.class), any(Pageable.class));
         verify(normalCommand).getDescription();
         verify(adminCommand).getDescription();
     }
 
+    @Test
+    public void testExecuteNoArgsSinglePage() throws Exception {
+        command.execute(output, entity, "help", new String[0], "help");
+
+        verify(playerSessionService).setContinuation(eq(entity), isNull(Continuation.class));
+    }
+
+    @Test
+    public void testExecutePaged() throws Exception {
+        for (int i = 0; i < TableFormatter.PAGE_SIZE; i++) {
+            CommandMetadata extra = mock(CommandMetadata.class);
+
+            when(extra.getName()).thenReturn("extra" + i);
+            when(extra.getBeanName()).thenReturn("normalCommand");
+            when(extra.getCapability()).thenReturn(normalCapability);
+
+            metadata.add(extra);
+        }
+
+        command.execute(output, entity, "help", new String[0], "help");
+
+        verify(normalCommand, times(TableFormatter.PAGE_SIZE)).getDescription();
+        verify(output).append(contains("Type MORE"));
+        verify(playerSessionService).setContinuation(eq(entity), any(Continuation.class));
+
+        command.execute(output, entity, "help", new String[] {"page", "2"}, "page 2");
+
+        verify(normalCommand, times(TableFormatter.PAGE_SIZE + 1)).getDescription();
+        verify(output).append(contains("Page 2 of 2"));
+    }
+
     @Test
     public void testExecuteMissingCommand() throws Exception {
         GameOutput result = command.execute(output, entity, "help", new String[] {"foo"}, "help foo");
 
         assertEquals(output, result);
         verify(commandMetadataRepository).findByName(eq("foo"));
-        verifyZeroInteractions(applicationContext);
+        verifyZeroInteractions(commandRegistry);
         verify(output, atLeastOnce()).append(anyString());
     }
 
@@ -169,7 +233,7 @@ public class HelpCommandTest {
 
         assertEquals(output, result);
         verify(commandMetadataRepository).findByName(eq("admin"));
-        verifyZeroInteractions(applicationContext);
+        verifyZeroInteractions(commandRegistry);
         verify(output, atLeastOnce()).append(anyString());
     }
 
@@ -179,7 +243,7 @@ public class HelpCommandTest {
         Command adminCommand = mock(Command.class);
 
         when(commandMetadataRepository.findByName(eq("cmd"))).thenReturn(metadata);
-        when(applicationContext.getBean(eq("cmdCommand"))).thenReturn(adminCommand);
+        when(commandRegistry.getCommand(eq("cmdCommand"))).thenReturn(adminCommand);
         when(metadata.getCapability()).thenReturn(normalCapability);
         when(metadata.getName()).thenReturn("cmd");
         when(metadata.getBeanName()).thenReturn("cmdCommand");
@@ -188,7 +252,7 @@ public class HelpCommandTest {
 
         assertEquals(output, result);
         verify(commandMetadataRepository).findByName(eq("cmd"));
-        verify(applicationContext).getBean("cmdCommand");
+        verify(commandRegistry).getCommand("cmdCommand");
         verify(adminCommand).usage(eq(output), eq("cmd"));
         verify(adminCommand, never()).execute(any(GameOutput.class), any(Entity.class), anyString(), any(String[].class), anyString());
     }
@@ -199,8 +263,8 @@ public class HelpCommandTest {
         Command adminCommand = mock(Command.class);
 
         when(commandMetadataRepository.findByName(eq("admin"))).thenReturn(metadata);
-        when(applicationContext.getBean(eq("adminCommand"))).thenReturn(adminCommand);
-        when(entity.isCapable(eq(adminCapability))).thenReturn(true);
+        when(commandRegistry.getCommand(eq("adminCommand"))).thenReturn(adminCommand);
+        when(capabilityService.isCapable(eq(entity), eq(adminCapability))).thenReturn(true);
         when(metadata.getCapability()).thenReturn(adminCapability);
         when(metadata.getName()).thenReturn("admin");
         when(metadata.getBeanName()).thenReturn("adminCommand");
@@ -209,7 +273,7 @@ public class HelpCommandTest {
 
         assertEquals(output, result);
         verify(commandMetadataRepository).findByName(eq("admin"));
-        verify(applicationContext).getBean("adminCommand");
+        verify(commandRegistry).getCommand("adminCommand");
         verify(adminCommand).usage(eq(output), eq("admin"));
         verify(adminCommand, never()).execute(any(GameOutput.class), any(Entity.class), anyString(), any(String[].class), anyString());
     }
@@ -220,8 +284,8 @@ public class HelpCommandTest {
         Command adminCommand = mock(Command.class);
 
         when(commandMetadataRepository.findByName(eq("admin"))).thenReturn(metadata);
-        when(applicationContext.getBean(eq("adminCommand"))).thenReturn(adminCommand);
-        when(entity.isCapable(eq(superCapability))).thenReturn(true);
+        when(commandRegistry.getCommand(eq("adminCommand"))).thenReturn(adminCommand);
+        when(capabilityService.isCapable(eq(entity), any(Capability.class))).thenReturn(true);
         when(metadata.getCapability()).thenReturn(adminCapability);
         when(metadata.getName()).thenReturn("admin");
         when(metadata.getBeanName()).thenReturn("adminCommand");
@@ -230,7 +294,7 @@ public class HelpCommandTest {
 
         assertEquals(output, result);
         verify(commandMetadataRepository).findByName(eq("admin"));
-        verify(applicationContext).getBean("adminCommand");
+        verify(commandRegistry).getCommand("adminCommand");
         verify(adminCommand).usage(eq(output), eq("admin"));
         verify(adminCommand, never()).execute(any(GameOutput.class), any(Entity.class), anyString(), any(String[].class), anyString());
     }
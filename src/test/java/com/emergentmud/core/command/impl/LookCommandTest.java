@@ -23,8 +23,8 @@ package com.emergentmud.core.command.impl;
 import com.emergentmud.core.model.Entity;
 import com.emergentmud.core.model.room.Room;
 import com.emergentmud.core.model.stomp.GameOutput;
-import com.emergentmud.core.repository.EntityRepository;
 import com.emergentmud.core.repository.RoomRepository;
+import com.emergentmud.core.service.PresenceService;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
@@ -38,10 +38,10 @@ import static org.mockito.Mockito.*;
 
 public class LookCommandTest {
     @Mock
-    private EntityRepository entityRepository;
+    private RoomRepository roomRepository;
 
     @Mock
-    private RoomRepository roomRepository;
+    private PresenceService presenceService;
 
     @Mock
     private GameOutput output;
@@ -72,7 +72,7 @@ public class LookCommandTest {
         doCallRealMethod().when(room).setX(anyLong());
         doCallRealMethod().when(room).setY(anyLong());
         doCallRealMethod().when(room).setZ(anyLong());
-        when(entityRepository.findByRoom(eq(room))).thenReturn(contents);
+        when(presenceService.getOccupants(eq(room))).thenReturn(contents);
 
         for (int i = 0; i < 3; i++) {
             Entity entity = mock(Entity.class);
@@ -83,7 +83,7 @@ public class LookCommandTest {
             contents.add(entity);
         }
 
-        command = new LookCommand(entityRepository, roomRepository);
+        command = new LookCommand(roomRepository, presenceService);
     }
 
     @Test
@@ -97,7 +97,7 @@ public class LookCommandTest {
 
         assertNotNull(result);
         verify(output).append(anyString());
-        verifyZeroInteractions(entityRepository);
+        verifyZeroInteractions(presenceService);
     }
 
     @Test
@@ -117,7 +117,7 @@ public class LookCommandTest {
         assertNotNull(result);
         verify(output, atLeast(3)).append(anyString());
         verify(output).append(startsWith("[dcyan]Exits:"));
-        verify(entityRepository).findByRoom(eq(room));
+        verify(presenceService).getOccupants(eq(room));
 
         contents.forEach(e -> {
                     if (!"Tester1".equals(e.getId())) {
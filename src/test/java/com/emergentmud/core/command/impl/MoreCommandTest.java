@@ -0,0 +1,89 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.emergentmud.core.command.impl;
+
+import com.emergentmud.core.command.Command;
+import com.emergentmud.core.command.Continuation;
+import com.emergentmud.core.model.Entity;
+import com.emergentmud.core.model.stomp.GameOutput;
+import com.emergentmud.core.service.PlayerSessionService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class MoreCommandTest {
+    @Mock
+    private PlayerSessionService playerSessionService;
+
+    @Mock
+    private Command dataCommand;
+
+    @Mock
+    private Entity entity;
+
+    private GameOutput output = new GameOutput();
+
+    private MoreCommand command;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+
+        command = new MoreCommand(playerSessionService);
+    }
+
+    @Test
+    public void testDescription() throws Exception {
+        assertNotEquals("No description.", command.getDescription());
+    }
+
+    @Test
+    public void testNothingMore() throws Exception {
+        when(playerSessionService.takeContinuation(eq(entity))).thenReturn(Optional.empty());
+
+        GameOutput result = command.execute(output, entity, "more", new String[0], "");
+
+        assertTrue(result.getOutput().get(0).contains("nothing more"));
+    }
+
+    @Test
+    public void testContinues() throws Exception {
+        Continuation continuation = new Continuation(dataCommand, "data", "entity", "page", "2");
+
+        when(playerSessionService.takeContinuation(eq(entity))).thenReturn(Optional.of(continuation));
+        when(dataCommand.execute(eq(output), eq(entity), anyString(), any(String[].class), anyString())).thenReturn(output);
+
+        GameOutput result = command.execute(output, entity, "more", new String[0], "");
+
+        assertEquals(output, result);
+        verify(dataCommand).execute(
+                eq(output),
+                eq(entity),
+                eq("data"),
+                eq(new String[] {"entity", "page", "2"}),
+                eq("entity page 2"));
+    }
+}
@@ -20,18 +20,18 @@
 
 package com.emergentmud.core.command.impl;
 
+import com.emergentmud.core.command.CommandRegistry;
 import com.emergentmud.core.model.Direction;
 import com.emergentmud.core.model.Entity;
 import com.emergentmud.core.model.room.Room;
 import com.emergentmud.core.model.stomp.GameOutput;
 import com.emergentmud.core.repository.RoomBuilder;
 import com.emergentmud.core.repository.WorldManager;
-import com.emergentmud.core.service.EntityService;
+import com.emergentmud.core.service.CrowdService;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.springframework.context.ApplicationContext;
 
 import java.util.stream.Stream;
 
@@ -40,7 +40,7 @@ import static org.mockito.Mockito.*;
 
 public class MoveCommandTest {
     @Mock
-    private ApplicationContext applicationContext;
+    private CommandRegistry commandRegistry;
 
     @Mock
     private WorldManager worldManager;
@@ -49,7 +49,7 @@ public class MoveCommandTest {
     private RoomBuilder roomBuilder;
 
     @Mock
-    private EntityService entityService;
+    private CrowdService crowdService;
 
     @Mock
     private GameOutput output;
@@ -97,9 +97,9 @@ public class MoveCommandTest {
         when(worldManager.test(eq(0L), eq(1L), eq(0L))).thenReturn(true);
         when(worldManager.put(any(Entity.class), eq(0L), eq(1L), eq(0L))).thenReturn(room2);
 
-        when(applicationContext.getBean(eq("lookCommand"))).thenReturn(lookCommand);
+        when(commandRegistry.getCommand(eq("lookCommand"))).thenReturn(lookCommand);
 
-        command = new MoveCommand(Direction.NORTH, applicationContext, worldManager, roomBuilder, entityService);
+        command = new MoveCommand(Direction.NORTH, commandRegistry, worldManager, roomBuilder, crowdService);
     }
 
     @Test
@@ -117,12 +117,12 @@ public class MoveCommandTest {
         GameOutput result = command.execute(output, entity, cmd, tokens, raw);
 
         assertNotNull(result);
-        verify(worldManager).remove(eq(entity));
+        verify(worldManager, never()).remove(eq(entity));
         verify(worldManager).put(eq(entity), eq(0L), eq(1L), eq(0L));
-        verify(applicationContext).getBean(eq("lookCommand"));
+        verify(commandRegistry).getCommand(eq("lookCommand"));
         verify(lookCommand).execute(eq(output), eq(entity), eq("look"), eq(new String[0]), eq(""));
-        verify(entityService).sendMessageToRoom(eq(room), eq(entity), any(GameOutput.class));
-        verify(entityService).sendMessageToRoom(eq(room2), eq(entity), any(GameOutput.class));
+        verify(crowdService).announceDeparture(eq(room), eq(entity), eq("north"));
+        verify(crowdService).announceArrival(eq(room2), eq(entity), eq("south"));
     }
 
     @Test
@@ -146,6 +146,6 @@ public class MoveCommandTest {
         command.execute(output, entity, cmd, tokens, raw);
 
         verifyZeroInteractions(worldManager);
-        verifyZeroInteractions(applicationContext);
+        verifyZeroInteractions(commandRegistry);
     }
 }
@@ -22,6 +22,7 @@ package com.emergentmud.core.command.impl;
 
 import com.emergentmud.core.command.BaseCommunicationCommandTest;
 import com.emergentmud.core.model.Entity;
+import com.emergentmud.core.model.OutputPriority;
 import com.emergentmud.core.model.room.Room;
 import com.emergentmud.core.model.stomp.GameOutput;
 import com.emergentmud.core.service.EntityService;
@@ -81,7 +82,7 @@ public class SayCommandTest extends BaseCommunicationCommandTest {
                 "Feed me a stray cat.");
 
         verify(response).append(eq("[cyan]You say 'Feed me a stray cat.[cyan]'"));
-        verify(entityService).sendMessageToRoom(eq(room), eq(entity), outputCaptor.capture());
+        verify(entityService).sendMessageToRoom(eq(room), eq(entity), outputCaptor.capture(), eq(OutputPriority.CHAT));
 
         GameOutput output = outputCaptor.getValue();
 
@@ -95,7 +96,7 @@ public class SayCommandTest extends BaseCommunicationCommandTest {
                 "<script type=\"text/javascript\">var evil = \"stuff\";</script>");
 
         verify(response).append(eq("[cyan]You say '&lt;script type=&quot;text/javascript&quot;&gt;var evil = &quot;stuff&quot;;&lt;/script&gt;[cyan]'"));
-        verify(entityService).sendMessageToRoom(eq(room), eq(entity), outputCaptor.capture());
+        verify(entityService).sendMessageToRoom(eq(room), eq(entity), outputCaptor.capture(), eq(OutputPriority.CHAT));
 
         GameOutput output = outputCaptor.getValue();
 
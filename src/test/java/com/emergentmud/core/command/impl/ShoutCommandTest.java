@@ -22,11 +22,11 @@ package com.emergentmud.core.command.impl;
 
 import com.emergentmud.core.command.BaseCommunicationCommandTest;
 import com.emergentmud.core.model.Entity;
+import com.emergentmud.core.model.OutputPriority;
 import com.emergentmud.core.model.room.Room;
 import com.emergentmud.core.model.stomp.GameOutput;
-import com.emergentmud.core.repository.EntityRepository;
-import com.emergentmud.core.repository.RoomRepository;
 import com.emergentmud.core.service.EntityService;
+import com.emergentmud.core.service.PresenceService;
 import com.emergentmud.core.service.RoomService;
 import org.junit.Before;
 import org.junit.Test;
@@ -37,6 +37,7 @@ import org.mockito.MockitoAnnotations;
 import org.mockito.Spy;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import static com.emergentmud.core.command.impl.ShoutCommand.SHOUT_DISTANCE;
@@ -45,10 +46,7 @@ import static org.mockito.Mockito.*;
 
 public class ShoutCommandTest extends BaseCommunicationCommandTest {
     @Mock
-    private EntityRepository entityRepository;
-
-    @Mock
-    private RoomRepository roomRepository;
+    private PresenceService presenceService;
 
     @Mock
     private EntityService entityService;
@@ -69,7 +67,7 @@ public class ShoutCommandTest extends BaseCommunicationCommandTest {
     private ArgumentCaptor<GameOutput> outputCaptor;
 
     @Captor
-    private ArgumentCaptor<List<Room>> roomListCaptor;
+    private ArgumentCaptor<List<Entity>> listenerCaptor;
 
     private String cmd = "shout";
 
@@ -86,7 +84,7 @@ public class ShoutCommandTest extends BaseCommunicationCommandTest {
         when(room.getY()).thenReturn(0L);
         when(room.getZ()).thenReturn(0L);
 
-        command = new ShoutCommand(roomRepository, entityRepository, roomService, entityService);
+        command = new ShoutCommand(presenceService, roomService, entityService);
     }
 
     @Test
@@ -101,7 +99,7 @@ public class ShoutCommandTest extends BaseCommunicationCommandTest {
                 "Feed me a stray cat.");
 
         verify(response).append(eq("[dyellow]You shout 'Feed me a stray cat.[dyellow]'"));
-        verify(entityService).sendMessageToListeners(anyListOf(Entity.class), eq(entity), outputCaptor.capture());
+        verify(entityService).sendMessageToListeners(anyListOf(Entity.class), eq(entity), outputCaptor.capture(), eq(OutputPriority.CHAT));
 
         GameOutput output = outputCaptor.getValue();
 
@@ -124,26 +122,30 @@ public class ShoutCommandTest extends BaseCommunicationCommandTest {
             }
         }
 
-        when(roomRepository.findByXBetweenAndYBetweenAndZBetween(
-                eq(-7L),
-                eq(7L),
-                eq(-7L),
-                eq(7L),
-                eq(-7L),
-                eq(7L)
-        )).thenReturn(rooms);
+        rooms.forEach(roomService::occupy);
+
+        Room distant = mock(Room.class);
+
+        when(distant.getX()).thenReturn(0L);
+        when(distant.getY()).thenReturn(0L);
+        when(distant.getZ()).thenReturn(SHOUT_DISTANCE + 1);
+
+        roomService.occupy(distant);
+
+        when(presenceService.getOccupants(any(Room.class))).thenAnswer(invocation -> Collections.singletonList(mock(Entity.class)));
 
         GameOutput response = command.execute(output, entity, cmd,
                 new String[] { "Feed", "me", "a", "stray", "cat." },
                 "Feed me a stray cat.");
 
-        verify(entityRepository).findByRoomIn(roomListCaptor.capture());
+        verify(presenceService, never()).getOccupants(eq(distant));
+        verify(entityService).sendMessageToListeners(listenerCaptor.capture(), eq(entity), any(GameOutput.class), eq(OutputPriority.CHAT));
 
-        List<Room> filteredRooms = roomListCaptor.getValue();
+        List<Entity> listeners = listenerCaptor.getValue();
 
         assertNotNull(response);
-        assertEquals(147, filteredRooms.size()); // 196 would be the full square
-                                                 // 147 is the circle
+        assertEquals(147, listeners.size()); // 196 would be the full square
+                                             // 147 is the circle
     }
 
     @Test
@@ -153,7 +155,7 @@ public class ShoutCommandTest extends BaseCommunicationCommandTest {
                 "<script type=\"text/javascript\">var evil = \"stuff\";</script>");
 
         verify(response).append(eq("[dyellow]You shout '&lt;script type=&quot;text/javascript&quot;&gt;var evil = &quot;stuff&quot;;&lt;/script&gt;[dyellow]'"));
-        verify(entityService).sendMessageToListeners(anyListOf(Entity.class), eq(entity), outputCaptor.capture());
+        verify(entityService).sendMessageToListeners(anyListOf(Entity.class), eq(entity), outputCaptor.capture(), eq(OutputPriority.CHAT));
 
         GameOutput output = outputCaptor.getValue();
 
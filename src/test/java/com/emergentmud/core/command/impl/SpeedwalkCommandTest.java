@@ -0,0 +1,210 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.command.impl;
+
+import com.emergentmud.core.command.CommandRegistry;
+import com.emergentmud.core.model.Direction;
+import com.emergentmud.core.model.Entity;
+import com.emergentmud.core.model.room.Room;
+import com.emergentmud.core.model.stomp.GameOutput;
+import com.emergentmud.core.repository.RoomBuilder;
+import com.emergentmud.core.repository.WorldManager;
+import com.emergentmud.core.service.CrowdService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class SpeedwalkCommandTest {
+    @Mock
+    private CommandRegistry commandRegistry;
+
+    @Mock
+    private WorldManager worldManager;
+
+    @Mock
+    private RoomBuilder roomBuilder;
+
+    @Mock
+    private CrowdService crowdService;
+
+    @Mock
+    private GameOutput output;
+
+    @Mock
+    private Entity entity;
+
+    @Mock
+    private LookCommand lookCommand;
+
+    @Captor
+    private ArgumentCaptor<List<long[]>> locationCaptor;
+
+    private Room origin;
+    private List<Room> path = new ArrayList<>();
+
+    private String cmd = "speedwalk";
+
+    private SpeedwalkCommand command;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+
+        origin = createRoom(0L, 0L);
+        path.add(createRoom(0L, 1L));
+        path.add(createRoom(0L, 2L));
+        path.add(createRoom(1L, 2L));
+
+        when(entity.getId()).thenReturn("entity");
+        when(entity.getName()).thenReturn("Stu");
+        when(entity.getRoom()).thenReturn(origin);
+        when(roomBuilder.generateRooms(anyListOf(long[].class))).thenReturn(path);
+        when(worldManager.put(any(Entity.class), any(Room.class))).thenAnswer(invocation -> invocation.getArguments()[1]);
+        when(commandRegistry.getCommand(eq("lookCommand"))).thenReturn(lookCommand);
+
+        command = new SpeedwalkCommand(commandRegistry, worldManager, roomBuilder, crowdService);
+    }
+
+    @Test
+    public void testDescription() throws Exception {
+        assertNotEquals("No description.", command.getDescription());
+    }
+
+    @Test
+    public void testParsePath() throws Exception {
+        assertEquals(Arrays.asList(Direction.NORTH, Direction.NORTH, Direction.EAST),
+                SpeedwalkCommand.parsePath("2ne"));
+        assertEquals(Arrays.asList(Direction.WEST, Direction.SOUTH, Direction.SOUTH, Direction.SOUTH),
+                SpeedwalkCommand.parsePath("W3S"));
+        assertEquals(12, SpeedwalkCommand.parsePath("12e").size());
+    }
+
+    @Test
+    public void testParsePathInvalid() throws Exception {
+        assertNull(SpeedwalkCommand.parsePath(""));
+        assertNull(SpeedwalkCommand.parsePath("3"));
+        assertNull(SpeedwalkCommand.parsePath("2nx"));
+    }
+
+    @Test
+    public void testNoArgs() throws Exception {
+        command.execute(output, entity, cmd, new String[0], "");
+
+        verify(output, atLeastOnce()).append(anyString());
+        verifyZeroInteractions(roomBuilder);
+        verifyZeroInteractions(worldManager);
+    }
+
+    @Test
+    public void testInvalidPath() throws Exception {
+        command.execute(output, entity, cmd, new String[] { "2nq" }, "2nq");
+
+        verify(output).append(startsWith("[yellow]"));
+        verifyZeroInteractions(roomBuilder);
+        verifyZeroInteractions(worldManager);
+    }
+
+    @Test
+    public void testPathTooLong() throws Exception {
+        command.execute(output, entity, cmd, new String[] { "99n" }, "99n");
+
+        verify(output).append(startsWith("[yellow]"));
+        verifyZeroInteractions(roomBuilder);
+        verifyZeroInteractions(worldManager);
+    }
+
+    @Test
+    public void testInVoid() throws Exception {
+        when(entity.getRoom()).thenReturn(null);
+
+        command.execute(output, entity, cmd, new String[] { "2n" }, "2n");
+
+        verifyZeroInteractions(roomBuilder);
+        verifyZeroInteractions(worldManager);
+    }
+
+    @Test
+    public void testSpeedwalk() throws Exception {
+        GameOutput result = command.execute(output, entity, cmd, new String[] { "2n", "e" }, "2n e");
+
+        assertNotNull(result);
+        verify(roomBuilder).generateRooms(locationCaptor.capture());
+        assertArrayEquals(new long[] { 0L, 1L, 0L }, locationCaptor.getValue().get(0));
+        assertArrayEquals(new long[] { 1L, 2L, 0L }, locationCaptor.getValue().get(2));
+
+        InOrder inOrder = inOrder(crowdService);
+
+        inOrder.verify(crowdService).announceDeparture(eq(origin), eq(entity), eq("north"));
+        inOrder.verify(crowdService).announceArrival(eq(path.get(0)), eq(entity), eq("south"));
+        inOrder.verify(crowdService).announceDeparture(eq(path.get(0)), eq(entity), eq("north"));
+        inOrder.verify(crowdService).announceArrival(eq(path.get(1)), eq(entity), eq("south"));
+        inOrder.verify(crowdService).announceDeparture(eq(path.get(1)), eq(entity), eq("east"));
+        inOrder.verify(crowdService).announceArrival(eq(path.get(2)), eq(entity), eq("west"));
+
+        verify(worldManager, times(1)).put(eq(entity), eq(path.get(2)));
+        verify(worldManager, never()).remove(any(Entity.class));
+        verify(lookCommand, times(1)).execute(eq(output), eq(entity), eq("look"), eq(new String[0]), eq(""));
+        verify(output, never()).append(anyString());
+    }
+
+    @Test
+    public void testSpeedwalkBlocked() throws Exception {
+        when(roomBuilder.generateRooms(anyListOf(long[].class))).thenReturn(path.subList(0, 1));
+
+        command.execute(output, entity, cmd, new String[] { "2ne" }, "2ne");
+
+        verify(worldManager).put(eq(entity), eq(path.get(0)));
+        verify(output).append(eq("Alas, you cannot go any further that way."));
+        verify(lookCommand).execute(eq(output), eq(entity), eq("look"), eq(new String[0]), eq(""));
+    }
+
+    @Test
+    public void testSpeedwalkNowhere() throws Exception {
+        when(roomBuilder.generateRooms(anyListOf(long[].class))).thenReturn(Collections.emptyList());
+
+        command.execute(output, entity, cmd, new String[] { "n" }, "n");
+
+        verify(output).append(eq("Alas, you cannot go that way."));
+        verifyZeroInteractions(worldManager);
+        verifyZeroInteractions(lookCommand);
+    }
+
+    private Room createRoom(long x, long y) {
+        Room room = new Room();
+
+        room.setId(x + "-" + y);
+        room.setLocation(x, y, 0L);
+
+        return room;
+    }
+}
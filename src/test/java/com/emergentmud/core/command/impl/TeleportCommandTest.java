@@ -20,17 +20,19 @@
 
 package com.emergentmud.core.command.impl;
 
+import com.emergentmud.core.command.CommandRegistry;
 import com.emergentmud.core.model.Entity;
 import com.emergentmud.core.model.room.Room;
 import com.emergentmud.core.model.stomp.GameOutput;
 import com.emergentmud.core.repository.WorldManager;
+import com.emergentmud.core.service.CrowdService;
 import com.emergentmud.core.service.EntityService;
+import com.emergentmud.core.service.MailboxService;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
-import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
-import org.springframework.context.ApplicationContext;
 
 import java.util.Optional;
 
@@ -43,7 +45,7 @@ import static org.mockito.Mockito.*;
 
 public class TeleportCommandTest {
     @Mock
-    private ApplicationContext applicationContext;
+    private CommandRegistry commandRegistry;
 
     @Mock
     private WorldManager worldManager;
@@ -51,6 +53,12 @@ public class TeleportCommandTest {
     @Mock
     private EntityService entityService;
 
+    @Mock
+    private CrowdService crowdService;
+
+    @Mock
+    private MailboxService mailboxService;
+
     @Mock
     private GameOutput gameOutput;
 
@@ -80,7 +88,7 @@ public class TeleportCommandTest {
     public void setUp() throws Exception {
         MockitoAnnotations.initMocks(this);
 
-        when(applicationContext.getBean(eq("lookCommand"))).thenReturn(lookCommand);
+        when(commandRegistry.getCommand(eq("lookCommand"))).thenReturn(lookCommand);
         when(worldManager.test(eq(1L), eq(1L), eq(0L))).thenReturn(true);
         when(worldManager.put(any(Entity.class), eq(1L), eq(1L), eq(0L))).thenReturn(destination);
         when(entityService.entitySearchRoom(eq(scion), eq("scion"))).thenReturn(Optional.of(scion));
@@ -96,8 +104,12 @@ public class TeleportCommandTest {
         when(destination.getX()).thenReturn(1L);
         when(destination.getY()).thenReturn(1L);
         when(gameOutput.append(anyString())).thenReturn(gameOutput);
+        doAnswer(invocation -> {
+            ((Runnable)invocation.getArguments()[1]).run();
+            return null;
+        }).when(mailboxService).execute(any(Entity.class), any(Runnable.class));
 
-        teleportCommand = new TeleportCommand(applicationContext, worldManager, entityService);
+        teleportCommand = new TeleportCommand(commandRegistry, worldManager, entityService, crowdService, mailboxService);
     }
 
     @Test
@@ -119,14 +131,33 @@ public class TeleportCommandTest {
 
         verify(entityService).entitySearchRoom(eq(scion), eq("bnarg"));
         verify(worldManager).test(eq(1L), eq(1L), eq(0L));
-        verify(entityService).sendMessageToRoom(eq(room), Mockito.anyCollectionOf(Entity.class), any(GameOutput.class));
+        verify(crowdService).announceVanish(eq(room), eq(bnarg));
         verify(worldManager).put(eq(bnarg), eq(1L), eq(1L), eq(0L));
-        verify(entityService).sendMessageToRoom(eq(destination), eq(bnarg), any(GameOutput.class));
-        verify(applicationContext).getBean(eq("lookCommand"));
+        verify(crowdService).announceAppear(eq(destination), eq(bnarg));
+        verify(commandRegistry).getCommand(eq("lookCommand"));
         verify(lookCommand).execute(any(GameOutput.class), eq(bnarg), eq("look"), any(String[].class), eq(""));
         verify(entityService).sendMessageToEntity(eq(bnarg), any(GameOutput.class));
     }
 
+    @Test
+    public void testMovesInTargetMailbox() throws Exception {
+        ArgumentCaptor<Runnable> taskCaptor = ArgumentCaptor.forClass(Runnable.class);
+
+        doNothing().when(mailboxService).execute(any(Entity.class), any(Runnable.class));
+
+        teleportCommand.execute(gameOutput, scion, command, new String[] { "bnarg", "1", "1" }, "bnarg 1 1");
+
+        verify(mailboxService).execute(eq(bnarg), taskCaptor.capture());
+        verify(worldManager, never()).put(any(Entity.class), anyLong(), anyLong(), anyLong());
+        verifyZeroInteractions(crowdService);
+
+        taskCaptor.getValue().run();
+
+        verify(crowdService).announceVanish(eq(room), eq(bnarg));
+        verify(worldManager).put(eq(bnarg), eq(1L), eq(1L), eq(0L));
+        verify(crowdService).announceAppear(eq(destination), eq(bnarg));
+    }
+
     @Test
     public void testTeleportSelf() throws Exception {
         GameOutput output = teleportCommand.execute(gameOutput, scion, command, new String[] { "scion", "1", "1" }, "scion 1 1");
@@ -135,10 +166,10 @@ public class TeleportCommandTest {
 
         verify(entityService).entitySearchRoom(eq(scion), eq("scion"));
         verify(worldManager, never()).test(eq(1L), eq(1L), eq(0L));
-        verify(entityService, never()).sendMessageToRoom(eq(room), Mockito.anyCollectionOf(Entity.class), any(GameOutput.class));
+        verify(crowdService, never()).announceVanish(eq(room), eq(bnarg));
         verify(worldManager, never()).put(eq(bnarg), eq(1L), eq(1L), eq(0L));
-        verify(entityService, never()).sendMessageToRoom(eq(destination), eq(bnarg), any(GameOutput.class));
-        verify(applicationContext, never()).getBean(eq("lookCommand"));
+        verify(crowdService, never()).announceAppear(eq(destination), eq(bnarg));
+        verify(commandRegistry, never()).getCommand(eq("lookCommand"));
         verify(lookCommand, never()).execute(any(GameOutput.class), eq(bnarg), eq("look"), any(String[].class), eq(""));
         verify(entityService, never()).sendMessageToEntity(eq(bnarg), any(GameOutput.class));
     }
@@ -149,7 +180,7 @@ public class TeleportCommandTest {
 
         assertNotNull(output);
 
-        verifyZeroInteractions(entityService, worldManager, applicationContext, lookCommand);
+        verifyZeroInteractions(entityService, worldManager, commandRegistry, lookCommand);
     }
 
     @Test
@@ -158,7 +189,7 @@ public class TeleportCommandTest {
 
         assertNotNull(output);
 
-        verifyZeroInteractions(entityService, worldManager, applicationContext, lookCommand);
+        verifyZeroInteractions(entityService, worldManager, commandRegistry, lookCommand);
     }
 
     @Test
@@ -170,10 +201,10 @@ public class TeleportCommandTest {
         verify(entityService).entitySearchRoom(eq(scion), eq("bnarg"));
         verify(entityService).entitySearchInWorld(eq(scion), eq("spook"));
         verify(worldManager).test(eq(1L), eq(1L), eq(0L));
-        verify(entityService).sendMessageToRoom(eq(room), Mockito.anyCollectionOf(Entity.class), any(GameOutput.class));
+        verify(crowdService).announceVanish(eq(room), eq(bnarg));
         verify(worldManager).put(eq(bnarg), eq(1L), eq(1L), eq(0L));
-        verify(entityService).sendMessageToRoom(eq(destination), eq(bnarg), any(GameOutput.class));
-        verify(applicationContext).getBean(eq("lookCommand"));
+        verify(crowdService).announceAppear(eq(destination), eq(bnarg));
+        verify(commandRegistry).getCommand(eq("lookCommand"));
         verify(lookCommand).execute(any(GameOutput.class), eq(bnarg), eq("look"), any(String[].class), eq(""));
         verify(entityService).sendMessageToEntity(eq(bnarg), any(GameOutput.class));
     }
@@ -187,10 +218,10 @@ public class TeleportCommandTest {
         verify(entityService).entitySearchRoom(eq(scion), eq("bnarg"));
         verify(entityService).entitySearchInWorld(eq(scion), eq("spook"));
         verify(worldManager).test(eq(1L), eq(1L), eq(0L));
-        verify(entityService).sendMessageToRoom(eq(room), Mockito.anyCollectionOf(Entity.class), any(GameOutput.class));
+        verify(crowdService).announceVanish(eq(room), eq(bnarg));
         verify(worldManager).put(eq(bnarg), eq(1L), eq(1L), eq(0L));
-        verify(entityService).sendMessageToRoom(eq(destination), eq(bnarg), any(GameOutput.class));
-        verify(applicationContext).getBean(eq("lookCommand"));
+        verify(crowdService).announceAppear(eq(destination), eq(bnarg));
+        verify(commandRegistry).getCommand(eq("lookCommand"));
         verify(lookCommand).execute(any(GameOutput.class), eq(bnarg), eq("look"), any(String[].class), eq(""));
         verify(entityService).sendMessageToEntity(eq(bnarg), any(GameOutput.class));
     }
@@ -204,10 +235,10 @@ public class TeleportCommandTest {
         verify(entityService).entitySearchRoom(eq(scion), eq("bnarg"));
         verify(entityService).entitySearchInWorld(eq(scion), eq("1"));
         verify(worldManager, never()).test(eq(1L), eq(1L), eq(0L));
-        verify(entityService, never()).sendMessageToRoom(eq(room), Mockito.anyCollectionOf(Entity.class), any(GameOutput.class));
+        verify(crowdService, never()).announceVanish(eq(room), eq(bnarg));
         verify(worldManager, never()).put(eq(bnarg), eq(1L), eq(1L), eq(0L));
-        verify(entityService, never()).sendMessageToRoom(eq(destination), eq(bnarg), any(GameOutput.class));
-        verify(applicationContext, never()).getBean(eq("lookCommand"));
+        verify(crowdService, never()).announceAppear(eq(destination), eq(bnarg));
+        verify(commandRegistry, never()).getCommand(eq("lookCommand"));
         verify(lookCommand, never()).execute(any(GameOutput.class), eq(bnarg), eq("look"), any(String[].class), eq(""));
         verify(entityService, never()).sendMessageToEntity(eq(bnarg), any(GameOutput.class));
     }
@@ -221,7 +252,7 @@ public class TeleportCommandTest {
         assertNotNull(output);
 
         verify(entityService).entitySearchRoom(eq(scion), eq("morgan"));
-        verifyZeroInteractions(worldManager, applicationContext, lookCommand);
+        verifyZeroInteractions(worldManager, commandRegistry, lookCommand);
     }
 
     @Test
@@ -234,10 +265,10 @@ public class TeleportCommandTest {
 
         verify(entityService).entitySearchRoom(eq(scion), eq("bnarg"));
         verify(worldManager).test(eq(1L), eq(1L), eq(0L));
-        verify(entityService, never()).sendMessageToRoom(eq(room), eq(bnarg), any(GameOutput.class));
+        verify(crowdService, never()).announceVanish(eq(room), eq(bnarg));
         verify(worldManager).put(eq(bnarg), eq(1L), eq(1L), eq(0L));
-        verify(entityService).sendMessageToRoom(eq(destination), eq(bnarg), any(GameOutput.class));
-        verify(applicationContext).getBean(eq("lookCommand"));
+        verify(crowdService).announceAppear(eq(destination), eq(bnarg));
+        verify(commandRegistry).getCommand(eq("lookCommand"));
         verify(lookCommand).execute(any(GameOutput.class), eq(bnarg), eq("look"), any(String[].class), eq(""));
         verify(entityService).sendMessageToEntity(eq(bnarg), any(GameOutput.class));
     }
@@ -250,10 +281,10 @@ public class TeleportCommandTest {
 
         verify(entityService).entitySearchRoom(eq(scion), eq("bnarg"));
         verify(worldManager, never()).test(eq(1L), eq(1L), eq(0L));
-        verify(entityService, never()).sendMessageToRoom(eq(room), eq(bnarg), any(GameOutput.class));
+        verify(crowdService, never()).announceVanish(eq(room), eq(bnarg));
         verify(worldManager, never()).put(eq(bnarg), eq(1L), eq(1L), eq(0L));
-        verify(entityService, never()).sendMessageToRoom(eq(destination), eq(bnarg), any(GameOutput.class));
-        verify(applicationContext, never()).getBean(eq("lookCommand"));
+        verify(crowdService, never()).announceAppear(eq(destination), eq(bnarg));
+        verify(commandRegistry, never()).getCommand(eq("lookCommand"));
         verify(lookCommand, never()).execute(eq(gameOutput), eq(bnarg), eq("look"), any(String[].class), eq(""));
     }
 
@@ -267,10 +298,10 @@ public class TeleportCommandTest {
 
         verify(entityService).entitySearchRoom(eq(scion), eq("bnarg"));
         verify(worldManager).test(eq(1L), eq(1L), eq(0L));
-        verify(entityService, never()).sendMessageToRoom(eq(room), eq(bnarg), any(GameOutput.class));
+        verify(crowdService, never()).announceVanish(eq(room), eq(bnarg));
         verify(worldManager, never()).put(eq(bnarg), eq(1L), eq(1L), eq(0L));
-        verify(entityService, never()).sendMessageToRoom(eq(destination), eq(bnarg), any(GameOutput.class));
-        verify(applicationContext, never()).getBean(eq("lookCommand"));
+        verify(crowdService, never()).announceAppear(eq(destination), eq(bnarg));
+        verify(commandRegistry, never()).getCommand(eq("lookCommand"));
         verify(lookCommand, never()).execute(eq(gameOutput), eq(bnarg), eq("look"), any(String[].class), eq(""));
     }
 }
@@ -22,6 +22,7 @@ package com.emergentmud.core.command.impl;
 
 import com.emergentmud.core.command.BaseCommunicationCommandTest;
 import com.emergentmud.core.model.Entity;
+import com.emergentmud.core.model.OutputPriority;
 import com.emergentmud.core.model.room.Room;
 import com.emergentmud.core.model.stomp.GameOutput;
 import com.emergentmud.core.repository.EntityRepository;
@@ -130,7 +131,7 @@ public class TellCommandTest extends BaseCommunicationCommandTest {
                 "stu Ahoy!");
 
         verify(response).append(eq("[red]You tell Stu 'Ahoy![red]'"));
-        verify(entityService).sendMessageToEntity(eq(stu), outputCaptor.capture());
+        verify(entityService).sendMessageToEntity(eq(stu), outputCaptor.capture(), eq(OutputPriority.CHAT));
 
         GameOutput output = outputCaptor.getValue();
 
@@ -144,7 +145,7 @@ public class TellCommandTest extends BaseCommunicationCommandTest {
                 "stu Feed me a stray cat.");
 
         verify(response).append(eq("[red]You tell Stu 'Feed me a stray cat.[red]'"));
-        verify(entityService).sendMessageToEntity(eq(stu), outputCaptor.capture());
+        verify(entityService).sendMessageToEntity(eq(stu), outputCaptor.capture(), eq(OutputPriority.CHAT));
 
         GameOutput output = outputCaptor.getValue();
 
@@ -158,7 +159,7 @@ public class TellCommandTest extends BaseCommunicationCommandTest {
                 "stu <script type=\"text/javascript\">var evil = \"stuff\";</script>");
 
         verify(response).append(eq("[red]You tell Stu '&lt;script type=&quot;text/javascript&quot;&gt;var evil = &quot;stuff&quot;;&lt;/script&gt;[red]'"));
-        verify(entityService).sendMessageToEntity(eq(stu), outputCaptor.capture());
+        verify(entityService).sendMessageToEntity(eq(stu), outputCaptor.capture(), eq(OutputPriority.CHAT));
 
         GameOutput output = outputCaptor.getValue();
 
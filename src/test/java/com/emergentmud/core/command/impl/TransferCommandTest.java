@@ -20,17 +20,19 @@
 
 package com.emergentmud.core.command.impl;
 
+import com.emergentmud.core.command.CommandRegistry;
 import com.emergentmud.core.model.Entity;
 import com.emergentmud.core.model.room.Room;
 import com.emergentmud.core.model.stomp.GameOutput;
 import com.emergentmud.core.repository.WorldManager;
+import com.emergentmud.core.service.CrowdService;
 import com.emergentmud.core.service.EntityService;
+import com.emergentmud.core.service.MailboxService;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
-import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
-import org.springframework.context.ApplicationContext;
 
 import java.util.Optional;
 
@@ -41,7 +43,7 @@ import static org.mockito.Mockito.*;
 
 public class TransferCommandTest {
     @Mock
-    private ApplicationContext applicationContext;
+    private CommandRegistry commandRegistry;
 
     @Mock
     private WorldManager worldManager;
@@ -49,6 +51,12 @@ public class TransferCommandTest {
     @Mock
     private EntityService entityService;
 
+    @Mock
+    private CrowdService crowdService;
+
+    @Mock
+    private MailboxService mailboxService;
+
     @Mock
     private GameOutput gameOutput;
 
@@ -75,7 +83,7 @@ public class TransferCommandTest {
     public void setUp() throws Exception {
         MockitoAnnotations.initMocks(this);
 
-        when(applicationContext.getBean(eq("lookCommand"))).thenReturn(lookCommand);
+        when(commandRegistry.getCommand(eq("lookCommand"))).thenReturn(lookCommand);
         when(worldManager.test(eq(1L), eq(1L), eq(0L))).thenReturn(true);
         when(worldManager.put(any(Entity.class), eq(0L), eq(0L), eq(0L))).thenReturn(room);
         when(entityService.entitySearchRoom(eq(scion), eq("scion"))).thenReturn(Optional.of(scion));
@@ -90,8 +98,12 @@ public class TransferCommandTest {
         when(origin.getX()).thenReturn(1L);
         when(origin.getY()).thenReturn(1L);
         when(gameOutput.append(anyString())).thenReturn(gameOutput);
+        doAnswer(invocation -> {
+            ((Runnable)invocation.getArguments()[1]).run();
+            return null;
+        }).when(mailboxService).execute(any(Entity.class), any(Runnable.class));
 
-        transferCommand = new TransferCommand(applicationContext, worldManager, entityService);
+        transferCommand = new TransferCommand(commandRegistry, worldManager, entityService, crowdService, mailboxService);
     }
 
     @Test
@@ -111,7 +123,7 @@ public class TransferCommandTest {
 
         assertNotNull(output);
 
-        verifyZeroInteractions(entityService, worldManager, applicationContext, lookCommand);
+        verifyZeroInteractions(entityService, worldManager, commandRegistry, lookCommand);
     }
 
     @Test
@@ -120,7 +132,7 @@ public class TransferCommandTest {
 
         assertNotNull(output);
 
-        verifyZeroInteractions(entityService, worldManager, applicationContext, lookCommand);
+        verifyZeroInteractions(entityService, worldManager, commandRegistry, lookCommand);
     }
 
     @Test
@@ -131,7 +143,7 @@ public class TransferCommandTest {
 
         verify(entityService).entitySearchInWorld(eq(scion), eq("morgan"));
         verifyNoMoreInteractions(entityService);
-        verifyZeroInteractions(worldManager, applicationContext, lookCommand);
+        verifyZeroInteractions(worldManager, commandRegistry, lookCommand);
     }
 
     @Test
@@ -142,7 +154,7 @@ public class TransferCommandTest {
 
         verify(entityService).entitySearchInWorld(eq(scion), eq("scion"));
         verifyNoMoreInteractions(entityService);
-        verifyZeroInteractions(worldManager, applicationContext, lookCommand);
+        verifyZeroInteractions(worldManager, commandRegistry, lookCommand);
     }
 
     @Test
@@ -155,7 +167,7 @@ public class TransferCommandTest {
 
         verify(entityService).entitySearchInWorld(eq(scion), eq("spook"));
         verifyNoMoreInteractions(entityService);
-        verifyZeroInteractions(worldManager, applicationContext, lookCommand);
+        verifyZeroInteractions(worldManager, commandRegistry, lookCommand);
     }
 
     @Test
@@ -165,11 +177,30 @@ public class TransferCommandTest {
         assertNotNull(output);
 
         verify(entityService).entitySearchInWorld(eq(scion), eq("spook"));
-        verify(entityService).sendMessageToRoom(eq(origin), eq(spook), any(GameOutput.class));
+        verify(crowdService).announceVanish(eq(origin), eq(spook));
         verify(worldManager).put(eq(spook), eq(0L), eq(0L), eq(0L));
-        verify(entityService).sendMessageToRoom(eq(room), Mockito.anyCollectionOf(Entity.class), any(GameOutput.class));
-        verify(applicationContext).getBean(eq("lookCommand"));
+        verify(crowdService).announceAppear(eq(room), eq(spook));
+        verify(commandRegistry).getCommand(eq("lookCommand"));
         verify(lookCommand).execute(any(GameOutput.class), eq(spook), eq("look"), any(String[].class), eq(""));
         verify(entityService).sendMessageToEntity(eq(spook), any(GameOutput.class));
     }
+
+    @Test
+    public void testMovesInTargetMailbox() throws Exception {
+        ArgumentCaptor<Runnable> taskCaptor = ArgumentCaptor.forClass(Runnable.class);
+
+        doNothing().when(mailboxService).execute(any(Entity.class), any(Runnable.class));
+
+        transferCommand.execute(gameOutput, scion, command, new String[] { "spook" }, "spook");
+
+        verify(mailboxService).execute(eq(spook), taskCaptor.capture());
+        verify(worldManager, never()).put(any(Entity.class), anyLong(), anyLong(), anyLong());
+        verifyZeroInteractions(crowdService);
+
+        taskCaptor.getValue().run();
+
+        verify(crowdService).announceVanish(eq(origin), eq(spook));
+        verify(worldManager).put(eq(spook), eq(0L), eq(0L), eq(0L));
+        verify(crowdService).announceAppear(eq(room), eq(spook));
+    }
 }
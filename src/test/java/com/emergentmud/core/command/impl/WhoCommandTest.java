@@ -22,7 +22,7 @@ package com.emergentmud.core.command.impl;
 
 import com.emergentmud.core.model.Entity;
 import com.emergentmud.core.model.stomp.GameOutput;
-import com.emergentmud.core.repository.EntityRepository;
+import com.emergentmud.core.service.PresenceService;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
@@ -38,7 +38,7 @@ import static org.junit.Assert.*;
 
 public class WhoCommandTest {
     @Mock
-    private EntityRepository entityRepository;
+    private PresenceService presenceService;
 
     @Mock
     private Entity player1;
@@ -60,7 +60,7 @@ public class WhoCommandTest {
     public void setUp() throws Exception {
         MockitoAnnotations.initMocks(this);
 
-        command = new WhoCommand(entityRepository);
+        command = new WhoCommand(presenceService);
     }
 
     @Test
@@ -72,11 +72,11 @@ public class WhoCommandTest {
     public void testAlone() throws Exception {
         List<Entity> online = Collections.singletonList(self);
 
-        when(entityRepository.findByRoomIsNotNull()).thenReturn(online);
+        when(presenceService.getOnline()).thenReturn(online);
 
         GameOutput response = command.execute(output, self, cmd, new String[] {}, "");
 
-        verify(entityRepository).findByRoomIsNotNull();
+        verify(presenceService).getOnline();
         verify(self).getName();
 
         assertTrue(response.getOutput().get(2).startsWith("1 player"));
@@ -86,11 +86,11 @@ public class WhoCommandTest {
     public void testCrowd() throws Exception {
         List<Entity> online = Arrays.asList(self, player1, player2);
 
-        when(entityRepository.findByRoomIsNotNull()).thenReturn(online);
+        when(presenceService.getOnline()).thenReturn(online);
 
         GameOutput response = command.execute(output, self, cmd, new String[] {}, "");
 
-        verify(entityRepository).findByRoomIsNotNull();
+        verify(presenceService).getOnline();
         verify(self).getName();
         verify(player1).getName();
         verify(player2).getName();
@@ -0,0 +1,114 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.emergentmud.core.config;
+
+import com.emergentmud.core.service.LagService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class LagTrackingHandlerDecoratorTest {
+    @Mock
+    private WebSocketHandler delegate;
+
+    @Mock
+    private WebSocketSession session;
+
+    @Mock
+    private LagService lagService;
+
+    @Captor
+    private ArgumentCaptor<WebSocketSession> sessionCaptor;
+
+    private LagTrackingHandlerDecorator decorator;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+
+        when(session.getId()).thenReturn("session");
+
+        decorator = new LagTrackingHandlerDecorator(delegate, lagService);
+    }
+
+    @Test
+    public void testConnectionEstablished() throws Exception {
+        decorator.afterConnectionEstablished(session);
+
+        verify(lagService).register(eq(session));
+        verify(delegate).afterConnectionEstablished(sessionCaptor.capture());
+        assertTrue(sessionCaptor.getValue() instanceof LagTrackingSession);
+        assertEquals("session", sessionCaptor.getValue().getId());
+    }
+
+    @Test
+    public void testConnectionClosed() throws Exception {
+        decorator.afterConnectionClosed(session, CloseStatus.NORMAL);
+
+        verify(lagService).unregister(eq("session"));
+        verify(delegate).afterConnectionClosed(eq(session), eq(CloseStatus.NORMAL));
+    }
+
+    @Test
+    public void testSendMessageTracksWrite() throws Exception {
+        TextMessage message = new TextMessage("Hello.");
+
+        decorator.afterConnectionEstablished(session);
+        verify(delegate).afterConnectionEstablished(sessionCaptor.capture());
+
+        sessionCaptor.getValue().sendMessage(message);
+
+        InOrder inOrder = inOrder(lagService, session);
+
+        inOrder.verify(lagService).writeStarted(eq("session"));
+        inOrder.verify(session).sendMessage(eq(message));
+        inOrder.verify(lagService).writeFinished(eq("session"), eq(6));
+    }
+
+    @Test
+    public void testSendMessageFailureFinishesWrite() throws Exception {
+        TextMessage message = new TextMessage("Hello.");
+
+        doThrow(new IOException("Boom!")).when(session).sendMessage(any(TextMessage.class));
+
+        decorator.afterConnectionEstablished(session);
+        verify(delegate).afterConnectionEstablished(sessionCaptor.capture());
+
+        try {
+            sessionCaptor.getValue().sendMessage(message);
+            fail("Expected IOException");
+        } catch (IOException e) {
+            verify(lagService).writeFinished(eq("session"), eq(6));
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.config;
+
+import com.emergentmud.core.service.CompressionService;
+import org.eclipse.jetty.io.MappedByteBufferPool;
+import org.eclipse.jetty.websocket.api.BatchMode;
+import org.eclipse.jetty.websocket.api.WebSocketPolicy;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+import org.eclipse.jetty.websocket.api.extensions.ExtensionConfig;
+import org.eclipse.jetty.websocket.api.extensions.Frame;
+import org.eclipse.jetty.websocket.common.frames.PingFrame;
+import org.eclipse.jetty.websocket.common.frames.TextFrame;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.actuate.metrics.CounterService;
+import org.springframework.boot.actuate.metrics.GaugeService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class ThresholdDeflateExtensionTest {
+    private static final String STOMP_OUTPUT = "a[\"MESSAGE\\ndestination:/user/queue/output\\ncontent-type:application/json\\n\\n";
+
+    @Mock
+    private CounterService counterService;
+
+    @Mock
+    private GaugeService gaugeService;
+
+    @Mock
+    private WriteCallback callback;
+
+    private List<Frame> sent = new ArrayList<>();
+    private CompressionService compressionService;
+    private ThresholdDeflateExtension extension;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+
+        compressionService = new CompressionService(256, counterService, gaugeService);
+
+        extension = new ThresholdDeflateExtension(compressionService);
+        extension.setPolicy(WebSocketPolicy.newServerPolicy());
+        extension.setBufferPool(new MappedByteBufferPool());
+        extension.setConfig(ExtensionConfig.parse("permessage-deflate"));
+        extension.setNextOutgoingFrames((frame, callback, batchMode) -> {
+            sent.add(frame);
+            callback.writeSuccess();
+        });
+    }
+
+    @Test
+    public void testSmallFrameSkipsCompression() throws Exception {
+        extension.outgoingFrame(new TextFrame().setPayload(STOMP_OUTPUT + "hi\"]"), callback, BatchMode.OFF);
+
+        assertEquals(1, sent.size());
+        assertFalse(sent.get(0).isRsv1());
+        verify(callback).writeSuccess();
+        verify(counterService).increment(eq("websocket.deflate.output.skipped"));
+    }
+
+    @Test
+    public void testLargeFrameCompressed() throws Exception {
+        StringBuilder map = new StringBuilder(STOMP_OUTPUT);
+
+        for (int i = 0; i < 200; i++) {
+            map.append("<span style='color: #228b22'>[]</span>");
+        }
+
+        int length = map.length();
+
+        extension.outgoingFrame(new TextFrame().setPayload(map.toString()), callback, BatchMode.OFF);
+
+        assertFalse(sent.isEmpty());
+        assertTrue(sent.get(0).isRsv1());
+        assertTrue(sent.stream().mapToInt(Frame::getPayloadLength).sum() * 10 < length);
+        verify(callback).writeSuccess();
+        verify(counterService).increment(eq("websocket.deflate.output.compressed"));
+        verify(gaugeService).submit(eq("websocket.deflate.output.ratio"), anyDouble());
+        verify(gaugeService).submit(eq("websocket.deflate.output.cpu"), anyDouble());
+        assertTrue(compressionService.getRatio(CompressionService.OUTPUT) < 0.1);
+    }
+
+    @Test
+    public void testControlFramesPassThrough() throws Exception {
+        extension.outgoingFrame(new PingFrame(), callback, BatchMode.OFF);
+
+        assertEquals(1, sent.size());
+        verify(callback).writeSuccess();
+        verifyZeroInteractions(counterService);
+        verifyZeroInteractions(gaugeService);
+    }
+}
@@ -22,8 +22,9 @@ package com.emergentmud.core.event;
 
 import com.emergentmud.core.model.Entity;
 import com.emergentmud.core.model.stomp.GameOutput;
-import com.emergentmud.core.repository.EntityRepository;
 import com.emergentmud.core.service.EntityService;
+import com.emergentmud.core.service.OutputService;
+import com.emergentmud.core.service.PresenceService;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
@@ -39,11 +40,14 @@ import static org.mockito.Mockito.*;
 
 public class GameShutdownListenerTest {
     @Mock
-    private EntityRepository entityRepository;
+    private PresenceService presenceService;
 
     @Mock
     private EntityService entityService;
 
+    @Mock
+    private OutputService outputService;
+
     @Mock
     private ContextClosedEvent contextClosedEvent;
 
@@ -67,24 +71,25 @@ public class GameShutdownListenerTest {
             everyone.add(entity);
         }
 
-        when(entityRepository.findByRoomIsNotNull()).thenReturn(everyone);
+        when(presenceService.getOnline()).thenReturn(everyone);
 
-        gameShutdownListener = new GameShutdownListener(entityRepository, entityService);
+        gameShutdownListener = new GameShutdownListener(presenceService, entityService, outputService);
     }
 
     @Test
     public void testContextClosed() throws Exception {
         gameShutdownListener.onApplicationEvent(contextClosedEvent);
 
-        verify(entityRepository).findByRoomIsNotNull();
+        verify(presenceService).getOnline();
         verify(entityService).sendMessageToListeners(eq(everyone), any(GameOutput.class));
+        verify(outputService).flushAll();
     }
 
     @Test
     public void testContextStopped() throws Exception {
         gameShutdownListener.onApplicationEvent(contextStoppedEvent);
 
-        verify(entityRepository).findByRoomIsNotNull();
+        verify(presenceService).getOnline();
         verify(entityService).sendMessageToListeners(eq(everyone), any(GameOutput.class));
     }
 
@@ -92,7 +97,8 @@ public class GameShutdownListenerTest {
     public void testContextStarted() throws Exception {
         gameShutdownListener.onApplicationEvent(contextStartedEvent);
 
-        verifyZeroInteractions(entityRepository);
+        verifyZeroInteractions(presenceService);
         verifyZeroInteractions(entityService);
+        verifyZeroInteractions(outputService);
     }
 }
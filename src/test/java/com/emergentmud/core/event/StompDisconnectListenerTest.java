@@ -21,22 +21,35 @@
 package com.emergentmud.core.event;
 
 import com.emergentmud.core.model.Entity;
+import com.emergentmud.core.model.PlayerSession;
 import com.emergentmud.core.model.room.Room;
-import com.emergentmud.core.model.stomp.GameOutput;
 import com.emergentmud.core.repository.EntityRepository;
 import com.emergentmud.core.repository.WorldManager;
-import com.emergentmud.core.service.EntityService;
+import com.emergentmud.core.service.ChannelService;
+import com.emergentmud.core.service.CrowdService;
+import com.emergentmud.core.service.MailboxService;
+import com.emergentmud.core.service.OutputService;
+import com.emergentmud.core.service.PlayerSessionService;
 import org.junit.Before;
 import org.junit.Test;
+import org.springframework.boot.actuate.metrics.CounterService;
+import org.springframework.boot.actuate.metrics.GaugeService;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.support.ExecutorServiceAdapter;
 import org.springframework.security.oauth2.provider.OAuth2Authentication;
 import org.springframework.web.socket.messaging.SessionDisconnectEvent;
 
+import java.util.Optional;
+
 import static org.mockito.Mockito.*;
 
 public class StompDisconnectListenerTest {
     private EntityRepository entityRepository;
     private WorldManager worldManager;
-    private EntityService entityService;
+    private CrowdService crowdService;
+    private PlayerSessionService playerSessionService;
+    private OutputService outputService;
+    private ChannelService channelService;
     private OAuth2Authentication principal;
     private SessionDisconnectEvent event;
     private Entity entity;
@@ -51,7 +64,10 @@ public class StompDisconnectListenerTest {
     public void setUp() throws Exception {
         entityRepository = mock(EntityRepository.class);
         worldManager = mock(WorldManager.class);
-        entityService = mock(EntityService.class);
+        crowdService = mock(CrowdService.class);
+        playerSessionService = mock(PlayerSessionService.class);
+        outputService = mock(OutputService.class);
+        channelService = mock(ChannelService.class);
         principal = mock(OAuth2Authentication.class);
         event = mock(SessionDisconnectEvent.class);
         entity = mock(Entity.class);
@@ -64,6 +80,8 @@ public class StompDisconnectListenerTest {
                 eq(simpSessionId),
                 eq(socialUserName)
         )).thenReturn(entity);
+        when(playerSessionService.unbind(eq(simpSessionId))).thenReturn(Optional.empty());
+        when(entity.getId()).thenReturn("entityId");
         when(entity.getRoom()).thenReturn(room);
         when(room.getX()).thenReturn(0L);
         when(room.getY()).thenReturn(0L);
@@ -72,7 +90,15 @@ public class StompDisconnectListenerTest {
         stompDisconnectListener = new StompDisconnectListener(
                 entityRepository,
                 worldManager,
-                entityService
+                crowdService,
+                playerSessionService,
+                new MailboxService(
+                        new ExecutorServiceAdapter(new SyncTaskExecutor()),
+                        32,
+                        mock(CounterService.class),
+                        mock(GaugeService.class)),
+                outputService,
+                channelService
         );
     }
 
@@ -84,7 +110,24 @@ public class StompDisconnectListenerTest {
                 eq(simpSessionId),
                 eq(socialUserName)
         );
-        verify(entityService).sendMessageToRoom(eq(room), eq(entity), any(GameOutput.class));
+        verify(crowdService).announceLogout(eq(room), eq(entity));
+        verify(worldManager).remove(eq(entity));
+        verify(channelService).forget(eq(entity));
+        verify(outputService).discard(eq(simpSessionId));
+    }
+
+    @Test
+    public void applicationEventBoundSession() throws Exception {
+        PlayerSession session = mock(PlayerSession.class);
+
+        when(session.getEntity()).thenReturn(entity);
+        when(playerSessionService.unbind(eq(simpSessionId))).thenReturn(Optional.of(session));
+
+        stompDisconnectListener.onApplicationEvent(event);
+
+        verify(playerSessionService).unbind(eq(simpSessionId));
+        verify(entityRepository, never()).findByStompSessionIdAndStompUsername(anyString(), anyString());
+        verify(crowdService).announceLogout(eq(room), eq(entity));
         verify(worldManager).remove(eq(entity));
     }
 
@@ -98,7 +141,7 @@ public class StompDisconnectListenerTest {
                 eq(simpSessionId),
                 eq(socialUserName)
         );
-        verify(entityService, never()).sendMessageToRoom(any(Room.class), any(Entity.class), any(GameOutput.class));
+        verify(crowdService, never()).announceLogout(any(Room.class), any(Entity.class));
         verify(worldManager).remove(eq(entity));
     }
 
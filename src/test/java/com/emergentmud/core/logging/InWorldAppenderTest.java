@@ -23,11 +23,12 @@ package com.emergentmud.core.logging;
 import com.emergentmud.core.model.Capability;
 import com.emergentmud.core.model.CommandRole;
 import com.emergentmud.core.model.Entity;
+import com.emergentmud.core.model.OutputPriority;
 import com.emergentmud.core.model.room.Room;
 import com.emergentmud.core.model.stomp.GameOutput;
-import com.emergentmud.core.repository.CapabilityRepository;
-import com.emergentmud.core.repository.EntityRepository;
+import com.emergentmud.core.service.CapabilityService;
 import com.emergentmud.core.service.EntityService;
+import com.emergentmud.core.service.PresenceService;
 import com.emergentmud.core.util.SpringContextSingleton;
 import org.junit.Before;
 import org.junit.Test;
@@ -47,10 +48,10 @@ public class InWorldAppenderTest {
     private EntityService entityService;
 
     @Mock
-    private EntityRepository entityRepository;
+    private PresenceService presenceService;
 
     @Mock
-    private CapabilityRepository capabilityRepository;
+    private CapabilityService capabilityService;
 
     @Mock
     private Entity admin;
@@ -81,12 +82,12 @@ public class InWorldAppenderTest {
 
         singleton.setup();
 
-        when(capabilityRepository.findByName(eq(CommandRole.LOG.name()))).thenReturn(capability);
-        when(admin.isCapable(eq(capability))).thenReturn(true);
-        when(adminOffline.isCapable(eq(capability))).thenReturn(true);
+        when(capabilityService.getCapability(eq(CommandRole.LOG))).thenReturn(capability);
+        when(capabilityService.hasCapability(eq(admin), eq(capability))).thenReturn(true);
+        when(capabilityService.hasCapability(eq(adminOffline), eq(capability))).thenReturn(true);
         when(admin.getRoom()).thenReturn(room);
         when(player.getRoom()).thenReturn(room);
-        when(entityRepository.findByRoomIsNotNull()).thenReturn(Arrays.asList(admin, player));
+        when(presenceService.getOnline()).thenReturn(Arrays.asList(admin, player));
 
         inWorldAppender = new InWorldAppender<>();
     }
@@ -96,7 +97,7 @@ public class InWorldAppenderTest {
         inWorldAppender.append(eventObject);
 
         verifyZeroInteractions(entityService);
-        verifyZeroInteractions(entityRepository);
+        verifyZeroInteractions(presenceService);
         verifyZeroInteractions(admin);
         verifyZeroInteractions(adminOffline);
         verifyZeroInteractions(player);
@@ -111,7 +112,7 @@ public class InWorldAppenderTest {
         inWorldAppender.append(eventObject);
 
         verifyZeroInteractions(entityService);
-        verifyZeroInteractions(entityRepository);
+        verifyZeroInteractions(presenceService);
         verifyZeroInteractions(admin);
         verifyZeroInteractions(adminOffline);
         verifyZeroInteractions(player);
@@ -124,15 +125,15 @@ public class InWorldAppenderTest {
         singleton.setApplicationContext(applicationContext);
 
         when(applicationContext.getBean("entityService")).thenReturn(entityService);
-        when(applicationContext.getBean("entityRepository")).thenReturn(entityRepository);
-        when(applicationContext.getBean("capabilityRepository")).thenReturn(capabilityRepository);
+        when(applicationContext.getBean("presenceService")).thenReturn(presenceService);
+        when(applicationContext.getBean("capabilityService")).thenReturn(capabilityService);
 
         inWorldAppender.append(eventObject);
 
-        verify(entityRepository).findByRoomIsNotNull();
-        verify(entityService).sendMessageToListeners(anyListOf(Entity.class), any(GameOutput.class));
-        verify(admin).isCapable(eq(capability));
-        verify(player).isCapable(eq(capability));
+        verify(presenceService).getOnline();
+        verify(entityService).sendMessageToListeners(anyListOf(Entity.class), any(GameOutput.class), eq(OutputPriority.CHAT));
+        verify(capabilityService).hasCapability(eq(admin), eq(capability));
+        verify(capabilityService).hasCapability(eq(player), eq(capability));
         verifyZeroInteractions(adminOffline);
         verifyZeroInteractions(playerOffline);
     }
@@ -82,4 +82,13 @@ public class RoomTest {
 
         assertEquals(97L, (long)room.getZ());
     }
+
+    @Test
+    public void testCrowdThreshold() throws Exception {
+        assertNull(room.getCrowdThreshold());
+
+        room.setCrowdThreshold(4);
+
+        assertEquals(4, (int)room.getCrowdThreshold());
+    }
 }
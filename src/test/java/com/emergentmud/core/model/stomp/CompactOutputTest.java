@@ -0,0 +1,128 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.model.stomp;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class CompactOutputTest {
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testPlainLine() throws Exception {
+        CompactOutput compact = new CompactOutput(new GameOutput("Hello, world.", ""));
+
+        assertEquals(1, compact.getVersion());
+        assertEquals(Arrays.asList("Hello, world.", ""), compact.getOutput());
+        assertTrue(compact.getPalette().isEmpty());
+    }
+
+    @Test
+    public void testNamedColors() throws Exception {
+        CompactOutput compact = new CompactOutput(new GameOutput("[dwhite]You [white]can[dwhite] help."));
+
+        assertEquals(Collections.singletonList(Arrays.asList(4, "You ", 5, "can", 4, " help.")), compact.getOutput());
+    }
+
+    @Test
+    public void testUnknownTagIsText() throws Exception {
+        CompactOutput compact = new CompactOutput(new GameOutput("[i] [] [Red]"));
+
+        assertEquals(Collections.singletonList("[i] [] [Red]"), compact.getOutput());
+    }
+
+    @Test
+    public void testPaletteColors() throws Exception {
+        CompactOutput compact = new CompactOutput(new GameOutput(
+                "<span style='color: #00FF00'>[]</span><span style='color: #0000ff'>[]</span>"));
+
+        assertEquals(Arrays.asList("00ff00", "0000ff"), compact.getPalette());
+        assertEquals(Collections.singletonList(Arrays.asList(32, "[]", 0, 33, "[]", 0)), compact.getOutput());
+    }
+
+    @Test
+    public void testMergesRepeatedSpans() throws Exception {
+        CompactOutput compact = new CompactOutput(new GameOutput(
+                "<span style='color: #00ff00'>[]</span><span style='color: #00ff00'>[]</span>[cyan][]</span>"));
+
+        assertEquals(Collections.singletonList(Arrays.asList(32, "[][]", 0, 13, "[]", 0)), compact.getOutput());
+    }
+
+    @Test
+    public void testPaletteSharedAcrossLines() throws Exception {
+        CompactOutput compact = new CompactOutput(new GameOutput(
+                "<span style='color: #00ff00'>[]</span>",
+                "<span style='color: #00ff00'>[]</span>"));
+
+        assertEquals(Collections.singletonList("00ff00"), compact.getPalette());
+        assertEquals(compact.getOutput().get(0), compact.getOutput().get(1));
+    }
+
+    @Test
+    public void testOtherMarkupPassesThrough() throws Exception {
+        CompactOutput compact = new CompactOutput(new GameOutput(
+                "<table><tr><td>[cyan]1</td><td><span class='x'>[red]2</span></span></td></tr></table>"));
+
+        assertEquals(Collections.singletonList(Arrays.asList(
+                "<table><tr><td>", 13, "1</td><td><span class='x'>", 7, "2", 0, "</span></td></tr></table>")),
+                compact.getOutput());
+    }
+
+    @Test
+    public void testStrayCloseTagIsText() throws Exception {
+        CompactOutput compact = new CompactOutput(new GameOutput("done</span>"));
+
+        assertEquals(Collections.singletonList("done</span>"), compact.getOutput());
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        CompactOutput compact = new CompactOutput(new GameOutput("Plain.", "[red]Red."));
+
+        assertEquals("{\"v\":1,\"o\":[\"Plain.\",[7,\"Red.\"]]}", objectMapper.writeValueAsString(compact));
+    }
+
+    @Test
+    public void testMapShrinks() throws Exception {
+        GameOutput output = new GameOutput();
+
+        for (int y = 0; y < 25; y++) {
+            StringBuilder line = new StringBuilder();
+
+            for (int x = 0; x < 80; x++) {
+                line.append(String.format("<span style='color: #%06x'>[]</span>", x < 40 ? 0x228b22 : 0x1e90ff));
+            }
+
+            line.append("  [yellow]").append(y);
+            output.append(line.toString());
+        }
+
+        int json = objectMapper.writeValueAsBytes(output).length;
+        int compact = objectMapper.writeValueAsBytes(new CompactOutput(output)).length;
+
+        assertTrue(compact * 10 < json);
+    }
+}
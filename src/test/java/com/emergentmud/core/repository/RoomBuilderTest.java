@@ -31,8 +31,11 @@ import org.mockito.MockitoAnnotations;
 import org.mockito.Spy;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Random;
+import java.util.stream.Collectors;
 
 import static org.mockito.Mockito.*;
 import static org.junit.Assert.*;
@@ -139,6 +142,113 @@ public class RoomBuilderTest {
         assertNull(room);
     }
 
+    @Test
+    public void testGenerateRoomsExisting() throws Exception {
+        Room north = new Room();
+        Room northNorth = new Room();
+
+        north.setLocation(0L, 1L, 0L);
+        northNorth.setLocation(0L, 2L, 0L);
+
+        stubRoomDatabase(Arrays.asList(northNorth, north));
+
+        List<Room> rooms = roomBuilder.generateRooms(Arrays.asList(new long[] {0L, 1L, 0L}, new long[] {0L, 2L, 0L}));
+
+        assertEquals(Arrays.asList(north, northNorth), rooms);
+        verify(whittakerGridLocationRepository, never()).findAll();
+        verify(roomRepository, never()).save(anyListOf(Room.class));
+    }
+
+    @Test
+    public void testGenerateRoomsPartlyExisting() throws Exception {
+        Room origin = new Room();
+        Room north = new Room();
+
+        generateGridLocations(24);
+
+        origin.setLocation(0L, 0L, 0L);
+        origin.setElevation(5);
+        origin.setMoisture(5);
+        north.setLocation(0L, 1L, 0L);
+        north.setElevation(5);
+        north.setMoisture(5);
+
+        stubRoomDatabase(Arrays.asList(origin, north));
+
+        List<Room> rooms = roomBuilder.generateRooms(Arrays.asList(
+                new long[] {0L, 1L, 0L},
+                new long[] {0L, 2L, 0L},
+                new long[] {0L, 3L, 0L}));
+
+        assertEquals(3, rooms.size());
+        assertSame(north, rooms.get(0));
+        assertEquals(2L, (long)rooms.get(1).getY());
+        assertEquals(3L, (long)rooms.get(2).getY());
+        verify(roomRepository).save(eq(Arrays.asList(rooms.get(1), rooms.get(2))));
+        verify(roomRepository, never()).save(any(Room.class));
+    }
+
+    @Test
+    public void testGenerateRoomsIgnoresDistantRooms() throws Exception {
+        Room distant = new Room();
+
+        generateGridLocations(2);
+
+        distant.setLocation(0L, 3L, 0L);
+        distant.setElevation(20);
+        distant.setMoisture(20);
+
+        stubRoomDatabase(Arrays.asList(distant));
+
+        List<Room> rooms = roomBuilder.generateRooms(Arrays.asList(new long[] {0L, 1L, 0L}, new long[] {0L, 4L, 0L}));
+
+        assertEquals(1, rooms.size());
+        assertEquals(1L, (long)rooms.get(0).getY());
+        verify(roomRepository).save(eq(rooms));
+    }
+
+    @Test
+    public void testGenerateRoomsBatch() throws Exception {
+        generateGridLocations(24);
+
+        when(roomRepository.findByXBetweenAndYBetweenAndZBetween(anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong()))
+                .thenReturn(new ArrayList<>());
+
+        List<Room> rooms = roomBuilder.generateRooms(Arrays.asList(
+                new long[] {1L, 0L, 0L},
+                new long[] {2L, 0L, 0L},
+                new long[] {2L, 1L, 0L}));
+
+        assertEquals(3, rooms.size());
+        assertEquals(2L, (long)rooms.get(2).getX());
+        assertEquals(1L, (long)rooms.get(2).getY());
+        assertTrue(rooms.stream().allMatch(room -> room.getBiome() != null));
+        assertTrue(Math.abs(rooms.get(0).getElevation() - rooms.get(1).getElevation()) <= 1);
+        verify(whittakerGridLocationRepository).findAll();
+        verify(roomRepository, never()).findByXBetweenAndYBetweenAndZ(anyLong(), anyLong(), anyLong(), anyLong(), anyLong());
+        verify(roomRepository, never()).save(any(Room.class));
+        verify(roomRepository).save(eq(rooms));
+    }
+
+    @Test
+    public void testGenerateRoomsStopsAtInvalidRoom() throws Exception {
+        Room origin = new Room();
+
+        generateGridLocations(2);
+
+        origin.setLocation(0L, 0L, 0L);
+        origin.setElevation(5);
+        origin.setMoisture(5);
+
+        when(roomRepository.findByXBetweenAndYBetweenAndZBetween(anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong()))
+                .thenReturn(Collections.singletonList(origin));
+
+        List<Room> rooms = roomBuilder.generateRooms(Arrays.asList(new long[] {0L, 1L, 0L}, new long[] {0L, 5L, 0L}));
+
+        assertTrue(rooms.isEmpty());
+        verify(roomRepository, never()).save(anyListOf(Room.class));
+    }
+
     @Test
     public void testNeighborHigher() throws Exception {
         generateGridLocations(1);
@@ -260,6 +370,21 @@ public class RoomBuilderTest {
         assertNull(room.getWater());
     }
 
+    private void stubRoomDatabase(List<Room> database) {
+        // emulate Spring Data, whose "between" queries exclude both bounds
+        when(roomRepository.findByXBetweenAndYBetweenAndZBetween(anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong()))
+                .thenAnswer(invocation -> {
+                    Object[] bounds = invocation.getArguments();
+
+                    return database
+                            .stream()
+                            .filter(room -> (Long)bounds[0] < room.getX() && room.getX() < (Long)bounds[1]
+                                    && (Long)bounds[2] < room.getY() && room.getY() < (Long)bounds[3]
+                                    && (Long)bounds[4] < room.getZ() && room.getZ() < (Long)bounds[5])
+                            .collect(Collectors.toList());
+                });
+    }
+
     private void generateGridLocations(int count) {
         whittakerGridLocations.clear();
 
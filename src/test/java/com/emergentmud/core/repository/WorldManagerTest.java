@@ -22,6 +22,8 @@ package com.emergentmud.core.repository;
 
 import com.emergentmud.core.model.Entity;
 import com.emergentmud.core.model.room.Room;
+import com.emergentmud.core.service.MapService;
+import com.emergentmud.core.service.PresenceService;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
@@ -40,6 +42,12 @@ public class WorldManagerTest {
     @Mock
     private RoomRepository roomRepository;
 
+    @Mock
+    private PresenceService presenceService;
+
+    @Mock
+    private MapService mapService;
+
     @Mock
     private Room room;
 
@@ -51,7 +59,7 @@ public class WorldManagerTest {
 
         when(entityRepository.save(any(Entity.class))).thenAnswer(invocation -> invocation.getArguments()[0]);
 
-        worldManager = new WorldManager(entityRepository, roomRepository);
+        worldManager = new WorldManager(entityRepository, roomRepository, presenceService, mapService);
     }
 
     @Test
@@ -79,13 +87,34 @@ public class WorldManagerTest {
         when(roomRepository.findByXAndYAndZ(eq(2L), eq(1L), eq(3L))).thenReturn(room);
         when(entityRepository.findByRoom(eq(room))).thenReturn(contents);
 
-        entity.setRoom(mock(Room.class));
+        Room origin = mock(Room.class);
+
+        entity.setRoom(origin);
 
         Room result = worldManager.put(entity, 2L, 1L, 3L);
 
         assertNotNull(result);
         verify(entityRepository).save(eq(entity));
         verify(entity).setRoom(eq(room));
+        verify(presenceService).enter(eq(entity), eq(room));
+        verify(mapService).update(eq(entity), eq(origin), eq(room));
+    }
+
+    @Test
+    public void testPutRoom() throws Exception {
+        Entity entity = mock(Entity.class);
+
+        when(entity.getRoom()).thenCallRealMethod();
+        doCallRealMethod().when(entity).setRoom(any(Room.class));
+
+        Room result = worldManager.put(entity, room);
+
+        assertEquals(room, result);
+        assertEquals(room, entity.getRoom());
+        verify(entityRepository, times(1)).save(eq(entity));
+        verify(presenceService).enter(eq(entity), eq(room));
+        verify(mapService).update(eq(entity), isNull(Room.class), eq(room));
+        verifyZeroInteractions(roomRepository);
     }
 
     @Test(expected = IllegalArgumentException.class)
@@ -99,7 +128,12 @@ public class WorldManagerTest {
         when(room.getZ()).thenReturn(3L);
         when(entityRepository.findByRoom(eq(room))).thenReturn(contents);
 
-        worldManager.put(entity, 2L, 1L, 3L);
+        try {
+            worldManager.put(entity, 2L, 1L, 3L);
+        } finally {
+            verifyZeroInteractions(presenceService);
+            verifyZeroInteractions(mapService);
+        }
 
         fail("Required exception was not thrown.");
     }
@@ -122,6 +156,7 @@ public class WorldManagerTest {
 
         verify(entityRepository).save(eq(entity));
         verify(entity).setRoom(eq(room));
+        verify(presenceService).enter(eq(entity), eq(room));
     }
 
     @Test
@@ -141,6 +176,7 @@ public class WorldManagerTest {
 
         verify(entityRepository).save(eq(entity));
         verify(entity).setRoom(null);
+        verify(presenceService).leave(eq(entity));
     }
 
     @Test
@@ -150,6 +186,7 @@ public class WorldManagerTest {
         worldManager.remove(entity);
 
         verify(entity).getRoom();
+        verify(presenceService).leave(eq(entity));
         verifyZeroInteractions(entityRepository);
     }
 
@@ -168,5 +205,6 @@ public class WorldManagerTest {
 
         verify(entityRepository).save(eq(entity));
         verify(entity).setRoom(null);
+        verify(presenceService).leave(eq(entity));
     }
 }
@@ -23,6 +23,8 @@ package com.emergentmud.core.repository.loader;
 import com.emergentmud.core.model.CommandMetadata;
 import com.emergentmud.core.repository.CapabilityRepository;
 import com.emergentmud.core.repository.CommandMetadataRepository;
+import com.emergentmud.core.service.CapabilityService;
+import com.emergentmud.core.service.CommandService;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
@@ -42,9 +44,15 @@ public class CommandLoaderTest {
     @Mock
     private CapabilityRepository capabilityRepository;
 
+    @Mock
+    private CapabilityService capabilityService;
+
     @Mock
     private CommandMetadataRepository commandMetadataRepository;
 
+    @Mock
+    private CommandService commandService;
+
     @Captor
     private ArgumentCaptor<List<CommandMetadata>> metadataCaptor;
 
@@ -61,7 +69,7 @@ public class CommandLoaderTest {
             return metadataList;
         });
 
-        commandLoader = new CommandLoader(commandMetadataRepository, capabilityRepository);
+        commandLoader = new CommandLoader(commandMetadataRepository, capabilityRepository, capabilityService, commandService);
     }
 
     @Test
@@ -71,6 +79,8 @@ public class CommandLoaderTest {
         commandLoader.loadCommands();
 
         verify(commandMetadataRepository).save(metadataCaptor.capture());
+        verify(capabilityService).reload();
+        verify(commandService).reload();
 
         List<CommandMetadata> metadataList = metadataCaptor.getValue();
 
@@ -89,5 +99,7 @@ public class CommandLoaderTest {
         commandLoader.loadCommands();
 
         verify(commandMetadataRepository, never()).save(anyCollectionOf(CommandMetadata.class));
+        verify(capabilityService).reload();
+        verify(commandService).reload();
     }
 }
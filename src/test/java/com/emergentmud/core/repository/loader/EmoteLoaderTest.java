@@ -22,6 +22,7 @@ package com.emergentmud.core.repository.loader;
 
 import com.emergentmud.core.model.EmoteMetadata;
 import com.emergentmud.core.repository.EmoteMetadataRepository;
+import com.emergentmud.core.service.EmoteService;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
@@ -39,6 +40,9 @@ public class EmoteLoaderTest {
     @Mock
     private EmoteMetadataRepository emoteMetadataRepository;
 
+    @Mock
+    private EmoteService emoteService;
+
     @Captor
     private ArgumentCaptor<List<EmoteMetadata>> emoteMetadataListCaptor;
 
@@ -48,7 +52,7 @@ public class EmoteLoaderTest {
     public void setUp() throws Exception {
         MockitoAnnotations.initMocks(this);
 
-        emoteLoader = new EmoteLoader(emoteMetadataRepository);
+        emoteLoader = new EmoteLoader(emoteMetadataRepository, emoteService);
     }
 
     @Test
@@ -59,6 +63,7 @@ public class EmoteLoaderTest {
 
         verify(emoteMetadataRepository).count();
         verify(emoteMetadataRepository).save(emoteMetadataListCaptor.capture());
+        verify(emoteService).reload();
 
         List<EmoteMetadata> emoteMetadata = emoteMetadataListCaptor.getValue();
 
@@ -78,6 +83,7 @@ public class EmoteLoaderTest {
         emoteLoader.loadEmotes();
 
         verify(emoteMetadataRepository).count();
+        verify(emoteService).reload();
         verifyNoMoreInteractions(emoteMetadataRepository);
     }
 }
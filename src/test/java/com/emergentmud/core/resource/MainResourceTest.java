@@ -21,6 +21,7 @@
 package com.emergentmud.core.resource;
 
 import com.emergentmud.core.command.Command;
+import com.emergentmud.core.command.CommandRegistry;
 import com.emergentmud.core.command.Emote;
 import com.emergentmud.core.exception.NoAccountException;
 import com.emergentmud.core.model.Account;
@@ -42,14 +43,15 @@ import com.emergentmud.core.repository.EntityRepository;
 import com.emergentmud.core.repository.RoomBuilder;
 import com.emergentmud.core.repository.WorldManager;
 import com.emergentmud.core.resource.model.PlayRequest;
+import com.emergentmud.core.service.CrowdService;
 import com.emergentmud.core.service.EntityService;
+import com.emergentmud.core.service.PlayerSessionService;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.springframework.context.ApplicationContext;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.provider.OAuth2Authentication;
 import org.springframework.security.web.authentication.logout.SecurityContextLogoutHandler;
@@ -76,7 +78,7 @@ public class MainResourceTest {
     private static final String ACCOUNT_ID = "1234567890";
 
     @Mock
-    private ApplicationContext applicationContext;
+    private CommandRegistry commandRegistry;
 
     @Mock
     private SecurityContextLogoutHandler securityContextLogoutHandler;
@@ -105,6 +107,12 @@ public class MainResourceTest {
     @Mock
     private EntityService entityService;
 
+    @Mock
+    private PlayerSessionService playerSessionService;
+
+    @Mock
+    private CrowdService crowdService;
+
     @Mock
     private Emote emote;
 
@@ -194,7 +202,7 @@ public class MainResourceTest {
         when(capabilityRepository.findByObjectAndScope(eq(CapabilityObject.ENTITY), eq(CapabilityScope.ADMINISTRATOR))).thenReturn(Collections.singletonList(adminCapability));
 
         mainResource = new MainResource(
-                applicationContext,
+                commandRegistry,
                 socialNetworks,
                 securityContextLogoutHandler,
                 accountRepository,
@@ -205,6 +213,9 @@ public class MainResourceTest {
                 roomBuilder,
                 worldManager,
                 entityService,
+                playerSessionService,
+                crowdService,
+                20,
                 emote
         );
     }
@@ -484,21 +495,18 @@ public class MainResourceTest {
         String view = mainResource.play(playRequest, httpSession, httpServletRequest, principal, model);
 
         verify(roomBuilder, never()).generateRoom(eq(0L), eq(0L), eq(0L));
-        verify(entityService).sendMessageToRoom(any(Room.class), any(Entity.class), outputCaptor.capture());
+        verify(crowdService).announceLogin(any(Room.class), eq(entity));
         verify(worldManager).put(eq(entity), eq(0L), eq(0L), eq(0L));
         verify(httpSession).setAttribute(anyString(), mapCaptor.capture());
         verify(model).addAttribute(eq("breadcrumb"), anyString());
         verify(model).addAttribute(eq("account"), eq(account));
         verify(model).addAttribute(eq("entity"), eq(entity));
+        verify(model).addAttribute(eq("commandBurst"), eq(20));
         verify(entity).setLastLoginDate(anyLong());
         verify(entity).setRemoteAddr(anyString());
         verify(entity).setUserAgent(anyString());
         assertEquals("play", view);
 
-        GameOutput output = outputCaptor.getValue();
-
-        assertTrue(output.getOutput().get(0).startsWith("[yellow]"));
-
         Map<String, String> sessionMap = mapCaptor.getValue();
 
         assertEquals(account.getId(), sessionMap.get("account"));
@@ -512,12 +520,13 @@ public class MainResourceTest {
         String view = mainResource.play(playRequest, httpSession, httpServletRequest, principal, model);
 
         verify(roomBuilder).generateRoom(eq(0L), eq(0L), eq(0L));
-        verify(entityService).sendMessageToRoom(any(Room.class), any(Entity.class), outputCaptor.capture());
+        verify(crowdService).announceLogin(any(Room.class), eq(entity));
         verify(worldManager).put(eq(entity), eq(0L), eq(0L), eq(0L));
         verify(httpSession).setAttribute(anyString(), mapCaptor.capture());
         verify(model).addAttribute(eq("breadcrumb"), anyString());
         verify(model).addAttribute(eq("account"), eq(account));
         verify(model).addAttribute(eq("entity"), eq(entity));
+        verify(model).addAttribute(eq("commandBurst"), eq(20));
         assertEquals("play", view);
 
         Map<String, String> sessionMap = mapCaptor.getValue();
@@ -585,11 +594,13 @@ public class MainResourceTest {
         String view = mainResource.play(playRequest, httpSession, httpServletRequest, principal, model);
 
         verify(entityService).sendMessageToEntity(any(Entity.class), outputCaptor.capture());
+        verify(playerSessionService).unbindEntity(eq(entity.getId()));
         verify(worldManager).put(any(Entity.class), eq(0L), eq(0L), eq(0L));
         verify(httpSession).setAttribute(anyString(), mapCaptor.capture());
         verify(model).addAttribute(eq("breadcrumb"), anyString());
         verify(model).addAttribute(eq("account"), eq(account));
         verify(model).addAttribute(eq("entity"), eq(entity));
+        verify(model).addAttribute(eq("commandBurst"), eq(20));
         assertEquals("play", view);
 
         GameOutput output = outputCaptor.getValue();
@@ -607,7 +618,7 @@ public class MainResourceTest {
 
         verifyZeroInteractions(httpSession);
         verify(commandMetadataRepository).findAll();
-        verify(applicationContext, times(5)).getBean(startsWith("command"));
+        verify(commandRegistry, times(5)).getCommand(startsWith("command"));
         verify(model).addAttribute(eq("metadataList"), anyListOf(CommandMetadata.class));
         verify(model).addAttribute(eq("commandMap"), anyMapOf(String.class, Command.class));
 
@@ -629,7 +640,7 @@ public class MainResourceTest {
 
         verify(httpSession).getAttribute(eq("social"));
         verify(commandMetadataRepository).findAll();
-        verify(applicationContext, times(5)).getBean(startsWith("command"));
+        verify(commandRegistry, times(5)).getCommand(startsWith("command"));
         verify(model).addAttribute(eq("metadataList"), anyListOf(CommandMetadata.class));
         verify(model).addAttribute(eq("commandMap"), anyMapOf(String.class, Command.class));
 
@@ -653,7 +664,7 @@ public class MainResourceTest {
 
         verify(httpSession).getAttribute(eq("social"));
         verify(commandMetadataRepository).findAll();
-        verify(applicationContext, times(5)).getBean(startsWith("command"));
+        verify(commandRegistry, times(5)).getCommand(startsWith("command"));
         verify(model).addAttribute(eq("metadataList"), anyListOf(CommandMetadata.class));
         verify(model).addAttribute(eq("commandMap"), anyMapOf(String.class, Command.class));
 
@@ -825,7 +836,7 @@ public class MainResourceTest {
                 when(metadata.getCapability()).thenReturn(normalCapability);
             }
 
-            when(applicationContext.getBean(eq(metadata.getBeanName()))).thenReturn(command);
+            when(commandRegistry.getCommand(eq(metadata.getBeanName()))).thenReturn(command);
 
             commandMetadata.add(metadata);
         }
@@ -0,0 +1,93 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.resource;
+
+import com.emergentmud.core.model.Entity;
+import com.emergentmud.core.model.room.Room;
+import com.emergentmud.core.model.stomp.MapFrame;
+import com.emergentmud.core.repository.EntityRepository;
+import com.emergentmud.core.service.MapService;
+import com.emergentmud.core.service.PlayerSessionService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class MapResourceTest {
+    @Mock
+    private EntityRepository entityRepository;
+
+    @Mock
+    private MapService mapService;
+
+    @Mock
+    private Entity entity;
+
+    @Mock
+    private Room room;
+
+    @Mock
+    private MapFrame frame;
+
+    private PlayerSessionService playerSessionService;
+
+    private MapResource mapResource;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+
+        when(entity.getId()).thenReturn("entity");
+        when(entity.getRoom()).thenReturn(room);
+        when(mapService.render(eq(room))).thenReturn(frame);
+
+        playerSessionService = new PlayerSessionService(entityRepository, false);
+        mapResource = new MapResource(playerSessionService, mapService);
+    }
+
+    @Test
+    public void testOnSubscribe() throws Exception {
+        playerSessionService.bind("simpSessionId", "user", "breadcrumb", "account", entity);
+
+        assertEquals(frame, mapResource.onSubscribe("simpSessionId", "sub-1"));
+        assertTrue(playerSessionService.getSession("simpSessionId").get().isMapSubscribed());
+        assertEquals("sub-1", playerSessionService.getSession("simpSessionId").get().getMapSubscriptionId());
+    }
+
+    @Test
+    public void testOnSubscribeInVoid() throws Exception {
+        playerSessionService.bind("simpSessionId", "user", "breadcrumb", "account", entity);
+
+        when(entity.getRoom()).thenReturn(null);
+
+        assertNull(mapResource.onSubscribe("simpSessionId", null));
+        assertTrue(playerSessionService.getSession("simpSessionId").get().isMapSubscribed());
+    }
+
+    @Test
+    public void testOnSubscribeWithoutSession() throws Exception {
+        assertNull(mapResource.onSubscribe("simpSessionId", null));
+        verifyZeroInteractions(mapService);
+    }
+}
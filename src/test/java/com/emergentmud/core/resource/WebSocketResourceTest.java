@@ -21,25 +21,44 @@
 package com.emergentmud.core.resource;
 
 import com.emergentmud.core.command.Command;
+import com.emergentmud.core.command.CommandHandle;
+import com.emergentmud.core.command.CommandRegistry;
 import com.emergentmud.core.command.Emote;
 import com.emergentmud.core.command.PromptBuilder;
+import com.emergentmud.core.command.TokenizedInput;
 import com.emergentmud.core.model.Capability;
 import com.emergentmud.core.model.CommandMetadata;
 import com.emergentmud.core.model.CommandRole;
 import com.emergentmud.core.model.EmoteMetadata;
 import com.emergentmud.core.model.Entity;
+import com.emergentmud.core.model.OutputFormat;
+import com.emergentmud.core.model.PlayerSession;
 import com.emergentmud.core.model.room.Room;
 import com.emergentmud.core.model.stomp.GameOutput;
 import com.emergentmud.core.model.stomp.UserInput;
-import com.emergentmud.core.repository.CapabilityRepository;
 import com.emergentmud.core.repository.CommandMetadataRepository;
 import com.emergentmud.core.repository.EmoteMetadataRepository;
 import com.emergentmud.core.repository.EntityRepository;
+import com.emergentmud.core.service.AdmissionService;
+import com.emergentmud.core.service.CapabilityService;
+import com.emergentmud.core.service.ChannelService;
+import com.emergentmud.core.service.CommandService;
+import com.emergentmud.core.service.EmoteService;
+import com.emergentmud.core.service.EntityService;
+import com.emergentmud.core.service.MailboxService;
+import com.emergentmud.core.service.OutputService;
+import com.emergentmud.core.service.PlayerSessionService;
+import com.emergentmud.core.service.PresenceService;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.springframework.context.ApplicationContext;
+import org.springframework.boot.actuate.metrics.CounterService;
+import org.springframework.boot.actuate.metrics.GaugeService;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.support.ExecutorServiceAdapter;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.oauth2.provider.OAuth2Authentication;
 import org.springframework.security.oauth2.provider.authentication.OAuth2AuthenticationDetails;
@@ -47,9 +66,12 @@ import org.springframework.session.Session;
 import org.springframework.session.SessionRepository;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.mockito.Mockito.*;
@@ -64,7 +86,7 @@ public class WebSocketResourceTest {
     private static final String ENTITY_ID = UUID.randomUUID().toString();
 
     @Mock
-    private ApplicationContext applicationContext;
+    private CommandRegistry commandRegistry;
 
     @Mock
     private SessionRepository sessionRepository;
@@ -79,11 +101,35 @@ public class WebSocketResourceTest {
     private EmoteMetadataRepository emoteMetadataRepository;
 
     @Mock
-    private CapabilityRepository capabilityRepository;
+    private CapabilityService capabilityService;
 
     @Mock
     private PromptBuilder promptBuilder;
 
+    @Mock
+    private EntityService entityService;
+
+    @Mock
+    private CounterService counterService;
+
+    @Mock
+    private GaugeService gaugeService;
+
+    @Mock
+    private AdmissionService admissionService;
+
+    @Mock
+    private OutputService outputService;
+
+    @Mock
+    private PresenceService presenceService;
+
+    @Mock
+    private ChannelService channelService;
+
+    @Captor
+    private ArgumentCaptor<GameOutput> outputCaptor;
+
     @Mock
     private Emote emote;
 
@@ -96,9 +142,6 @@ public class WebSocketResourceTest {
     @Mock
     private Session httpSession;
 
-    @Mock
-    private Capability superCapability;
-
     @Mock
     private Capability emoteCapability;
 
@@ -135,6 +178,9 @@ public class WebSocketResourceTest {
     private Map<String, String> sessionMap;
     private List<CommandMetadata> commandList;
     private List<EmoteMetadata> emoteList;
+    private CommandService commandService;
+    private EmoteService emoteService;
+    private PlayerSessionService playerSessionService;
 
     private WebSocketResource webSocketResource;
 
@@ -154,20 +200,21 @@ public class WebSocketResourceTest {
 
         when(principal.getDetails()).thenReturn(oauth2Details);
         when(principal.getName()).thenReturn(PRINCIPAL_USER);
+        when(entity.getId()).thenReturn(ENTITY_ID);
         when(entity.getStompUsername()).thenReturn(PRINCIPAL_USER);
         when(entity.getStompSessionId()).thenReturn("simpSessionId");
         when(entity.getRoom()).thenReturn(room);
         when(entity.getName()).thenReturn("Player");
-        when(entity.isCapable(eq(seeCapability))).thenReturn(true);
-        when(entity.isCapable(eq(talkCapability))).thenReturn(true);
-        when(entity.isCapable(eq(emoteCapability))).thenReturn(true);
+        when(capabilityService.isCapable(eq(entity), eq(seeCapability))).thenReturn(true);
+        when(capabilityService.isCapable(eq(entity), eq(talkCapability))).thenReturn(true);
+        when(capabilityService.hasCapability(eq(entity), eq(emoteCapability))).thenReturn(true);
         when(target.getName()).thenReturn("Target");
         when(observer.getName()).thenReturn("Observer");
         when(oauth2Details.getSessionId()).thenReturn(httpSessionId);
         when(httpSession.getAttribute(eq(breadcrumb))).thenReturn(sessionMap);
         when(sessionRepository.getSession(eq(httpSessionId))).thenReturn(httpSession);
         when(entityRepository.findOne(eq(ENTITY_ID))).thenReturn(entity);
-        when(entityRepository.findByRoom(eq(room))).thenReturn(roomContents);
+        when(presenceService.getOccupants(eq(room))).thenReturn(roomContents);
         when(entityRepository.save(any(Entity.class))).thenAnswer(invocation -> {
             Entity entity = (Entity)invocation.getArguments()[0];
 
@@ -177,9 +224,11 @@ public class WebSocketResourceTest {
         });
         when(commandMetadataRepository.findAll(any(Sort.class))).thenReturn(commandList);
         when(emoteMetadataRepository.findAll(any(Sort.class))).thenReturn(emoteList);
-        when(capabilityRepository.findByName(eq(CommandRole.SUPER.name()))).thenReturn(superCapability);
-        when(capabilityRepository.findByName(eq(CommandRole.EMOTE.name()))).thenReturn(emoteCapability);
-        when(applicationContext.getBean(anyString())).thenReturn(mockCommand);
+        when(capabilityService.getCapability(eq(CommandRole.EMOTE))).thenReturn(emoteCapability);
+        when(commandRegistry.getCommand(anyString())).thenReturn(mockCommand);
+        when(admissionService.admit(any(PlayerSession.class), anyInt())).thenReturn(true);
+        when(admissionService.isAllowed(any(CommandHandle.class))).thenReturn(true);
+        when(admissionService.isEmoteAllowed()).thenReturn(true);
         when(mockCommand.execute(any(), any(), any(), any(), any())).thenAnswer(invocation -> {
             GameOutput output = (GameOutput)invocation.getArguments()[0];
 
@@ -187,21 +236,60 @@ public class WebSocketResourceTest {
 
             return output;
         });
+        when(mockCommand.execute(any(GameOutput.class), any(Entity.class), any(TokenizedInput.class))).thenAnswer(invocation -> {
+            TokenizedInput tokenizedInput = (TokenizedInput)invocation.getArguments()[2];
+
+            return mockCommand.execute(
+                    (GameOutput)invocation.getArguments()[0],
+                    (Entity)invocation.getArguments()[1],
+                    tokenizedInput.getCommand(),
+                    tokenizedInput.getTokens(),
+                    tokenizedInput.getRaw());
+        });
         doAnswer(invocation -> {
             GameOutput message = invocation.getArgumentAt(0, GameOutput.class);
             message.append("").append("[red]UnitTest> ");
             return null;
         }).when(promptBuilder).appendPrompt(any(GameOutput.class));
 
-        webSocketResource = new WebSocketResource(
+        when(commandRegistry.resolve(any(CommandMetadata.class))).thenAnswer(invocation ->
+                Optional.of(new CommandHandle((CommandMetadata)invocation.getArguments()[0], mockCommand)));
+
+        commandService = new CommandService(commandMetadataRepository, commandRegistry);
+        emoteService = new EmoteService(emoteMetadataRepository);
+
+        commandService.reload();
+        emoteService.reload();
+
+        webSocketResource = createWebSocketResource(false, 32);
+        playerSessionService.bind(simpSessionId, PRINCIPAL_USER, breadcrumb, ACCOUNT_ID, entity);
+    }
+
+    private WebSocketResource createWebSocketResource(boolean sessionValidate, int mailboxDepth) {
+        playerSessionService = new PlayerSessionService(entityRepository, sessionValidate);
+
+        MailboxService mailboxService = new MailboxService(
+                new ExecutorServiceAdapter(new SyncTaskExecutor()),
+                mailboxDepth,
+                counterService,
+                gaugeService);
+
+        return new WebSocketResource(
                 APPLICATION_VERSION,
                 APPLICATION_BOOT_DATE,
-                applicationContext,
                 sessionRepository,
                 entityRepository,
-                commandMetadataRepository,
-                emoteMetadataRepository,
-                capabilityRepository,
+                commandService,
+                commandRegistry,
+                emoteService,
+                capabilityService,
+                playerSessionService,
+                entityService,
+                mailboxService,
+                admissionService,
+                outputService,
+                presenceService,
+                channelService,
                 promptBuilder,
                 emote
         );
@@ -209,11 +297,31 @@ public class WebSocketResourceTest {
 
     @Test
     public void testOnSubscribe() throws Exception {
-        GameOutput output = webSocketResource.onSubscribe(principal, breadcrumb, simpSessionId);
+        GameOutput output = webSocketResource.onSubscribe(principal, breadcrumb, simpSessionId, "sub-0", null);
 
         verify(entity).setStompUsername(eq(PRINCIPAL_USER));
         verify(entity).setStompSessionId(eq("simpSessionId"));
         assertEquals(18, output.getOutput().size());
+        assertEquals(entity, playerSessionService.getSession(simpSessionId).get().getEntity());
+        assertEquals("sub-0", playerSessionService.getSession(simpSessionId).get().getSubscriptionId());
+        assertEquals(OutputFormat.JSON, playerSessionService.getSession(simpSessionId).get().getOutputFormat());
+        verify(presenceService).refresh(eq(entity));
+        verify(channelService).appendHistory(eq(output), eq(entity));
+    }
+
+    @Test
+    public void testOnSubscribeCompactFormat() throws Exception {
+        webSocketResource.onSubscribe(principal, breadcrumb, simpSessionId, "sub-0", "compact-1");
+
+        assertEquals(OutputFormat.COMPACT, playerSessionService.getSession(simpSessionId).get().getOutputFormat());
+    }
+
+    @Test
+    public void testOnSubscribeEvictsPreviousSession() throws Exception {
+        webSocketResource.onSubscribe(principal, breadcrumb, "newSimpSessionId", "sub-0", null);
+
+        assertFalse(playerSessionService.getSession(simpSessionId).isPresent());
+        assertTrue(playerSessionService.getSession("newSimpSessionId").isPresent());
     }
 
     @Test
@@ -222,10 +330,10 @@ public class WebSocketResourceTest {
 
         when(input.getInput()).thenReturn("");
 
-        GameOutput output = webSocketResource.onInput(input, principal, breadcrumb, simpSessionId);
+        GameOutput output = sendInput(input);
 
-        verify(applicationContext, never()).getBean(anyString());
-        assertEquals("", output.getOutput().get(0));
+        verify(mockCommand, never()).execute(any(GameOutput.class), any(Entity.class), any(TokenizedInput.class));
+        assertTrue(output.getOutput().isEmpty());
     }
 
     @Test
@@ -234,9 +342,9 @@ public class WebSocketResourceTest {
 
         when(input.getInput()).thenReturn("look");
 
-        GameOutput output = webSocketResource.onInput(input, principal, breadcrumb, simpSessionId);
+        GameOutput output = sendInput(input);
 
-        verify(applicationContext).getBean(eq("lookCommand"));
+        verify(mockCommand).execute(any(GameOutput.class), eq(entity), eq("look"), eq(new String[0]), eq(""));
         assertEquals("[green]Test output.", output.getOutput().get(0));
     }
 
@@ -246,10 +354,10 @@ public class WebSocketResourceTest {
 
         when(input.getInput()).thenReturn("wink");
 
-        GameOutput output = webSocketResource.onInput(input, principal, breadcrumb, simpSessionId);
+        GameOutput output = sendInput(input);
 
-        verify(applicationContext, never()).getBean(anyString());
-        verify(emoteMetadataRepository).findAll(any(Sort.class));
+        verify(mockCommand, never()).execute(any(GameOutput.class), any(Entity.class), any(TokenizedInput.class));
+        verify(emoteMetadataRepository, times(1)).findAll(any(Sort.class));
         verify(emote).execute(eq(output), any(EmoteMetadata.class), eq(entity), eq(new String[0]));
     }
 
@@ -259,9 +367,9 @@ public class WebSocketResourceTest {
 
         when(input.getInput()).thenReturn("info");
 
-        GameOutput output = webSocketResource.onInput(input, principal, breadcrumb, simpSessionId);
+        GameOutput output = sendInput(input);
 
-        verify(applicationContext, never()).getBean(anyString());
+        verify(mockCommand, never()).execute(any(GameOutput.class), any(Entity.class), any(TokenizedInput.class));
         assertEquals("Huh?", output.getOutput().get(0));
     }
 
@@ -269,12 +377,11 @@ public class WebSocketResourceTest {
     public void testOnInputIsAnAdmin() throws Exception {
         UserInput input = mock(UserInput.class);
 
-        when(entity.isCapable(eq(dataCapability))).thenReturn(true);
+        when(capabilityService.isCapable(eq(entity), eq(dataCapability))).thenReturn(true);
         when(input.getInput()).thenReturn("info");
 
-        GameOutput output = webSocketResource.onInput(input, principal, breadcrumb, simpSessionId);
+        GameOutput output = sendInput(input);
 
-        verify(applicationContext).getBean(eq("infoCommand"));
         verify(mockCommand).execute(any(GameOutput.class), eq(entity), eq("info"), eq(new String[] {}), eq(""));
         assertEquals("[green]Test output.", output.getOutput().get(0));
     }
@@ -285,9 +392,8 @@ public class WebSocketResourceTest {
 
         when(input.getInput()).thenReturn("say I love EmergentMUD!");
 
-        GameOutput output = webSocketResource.onInput(input, principal, breadcrumb, simpSessionId);
+        GameOutput output = sendInput(input);
 
-        verify(applicationContext).getBean(eq("sayCommand"));
         verify(mockCommand).execute(
                 any(GameOutput.class),
                 any(Entity.class),
@@ -302,26 +408,82 @@ public class WebSocketResourceTest {
     public void testOnInputUnknownCommand() throws Exception {
         UserInput input = mock(UserInput.class);
 
-        when(applicationContext.getBean(anyString())).thenReturn(null);
         when(input.getInput()).thenReturn("flarg");
 
-        GameOutput output = webSocketResource.onInput(input, principal, breadcrumb, simpSessionId);
+        GameOutput output = sendInput(input);
 
-        verify(applicationContext, never()).getBean(anyString());
-        assertEquals(3, output.getOutput().size());
+        verify(mockCommand, never()).execute(any(GameOutput.class), any(Entity.class), any(TokenizedInput.class));
+        assertEquals(1, output.getOutput().size());
         assertEquals("Huh?", output.getOutput().get(0));
     }
 
+    @Test
+    public void testOnInputDoesNotLoadEntity() throws Exception {
+        UserInput input = mock(UserInput.class);
+
+        when(input.getInput()).thenReturn("look");
+
+        webSocketResource.onInput(input, principal, breadcrumb, simpSessionId);
+
+        verify(entityRepository, never()).findOne(anyString());
+        verify(sessionRepository, never()).getSession(anyString());
+    }
+
+    @Test
+    public void testOnInputUnboundSession() throws Exception {
+        UserInput input = mock(UserInput.class);
+
+        when(input.getInput()).thenReturn("look");
+
+        GameOutput output = webSocketResource.onInput(input, principal, breadcrumb, "unknownSimpSessionId");
+
+        verify(mockCommand, never()).execute(any(GameOutput.class), any(Entity.class), any(TokenizedInput.class));
+        assertEquals(1, output.getOutput().size());
+        assertTrue(output.getOutput().get(0).startsWith("[red]"));
+    }
+
+    @Test
+    public void testOnInputWrongBreadcrumb() throws Exception {
+        UserInput input = mock(UserInput.class);
+
+        when(input.getInput()).thenReturn("look");
+
+        GameOutput output = webSocketResource.onInput(input, principal, UUID.randomUUID().toString(), simpSessionId);
+
+        verify(mockCommand, never()).execute(any(GameOutput.class), any(Entity.class), any(TokenizedInput.class));
+        assertEquals(1, output.getOutput().size());
+        assertTrue(output.getOutput().get(0).startsWith("[red]"));
+    }
+
+    @Test
+    public void testOnInputValidated() throws Exception {
+        UserInput input = mock(UserInput.class);
+
+        webSocketResource = createWebSocketResource(true, 32);
+        playerSessionService.bind(simpSessionId, PRINCIPAL_USER, breadcrumb, ACCOUNT_ID, entity);
+
+        when(input.getInput()).thenReturn("look");
+
+        GameOutput output = sendInput(input);
+
+        verify(entityRepository).findOne(eq(ENTITY_ID));
+        verify(mockCommand).execute(any(GameOutput.class), eq(entity), eq("look"), eq(new String[0]), eq(""));
+        assertEquals("[green]Test output.", output.getOutput().get(0));
+    }
+
     @Test
     public void testOnInputNoEntity() throws Exception {
         UserInput input = mock(UserInput.class);
 
+        webSocketResource = createWebSocketResource(true, 32);
+        playerSessionService.bind(simpSessionId, PRINCIPAL_USER, breadcrumb, ACCOUNT_ID, entity);
+
         when(input.getInput()).thenReturn("look");
         when(entityRepository.findOne(anyString())).thenReturn(null);
 
         GameOutput output = webSocketResource.onInput(input, principal, breadcrumb, simpSessionId);
 
-        verify(applicationContext, never()).getBean(anyString());
+        verify(mockCommand, never()).execute(any(GameOutput.class), any(Entity.class), any(TokenizedInput.class));
         assertEquals(1, output.getOutput().size());
         assertTrue(output.getOutput().get(0).startsWith("[red]"));
     }
@@ -330,14 +492,117 @@ public class WebSocketResourceTest {
     public void testOnInputInvalidSession() throws Exception {
         UserInput input = mock(UserInput.class);
 
+        webSocketResource = createWebSocketResource(true, 32);
+        playerSessionService.bind(simpSessionId, PRINCIPAL_USER, breadcrumb, ACCOUNT_ID, entity);
+
         when(input.getInput()).thenReturn("look");
         when(entity.getStompSessionId()).thenReturn(UUID.randomUUID().toString());
 
         GameOutput output = webSocketResource.onInput(input, principal, breadcrumb, simpSessionId);
 
-        verify(applicationContext, never()).getBean(anyString());
+        verify(mockCommand, never()).execute(any(GameOutput.class), any(Entity.class), any(TokenizedInput.class));
         assertEquals(1, output.getOutput().size());
         assertTrue(output.getOutput().get(0).startsWith("[red]"));
+        assertFalse(playerSessionService.getSession(simpSessionId).isPresent());
+    }
+
+    @Test
+    public void testOnInputMailboxFull() throws Exception {
+        UserInput input = mock(UserInput.class);
+
+        webSocketResource = createWebSocketResource(false, 0);
+        playerSessionService.bind(simpSessionId, PRINCIPAL_USER, breadcrumb, ACCOUNT_ID, entity);
+
+        when(input.getInput()).thenReturn("look");
+
+        GameOutput output = webSocketResource.onInput(input, principal, breadcrumb, simpSessionId);
+
+        verify(mockCommand, never()).execute(any(GameOutput.class), any(Entity.class), any(TokenizedInput.class));
+        verify(entityService, never()).sendMessageToEntity(any(Entity.class), any(GameOutput.class));
+        verify(counterService).increment(eq("mailbox.rejected"));
+        assertTrue(output.getOutput().get(0).startsWith("[red]"));
+    }
+
+    @Test
+    public void testOnInputMultipleCommands() throws Exception {
+        UserInput input = mock(UserInput.class);
+
+        when(input.getCommands()).thenReturn(Arrays.asList("look", "wink", "look"));
+
+        GameOutput output = sendInput(input);
+
+        verify(admissionService).admit(any(PlayerSession.class), eq(3));
+        verify(mockCommand, times(2)).execute(any(GameOutput.class), eq(entity), eq("look"), eq(new String[0]), eq(""));
+        verify(emote).execute(eq(output), any(EmoteMetadata.class), eq(entity), eq(new String[0]));
+        verify(input, never()).getInput();
+        assertEquals(2, output.getOutput().size());
+    }
+
+    @Test
+    public void testOnInputThrottled() throws Exception {
+        UserInput input = mock(UserInput.class);
+
+        when(input.getInput()).thenReturn("look");
+        when(admissionService.admit(any(PlayerSession.class), anyInt())).thenReturn(false);
+
+        GameOutput output = webSocketResource.onInput(input, principal, breadcrumb, simpSessionId);
+
+        verify(mockCommand, never()).execute(any(GameOutput.class), any(Entity.class), any(TokenizedInput.class));
+        verify(entityService, never()).sendMessageToEntity(any(Entity.class), any(GameOutput.class));
+        verify(promptBuilder).appendPrompt(eq(output));
+        assertTrue(output.getOutput().get(0).startsWith("[red]"));
+    }
+
+    @Test
+    public void testOnInputOversizedFrame() throws Exception {
+        UserInput input = mock(UserInput.class);
+        List<String> commands = Collections.nCopies(21, "north");
+
+        when(input.getCommands()).thenReturn(commands);
+        when(admissionService.isOversized(eq(21))).thenReturn(true);
+        when(admissionService.getMaxCommands()).thenReturn(20);
+
+        GameOutput output = webSocketResource.onInput(input, principal, breadcrumb, simpSessionId);
+
+        verify(admissionService, never()).admit(any(PlayerSession.class), anyInt());
+        verify(mockCommand, never()).execute(any(GameOutput.class), any(Entity.class), any(TokenizedInput.class));
+        verify(promptBuilder).appendPrompt(eq(output));
+        assertEquals("[red]You sent 21 commands at once. Please send no more than 20 at a time.", output.getOutput().get(0));
+    }
+
+    @Test
+    public void testOnInputCommandDeferred() throws Exception {
+        UserInput input = mock(UserInput.class);
+
+        when(input.getInput()).thenReturn("look");
+        when(admissionService.isAllowed(any(CommandHandle.class))).thenReturn(false);
+
+        GameOutput output = sendInput(input);
+
+        verify(mockCommand, never()).execute(any(GameOutput.class), any(Entity.class), any(TokenizedInput.class));
+        assertTrue(output.getOutput().get(0).startsWith("[yellow]"));
+    }
+
+    @Test
+    public void testOnEmoteShed() throws Exception {
+        UserInput input = mock(UserInput.class);
+
+        when(input.getInput()).thenReturn("wink");
+        when(admissionService.isEmoteAllowed()).thenReturn(false);
+
+        GameOutput output = sendInput(input);
+
+        verify(emote, never()).execute(any(GameOutput.class), any(EmoteMetadata.class), any(Entity.class), any(String[].class));
+        assertTrue(output.getOutput().get(0).startsWith("[yellow]"));
+    }
+
+    private GameOutput sendInput(UserInput input) {
+        assertNull(webSocketResource.onInput(input, principal, breadcrumb, simpSessionId));
+
+        verify(entityService).sendMessageToEntity(eq(entity), outputCaptor.capture());
+        verify(outputService).flush(eq(entity));
+
+        return outputCaptor.getValue();
     }
 
     private Map<String, String> generateSessionMap() {
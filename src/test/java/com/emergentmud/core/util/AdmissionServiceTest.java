@@ -0,0 +1,196 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.util;
+
+import com.emergentmud.core.command.BaseCommunicationCommand;
+import com.emergentmud.core.command.Command;
+import com.emergentmud.core.command.CommandHandle;
+import com.emergentmud.core.model.CommandMetadata;
+import com.emergentmud.core.model.Entity;
+import com.emergentmud.core.model.LoadLevel;
+import com.emergentmud.core.model.PlayerSession;
+import com.emergentmud.core.service.AdmissionService;
+import com.emergentmud.core.service.MailboxService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.actuate.metrics.CounterService;
+import org.springframework.boot.actuate.metrics.GaugeService;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class AdmissionServiceTest {
+    @Mock
+    private MailboxService mailboxService;
+
+    @Mock
+    private CounterService counterService;
+
+    @Mock
+    private GaugeService gaugeService;
+
+    @Mock
+    private Entity entity;
+
+    @Mock
+    private Command command;
+
+    @Mock
+    private BaseCommunicationCommand communicationCommand;
+
+    private PlayerSession playerSession;
+    private CommandHandle moveHandle;
+    private CommandHandle mapHandle;
+    private CommandHandle sayHandle;
+
+    private AdmissionService admissionService;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+
+        playerSession = new PlayerSession("simpSessionId", "username", "breadcrumb", "accountId", entity);
+        moveHandle = new CommandHandle(new CommandMetadata("north", "northCommand", 10, null), command);
+        mapHandle = new CommandHandle(new CommandMetadata("map", "mapCommand", 400, null), command);
+        sayHandle = new CommandHandle(new CommandMetadata("say", "sayCommand", 200, null), communicationCommand);
+
+        admissionService = new AdmissionService(
+                mailboxService,
+                counterService,
+                gaugeService,
+                1.0,
+                2,
+                10,
+                100L,
+                20,
+                500L,
+                "map, who,data");
+    }
+
+    @Test
+    public void testExportsLimits() throws Exception {
+        verify(gaugeService).submit(eq("admission.limit.rate"), eq(1.0));
+        verify(gaugeService).submit(eq("admission.limit.burst"), eq(2.0));
+        verify(gaugeService).submit(eq("admission.limit.critical.wait"), eq(500.0));
+    }
+
+    @Test
+    public void testAdmitBurstThenThrottle() throws Exception {
+        assertTrue(admissionService.admit(playerSession, 1));
+        assertTrue(admissionService.admit(playerSession, 1));
+        assertFalse(admissionService.admit(playerSession, 1));
+
+        verify(counterService, times(2)).increment(eq("admission.admitted"));
+        verify(counterService).increment(eq("admission.throttled"));
+    }
+
+    @Test
+    public void testAdmitFrame() throws Exception {
+        assertFalse(admissionService.admit(playerSession, 3));
+        assertTrue(admissionService.admit(playerSession, 2));
+        assertFalse(admissionService.admit(playerSession, 1));
+    }
+
+    @Test
+    public void testOversized() throws Exception {
+        assertEquals(2, admissionService.getMaxCommands());
+        assertFalse(admissionService.isOversized(2));
+        assertTrue(admissionService.isOversized(3));
+
+        verify(counterService, times(1)).increment(eq("admission.oversized"));
+    }
+
+    @Test
+    public void testAdmitPerSession() throws Exception {
+        PlayerSession other = new PlayerSession("otherSessionId", "other", "breadcrumb", "accountId", entity);
+
+        admissionService.admit(playerSession, 1);
+        admissionService.admit(playerSession, 1);
+
+        assertFalse(admissionService.admit(playerSession, 1));
+        assertTrue(admissionService.admit(other, 1));
+    }
+
+    @Test
+    public void testNormal() throws Exception {
+        when(mailboxService.getPending()).thenReturn(5);
+        when(mailboxService.getWaitAverage()).thenReturn(50L);
+
+        assertEquals(LoadLevel.NORMAL, admissionService.getLoadLevel());
+        assertTrue(admissionService.isAllowed(moveHandle));
+        assertTrue(admissionService.isAllowed(mapHandle));
+        assertTrue(admissionService.isAllowed(sayHandle));
+        assertTrue(admissionService.isEmoteAllowed());
+    }
+
+    @Test
+    public void testIdleIgnoresStaleWait() throws Exception {
+        when(mailboxService.getPending()).thenReturn(0);
+        when(mailboxService.getWaitAverage()).thenReturn(5000L);
+
+        assertEquals(LoadLevel.NORMAL, admissionService.getLoadLevel());
+    }
+
+    @Test
+    public void testElevatedByPending() throws Exception {
+        when(mailboxService.getPending()).thenReturn(10);
+
+        assertEquals(LoadLevel.ELEVATED, admissionService.getLoadLevel());
+        verify(gaugeService).submit(eq("admission.level"), eq((double)LoadLevel.ELEVATED.ordinal()));
+    }
+
+    @Test
+    public void testElevatedDefersExpensive() throws Exception {
+        when(mailboxService.getPending()).thenReturn(1);
+        when(mailboxService.getWaitAverage()).thenReturn(100L);
+
+        assertTrue(admissionService.isAllowed(moveHandle));
+        assertFalse(admissionService.isAllowed(mapHandle));
+        assertTrue(admissionService.isAllowed(sayHandle));
+        assertTrue(admissionService.isEmoteAllowed());
+
+        verify(counterService).increment(eq("admission.deferred"));
+    }
+
+    @Test
+    public void testCriticalShedsChat() throws Exception {
+        when(mailboxService.getPending()).thenReturn(20);
+
+        assertEquals(LoadLevel.CRITICAL, admissionService.getLoadLevel());
+        assertTrue(admissionService.isAllowed(moveHandle));
+        assertFalse(admissionService.isAllowed(mapHandle));
+        assertFalse(admissionService.isAllowed(sayHandle));
+        assertFalse(admissionService.isEmoteAllowed());
+
+        verify(counterService).increment(eq("admission.deferred"));
+        verify(counterService, times(2)).increment(eq("admission.shed"));
+    }
+
+    @Test
+    public void testCriticalByWait() throws Exception {
+        when(mailboxService.getPending()).thenReturn(1);
+        when(mailboxService.getWaitAverage()).thenReturn(500L);
+
+        assertEquals(LoadLevel.CRITICAL, admissionService.getLoadLevel());
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.util;
+
+import com.emergentmud.core.model.Capability;
+import com.emergentmud.core.model.CapabilityObject;
+import com.emergentmud.core.model.CapabilityScope;
+import com.emergentmud.core.model.CommandRole;
+import com.emergentmud.core.model.Entity;
+import com.emergentmud.core.repository.CapabilityRepository;
+import com.emergentmud.core.service.CapabilityService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class CapabilityServiceTest {
+    @Mock
+    private CapabilityRepository capabilityRepository;
+
+    private Capability seeCapability;
+    private Capability talkCapability;
+    private Capability superCapability;
+    private Entity entity;
+
+    private CapabilityService capabilityService;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+
+        List<Capability> capabilities = new ArrayList<>();
+
+        seeCapability = new Capability(CommandRole.SEE.name(), "See", CapabilityObject.ENTITY, CapabilityScope.PLAYER);
+        talkCapability = new Capability(CommandRole.TALK.name(), "Talk", CapabilityObject.ENTITY, CapabilityScope.PLAYER);
+        superCapability = new Capability(CommandRole.SUPER.name(), "Super", CapabilityObject.ENTITY, CapabilityScope.ADMINISTRATOR);
+
+        seeCapability.setId("see");
+        talkCapability.setId("talk");
+        superCapability.setId("super");
+
+        capabilities.add(seeCapability);
+        capabilities.add(talkCapability);
+        capabilities.add(superCapability);
+
+        entity = new Entity();
+
+        when(capabilityRepository.findAll(any(Sort.class))).thenReturn(capabilities);
+
+        capabilityService = new CapabilityService(capabilityRepository);
+        capabilityService.reload();
+    }
+
+    @Test
+    public void testGetCapability() throws Exception {
+        assertEquals(seeCapability, capabilityService.getCapability(CommandRole.SEE));
+        assertNull(capabilityService.getCapability(CommandRole.LOG));
+    }
+
+    @Test
+    public void testBitsAreDistinct() throws Exception {
+        long see = capabilityService.getBit(seeCapability);
+        long talk = capabilityService.getBit(talkCapability);
+        long superBit = capabilityService.getBit(superCapability);
+
+        assertEquals(1, Long.bitCount(see));
+        assertEquals(0L, see & talk);
+        assertEquals(0L, see & superBit);
+        assertEquals(0L, talk & superBit);
+    }
+
+    @Test
+    public void testBitsStableAcrossReload() throws Exception {
+        long see = capabilityService.getBit(seeCapability);
+
+        capabilityService.reload();
+
+        assertEquals(see, capabilityService.getBit(seeCapability));
+    }
+
+    @Test
+    public void testMaskIsCached() throws Exception {
+        entity.addCapabilities(seeCapability);
+
+        long mask = capabilityService.getMask(entity);
+
+        assertEquals(capabilityService.getBit(seeCapability), mask);
+        assertEquals(Long.valueOf(mask), entity.getCapabilityMask());
+    }
+
+    @Test
+    public void testModelChangeInvalidatesMask() throws Exception {
+        capabilityService.getMask(entity);
+
+        entity.addCapabilities(talkCapability);
+
+        assertNull(entity.getCapabilityMask());
+        assertTrue(capabilityService.isCapable(entity, talkCapability));
+    }
+
+    @Test
+    public void testIsCapable() throws Exception {
+        entity.addCapabilities(seeCapability);
+
+        assertTrue(capabilityService.isCapable(entity, seeCapability));
+        assertFalse(capabilityService.isCapable(entity, talkCapability));
+    }
+
+    @Test
+    public void testIsCapableAsSuper() throws Exception {
+        entity.addCapabilities(superCapability);
+
+        assertTrue(capabilityService.isCapable(entity, seeCapability));
+        assertTrue(capabilityService.isCapable(entity, talkCapability));
+        assertTrue(capabilityService.isCapable(entity, null));
+    }
+
+    @Test
+    public void testHasCapabilityIgnoresSuper() throws Exception {
+        entity.addCapabilities(superCapability);
+
+        assertFalse(capabilityService.hasCapability(entity, seeCapability));
+        assertTrue(capabilityService.hasCapability(entity, superCapability));
+        assertFalse(capabilityService.hasCapability(entity, null));
+    }
+
+    @Test
+    public void testAddCapabilities() throws Exception {
+        capabilityService.addCapabilities(entity, seeCapability, talkCapability);
+
+        assertTrue(entity.isCapable(seeCapability));
+        assertTrue(entity.isCapable(talkCapability));
+        assertEquals(capabilityService.getBit(seeCapability) | capabilityService.getBit(talkCapability), (long)entity.getCapabilityMask());
+    }
+
+    @Test
+    public void testRemoveCapabilities() throws Exception {
+        capabilityService.addCapabilities(entity, seeCapability, talkCapability);
+        capabilityService.removeCapabilities(entity, talkCapability);
+
+        assertTrue(capabilityService.hasCapability(entity, seeCapability));
+        assertFalse(capabilityService.hasCapability(entity, talkCapability));
+        assertFalse(entity.isCapable(talkCapability));
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.util;
+
+import com.emergentmud.core.model.Channel;
+import com.emergentmud.core.model.Entity;
+import com.emergentmud.core.model.OutputPriority;
+import com.emergentmud.core.model.stomp.GameOutput;
+import com.emergentmud.core.service.ChannelService;
+import com.emergentmud.core.service.OutputService;
+import com.emergentmud.core.service.PlayerSessionService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.actuate.metrics.CounterService;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class ChannelServiceTest {
+    @Mock
+    private OutputService outputService;
+
+    @Mock
+    private PlayerSessionService playerSessionService;
+
+    @Mock
+    private CounterService counterService;
+
+    @Mock
+    private Entity entity;
+
+    @Mock
+    private Entity able;
+
+    @Mock
+    private Entity baker;
+
+    @Captor
+    private ArgumentCaptor<Collection<Entity>> recipientCaptor;
+
+    private ChannelService channelService;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+
+        when(entity.getId()).thenReturn("entityId");
+        when(able.getId()).thenReturn("ableId");
+        when(baker.getId()).thenReturn("bakerId");
+        when(playerSessionService.getLiveEntities()).thenReturn(Arrays.asList(entity, able, baker));
+
+        channelService = new ChannelService(outputService, playerSessionService, counterService, 2);
+    }
+
+    @Test
+    public void testGossipChannel() throws Exception {
+        Channel gossip = channelService.getChannel(ChannelService.GOSSIP).get();
+
+        assertEquals("gossip", gossip.getName());
+        assertTrue(gossip.isAutoJoin());
+        assertEquals(2, gossip.getHistory().getCapacity());
+        assertTrue(channelService.getChannels().contains(gossip));
+    }
+
+    @Test
+    public void testUnknownChannel() throws Exception {
+        assertFalse(channelService.getChannel("nonexistent").isPresent());
+        assertFalse(channelService.isMember("nonexistent", entity));
+        assertTrue(channelService.getHistory("nonexistent").getOutput().isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPublishUnknownChannel() throws Exception {
+        channelService.publish("nonexistent", entity, new GameOutput("Hello"));
+    }
+
+    @Test
+    public void testPublish() throws Exception {
+        GameOutput message = new GameOutput("Hello");
+
+        channelService.publish(ChannelService.GOSSIP, entity, message);
+
+        verify(outputService).broadcast(recipientCaptor.capture(), eq(message), eq(OutputPriority.CHAT));
+        verify(counterService).increment(eq("channel.gossip.published"));
+
+        Collection<Entity> recipients = recipientCaptor.getValue();
+
+        assertEquals(2, recipients.size());
+        assertTrue(recipients.contains(able));
+        assertTrue(recipients.contains(baker));
+        assertFalse(recipients.contains(entity));
+    }
+
+    @Test
+    public void testPublishSkipsDeparted() throws Exception {
+        channelService.getChannel(ChannelService.GOSSIP).get().leave(baker);
+
+        assertFalse(channelService.isMember(ChannelService.GOSSIP, baker));
+
+        channelService.publish(ChannelService.GOSSIP, entity, new GameOutput("Hello"));
+
+        verify(outputService).broadcast(recipientCaptor.capture(), any(GameOutput.class), eq(OutputPriority.CHAT));
+
+        assertEquals(1, recipientCaptor.getValue().size());
+        assertTrue(recipientCaptor.getValue().contains(able));
+    }
+
+    @Test
+    public void testRejoin() throws Exception {
+        Channel gossip = channelService.getChannel(ChannelService.GOSSIP).get();
+
+        gossip.leave(able);
+        gossip.join(able);
+
+        assertTrue(channelService.isMember(ChannelService.GOSSIP, able));
+    }
+
+    @Test
+    public void testForget() throws Exception {
+        Channel gossip = channelService.getChannel(ChannelService.GOSSIP).get();
+        Channel builders = new Channel("builders", false, 2);
+
+        gossip.leave(able);
+        builders.join(baker);
+
+        channelService.forget(able);
+        builders.forget(baker);
+
+        assertTrue(channelService.isMember(ChannelService.GOSSIP, able));
+        assertFalse(builders.isMember(baker));
+    }
+
+    @Test
+    public void testOptInChannel() throws Exception {
+        Channel channel = new Channel("builders", false, 2);
+
+        assertFalse(channel.isMember(able));
+
+        channel.join(able);
+
+        assertTrue(channel.isMember(able));
+
+        channel.leave(able);
+
+        assertFalse(channel.isMember(able));
+    }
+
+    @Test
+    public void testHistory() throws Exception {
+        channelService.publish(ChannelService.GOSSIP, entity, new GameOutput("one"));
+        channelService.publish(ChannelService.GOSSIP, entity, new GameOutput("two", "three"));
+        channelService.publish(ChannelService.GOSSIP, entity, new GameOutput("four"));
+
+        assertEquals(Arrays.asList("two", "three", "four"), channelService.getHistory(ChannelService.GOSSIP).getOutput());
+    }
+
+    @Test
+    public void testAppendHistory() throws Exception {
+        GameOutput output = new GameOutput("look");
+
+        channelService.publish(ChannelService.GOSSIP, able, new GameOutput("one"));
+        channelService.appendHistory(output, entity);
+
+        assertEquals(Arrays.asList("look", "one"), output.getOutput());
+    }
+
+    @Test
+    public void testAppendHistoryDeparted() throws Exception {
+        GameOutput output = new GameOutput("look");
+
+        channelService.publish(ChannelService.GOSSIP, able, new GameOutput("one"));
+        channelService.getChannel(ChannelService.GOSSIP).get().leave(entity);
+        channelService.appendHistory(output, entity);
+
+        assertEquals(Arrays.asList("look"), output.getOutput());
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.util;
+
+import com.emergentmud.core.command.Command;
+import com.emergentmud.core.command.CommandHandle;
+import com.emergentmud.core.command.CommandRegistry;
+import com.emergentmud.core.model.Capability;
+import com.emergentmud.core.model.CommandMetadata;
+import com.emergentmud.core.repository.CommandMetadataRepository;
+import com.emergentmud.core.service.CommandService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class CommandServiceTest {
+    @Mock
+    private CommandMetadataRepository commandMetadataRepository;
+
+    @Mock
+    private CommandRegistry commandRegistry;
+
+    @Mock
+    private Command command;
+
+    @Mock
+    private Capability moveCapability;
+
+    @Mock
+    private Capability adminCapability;
+
+    private List<CommandMetadata> commands = new ArrayList<>();
+
+    private CommandService commandService;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+
+        commands.add(new CommandMetadata("north", "northCommand", 10, moveCapability));
+        commands.add(new CommandMetadata("notify", "notifyCommand", 20, adminCapability));
+        commands.add(new CommandMetadata("look", "lookCommand", 100, moveCapability));
+
+        when(commandMetadataRepository.findAll(any(Sort.class))).thenReturn(commands);
+
+        when(commandRegistry.resolve(any(CommandMetadata.class))).thenAnswer(invocation -> {
+            CommandMetadata metadata = (CommandMetadata)invocation.getArguments()[0];
+
+            if ("brokenCommand".equals(metadata.getBeanName())) {
+                return Optional.empty();
+            }
+
+            return Optional.of(new CommandHandle(metadata, command));
+        });
+
+        commandService = new CommandService(commandMetadataRepository, commandRegistry);
+    }
+
+    @Test
+    public void testEmptyBeforeReload() throws Exception {
+        assertTrue(commandService.getCommands().isEmpty());
+        assertFalse(commandService.findCommand("n", cm -> true).isPresent());
+        verifyZeroInteractions(commandMetadataRepository);
+    }
+
+    @Test
+    public void testReload() throws Exception {
+        commandService.reload();
+
+        assertEquals(commands, commandService.getCommands()
+                .stream()
+                .map(CommandHandle::getMetadata)
+                .collect(Collectors.toList()));
+        assertTrue(commandService.getCommands().stream().allMatch(ch -> command.equals(ch.getCommand())));
+        verify(commandMetadataRepository).findAll(any(Sort.class));
+        verify(commandRegistry, times(3)).resolve(any(CommandMetadata.class));
+    }
+
+    @Test
+    public void testReloadSkipsUnresolvable() throws Exception {
+        commands.add(new CommandMetadata("nothing", "brokenCommand", 30, moveCapability));
+
+        commandService.reload();
+
+        assertEquals(3, commandService.getCommands().size());
+        assertEquals("notify", commandService.findCommand("not", cm -> true).get().getMetadata().getName());
+        assertFalse(commandService.findCommand("noth", cm -> true).isPresent());
+    }
+
+    @Test
+    public void testFindDoesNotResolveBeans() throws Exception {
+        commandService.reload();
+        commandService.findCommand("n", cm -> true);
+        commandService.findCommand("l", cm -> true);
+
+        verify(commandRegistry, times(3)).resolve(any(CommandMetadata.class));
+        verify(commandRegistry, never()).getCommand(anyString());
+    }
+
+    @Test
+    public void testFindCommand() throws Exception {
+        commandService.reload();
+
+        assertEquals("north", commandService.findCommand("n", cm -> true).get().getMetadata().getName());
+        assertEquals("look", commandService.findCommand("lo", cm -> true).get().getMetadata().getName());
+        assertFalse(commandService.findCommand("x", cm -> true).isPresent());
+    }
+
+    @Test
+    public void testFindCommandFiltered() throws Exception {
+        commandService.reload();
+
+        assertEquals("notify", commandService.findCommand("n", cm -> adminCapability.equals(cm.getCapability())).get().getMetadata().getName());
+    }
+
+    @Test
+    public void testFindDoesNotQueryRepository() throws Exception {
+        commandService.reload();
+        commandService.findCommand("n", cm -> true);
+        commandService.findCommand("l", cm -> true);
+
+        verify(commandMetadataRepository, times(1)).findAll(any(Sort.class));
+    }
+
+    @Test
+    public void testReloadReplacesIndex() throws Exception {
+        commandService.reload();
+
+        List<CommandMetadata> updated = new ArrayList<>();
+
+        updated.add(new CommandMetadata("look", "lookCommand", 5, moveCapability));
+        updated.add(new CommandMetadata("north", "northCommand", 10, moveCapability));
+
+        when(commandMetadataRepository.findAll(any(Sort.class))).thenReturn(updated);
+
+        commandService.reload();
+
+        assertEquals(updated, commandService.getCommands()
+                .stream()
+                .map(CommandHandle::getMetadata)
+                .collect(Collectors.toList()));
+        assertFalse(commandService.findCommand("not", cm -> true).isPresent());
+    }
+}
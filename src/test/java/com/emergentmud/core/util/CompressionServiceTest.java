@@ -0,0 +1,106 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.util;
+
+import com.emergentmud.core.service.CompressionService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.actuate.metrics.CounterService;
+import org.springframework.boot.actuate.metrics.GaugeService;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class CompressionServiceTest {
+    @Mock
+    private CounterService counterService;
+
+    @Mock
+    private GaugeService gaugeService;
+
+    private CompressionService compressionService;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+
+        compressionService = new CompressionService(256, counterService, gaugeService);
+    }
+
+    @Test
+    public void testThreshold() throws Exception {
+        assertEquals(256, compressionService.getThreshold());
+        assertFalse(compressionService.isWorthCompressing(255));
+        assertTrue(compressionService.isWorthCompressing(256));
+    }
+
+    @Test
+    public void testClassifyOutput() throws Exception {
+        assertEquals(CompressionService.OUTPUT, compressionService.classify(
+                buffer("a[\"MESSAGE\\ndestination:/user/queue/output\\nsubscription:sub-0\\n\\n{}\"]")));
+    }
+
+    @Test
+    public void testClassifyOther() throws Exception {
+        assertEquals(CompressionService.OTHER, compressionService.classify(buffer("h")));
+        assertEquals(CompressionService.OTHER, compressionService.classify(
+                buffer("a[\"MESSAGE\\ndestination:/app/channel/gossip\\n\\n[]\"]")));
+        assertEquals(CompressionService.OTHER, compressionService.classify(null));
+    }
+
+    @Test
+    public void testClassifyLeavesBufferUntouched() throws Exception {
+        ByteBuffer payload = buffer("MESSAGE\ndestination:/user/queue/output\n\n{}");
+
+        compressionService.classify(payload);
+
+        assertEquals(0, payload.position());
+    }
+
+    @Test
+    public void testRecordSkipped() throws Exception {
+        compressionService.recordSkipped(CompressionService.OUTPUT);
+
+        verify(counterService).increment(eq("websocket.deflate.output.skipped"));
+    }
+
+    @Test
+    public void testRecordCompressed() throws Exception {
+        compressionService.recordCompressed(CompressionService.OUTPUT, 1000, 100, 50000);
+        compressionService.recordCompressed(CompressionService.OUTPUT, 1000, 300, 50000);
+
+        verify(counterService, times(2)).increment(eq("websocket.deflate.output.compressed"));
+        verify(gaugeService).submit(eq("websocket.deflate.output.ratio"), eq(0.1));
+        verify(gaugeService).submit(eq("websocket.deflate.output.ratio"), eq(0.2));
+        verify(gaugeService, times(2)).submit(eq("websocket.deflate.output.cpu"), eq(50.0));
+        assertEquals(0.2, compressionService.getRatio(CompressionService.OUTPUT), 0.0001);
+        assertEquals(1.0, compressionService.getRatio(CompressionService.OTHER), 0.0001);
+    }
+
+    private ByteBuffer buffer(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII));
+    }
+}
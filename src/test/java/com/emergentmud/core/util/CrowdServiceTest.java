@@ -0,0 +1,250 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.emergentmud.core.util;
+
+import com.emergentmud.core.model.Entity;
+import com.emergentmud.core.model.TickPhase;
+import com.emergentmud.core.model.room.Room;
+import com.emergentmud.core.model.stomp.GameOutput;
+import com.emergentmud.core.service.CrowdService;
+import com.emergentmud.core.service.EntityService;
+import com.emergentmud.core.service.PresenceService;
+import com.emergentmud.core.service.TickService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.actuate.metrics.CounterService;
+import org.springframework.boot.actuate.metrics.GaugeService;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class CrowdServiceTest {
+    @Mock
+    private PresenceService presenceService;
+
+    @Mock
+    private EntityService entityService;
+
+    @Mock
+    private TickService tickService;
+
+    @Mock
+    private CounterService counterService;
+
+    @Mock
+    private GaugeService gaugeService;
+
+    @Mock
+    private Room room;
+
+    @Mock
+    private Entity alice;
+
+    @Mock
+    private Entity bob;
+
+    @Mock
+    private Entity carol;
+
+    @Mock
+    private Entity dave;
+
+    @Captor
+    private ArgumentCaptor<GameOutput> outputCaptor;
+
+    @Captor
+    private ArgumentCaptor<Collection<Entity>> excludeCaptor;
+
+    private CrowdService crowdService;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+
+        when(room.getId()).thenReturn("room");
+        when(room.getCrowdThreshold()).thenReturn(null);
+        when(alice.getName()).thenReturn("Alice");
+        when(bob.getName()).thenReturn("Bob");
+        when(carol.getName()).thenReturn("Carol");
+        when(dave.getName()).thenReturn("Dave");
+        when(presenceService.getOccupantCount(eq(room))).thenReturn(10);
+
+        crowdService = new CrowdService(
+                presenceService,
+                entityService,
+                tickService,
+                counterService,
+                gaugeService,
+                5,
+                2);
+    }
+
+    @Test
+    public void testRegistersOnTick() throws Exception {
+        verify(tickService).register(eq(TickPhase.SIMULATION), any(Runnable.class));
+    }
+
+    @Test
+    public void testQuietRoomSendsImmediately() throws Exception {
+        when(presenceService.getOccupantCount(eq(room))).thenReturn(3);
+
+        crowdService.announceArrival(room, alice, "south");
+
+        verify(entityService).sendMessageToRoom(eq(room), eq(alice), outputCaptor.capture());
+        verify(counterService).increment(eq("crowd.announcements.immediate"));
+        assertEquals("Alice walks in from the south.", outputCaptor.getValue().getOutput().get(0));
+        assertEquals(0, crowdService.getPending());
+    }
+
+    @Test
+    public void testRoomThresholdAggregatesSooner() throws Exception {
+        when(presenceService.getOccupantCount(eq(room))).thenReturn(3);
+        when(room.getCrowdThreshold()).thenReturn(2);
+
+        crowdService.announceArrival(room, alice, "south");
+
+        verify(entityService, never()).sendMessageToRoom(any(Room.class), any(Entity.class), any(GameOutput.class));
+        verify(counterService).increment(eq("crowd.announcements.aggregated"));
+        assertEquals(1, crowdService.getPending());
+    }
+
+    @Test
+    public void testRoomThresholdAggregatesLater() throws Exception {
+        when(room.getCrowdThreshold()).thenReturn(20);
+
+        crowdService.announceArrival(room, alice, "south");
+
+        verify(entityService).sendMessageToRoom(eq(room), eq(alice), any(GameOutput.class));
+        verify(counterService).increment(eq("crowd.announcements.immediate"));
+        assertEquals(0, crowdService.getPending());
+    }
+
+    @Test
+    public void testNullRoom() throws Exception {
+        crowdService.announceLogout(null, alice);
+
+        verifyZeroInteractions(entityService, counterService);
+        assertEquals(0, crowdService.getPending());
+    }
+
+    @Test
+    public void testCrowdedRoomWaitsForWindow() throws Exception {
+        crowdService.announceArrival(room, alice, "south");
+        crowdService.announceArrival(room, bob, "south");
+
+        assertEquals(1, crowdService.getPending());
+        verify(counterService, times(2)).increment(eq("crowd.announcements.aggregated"));
+
+        crowdService.flush();
+
+        verifyZeroInteractions(entityService);
+
+        crowdService.flush();
+
+        verify(entityService).sendMessageToRoom(eq(room), excludeCaptor.capture(), outputCaptor.capture());
+        verify(counterService).increment(eq("crowd.messages"));
+        verify(gaugeService).submit(eq("crowd.fanout.saved"), eq(8.0));
+        assertEquals("Alice and Bob walk in from the south.", outputCaptor.getValue().getOutput().get(0));
+        assertTrue(excludeCaptor.getValue().contains(alice));
+        assertTrue(excludeCaptor.getValue().contains(bob));
+        assertEquals(0, crowdService.getPending());
+    }
+
+    @Test
+    public void testSingleEntityBucket() throws Exception {
+        crowdService.announceLogin(room, alice);
+        crowdService.flush();
+        crowdService.flush();
+
+        verify(entityService).sendMessageToRoom(eq(room), excludeCaptor.capture(), outputCaptor.capture());
+        verify(gaugeService, never()).submit(anyString(), anyDouble());
+        assertEquals("[yellow]Alice has entered the game.", outputCaptor.getValue().getOutput().get(0));
+    }
+
+    @Test
+    public void testSeparateBuckets() throws Exception {
+        crowdService.announceDeparture(room, alice, "north");
+        crowdService.announceDeparture(room, bob, "east");
+        crowdService.announceLogout(room, carol);
+
+        assertEquals(3, crowdService.getPending());
+
+        crowdService.flush();
+        crowdService.flush();
+
+        verify(entityService, times(3)).sendMessageToRoom(eq(room), anyCollectionOf(Entity.class), outputCaptor.capture());
+        assertEquals("Alice walks north.", outputCaptor.getAllValues().get(0).getOutput().get(0));
+        assertEquals("Bob walks east.", outputCaptor.getAllValues().get(1).getOutput().get(0));
+        assertEquals("[yellow]Carol has left the game.", outputCaptor.getAllValues().get(2).getOutput().get(0));
+    }
+
+    @Test
+    public void testVanishAndAppear() throws Exception {
+        when(presenceService.getOccupantCount(eq(room))).thenReturn(3);
+
+        crowdService.announceVanish(room, alice);
+        crowdService.announceAppear(room, bob);
+
+        verify(entityService).sendMessageToRoom(eq(room), eq(alice), outputCaptor.capture());
+        verify(entityService).sendMessageToRoom(eq(room), eq(bob), outputCaptor.capture());
+        assertEquals("Alice disappears in a puff of smoke!", outputCaptor.getAllValues().get(0).getOutput().get(0));
+        assertEquals("Bob appears in a puff of smoke!", outputCaptor.getAllValues().get(1).getOutput().get(0));
+    }
+
+    @Test
+    public void testCrowdedAppearIsAggregated() throws Exception {
+        crowdService.announceAppear(room, alice);
+        crowdService.announceAppear(room, bob);
+        crowdService.flush();
+        crowdService.flush();
+
+        verify(entityService).sendMessageToRoom(eq(room), excludeCaptor.capture(), outputCaptor.capture());
+        assertEquals("Alice and Bob appear in a puff of smoke!", outputCaptor.getValue().getOutput().get(0));
+    }
+
+    @Test
+    public void testLargeCrowdIsSummarized() throws Exception {
+        crowdService.announceDeparture(room, alice, "west");
+        crowdService.announceDeparture(room, bob, "west");
+        crowdService.announceDeparture(room, carol, "west");
+        crowdService.announceDeparture(room, dave, "west");
+        crowdService.flush();
+        crowdService.flush();
+
+        verify(entityService).sendMessageToRoom(eq(room), excludeCaptor.capture(), outputCaptor.capture());
+        assertEquals("Alice, Bob and 2 others walk west.", outputCaptor.getValue().getOutput().get(0));
+        assertEquals(4, excludeCaptor.getValue().size());
+    }
+
+    @Test
+    public void testJoinNames() throws Exception {
+        assertEquals("Alice", CrowdService.joinNames(Arrays.asList("Alice")));
+        assertEquals("Alice and Bob", CrowdService.joinNames(Arrays.asList("Alice", "Bob")));
+        assertEquals("Alice, Bob and Carol", CrowdService.joinNames(Arrays.asList("Alice", "Bob", "Carol")));
+        assertEquals("Alice, Bob and 2 others", CrowdService.joinNames(Arrays.asList("Alice", "Bob", "Carol", "Dave")));
+    }
+}
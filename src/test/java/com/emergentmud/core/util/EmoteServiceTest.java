@@ -0,0 +1,121 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.util;
+
+import com.emergentmud.core.command.EmoteTemplate;
+import com.emergentmud.core.model.EmoteMetadata;
+import com.emergentmud.core.repository.EmoteMetadataRepository;
+import com.emergentmud.core.service.EmoteService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class EmoteServiceTest {
+    @Mock
+    private EmoteMetadataRepository emoteMetadataRepository;
+
+    private List<EmoteMetadata> emotes = new ArrayList<>();
+
+    private EmoteService emoteService;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+
+        emotes.add(new EmoteMetadata("smirk", 50));
+        emotes.get(0).setToRoomUntargeted("%self% smirks.");
+        emotes.add(new EmoteMetadata("smile", 100));
+        emotes.add(new EmoteMetadata("wink", 100));
+
+        when(emoteMetadataRepository.findAll(any(Sort.class))).thenReturn(emotes);
+
+        emoteService = new EmoteService(emoteMetadataRepository);
+    }
+
+    @Test
+    public void testEmptyBeforeReload() throws Exception {
+        assertTrue(emoteService.getEmotes().isEmpty());
+        assertFalse(emoteService.findEmote("smile").isPresent());
+        verifyZeroInteractions(emoteMetadataRepository);
+    }
+
+    @Test
+    public void testFindEmote() throws Exception {
+        emoteService.reload();
+
+        assertEquals("smirk", emoteService.findEmote("sm").get().getName());
+        assertEquals("smile", emoteService.findEmote("smil").get().getName());
+        assertEquals("wink", emoteService.findEmote("w").get().getName());
+        assertFalse(emoteService.findEmote("sneeze").isPresent());
+        verify(emoteMetadataRepository, times(1)).findAll(any(Sort.class));
+    }
+
+    @Test
+    public void testReloadReplacesIndex() throws Exception {
+        emoteService.reload();
+
+        List<EmoteMetadata> updated = new ArrayList<>();
+
+        updated.add(new EmoteMetadata("smile", 10));
+        updated.add(new EmoteMetadata("smirk", 50));
+
+        when(emoteMetadataRepository.findAll(any(Sort.class))).thenReturn(updated);
+
+        List<EmoteMetadata> before = emoteService.getEmotes();
+
+        emoteService.reload();
+
+        assertEquals(emotes, before);
+        assertEquals(updated, emoteService.getEmotes());
+        assertEquals("smile", emoteService.findEmote("sm").get().getName());
+        assertFalse(emoteService.findEmote("w").isPresent());
+    }
+
+    @Test
+    public void testReloadCompilesTemplates() throws Exception {
+        emoteService.reload();
+
+        EmoteTemplate template = emoteService.getTemplate("%self% smirks.");
+
+        assertSame(template, emoteService.getTemplate("%self% smirks."));
+
+        emoteService.reload();
+
+        assertNotSame(template, emoteService.getTemplate("%self% smirks."));
+    }
+
+    @Test
+    public void testGetTemplateCompilesOnMiss() throws Exception {
+        EmoteTemplate template = emoteService.getTemplate("%self% waves.");
+
+        assertNotNull(template);
+        assertSame(template, emoteService.getTemplate("%self% waves."));
+        verifyZeroInteractions(emoteMetadataRepository);
+    }
+}
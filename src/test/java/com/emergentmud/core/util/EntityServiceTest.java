@@ -20,21 +20,19 @@
 
 package com.emergentmud.core.util;
 
-import com.emergentmud.core.command.PromptBuilder;
 import com.emergentmud.core.model.Entity;
+import com.emergentmud.core.model.OutputPriority;
 import com.emergentmud.core.model.room.Room;
 import com.emergentmud.core.model.stomp.GameOutput;
 import com.emergentmud.core.repository.EntityRepository;
 import com.emergentmud.core.service.EntityService;
+import com.emergentmud.core.service.OutputService;
+import com.emergentmud.core.service.PlayerSessionService;
+import com.emergentmud.core.service.PresenceService;
 import org.junit.Before;
 import org.junit.Test;
-import org.mockito.ArgumentCaptor;
-import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.springframework.messaging.MessageHeaders;
-import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -47,10 +45,10 @@ public class EntityServiceTest {
     private EntityRepository entityRepository;
 
     @Mock
-    private SimpMessagingTemplate simpMessagingTemplate;
+    private OutputService outputService;
 
     @Mock
-    private PromptBuilder promptBuilder;
+    private PresenceService presenceService;
 
     @Mock
     private Room room;
@@ -61,9 +59,6 @@ public class EntityServiceTest {
     @Mock
     private GameOutput output;
 
-    @Captor
-    private ArgumentCaptor<MessageHeaders> messageHeadersArgumentCaptor;
-
     private List<Entity> contents;
 
     private EntityService entityService;
@@ -74,29 +69,36 @@ public class EntityServiceTest {
 
         contents = generateContents();
 
-        when(entityRepository.findByRoom(eq(room))).thenReturn(contents);
+        when(presenceService.getOccupants(eq(room))).thenReturn(contents);
         when(entity.getId()).thenReturn("entityId");
         when(entity.getStompSessionId()).thenReturn("stompSessionId");
         when(entity.getStompUsername()).thenReturn("stompUsername");
 
-        entityService = new EntityService(entityRepository, simpMessagingTemplate, promptBuilder);
+        entityService = new EntityService(entityRepository, outputService, new PlayerSessionService(entityRepository, false), presenceService);
     }
 
     @Test
     public void testSendMessageToEntity() throws Exception {
         entityService.sendMessageToEntity(entity, output);
 
-        verify(simpMessagingTemplate).convertAndSendToUser(
-                eq("stompUsername"),
-                eq("/queue/output"),
-                eq(output),
-                messageHeadersArgumentCaptor.capture());
+        verify(outputService).enqueue(eq(entity), eq(output), eq(OutputPriority.REPLY));
+        verify(outputService, never()).flush(any(Entity.class));
+    }
 
-        MessageHeaders headers = messageHeadersArgumentCaptor.getValue();
-        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.getAccessor(headers, SimpMessageHeaderAccessor.class);
+    @Test
+    public void testSendMessageToEntityWithPriority() throws Exception {
+        entityService.sendMessageToEntity(entity, output, OutputPriority.CHAT);
 
-        assertEquals("stompSessionId", accessor.getSessionId());
-        assertTrue(accessor.isMutable());
+        verify(outputService).enqueue(eq(entity), eq(output), eq(OutputPriority.CHAT));
+    }
+
+    @Test
+    public void testSendMessageToRoomExcludesSender() throws Exception {
+        contents.add(entity);
+
+        entityService.sendMessageToRoom(room, entity, output);
+
+        verifyContents();
     }
 
     @Test
@@ -106,6 +108,13 @@ public class EntityServiceTest {
         verifyContents();
     }
 
+    @Test
+    public void testSendMessageToRoomWithPriority() throws Exception {
+        entityService.sendMessageToRoom(room, entity, output, OutputPriority.CHAT);
+
+        verify(outputService).broadcast(eq(contents.subList(0, 3)), eq(output), eq(OutputPriority.CHAT));
+    }
+
     @Test
     public void testSendMessageToListeners() throws Exception {
         entityService.sendMessageToListeners(contents, entity, output);
@@ -137,19 +146,7 @@ public class EntityServiceTest {
     }
 
     private void verifyContents() {
-        for (int i = 0; i < contents.size(); i++) {
-            verify(simpMessagingTemplate).convertAndSendToUser(
-                    eq("stompUsername" + i),
-                    eq("/queue/output"),
-                    eq(output),
-                    messageHeadersArgumentCaptor.capture()
-            );
-
-            MessageHeaders headers = messageHeadersArgumentCaptor.getValue();
-            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.getAccessor(headers, SimpMessageHeaderAccessor.class);
-
-            assertEquals("stompSessionId" + i, accessor.getSessionId());
-            assertTrue(accessor.isMutable());
-        }
+        verify(outputService).broadcast(eq(contents.subList(0, 3)), eq(output), eq(OutputPriority.ROOM));
+        verify(outputService, never()).enqueue(any(Entity.class), any(GameOutput.class), any(OutputPriority.class));
     }
 }
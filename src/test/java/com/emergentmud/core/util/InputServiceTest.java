@@ -73,4 +73,20 @@ public class InputServiceTest {
 
         assertEquals("baker   charlie   dog   easy  fox", out);
     }
+
+    @Test
+    public void testLeadingWhitespace() throws Exception {
+        String in = "  able baker charlie";
+        String out = inputService.chopWords(in);
+
+        assertEquals("able baker charlie", out);
+    }
+
+    @Test
+    public void testChopPastEnd() throws Exception {
+        String in = "able baker";
+        String out = inputService.chopWords(in, 3);
+
+        assertEquals("baker", out);
+    }
 }
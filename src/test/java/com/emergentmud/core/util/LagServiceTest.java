@@ -0,0 +1,140 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.emergentmud.core.util;
+
+import com.emergentmud.core.model.SessionLag;
+import com.emergentmud.core.service.LagService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.actuate.metrics.CounterService;
+import org.springframework.boot.actuate.metrics.GaugeService;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class LagServiceTest {
+    @Mock
+    private CounterService counterService;
+
+    @Mock
+    private GaugeService gaugeService;
+
+    @Mock
+    private WebSocketSession session;
+
+    private LagService lagService;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+
+        when(session.getId()).thenReturn("session");
+
+        lagService = new LagService(counterService, gaugeService, 0);
+        lagService.register(session);
+    }
+
+    @Test
+    public void testRegister() throws Exception {
+        assertTrue(lagService.getLag("session").isPresent());
+        assertEquals(1, lagService.getLags().size());
+    }
+
+    @Test
+    public void testUnregister() throws Exception {
+        lagService.unregister("session");
+
+        assertFalse(lagService.getLag("session").isPresent());
+        assertFalse(lagService.isLagging("session"));
+    }
+
+    @Test
+    public void testLaggingWhileWriting() throws Exception {
+        assertFalse(lagService.isLagging("session"));
+
+        lagService.writeStarted("session");
+
+        assertTrue(lagService.isLagging("session"));
+
+        lagService.writeFinished("session", 100);
+
+        SessionLag lag = lagService.getLag("session").get();
+
+        assertFalse(lagService.isLagging("session"));
+        assertEquals(1, lag.getWrites());
+        assertEquals(100, lag.getBytes());
+        verify(gaugeService).submit(eq("output.write.millis"), anyDouble());
+    }
+
+    @Test
+    public void testNotLaggingBelowThreshold() throws Exception {
+        lagService = new LagService(counterService, gaugeService, 60000);
+        lagService.register(session);
+        lagService.writeStarted("session");
+
+        assertFalse(lagService.isLagging("session"));
+    }
+
+    @Test
+    public void testUnknownSession() throws Exception {
+        lagService.writeStarted("unknown");
+        lagService.writeFinished("unknown", 100);
+        lagService.disconnect("unknown");
+
+        assertFalse(lagService.isLagging("unknown"));
+        verifyZeroInteractions(gaugeService);
+    }
+
+    @Test
+    public void testRecordHeldAndDropped() throws Exception {
+        lagService.recordHeld("session");
+        lagService.recordDropped("session", 3);
+
+        SessionLag lag = lagService.getLag("session").get();
+
+        assertEquals(1, lag.getHeld());
+        assertEquals(3, lag.getDropped());
+        verify(counterService).increment(eq("output.held"));
+        verify(counterService).increment(eq("output.overflow.dropped"));
+    }
+
+    @Test
+    public void testDisconnect() throws Exception {
+        lagService.disconnect("session");
+
+        verify(session).close(eq(CloseStatus.SESSION_NOT_RELIABLE));
+        verify(counterService).increment(eq("output.overflow.disconnected"));
+    }
+
+    @Test
+    public void testDisconnectFailure() throws Exception {
+        doThrow(new IOException("Boom!")).when(session).close(any(CloseStatus.class));
+
+        lagService.disconnect("session");
+
+        verify(session).close(eq(CloseStatus.SESSION_NOT_RELIABLE));
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.util;
+
+import com.emergentmud.core.model.Entity;
+import com.emergentmud.core.service.MailboxService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.actuate.metrics.CounterService;
+import org.springframework.boot.actuate.metrics.GaugeService;
+import org.springframework.core.task.support.ExecutorServiceAdapter;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class MailboxServiceTest {
+    @Mock
+    private CounterService counterService;
+
+    @Mock
+    private GaugeService gaugeService;
+
+    @Mock
+    private Entity alice;
+
+    @Mock
+    private Entity bob;
+
+    private Queue<Runnable> scheduled = new LinkedList<>();
+
+    private MailboxService mailboxService;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+
+        when(alice.getId()).thenReturn("alice");
+        when(bob.getId()).thenReturn("bob");
+
+        mailboxService = new MailboxService(new ExecutorServiceAdapter(scheduled::add), 4, counterService, gaugeService);
+    }
+
+    @Test
+    public void testRunsInOrder() throws Exception {
+        List<Integer> results = new ArrayList<>();
+
+        for (int i = 0; i < 3; i++) {
+            int value = i;
+
+            assertTrue(mailboxService.offer(alice, () -> results.add(value)));
+        }
+
+        assertEquals(1, scheduled.size());
+        assertEquals(3, mailboxService.getDepth(alice));
+        assertEquals(3, mailboxService.getPending());
+
+        runScheduled();
+
+        assertEquals(3, results.size());
+        assertEquals(0, results.get(0).intValue());
+        assertEquals(2, results.get(2).intValue());
+        assertEquals(0, mailboxService.getDepth(alice));
+        assertEquals(0, mailboxService.getPending());
+        verify(counterService, times(3)).increment(eq("mailbox.executed"));
+    }
+
+    @Test
+    public void testWaitAverage() throws Exception {
+        assertEquals(0, mailboxService.getWaitAverage());
+
+        mailboxService.offer(alice, () -> {});
+        Thread.sleep(80);
+        runScheduled();
+
+        long average = mailboxService.getWaitAverage();
+
+        assertTrue(average >= 10);
+
+        mailboxService.offer(alice, () -> {});
+        runScheduled();
+
+        assertTrue(mailboxService.getWaitAverage() < average);
+    }
+
+    @Test
+    public void testSeparateMailboxes() throws Exception {
+        mailboxService.offer(alice, () -> {});
+        mailboxService.offer(bob, () -> {});
+
+        assertEquals(2, scheduled.size());
+    }
+
+    @Test
+    public void testDepthLimit() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            assertTrue(mailboxService.offer(alice, () -> {}));
+        }
+
+        assertFalse(mailboxService.offer(alice, () -> {}));
+        assertTrue(mailboxService.offer(bob, () -> {}));
+        verify(counterService).increment(eq("mailbox.rejected"));
+    }
+
+    @Test
+    public void testExecuteIgnoresDepthLimit() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            mailboxService.offer(alice, () -> {});
+        }
+
+        mailboxService.execute(alice, () -> {});
+
+        assertEquals(5, mailboxService.getDepth(alice));
+    }
+
+    @Test
+    public void testFailureDoesNotStopMailbox() throws Exception {
+        List<String> results = new ArrayList<>();
+
+        mailboxService.offer(alice, () -> {
+            throw new IllegalStateException("Test exception.");
+        });
+        mailboxService.offer(alice, () -> results.add("ok"));
+
+        runScheduled();
+
+        assertEquals(1, results.size());
+        verify(counterService).increment(eq("mailbox.failed"));
+    }
+
+    @Test
+    public void testYieldsAfterBatch() throws Exception {
+        mailboxService = new MailboxService(new ExecutorServiceAdapter(scheduled::add), 32, counterService, gaugeService);
+
+        for (int i = 0; i < 12; i++) {
+            mailboxService.offer(alice, () -> {});
+        }
+
+        scheduled.poll().run();
+
+        assertEquals(1, scheduled.size());
+        assertEquals(4, mailboxService.getDepth(alice));
+
+        runScheduled();
+
+        assertEquals(0, mailboxService.getDepth(alice));
+    }
+
+    @Test
+    public void testReusedAfterDrain() throws Exception {
+        mailboxService.offer(alice, () -> {});
+        runScheduled();
+
+        mailboxService.offer(alice, () -> {});
+
+        assertEquals(1, scheduled.size());
+        assertEquals(1, mailboxService.getDepth(alice));
+    }
+
+    @Test
+    public void testConcurrentOrdering() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Integer> results = new ArrayList<>();
+        CountDownLatch latch = new CountDownLatch(100);
+
+        mailboxService = new MailboxService(executor, 100, counterService, gaugeService);
+
+        try {
+            for (int i = 0; i < 100; i++) {
+                int value = i;
+
+                mailboxService.offer(alice, () -> {
+                    synchronized (results) {
+                        results.add(value);
+                    }
+
+                    latch.countDown();
+                });
+            }
+
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+
+            for (int i = 0; i < 100; i++) {
+                assertEquals(i, results.get(i).intValue());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private void runScheduled() {
+        while (!scheduled.isEmpty()) {
+            scheduled.poll().run();
+        }
+    }
+}
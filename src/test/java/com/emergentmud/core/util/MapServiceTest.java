@@ -0,0 +1,264 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.util;
+
+import com.emergentmud.core.model.Entity;
+import com.emergentmud.core.model.room.Biome;
+import com.emergentmud.core.model.room.Room;
+import com.emergentmud.core.model.stomp.MapFrame;
+import com.emergentmud.core.repository.EntityRepository;
+import com.emergentmud.core.repository.RoomRepository;
+import com.emergentmud.core.service.MapService;
+import com.emergentmud.core.service.OutputService;
+import com.emergentmud.core.service.PlayerSessionService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.actuate.metrics.CounterService;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class MapServiceTest {
+    @Mock
+    private RoomRepository roomRepository;
+
+    @Mock
+    private EntityRepository entityRepository;
+
+    @Mock
+    private OutputService outputService;
+
+    @Mock
+    private CounterService counterService;
+
+    @Mock
+    private Entity entity;
+
+    @Captor
+    private ArgumentCaptor<MapFrame> frameCaptor;
+
+    private Biome forest = new Biome("Forest", 0x228b22);
+    private List<Room> rooms = new ArrayList<>();
+    private PlayerSessionService playerSessionService;
+
+    private MapService mapService;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+
+        when(entity.getId()).thenReturn("entity");
+        when(entity.getStompSessionId()).thenReturn("simpSessionId");
+        when(entity.getStompUsername()).thenReturn("user");
+
+        for (long x = -1; x <= 1; x++) {
+            rooms.add(room(x, 0L, forest));
+        }
+
+        rooms.add(room(0L, 1L, null));
+
+        when(roomRepository.findByXBetweenAndYBetweenAndZ(anyLong(), anyLong(), anyLong(), anyLong(), anyLong())).thenReturn(rooms);
+        when(outputService.enqueueMap(any(Entity.class), any(MapFrame.class))).thenReturn(true);
+
+        playerSessionService = new PlayerSessionService(entityRepository, false);
+        mapService = new MapService(roomRepository, playerSessionService, outputService, counterService);
+    }
+
+    @Test
+    public void testFindRooms() throws Exception {
+        Room[] found = mapService.findRooms(-1L, 1L, 3, 2, 0L);
+
+        verify(roomRepository).findByXBetweenAndYBetweenAndZ(eq(-2L), eq(2L), eq(-1L), eq(2L), eq(0L));
+        assertEquals(6, found.length);
+        assertNull(found[0]);
+        assertSame(rooms.get(3), found[1]);
+        assertNull(found[2]);
+        assertSame(rooms.get(0), found[3]);
+        assertSame(rooms.get(1), found[4]);
+        assertSame(rooms.get(2), found[5]);
+    }
+
+    @Test
+    public void testFindRoomsIgnoresOutOfBounds() throws Exception {
+        Room[] found = mapService.findRooms(0L, 0L, 1, 1, 0L);
+
+        assertSame(rooms.get(1), found[0]);
+    }
+
+    @Test
+    public void testRender() throws Exception {
+        MapFrame frame = mapService.render(room(0L, 0L, forest));
+        byte[] tiles = Base64.getDecoder().decode(frame.getTiles());
+
+        assertEquals(MapFrame.FULL, frame.getType());
+        assertEquals(-MapService.EXTENT_X, frame.getX());
+        assertEquals(MapService.EXTENT_Y, frame.getY());
+        assertEquals(MapService.WIDTH * MapService.HEIGHT, tiles.length);
+        assertEquals("000000", frame.getPalette().get(tiles[0]));
+        assertEquals("228b22", frame.getPalette().get(tiles[MapService.EXTENT_Y * MapService.WIDTH + MapService.EXTENT_X]));
+        assertEquals("ff00ff", frame.getPalette().get(tiles[(MapService.EXTENT_Y - 1) * MapService.WIDTH + MapService.EXTENT_X]));
+        assertEquals(3, frame.getPalette().size());
+    }
+
+    @Test
+    public void testRenderDeltaEast() throws Exception {
+        MapFrame frame = mapService.renderDelta(room(0L, 0L, forest), room(1L, 0L, forest)).get();
+
+        assertEquals(MapFrame.DELTA, frame.getType());
+        assertEquals(1, frame.getDx());
+        assertEquals(0, frame.getDy());
+        assertEquals(1 - MapService.EXTENT_X, frame.getX());
+        assertEquals(MapService.HEIGHT, Base64.getDecoder().decode(frame.getTiles()).length);
+        verify(roomRepository).findByXBetweenAndYBetweenAndZ(
+                eq(1L + MapService.EXTENT_X - 1), eq(1L + MapService.EXTENT_X + 1),
+                eq((long)-MapService.EXTENT_Y - 1), eq((long)MapService.EXTENT_Y + 1),
+                eq(0L));
+    }
+
+    @Test
+    public void testRenderDeltaSouth() throws Exception {
+        MapFrame frame = mapService.renderDelta(room(0L, 0L, forest), room(0L, -1L, forest)).get();
+
+        assertEquals(0, frame.getDx());
+        assertEquals(-1, frame.getDy());
+        assertEquals(MapService.WIDTH, Base64.getDecoder().decode(frame.getTiles()).length);
+        verify(roomRepository).findByXBetweenAndYBetweenAndZ(
+                eq((long)-MapService.EXTENT_X - 1), eq((long)MapService.EXTENT_X + 1),
+                eq(-1L - MapService.EXTENT_Y - 1), eq(-1L - MapService.EXTENT_Y + 1),
+                eq(0L));
+    }
+
+    @Test
+    public void testRenderDeltaNotAdjacent() throws Exception {
+        assertFalse(mapService.renderDelta(room(0L, 0L, forest), room(2L, 0L, forest)).isPresent());
+
+        Room above = room(0L, 0L, forest);
+
+        above.setZ(1L);
+
+        assertFalse(mapService.renderDelta(room(0L, 0L, forest), above).isPresent());
+    }
+
+    @Test
+    public void testUpdateNotSubscribed() throws Exception {
+        playerSessionService.bind("simpSessionId", "user", "breadcrumb", "account", entity);
+
+        mapService.update(entity, room(0L, 0L, forest), room(1L, 0L, forest));
+
+        verifyZeroInteractions(outputService);
+        verifyZeroInteractions(roomRepository);
+    }
+
+    @Test
+    public void testUpdateSendsDelta() throws Exception {
+        playerSessionService.bind("simpSessionId", "user", "breadcrumb", "account", entity).setMapSubscribed(true);
+
+        mapService.update(entity, room(0L, 0L, forest), room(0L, 1L, forest));
+
+        verify(outputService).enqueueMap(eq(entity), frameCaptor.capture());
+        verify(counterService).increment(eq("map.frames.delta"));
+        assertEquals(MapFrame.DELTA, frameCaptor.getValue().getType());
+    }
+
+    @Test
+    public void testUpdateSendsFullWhenDeltasBackUp() throws Exception {
+        playerSessionService.bind("simpSessionId", "user", "breadcrumb", "account", entity).setMapSubscribed(true);
+
+        when(outputService.enqueueMap(eq(entity), any(MapFrame.class))).thenReturn(false, true);
+
+        mapService.update(entity, room(0L, 0L, forest), room(0L, 1L, forest));
+
+        verify(outputService, times(2)).enqueueMap(eq(entity), frameCaptor.capture());
+        verify(counterService).increment(eq("map.frames.superseded"));
+        verify(counterService).increment(eq("map.frames.full"));
+        assertEquals(MapFrame.DELTA, frameCaptor.getAllValues().get(0).getType());
+        assertEquals(MapFrame.FULL, frameCaptor.getAllValues().get(1).getType());
+    }
+
+    @Test
+    public void testUpdateSendsFullAfterTeleport() throws Exception {
+        playerSessionService.bind("simpSessionId", "user", "breadcrumb", "account", entity).setMapSubscribed(true);
+
+        mapService.update(entity, room(0L, 0L, forest), room(50L, 50L, forest));
+
+        verify(outputService).enqueueMap(eq(entity), frameCaptor.capture());
+        verify(counterService).increment(eq("map.frames.full"));
+        assertEquals(MapFrame.FULL, frameCaptor.getValue().getType());
+    }
+
+    @Test
+    public void testUpdateSendsFullAfterGotoAnotherLevel() throws Exception {
+        playerSessionService.bind("simpSessionId", "user", "breadcrumb", "account", entity).setMapSubscribed(true);
+
+        Room above = room(0L, 1L, forest);
+
+        above.setZ(1L);
+
+        mapService.update(entity, room(0L, 0L, forest), above);
+
+        verify(outputService).enqueueMap(eq(entity), frameCaptor.capture());
+        assertEquals(MapFrame.FULL, frameCaptor.getValue().getType());
+        verify(roomRepository).findByXBetweenAndYBetweenAndZ(anyLong(), anyLong(), anyLong(), anyLong(), eq(1L));
+    }
+
+    @Test
+    public void testUpdateSendsFullAfterSpeedwalk() throws Exception {
+        playerSessionService.bind("simpSessionId", "user", "breadcrumb", "account", entity).setMapSubscribed(true);
+
+        mapService.update(entity, room(0L, 0L, forest), room(2L, 1L, forest));
+
+        verify(outputService).enqueueMap(eq(entity), frameCaptor.capture());
+        assertEquals(MapFrame.FULL, frameCaptor.getValue().getType());
+        assertEquals(2L - MapService.EXTENT_X, frameCaptor.getValue().getX());
+    }
+
+    @Test
+    public void testUpdateSendsFullAfterLogin() throws Exception {
+        playerSessionService.bind("simpSessionId", "user", "breadcrumb", "account", entity).setMapSubscribed(true);
+
+        mapService.update(entity, null, room(0L, 0L, forest));
+
+        verify(outputService).enqueueMap(eq(entity), frameCaptor.capture());
+        assertEquals(MapFrame.FULL, frameCaptor.getValue().getType());
+    }
+
+    @Test
+    public void testIsSubscribedWithoutSession() throws Exception {
+        assertFalse(mapService.isSubscribed(entity));
+    }
+
+    private Room room(Long x, Long y, Biome biome) {
+        Room room = new Room();
+
+        room.setLocation(x, y, 0L);
+        room.setBiome(biome);
+
+        return room;
+    }
+}
@@ -0,0 +1,570 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.util;
+
+import com.emergentmud.core.command.PromptBuilder;
+import com.emergentmud.core.model.Entity;
+import com.emergentmud.core.model.OutputFormat;
+import com.emergentmud.core.model.OutputPriority;
+import com.emergentmud.core.model.OverflowPolicy;
+import com.emergentmud.core.model.TickPhase;
+import com.emergentmud.core.model.room.Room;
+import com.emergentmud.core.model.stomp.GameOutput;
+import com.emergentmud.core.model.stomp.MapFrame;
+import com.emergentmud.core.repository.EntityRepository;
+import com.emergentmud.core.service.LagService;
+import com.emergentmud.core.service.OutputService;
+import com.emergentmud.core.service.PlayerSessionService;
+import com.emergentmud.core.service.TickService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.actuate.metrics.CounterService;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class OutputServiceTest {
+    @Mock
+    private MessageChannel clientOutboundChannel;
+
+    @Mock
+    private SimpMessagingTemplate simpMessagingTemplate;
+
+    @Mock
+    private EntityRepository entityRepository;
+
+    @Mock
+    private TickService tickService;
+
+    @Mock
+    private CounterService counterService;
+
+    @Mock
+    private LagService lagService;
+
+    @Mock
+    private Entity alice;
+
+    @Mock
+    private Entity bob;
+
+    @Mock
+    private Entity offline;
+
+    @Captor
+    private ArgumentCaptor<Message<?>> messageCaptor;
+
+    @Captor
+    private ArgumentCaptor<Runnable> flushCaptor;
+
+    private ObjectMapper objectMapper = new ObjectMapper();
+    private PlayerSessionService playerSessionService;
+
+    private OutputService outputService;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+
+        when(simpMessagingTemplate.getUserDestinationPrefix()).thenReturn("/user/");
+        when(alice.getStompSessionId()).thenReturn("aliceSession");
+        when(alice.getStompUsername()).thenReturn("aliceUser");
+        when(bob.getStompSessionId()).thenReturn("bobSession");
+        when(bob.getStompUsername()).thenReturn("bobUser");
+
+        when(alice.getId()).thenReturn("alice");
+        when(bob.getId()).thenReturn("bob");
+
+        playerSessionService = new PlayerSessionService(entityRepository, false);
+
+        outputService = createOutputService(200, OverflowPolicy.DROP_CHAT);
+    }
+
+    @Test
+    public void testRegistersOnTick() throws Exception {
+        verify(tickService).register(eq(TickPhase.OUTPUT), flushCaptor.capture());
+
+        outputService.enqueue(alice, new GameOutput("Hello."));
+        flushCaptor.getValue().run();
+
+        verify(simpMessagingTemplate).send(eq("/user/aliceUser/queue/output"), any(Message.class));
+    }
+
+    @Test
+    public void testEnqueueDoesNotSend() throws Exception {
+        outputService.enqueue(alice, new GameOutput("Hello."));
+
+        assertEquals(1, outputService.getBufferedLines(alice));
+        verify(simpMessagingTemplate, never()).send(anyString(), any(Message.class));
+    }
+
+    @Test
+    public void testFlushCoalesces() throws Exception {
+        outputService.enqueue(alice, new GameOutput("Bob walks in from the south."));
+        outputService.enqueue(alice, new GameOutput("Bob says 'hi'."));
+        outputService.enqueue(alice, new GameOutput("You say 'hello'."));
+
+        outputService.flush(alice);
+
+        verify(simpMessagingTemplate, times(1)).send(eq("/user/aliceUser/queue/output"), messageCaptor.capture());
+
+        assertEquals(Arrays.asList(
+                "Bob walks in from the south.",
+                "Bob says 'hi'.",
+                "You say 'hello'.",
+                "",
+                "[default]> "), decode(messageCaptor.getValue()));
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(messageCaptor.getValue());
+
+        assertEquals("aliceSession", accessor.getSessionId());
+        assertEquals(MimeTypeUtils.APPLICATION_JSON, accessor.getContentType());
+        assertEquals(0, outputService.getBufferedLines(alice));
+        verify(counterService).increment(eq("output.frames"));
+    }
+
+    @Test
+    public void testFlushEmpty() throws Exception {
+        outputService.flush(alice);
+
+        verify(simpMessagingTemplate, never()).send(anyString(), any(Message.class));
+    }
+
+    @Test
+    public void testFlushTwice() throws Exception {
+        outputService.enqueue(alice, new GameOutput("One."));
+        outputService.flush(alice);
+        outputService.flush(alice);
+        outputService.enqueue(alice, new GameOutput("Two."));
+        outputService.flush(alice);
+
+        verify(simpMessagingTemplate, times(2)).send(eq("/user/aliceUser/queue/output"), messageCaptor.capture());
+        assertEquals(Arrays.asList("Two.", "", "[default]> "), decode(messageCaptor.getAllValues().get(1)));
+    }
+
+    @Test
+    public void testBroadcastEncodesOnce() throws Exception {
+        GameOutput shared = new GameOutput("[red]EmergentMUD is shutting down.");
+
+        outputService.broadcast(Arrays.asList(alice, bob), shared);
+        outputService.flushAll();
+
+        verify(simpMessagingTemplate).send(eq("/user/aliceUser/queue/output"), messageCaptor.capture());
+        verify(simpMessagingTemplate).send(eq("/user/bobUser/queue/output"), messageCaptor.capture());
+        verify(counterService, times(1)).increment(eq("output.encoded"));
+
+        Message<?> aliceMessage = messageCaptor.getAllValues().get(0);
+        Message<?> bobMessage = messageCaptor.getAllValues().get(1);
+
+        assertSame(aliceMessage.getPayload(), bobMessage.getPayload());
+        assertEquals("aliceSession", SimpMessageHeaderAccessor.wrap(aliceMessage).getSessionId());
+        assertEquals("bobSession", SimpMessageHeaderAccessor.wrap(bobMessage).getSessionId());
+        assertEquals(Arrays.asList("[red]EmergentMUD is shutting down.", "", "[default]> "), decode(aliceMessage));
+        assertEquals(1, shared.getOutput().size());
+    }
+
+    @Test
+    public void testBroadcastMergedWithPendingOutput() throws Exception {
+        outputService.enqueue(alice, new GameOutput("You say 'hello'."));
+        outputService.broadcast(Arrays.asList(alice, bob), new GameOutput("Thunder rumbles."));
+        outputService.flushAll();
+
+        verify(simpMessagingTemplate).send(eq("/user/aliceUser/queue/output"), messageCaptor.capture());
+        verify(counterService, times(2)).increment(eq("output.encoded"));
+        assertEquals(Arrays.asList("You say 'hello'.", "Thunder rumbles.", "", "[default]> "), decode(messageCaptor.getValue()));
+    }
+
+    @Test
+    public void testOutputAfterBroadcastIsNotShared() throws Exception {
+        outputService.broadcast(Arrays.asList(alice, bob), new GameOutput("Thunder rumbles."));
+        outputService.enqueue(alice, new GameOutput("You flinch."));
+        outputService.flush(alice);
+
+        verify(simpMessagingTemplate).send(eq("/user/aliceUser/queue/output"), messageCaptor.capture());
+        assertEquals(Arrays.asList("You flinch.", "Thunder rumbles.", "", "[default]> "), decode(messageCaptor.getValue()));
+    }
+
+    @Test
+    public void testFlushOrdersByPriority() throws Exception {
+        outputService.enqueue(alice, new GameOutput("Bob says 'hi'."), OutputPriority.CHAT);
+        outputService.enqueue(alice, new GameOutput("Bob walks in from the south."), OutputPriority.ROOM);
+        outputService.enqueue(alice, new GameOutput("You wave."));
+        outputService.flush(alice);
+
+        verify(simpMessagingTemplate).send(eq("/user/aliceUser/queue/output"), messageCaptor.capture());
+        assertEquals(Arrays.asList(
+                "You wave.",
+                "Bob walks in from the south.",
+                "Bob says 'hi'.",
+                "",
+                "[default]> "), decode(messageCaptor.getValue()));
+    }
+
+    @Test
+    public void testHeldWhileLagging() throws Exception {
+        when(lagService.isLagging(eq("aliceSession"))).thenReturn(true);
+
+        outputService.enqueue(alice, new GameOutput("One."));
+        outputService.flushAll();
+        outputService.enqueue(alice, new GameOutput("Two."));
+        outputService.flushAll();
+
+        verify(simpMessagingTemplate, never()).send(anyString(), any(Message.class));
+        verify(lagService, times(2)).recordHeld(eq("aliceSession"));
+        assertEquals(2, outputService.getBufferedLines(alice));
+
+        when(lagService.isLagging(eq("aliceSession"))).thenReturn(false);
+
+        outputService.flushAll();
+
+        verify(simpMessagingTemplate).send(eq("/user/aliceUser/queue/output"), messageCaptor.capture());
+        assertEquals(Arrays.asList("One.", "Two.", "", "[default]> "), decode(messageCaptor.getValue()));
+    }
+
+    @Test
+    public void testLaggingSessionDoesNotHoldOthers() throws Exception {
+        when(lagService.isLagging(eq("aliceSession"))).thenReturn(true);
+
+        outputService.broadcast(Arrays.asList(alice, bob), new GameOutput("Thunder rumbles."));
+        outputService.flushAll();
+
+        verify(simpMessagingTemplate).send(eq("/user/bobUser/queue/output"), any(Message.class));
+        verify(simpMessagingTemplate, never()).send(eq("/user/aliceUser/queue/output"), any(Message.class));
+    }
+
+    @Test
+    public void testOverflowDropsChatFirst() throws Exception {
+        outputService = createOutputService(3, OverflowPolicy.DROP_CHAT);
+
+        outputService.enqueue(alice, new GameOutput("Chat one."), OutputPriority.CHAT);
+        outputService.enqueue(alice, new GameOutput("Room one."), OutputPriority.ROOM);
+        outputService.enqueue(alice, new GameOutput("Chat two."), OutputPriority.CHAT);
+        outputService.enqueue(alice, new GameOutput("Reply one."));
+        outputService.enqueue(alice, new GameOutput("Reply two."));
+        outputService.flush(alice);
+
+        verify(lagService, times(2)).recordDropped(eq("aliceSession"), eq(1));
+        verify(simpMessagingTemplate).send(eq("/user/aliceUser/queue/output"), messageCaptor.capture());
+        assertEquals(Arrays.asList(
+                "Reply one.",
+                "Reply two.",
+                "[dwhite]... 2 messages dropped while your connection caught up ...",
+                "Room one.",
+                "",
+                "[default]> "), decode(messageCaptor.getValue()));
+    }
+
+    @Test
+    public void testOverflowDropsIncomingLowPriority() throws Exception {
+        outputService = createOutputService(2, OverflowPolicy.DROP_CHAT);
+
+        outputService.enqueue(alice, new GameOutput("Reply one."));
+        outputService.enqueue(alice, new GameOutput("Room one."), OutputPriority.ROOM);
+        outputService.enqueue(alice, new GameOutput("Chat one."), OutputPriority.CHAT);
+        outputService.flush(alice);
+
+        verify(simpMessagingTemplate).send(eq("/user/aliceUser/queue/output"), messageCaptor.capture());
+        assertEquals(Arrays.asList(
+                "Reply one.",
+                "[dwhite]... 1 message dropped while your connection caught up ...",
+                "Room one.",
+                "",
+                "[default]> "), decode(messageCaptor.getValue()));
+    }
+
+    @Test
+    public void testOverflowCollapse() throws Exception {
+        outputService = createOutputService(3, OverflowPolicy.COLLAPSE);
+
+        outputService.enqueue(alice, new GameOutput("Reply one."));
+        outputService.enqueue(alice, new GameOutput("Room one."), OutputPriority.ROOM);
+        outputService.enqueue(alice, new GameOutput("Chat one."), OutputPriority.CHAT);
+        outputService.enqueue(alice, new GameOutput("Room two."), OutputPriority.ROOM);
+        outputService.flush(alice);
+
+        verify(lagService).recordDropped(eq("aliceSession"), eq(2));
+        verify(simpMessagingTemplate).send(eq("/user/aliceUser/queue/output"), messageCaptor.capture());
+        assertEquals(Arrays.asList(
+                "Reply one.",
+                "[dwhite]... 2 messages dropped while your connection caught up ...",
+                "Room two.",
+                "",
+                "[default]> "), decode(messageCaptor.getValue()));
+    }
+
+    @Test
+    public void testOverflowDisconnect() throws Exception {
+        outputService = createOutputService(2, OverflowPolicy.DISCONNECT);
+
+        outputService.enqueue(alice, new GameOutput("One.", "Two."));
+        outputService.enqueue(alice, new GameOutput("Three."), OutputPriority.CHAT);
+        outputService.flushAll();
+
+        verify(lagService).disconnect(eq("aliceSession"));
+        verify(simpMessagingTemplate, never()).send(anyString(), any(Message.class));
+        assertEquals(0, outputService.getBufferedLines(alice));
+    }
+
+    @Test
+    public void testOverflowBreaksSharedFrame() throws Exception {
+        outputService = createOutputService(1, OverflowPolicy.DROP_CHAT);
+
+        outputService.broadcast(Arrays.asList(alice, bob), new GameOutput("Thunder.", "Lightning."));
+        outputService.flushAll();
+
+        verify(simpMessagingTemplate).send(eq("/user/aliceUser/queue/output"), messageCaptor.capture());
+        assertEquals(Arrays.asList(
+                "[dwhite]... 1 message dropped while your connection caught up ...",
+                "Lightning.",
+                "",
+                "[default]> "), decode(messageCaptor.getValue()));
+    }
+
+    @Test
+    public void testMapDirectDelivery() throws Exception {
+        playerSessionService.bind("aliceSession", "aliceUser", "breadcrumb", "account", alice).setMapSubscriptionId("sub-1");
+
+        assertTrue(outputService.enqueueMap(alice, mapFrame(MapFrame.FULL)));
+        outputService.flush(alice);
+
+        verify(clientOutboundChannel).send(messageCaptor.capture());
+        verify(simpMessagingTemplate, never()).send(anyString(), any(Message.class));
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(messageCaptor.getValue());
+
+        assertEquals("sub-1", accessor.getSubscriptionId());
+        assertEquals("/user/queue/map", accessor.getDestination());
+        assertEquals(MapFrame.FULL, objectMapper.readTree((byte[])messageCaptor.getValue().getPayload()).get("type").asText());
+    }
+
+    @Test
+    public void testMapRoutedWithoutSubscriptionId() throws Exception {
+        outputService.enqueueMap(alice, mapFrame(MapFrame.DELTA));
+        outputService.flush(alice);
+
+        verify(simpMessagingTemplate).send(eq("/user/aliceUser/queue/map"), any(Message.class));
+        verify(simpMessagingTemplate, never()).send(eq("/user/aliceUser/queue/output"), any(Message.class));
+    }
+
+    @Test
+    public void testMapFollowsText() throws Exception {
+        outputService.enqueue(alice, new GameOutput("You walk north."));
+        outputService.enqueueMap(alice, mapFrame(MapFrame.DELTA));
+        outputService.flush(alice);
+
+        InOrder inOrder = inOrder(simpMessagingTemplate);
+
+        inOrder.verify(simpMessagingTemplate).send(eq("/user/aliceUser/queue/output"), any(Message.class));
+        inOrder.verify(simpMessagingTemplate).send(eq("/user/aliceUser/queue/map"), any(Message.class));
+    }
+
+    @Test
+    public void testMapHeldWhileLagging() throws Exception {
+        when(lagService.isLagging(eq("aliceSession"))).thenReturn(true);
+
+        outputService.enqueueMap(alice, mapFrame(MapFrame.DELTA));
+        outputService.flushAll();
+
+        verify(simpMessagingTemplate, never()).send(anyString(), any(Message.class));
+        verify(lagService).recordHeld(eq("aliceSession"));
+
+        when(lagService.isLagging(eq("aliceSession"))).thenReturn(false);
+
+        outputService.flushAll();
+
+        verify(simpMessagingTemplate).send(eq("/user/aliceUser/queue/map"), any(Message.class));
+    }
+
+    @Test
+    public void testMapFullReplacesDeltas() throws Exception {
+        outputService.enqueueMap(alice, mapFrame(MapFrame.DELTA));
+        outputService.enqueueMap(alice, mapFrame(MapFrame.DELTA));
+        outputService.enqueueMap(alice, mapFrame(MapFrame.FULL));
+        outputService.flush(alice);
+
+        verify(simpMessagingTemplate, times(1)).send(eq("/user/aliceUser/queue/map"), messageCaptor.capture());
+        assertEquals(MapFrame.FULL, objectMapper.readTree((byte[])messageCaptor.getValue().getPayload()).get("type").asText());
+    }
+
+    @Test
+    public void testMapDeltaLimit() throws Exception {
+        when(lagService.isLagging(eq("aliceSession"))).thenReturn(true);
+
+        for (int i = 0; i < 16; i++) {
+            assertTrue(outputService.enqueueMap(alice, mapFrame(MapFrame.DELTA)));
+        }
+
+        assertFalse(outputService.enqueueMap(alice, mapFrame(MapFrame.DELTA)));
+        assertTrue(outputService.enqueueMap(alice, mapFrame(MapFrame.FULL)));
+    }
+
+    @Test
+    public void testMapOffline() throws Exception {
+        assertTrue(outputService.enqueueMap(offline, mapFrame(MapFrame.FULL)));
+
+        outputService.flushAll();
+
+        verifyZeroInteractions(simpMessagingTemplate, clientOutboundChannel);
+    }
+
+    @Test
+    public void testDirectDelivery() throws Exception {
+        playerSessionService.bind("aliceSession", "aliceUser", "breadcrumb", "account", alice).setSubscriptionId("sub-0");
+
+        outputService.enqueue(alice, new GameOutput("Hello."));
+        outputService.flush(alice);
+
+        verify(clientOutboundChannel).send(messageCaptor.capture());
+        verify(simpMessagingTemplate, never()).send(anyString(), any(Message.class));
+        verify(counterService, never()).increment(eq("output.frames.routed"));
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(messageCaptor.getValue());
+
+        assertEquals(SimpMessageType.MESSAGE, accessor.getMessageType());
+        assertEquals("aliceSession", accessor.getSessionId());
+        assertEquals("sub-0", accessor.getSubscriptionId());
+        assertEquals("/user/queue/output", accessor.getDestination());
+        assertEquals(MimeTypeUtils.APPLICATION_JSON, accessor.getContentType());
+        assertEquals(Arrays.asList("Hello.", "", "[default]> "), decode(messageCaptor.getValue()));
+    }
+
+    @Test
+    public void testDirectBroadcastSharesPayload() throws Exception {
+        playerSessionService.bind("aliceSession", "aliceUser", "breadcrumb", "account", alice).setSubscriptionId("sub-0");
+        playerSessionService.bind("bobSession", "bobUser", "breadcrumb", "account", bob).setSubscriptionId("sub-1");
+
+        outputService.broadcast(Arrays.asList(alice, bob), new GameOutput("Thunder rumbles."));
+        outputService.flushAll();
+
+        verify(clientOutboundChannel, times(2)).send(messageCaptor.capture());
+        assertSame(messageCaptor.getAllValues().get(0).getPayload(), messageCaptor.getAllValues().get(1).getPayload());
+    }
+
+    @Test
+    public void testRoutedWithoutSubscription() throws Exception {
+        playerSessionService.bind("aliceSession", "aliceUser", "breadcrumb", "account", alice);
+
+        outputService.enqueue(alice, new GameOutput("Hello."));
+        outputService.flush(alice);
+
+        verify(simpMessagingTemplate).send(eq("/user/aliceUser/queue/output"), any(Message.class));
+        verify(clientOutboundChannel, never()).send(any(Message.class));
+        verify(counterService).increment(eq("output.frames.routed"));
+    }
+
+    @Test
+    public void testCompactDelivery() throws Exception {
+        playerSessionService.bind("aliceSession", "aliceUser", "breadcrumb", "account", alice).setSubscriptionId("sub-0");
+        playerSessionService.getSession("aliceSession").get().setOutputFormat(OutputFormat.COMPACT);
+
+        outputService.enqueue(alice, new GameOutput("[yellow]Hello."));
+        outputService.flush(alice);
+
+        verify(clientOutboundChannel).send(messageCaptor.capture());
+        verify(counterService).increment(eq("output.encoded.compact"));
+
+        JsonNode frame = objectMapper.readTree((byte[])messageCaptor.getValue().getPayload());
+
+        assertEquals(1, frame.get("v").asInt());
+        assertEquals("[[9,\"Hello.\"],\"\",[1,\"> \"]]", frame.get("o").toString());
+    }
+
+    @Test
+    public void testBroadcastEncodesOncePerFormat() throws Exception {
+        playerSessionService.bind("aliceSession", "aliceUser", "breadcrumb", "account", alice).setSubscriptionId("sub-0");
+        playerSessionService.bind("bobSession", "bobUser", "breadcrumb", "account", bob).setSubscriptionId("sub-1");
+        playerSessionService.getSession("aliceSession").get().setOutputFormat(OutputFormat.COMPACT);
+
+        outputService.broadcast(Arrays.asList(alice, bob), new GameOutput("[red]Thunder rumbles."));
+        outputService.flushAll();
+
+        verify(clientOutboundChannel, times(2)).send(messageCaptor.capture());
+        verify(counterService, times(2)).increment(eq("output.encoded"));
+        verify(counterService, times(1)).increment(eq("output.encoded.compact"));
+
+        Message<?> aliceMessage = messageCaptor.getAllValues().get(0);
+        Message<?> bobMessage = messageCaptor.getAllValues().get(1);
+
+        if (!"aliceSession".equals(SimpMessageHeaderAccessor.wrap(aliceMessage).getSessionId())) {
+            aliceMessage = messageCaptor.getAllValues().get(1);
+            bobMessage = messageCaptor.getAllValues().get(0);
+        }
+
+        assertEquals(1, objectMapper.readTree((byte[])aliceMessage.getPayload()).get("v").asInt());
+        assertEquals(Arrays.asList("[red]Thunder rumbles.", "", "[default]> "), decode(bobMessage));
+    }
+
+    @Test
+    public void testOfflineRecipient() throws Exception {
+        outputService.enqueue(offline, new GameOutput("Hello?"));
+        outputService.flushAll();
+
+        verify(simpMessagingTemplate, never()).send(anyString(), any(Message.class));
+    }
+
+    @Test
+    public void testDiscard() throws Exception {
+        outputService.enqueue(alice, new GameOutput("Hello."));
+        outputService.discard("aliceSession");
+        outputService.flushAll();
+
+        assertEquals(0, outputService.getBufferedLines(alice));
+        verify(simpMessagingTemplate, never()).send(anyString(), any(Message.class));
+    }
+
+    private MapFrame mapFrame(String type) {
+        return new MapFrame(type, 0L, 0L, 1, 1, 0, 0, new Room[1]);
+    }
+
+    private OutputService createOutputService(int limit, OverflowPolicy policy) {
+        return new OutputService(
+                clientOutboundChannel,
+                simpMessagingTemplate,
+                playerSessionService,
+                objectMapper,
+                new PromptBuilder(),
+                tickService,
+                counterService,
+                lagService,
+                limit,
+                policy);
+    }
+
+    private List<String> decode(Message<?> message) throws Exception {
+        return objectMapper.readValue((byte[])message.getPayload(), GameOutput.class).getOutput();
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.util;
+
+import com.emergentmud.core.command.Command;
+import com.emergentmud.core.command.Continuation;
+import com.emergentmud.core.model.Entity;
+import com.emergentmud.core.model.PlayerSession;
+import com.emergentmud.core.repository.EntityRepository;
+import com.emergentmud.core.service.PlayerSessionService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class PlayerSessionServiceTest {
+    @Mock
+    private EntityRepository entityRepository;
+
+    @Mock
+    private Entity entity;
+
+    @Mock
+    private Entity stored;
+
+    private PlayerSessionService playerSessionService;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+
+        when(entity.getId()).thenReturn("entityId");
+        when(stored.getId()).thenReturn("entityId");
+        when(stored.getStompSessionId()).thenReturn("simpSessionId");
+        when(stored.getStompUsername()).thenReturn("username");
+        when(entityRepository.findOne(eq("entityId"))).thenReturn(stored);
+
+        playerSessionService = new PlayerSessionService(entityRepository, false);
+    }
+
+    @Test
+    public void testBind() throws Exception {
+        PlayerSession session = playerSessionService.bind("simpSessionId", "username", "breadcrumb", "accountId", entity);
+
+        assertEquals(session, playerSessionService.getSession("simpSessionId").get());
+        assertEquals("accountId", session.getAccountId());
+        assertEquals(entity, session.getEntity());
+    }
+
+    @Test
+    public void testGetLiveEntities() throws Exception {
+        assertTrue(playerSessionService.getLiveEntities().isEmpty());
+
+        playerSessionService.bind("simpSessionId", "username", "breadcrumb", "accountId", entity);
+
+        assertEquals(1, playerSessionService.getLiveEntities().size());
+        assertTrue(playerSessionService.getLiveEntities().contains(entity));
+
+        playerSessionService.unbind("simpSessionId");
+
+        assertTrue(playerSessionService.getLiveEntities().isEmpty());
+    }
+
+    @Test
+    public void testContinuation() throws Exception {
+        Continuation continuation = new Continuation(mock(Command.class), "help", "page", "2");
+
+        playerSessionService.bind("simpSessionId", "username", "breadcrumb", "accountId", entity);
+        playerSessionService.setContinuation(entity, continuation);
+
+        assertEquals(continuation, playerSessionService.takeContinuation(entity).get());
+        assertFalse(playerSessionService.takeContinuation(entity).isPresent());
+    }
+
+    @Test
+    public void testContinuationWithoutSession() throws Exception {
+        playerSessionService.setContinuation(entity, new Continuation(mock(Command.class), "help", "page", "2"));
+
+        assertFalse(playerSessionService.takeContinuation(entity).isPresent());
+    }
+
+    @Test
+    public void testRebindEvictsPreviousSession() throws Exception {
+        playerSessionService.bind("simpSessionId", "username", "breadcrumb", "accountId", entity);
+        playerSessionService.bind("otherSessionId", "username", "breadcrumb", "accountId", entity);
+
+        assertFalse(playerSessionService.getSession("simpSessionId").isPresent());
+        assertTrue(playerSessionService.getSession("otherSessionId").isPresent());
+    }
+
+    @Test
+    public void testUnbind() throws Exception {
+        playerSessionService.bind("simpSessionId", "username", "breadcrumb", "accountId", entity);
+
+        assertEquals(entity, playerSessionService.unbind("simpSessionId").get().getEntity());
+        assertFalse(playerSessionService.getSession("simpSessionId").isPresent());
+        assertEquals(stored, playerSessionService.getLiveEntity(stored));
+    }
+
+    @Test
+    public void testUnbindEvictedSession() throws Exception {
+        playerSessionService.bind("simpSessionId", "username", "breadcrumb", "accountId", entity);
+        playerSessionService.bind("otherSessionId", "username", "breadcrumb", "accountId", entity);
+
+        assertFalse(playerSessionService.unbind("simpSessionId").isPresent());
+        assertEquals(entity, playerSessionService.getLiveEntity(stored));
+    }
+
+    @Test
+    public void testUnbindEntity() throws Exception {
+        playerSessionService.bind("simpSessionId", "username", "breadcrumb", "accountId", entity);
+        playerSessionService.unbindEntity("entityId");
+
+        assertFalse(playerSessionService.getSession("simpSessionId").isPresent());
+    }
+
+    @Test
+    public void testGetLiveEntity() throws Exception {
+        assertEquals(stored, playerSessionService.getLiveEntity(stored));
+
+        playerSessionService.bind("simpSessionId", "username", "breadcrumb", "accountId", entity);
+
+        assertEquals(entity, playerSessionService.getLiveEntity(stored));
+    }
+
+    @Test
+    public void testIsValid() throws Exception {
+        PlayerSession session = playerSessionService.bind("simpSessionId", "username", "breadcrumb", "accountId", entity);
+
+        assertTrue(playerSessionService.isValid(session, "username", "breadcrumb"));
+        assertFalse(playerSessionService.isValid(session, "someoneElse", "breadcrumb"));
+        assertFalse(playerSessionService.isValid(session, "username", "otherBreadcrumb"));
+        verifyZeroInteractions(entityRepository);
+    }
+
+    @Test
+    public void testIsValidValidated() throws Exception {
+        playerSessionService = new PlayerSessionService(entityRepository, true);
+
+        PlayerSession session = playerSessionService.bind("simpSessionId", "username", "breadcrumb", "accountId", entity);
+
+        assertTrue(playerSessionService.isValid(session, "username", "breadcrumb"));
+        verify(entityRepository).findOne(eq("entityId"));
+    }
+
+    @Test
+    public void testIsValidValidatedStale() throws Exception {
+        playerSessionService = new PlayerSessionService(entityRepository, true);
+
+        PlayerSession session = playerSessionService.bind("simpSessionId", "username", "breadcrumb", "accountId", entity);
+
+        when(stored.getStompSessionId()).thenReturn("otherSessionId");
+
+        assertFalse(playerSessionService.isValid(session, "username", "breadcrumb"));
+        assertFalse(playerSessionService.getSession("simpSessionId").isPresent());
+    }
+}
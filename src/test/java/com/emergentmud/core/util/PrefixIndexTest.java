@@ -0,0 +1,89 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.util;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PrefixIndexTest {
+    private List<String> values = Arrays.asList("north", "east", "south", "west", "look", "say", "shout", "sail");
+
+    private PrefixIndex<String> prefixIndex;
+
+    @Before
+    public void setUp() throws Exception {
+        prefixIndex = new PrefixIndex<>(values, value -> value);
+    }
+
+    @Test
+    public void testValues() throws Exception {
+        assertEquals(values, prefixIndex.getValues());
+    }
+
+    @Test
+    public void testFullName() throws Exception {
+        assertEquals("look", prefixIndex.find("look").orElse(null));
+    }
+
+    @Test
+    public void testPrefix() throws Exception {
+        assertEquals("north", prefixIndex.find("n").orElse(null));
+        assertEquals("west", prefixIndex.find("w").orElse(null));
+    }
+
+    @Test
+    public void testPriorityOrder() throws Exception {
+        assertEquals("south", prefixIndex.find("s").orElse(null));
+        assertEquals("say", prefixIndex.find("sa").orElse(null));
+        assertEquals("shout", prefixIndex.find("sh").orElse(null));
+    }
+
+    @Test
+    public void testEmptyPrefix() throws Exception {
+        assertEquals("north", prefixIndex.find("").orElse(null));
+    }
+
+    @Test
+    public void testNoMatch() throws Exception {
+        assertFalse(prefixIndex.find("x").isPresent());
+        assertFalse(prefixIndex.find("looking").isPresent());
+    }
+
+    @Test
+    public void testFilter() throws Exception {
+        assertEquals("sail", prefixIndex.find("s", value -> value.endsWith("l")).orElse(null));
+        assertFalse(prefixIndex.find("n", value -> false).isPresent());
+    }
+
+    @Test
+    public void testEmptyIndex() throws Exception {
+        PrefixIndex<String> empty = new PrefixIndex<>(Collections.emptyList(), value -> value);
+
+        assertFalse(empty.find("").isPresent());
+        assertTrue(empty.getValues().isEmpty());
+    }
+}
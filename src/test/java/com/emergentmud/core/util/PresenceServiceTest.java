@@ -0,0 +1,267 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.util;
+
+import com.emergentmud.core.model.Entity;
+import com.emergentmud.core.model.room.Room;
+import com.emergentmud.core.service.PresenceService;
+import com.emergentmud.core.service.RoomService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class PresenceServiceTest {
+    @Mock
+    private RoomService roomService;
+
+    @Mock
+    private Room room;
+
+    @Mock
+    private Room otherRoom;
+
+    @Mock
+    private Entity alice;
+
+    @Mock
+    private Entity bob;
+
+    @Mock
+    private Entity aliceAgain;
+
+    private PresenceService presenceService;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+
+        when(room.getId()).thenReturn("room");
+        when(otherRoom.getId()).thenReturn("otherRoom");
+        when(alice.getId()).thenReturn("alice");
+        when(bob.getId()).thenReturn("bob");
+        when(aliceAgain.getId()).thenReturn("alice");
+
+        presenceService = new PresenceService(roomService);
+    }
+
+    @Test
+    public void testEmpty() throws Exception {
+        assertTrue(presenceService.getOccupants(room).isEmpty());
+        assertTrue(presenceService.getOccupants(null).isEmpty());
+        assertEquals(0, presenceService.getOccupantCount(room));
+        assertEquals(0, presenceService.getOccupiedRoomCount());
+        assertTrue(presenceService.getOnline().isEmpty());
+        assertEquals(0, presenceService.getOnlineCount());
+    }
+
+    @Test
+    public void testEnter() throws Exception {
+        presenceService.enter(alice, room);
+        presenceService.enter(bob, room);
+
+        assertEquals(Arrays.asList(alice, bob), presenceService.getOccupants(room));
+        assertEquals(2, presenceService.getOccupantCount(room));
+        assertEquals(1, presenceService.getOccupiedRoomCount());
+    }
+
+    @Test
+    public void testEnterTwice() throws Exception {
+        presenceService.enter(alice, room);
+        presenceService.enter(alice, room);
+
+        assertEquals(Collections.singletonList(alice), presenceService.getOccupants(room));
+    }
+
+    @Test
+    public void testEnterMoves() throws Exception {
+        presenceService.enter(alice, room);
+        presenceService.enter(bob, room);
+        presenceService.enter(alice, otherRoom);
+
+        assertEquals(Collections.singletonList(bob), presenceService.getOccupants(room));
+        assertEquals(Collections.singletonList(alice), presenceService.getOccupants(otherRoom));
+        assertEquals(2, presenceService.getOccupiedRoomCount());
+    }
+
+    @Test
+    public void testLeave() throws Exception {
+        presenceService.enter(alice, room);
+        presenceService.enter(bob, room);
+        presenceService.leave(alice);
+
+        assertEquals(Collections.singletonList(bob), presenceService.getOccupants(room));
+
+        presenceService.leave(bob);
+
+        assertTrue(presenceService.getOccupants(room).isEmpty());
+        assertEquals(0, presenceService.getOccupiedRoomCount());
+    }
+
+    @Test
+    public void testLeaveAbsent() throws Exception {
+        presenceService.enter(bob, room);
+        presenceService.leave(alice);
+
+        assertEquals(Collections.singletonList(bob), presenceService.getOccupants(room));
+    }
+
+    @Test
+    public void testRefresh() throws Exception {
+        presenceService.enter(alice, room);
+        presenceService.enter(bob, room);
+        presenceService.refresh(aliceAgain);
+
+        assertSame(aliceAgain, presenceService.getOccupants(room).get(0));
+        assertSame(bob, presenceService.getOccupants(room).get(1));
+    }
+
+    @Test
+    public void testRefreshAbsent() throws Exception {
+        presenceService.refresh(alice);
+
+        assertTrue(presenceService.getOccupants(room).isEmpty());
+        assertEquals(0, presenceService.getOccupiedRoomCount());
+    }
+
+    @Test
+    public void testEnterReplacesInstance() throws Exception {
+        presenceService.enter(alice, room);
+        presenceService.enter(aliceAgain, room);
+
+        assertEquals(1, presenceService.getOccupantCount(room));
+        assertSame(aliceAgain, presenceService.getOccupants(room).get(0));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testOccupantsAreReadOnly() throws Exception {
+        presenceService.enter(alice, room);
+        presenceService.getOccupants(room).remove(alice);
+    }
+
+    @Test
+    public void testSnapshotUnaffectedByLaterChanges() throws Exception {
+        presenceService.enter(alice, room);
+
+        List<Entity> snapshot = presenceService.getOccupants(room);
+
+        presenceService.enter(bob, room);
+        presenceService.leave(alice);
+
+        assertEquals(Collections.singletonList(alice), snapshot);
+    }
+
+    @Test
+    public void testOnline() throws Exception {
+        presenceService.enter(alice, room);
+        presenceService.enter(bob, otherRoom);
+        presenceService.enter(alice, otherRoom);
+
+        assertEquals(Arrays.asList(alice, bob), presenceService.getOnline());
+        assertEquals(2, presenceService.getOnlineCount());
+    }
+
+    @Test
+    public void testOnlineLeave() throws Exception {
+        presenceService.enter(alice, room);
+        presenceService.enter(bob, room);
+        presenceService.leave(alice);
+
+        assertEquals(Collections.singletonList(bob), presenceService.getOnline());
+
+        presenceService.leave(bob);
+        presenceService.leave(bob);
+
+        assertTrue(presenceService.getOnline().isEmpty());
+        assertEquals(0, presenceService.getOnlineCount());
+    }
+
+    @Test
+    public void testOnlineRefresh() throws Exception {
+        presenceService.enter(alice, room);
+        presenceService.refresh(aliceAgain);
+
+        assertSame(aliceAgain, presenceService.getOnline().get(0));
+        assertEquals(1, presenceService.getOnlineCount());
+    }
+
+    @Test
+    public void testMoveLeavesOnlineUntouched() throws Exception {
+        presenceService.enter(alice, room);
+        presenceService.enter(aliceAgain, otherRoom);
+
+        assertSame(alice, presenceService.getOnline().get(0));
+        assertSame(aliceAgain, presenceService.getOccupants(otherRoom).get(0));
+        assertEquals(1, presenceService.getOnlineCount());
+    }
+
+    @Test
+    public void testOnlineSnapshot() throws Exception {
+        presenceService.enter(alice, room);
+
+        List<Entity> snapshot = presenceService.getOnline();
+
+        presenceService.enter(bob, room);
+
+        assertEquals(Collections.singletonList(alice), snapshot);
+        assertEquals(2, presenceService.getOnlineCount());
+    }
+
+    @Test
+    public void testOccupiesRoomOnce() throws Exception {
+        presenceService.enter(alice, room);
+        presenceService.enter(bob, room);
+
+        verify(roomService, times(1)).occupy(eq(room));
+        verify(roomService, never()).vacate(any(Room.class));
+    }
+
+    @Test
+    public void testVacatesEmptyRoom() throws Exception {
+        presenceService.enter(alice, room);
+        presenceService.enter(bob, room);
+        presenceService.leave(alice);
+
+        verify(roomService, never()).vacate(any(Room.class));
+
+        presenceService.leave(bob);
+
+        verify(roomService).vacate(eq(room));
+    }
+
+    @Test
+    public void testMoveVacatesPreviousRoom() throws Exception {
+        presenceService.enter(alice, room);
+        presenceService.enter(alice, otherRoom);
+
+        verify(roomService).occupy(eq(room));
+        verify(roomService).vacate(eq(room));
+        verify(roomService).occupy(eq(otherRoom));
+        verify(roomService, never()).vacate(eq(otherRoom));
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.util;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class RingBufferTest {
+    private RingBuffer<String> ringBuffer;
+
+    @Before
+    public void setUp() throws Exception {
+        ringBuffer = new RingBuffer<>(3);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroCapacity() throws Exception {
+        new RingBuffer<String>(0);
+    }
+
+    @Test
+    public void testEmpty() throws Exception {
+        assertEquals(0, ringBuffer.size());
+        assertEquals(3, ringBuffer.getCapacity());
+        assertTrue(ringBuffer.snapshot().isEmpty());
+    }
+
+    @Test
+    public void testPartiallyFull() throws Exception {
+        ringBuffer.add("a");
+        ringBuffer.add("b");
+
+        assertEquals(2, ringBuffer.size());
+        assertEquals(Arrays.asList("a", "b"), ringBuffer.snapshot());
+    }
+
+    @Test
+    public void testWrapsAround() throws Exception {
+        ringBuffer.add("a");
+        ringBuffer.add("b");
+        ringBuffer.add("c");
+        ringBuffer.add("d");
+        ringBuffer.add("e");
+
+        assertEquals(3, ringBuffer.size());
+        assertEquals(Arrays.asList("c", "d", "e"), ringBuffer.snapshot());
+    }
+
+    @Test
+    public void testSingleSlot() throws Exception {
+        RingBuffer<String> single = new RingBuffer<>(1);
+
+        single.add("a");
+        single.add("b");
+
+        assertEquals(Collections.singletonList("b"), single.snapshot());
+    }
+
+    @Test
+    public void testSnapshotIsCopy() throws Exception {
+        ringBuffer.add("a");
+
+        ringBuffer.snapshot().clear();
+
+        assertEquals(Collections.singletonList("a"), ringBuffer.snapshot());
+    }
+}
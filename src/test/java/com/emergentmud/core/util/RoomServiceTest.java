@@ -27,6 +27,8 @@ import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.util.List;
+
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
@@ -111,4 +113,41 @@ public class RoomServiceTest {
         assertTrue(roomService.isWithinDistance(origin, near, 2));
         assertFalse(roomService.isWithinDistance(origin, near, 1));
     }
+
+    @Test
+    public void testFindOccupiedWithinDistance() throws Exception {
+        Room near = createRoom(3L, -2L, 0L);
+        Room edge = createRoom(0L, 0L, -7L);
+        Room far = createRoom(5L, 5L, 5L);
+
+        roomService.occupy(near);
+        roomService.occupy(edge);
+        roomService.occupy(far);
+
+        List<Room> found = roomService.findOccupiedWithinDistance(origin, 7);
+
+        assertEquals(2, found.size());
+        assertTrue(found.contains(near));
+        assertTrue(found.contains(edge));
+    }
+
+    @Test
+    public void testVacate() throws Exception {
+        Room near = createRoom(1L, 1L, 1L);
+
+        roomService.occupy(near);
+        roomService.vacate(createRoom(1L, 1L, 1L));
+
+        assertTrue(roomService.findOccupiedWithinDistance(origin, 7).isEmpty());
+    }
+
+    private Room createRoom(long x, long y, long z) {
+        Room room = mock(Room.class);
+
+        when(room.getX()).thenReturn(x);
+        when(room.getY()).thenReturn(y);
+        when(room.getZ()).thenReturn(z);
+
+        return room;
+    }
 }
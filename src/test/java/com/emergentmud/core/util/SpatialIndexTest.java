@@ -0,0 +1,121 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.util;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SpatialIndexTest {
+    private SpatialIndex<String> index;
+
+    @Before
+    public void setUp() throws Exception {
+        index = new SpatialIndex<>();
+    }
+
+    @Test
+    public void testEmpty() throws Exception {
+        assertTrue(index.findWithin(0L, 0L, 0L, 10L).isEmpty());
+    }
+
+    @Test
+    public void testFindWithin() throws Exception {
+        index.put(0L, 0L, 0L, "origin");
+        index.put(3L, 4L, 0L, "five");
+        index.put(3L, 4L, 1L, "outside");
+
+        List<String> found = index.findWithin(0L, 0L, 0L, 5L);
+
+        assertEquals(2, found.size());
+        assertTrue(found.containsAll(Arrays.asList("origin", "five")));
+    }
+
+    @Test
+    public void testFindAcrossCells() throws Exception {
+        long edge = 1L << SpatialIndex.CELL_BITS;
+
+        index.put(edge - 1, 0L, 0L, "left");
+        index.put(edge, 0L, 0L, "right");
+        index.put(-1L, -1L, -1L, "negative");
+
+        List<String> found = index.findWithin(edge, 0L, 0L, 1L);
+
+        assertEquals(2, found.size());
+        assertTrue(found.containsAll(Arrays.asList("left", "right")));
+        assertEquals(Collections.singletonList("negative"), index.findWithin(-2L, -2L, -2L, 2L));
+    }
+
+    @Test
+    public void testFindWithLargeRadius() throws Exception {
+        index.put(1000L, 0L, 0L, "east");
+        index.put(-1000L, 0L, 0L, "west");
+        index.put(0L, 2000L, 0L, "north");
+
+        List<String> found = index.findWithin(0L, 0L, 0L, 1000L);
+
+        assertEquals(2, found.size());
+        assertTrue(found.containsAll(Arrays.asList("east", "west")));
+    }
+
+    @Test
+    public void testFindInCrowdedIndex() throws Exception {
+        for (long x = -10; x <= 10; x++) {
+            for (long y = -10; y <= 10; y++) {
+                index.put(x * 32L, y * 32L, 0L, x + "," + y);
+            }
+        }
+
+        index.put(33L, 31L, 0L, "near");
+
+        List<String> found = index.findWithin(32L, 32L, 0L, 2L);
+
+        assertEquals(2, found.size());
+        assertTrue(found.containsAll(Arrays.asList("1,1", "near")));
+    }
+
+    @Test
+    public void testPutReplaces() throws Exception {
+        index.put(1L, 2L, 3L, "first");
+        index.put(1L, 2L, 3L, "second");
+
+        assertEquals(Collections.singletonList("second"), index.findWithin(1L, 2L, 3L, 0L));
+    }
+
+    @Test
+    public void testRemove() throws Exception {
+        index.put(1L, 2L, 3L, "first");
+        index.put(1L, 2L, 4L, "second");
+        index.remove(1L, 2L, 3L);
+
+        assertEquals(Collections.singletonList("second"), index.findWithin(1L, 2L, 3L, 1L));
+
+        index.remove(1L, 2L, 4L);
+        index.remove(1L, 2L, 4L);
+
+        assertTrue(index.findWithin(1L, 2L, 3L, 1L).isEmpty());
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.util;
+
+import com.emergentmud.core.model.TickPhase;
+import com.emergentmud.core.service.TickService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.actuate.metrics.CounterService;
+import org.springframework.boot.actuate.metrics.GaugeService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class TickServiceTest {
+    @Mock
+    private ScheduledExecutorService tickExecutor;
+
+    @Mock
+    private CounterService counterService;
+
+    @Mock
+    private GaugeService gaugeService;
+
+    private List<String> results = new ArrayList<>();
+
+    private TickService tickService;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+
+        tickService = new TickService(tickExecutor, 100L, counterService, gaugeService);
+    }
+
+    @Test
+    public void testStart() throws Exception {
+        tickService.start();
+
+        verify(tickExecutor).scheduleAtFixedRate(any(Runnable.class), eq(100L), eq(100L), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testPhaseOrder() throws Exception {
+        tickService.enlist(TickPhase.OUTPUT, () -> results.add("output"));
+        tickService.enlist(TickPhase.SIMULATION, () -> results.add("simulation"));
+
+        tickService.tick();
+
+        assertEquals(2, results.size());
+        assertEquals("simulation", results.get(0));
+        assertEquals("output", results.get(1));
+        assertEquals(1, tickService.getTickCount());
+    }
+
+    @Test
+    public void testEnlistedRunOnce() throws Exception {
+        tickService.enlist(TickPhase.SIMULATION, () -> results.add("once"));
+
+        tickService.tick();
+        tickService.tick();
+
+        assertEquals(1, results.size());
+    }
+
+    @Test
+    public void testEnlistedDuringPhaseRunsNextTick() throws Exception {
+        tickService.enlist(TickPhase.SIMULATION, () -> {
+            results.add("first");
+            tickService.enlist(TickPhase.SIMULATION, () -> results.add("second"));
+        });
+
+        tickService.tick();
+
+        assertEquals(1, results.size());
+
+        tickService.tick();
+
+        assertEquals(2, results.size());
+        assertEquals("second", results.get(1));
+    }
+
+    @Test
+    public void testRegisteredRunEveryTick() throws Exception {
+        Runnable task = () -> results.add("tick");
+
+        tickService.register(TickPhase.SIMULATION, task);
+
+        tickService.tick();
+        tickService.tick();
+
+        assertEquals(2, results.size());
+
+        tickService.unregister(TickPhase.SIMULATION, task);
+        tickService.tick();
+
+        assertEquals(2, results.size());
+    }
+
+    @Test
+    public void testFailedTaskDoesNotStopTick() throws Exception {
+        tickService.enlist(TickPhase.SIMULATION, () -> {
+            throw new IllegalStateException("Test exception.");
+        });
+        tickService.enlist(TickPhase.SIMULATION, () -> results.add("after"));
+
+        tickService.tick();
+
+        assertEquals(1, results.size());
+        verify(counterService).increment(eq("tick.failed"));
+    }
+
+    @Test
+    public void testPhaseTiming() throws Exception {
+        tickService.tick();
+
+        for (TickPhase phase : TickPhase.values()) {
+            verify(gaugeService).submit(eq("tick.phase." + phase.name().toLowerCase()), anyDouble());
+        }
+
+        verify(gaugeService).submit(eq("tick.duration"), anyDouble());
+        verify(counterService).increment(eq("tick.count"));
+        verify(counterService, never()).increment(eq("tick.overrun"));
+    }
+
+    @Test
+    public void testOverrun() throws Exception {
+        tickService = new TickService(tickExecutor, 0L, counterService, gaugeService);
+        tickService.enlist(TickPhase.SIMULATION, () -> {
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        tickService.tick();
+
+        assertTrue(tickService.getLastDuration() > 0);
+        assertTrue(tickService.getPhaseDuration(TickPhase.SIMULATION) > 0);
+        verify(counterService).increment(eq("tick.overrun"));
+    }
+}
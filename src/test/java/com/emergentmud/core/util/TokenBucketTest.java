@@ -0,0 +1,78 @@
+/*
+ * EmergentMUD - A modern MUD with a procedurally generated world.
+ * Copyright (C) 2016-2017 Peter Keeler
+ *
+ * This file is part of EmergentMUD.
+ *
+ * EmergentMUD is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * EmergentMUD is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.emergentmud.core.util;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class TokenBucketTest {
+    private long now;
+    private TokenBucket tokenBucket;
+
+    @Before
+    public void setUp() throws Exception {
+        now = 0;
+        tokenBucket = new TokenBucket(2.0, 3, () -> now);
+    }
+
+    @Test
+    public void testStartsFull() throws Exception {
+        assertEquals(3, tokenBucket.getAvailable());
+    }
+
+    @Test
+    public void testBurst() throws Exception {
+        assertTrue(tokenBucket.tryConsume());
+        assertTrue(tokenBucket.tryConsume());
+        assertTrue(tokenBucket.tryConsume());
+        assertFalse(tokenBucket.tryConsume());
+    }
+
+    @Test
+    public void testConsumeMany() throws Exception {
+        assertFalse(tokenBucket.tryConsume(4));
+        assertTrue(tokenBucket.tryConsume(3));
+        assertFalse(tokenBucket.tryConsume());
+    }
+
+    @Test
+    public void testRefill() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            tokenBucket.tryConsume();
+        }
+
+        now += TimeUnit.MILLISECONDS.toNanos(500);
+
+        assertTrue(tokenBucket.tryConsume());
+        assertFalse(tokenBucket.tryConsume());
+    }
+
+    @Test
+    public void testRefillCappedAtBurst() throws Exception {
+        now += TimeUnit.MINUTES.toNanos(1);
+
+        assertEquals(3, tokenBucket.getAvailable());
+    }
+}